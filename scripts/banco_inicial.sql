@@ -59,6 +59,9 @@ CREATE TABLE INVESTIMENTO (
 -- Índice para a coluna CPF na tabela USUARIO, para otimizar buscas
 CREATE INDEX idx_usuario_cpf ON USUARIO (cpf);
 
+-- Os demais índices são criados pelas migrações em src/main/resources/db/migracao,
+-- aplicadas automaticamente quando a aplicação sobe (tabela SCHEMA_VERSAO).
+
 -- Inserção de um gerente inicial (CPF: 00000000000 - SENHA: admin)
 INSERT INTO USUARIO (nome, cpf, login, senha, tipo, cargo) 
 VALUES ('Gerente Chefe', '00000000000', 'gerente', 'admin', 'GERENTE', 'Gerente Geral');
\ No newline at end of file
@@ -0,0 +1,44 @@
+package br.uff.ic.grupo6.banco.benchmark;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.service.ClienteService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validações do cadastro de cliente (CPF, e-mail, idade, renda, força da senha).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClienteServiceBenchmark {
+
+    private ClienteService service;
+    private Cliente novoCliente;
+
+    @Setup
+    public void preparar() {
+        service = new ClienteService(new DaosEmMemoria.UsuarioDAOEmMemoria());
+        novoCliente = DaosEmMemoria.novoCliente(2, "55566677788", "0001", "100002", 0);
+    }
+
+    @Benchmark
+    public Cliente cadastrarNovoCliente() throws Exception {
+        service.cadastrarNovoCliente(novoCliente, DaosEmMemoria.SENHA_CLIENTE);
+        return novoCliente;
+    }
+}
@@ -0,0 +1,101 @@
+package br.uff.ic.grupo6.banco.benchmark;
+
+import br.uff.ic.grupo6.banco.dao.ContaDAO;
+import br.uff.ic.grupo6.banco.dao.UsuarioDAO;
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Investimento;
+import br.uff.ic.grupo6.banco.model.Transacao;
+import br.uff.ic.grupo6.banco.model.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DAOs que guardam os dados em mapas em vez do MySQL, para que os benchmarks
+ * meçam só as regras da camada de serviço. As escritas não alteram os mapas,
+ * então o estado é o mesmo em todas as iterações.
+ */
+final class DaosEmMemoria {
+
+    static final String CPF_CLIENTE = "11122233344";
+    static final String SENHA_CLIENTE = "senha1234";
+
+    private DaosEmMemoria() {
+    }
+
+    static Cliente novoCliente(int id, String cpf, String agencia, String numero, double saldo) {
+        Cliente cliente = new Cliente(cpf, SENHA_CLIENTE, "Cliente " + id, cpf);
+        cliente.setId(id);
+        cliente.setEmail("cliente" + id + "@exemplo.com");
+        cliente.setDataNascimento(LocalDate.of(1990, 1, 1));
+        cliente.setRenda(5000.0);
+        Conta conta = new Conta(agencia, numero, saldo);
+        conta.setId(id);
+        cliente.setConta(conta);
+        return cliente;
+    }
+
+    static class UsuarioDAOEmMemoria extends UsuarioDAO {
+
+        private final Map<String, Usuario> porCpf = new HashMap<>();
+        private final Map<Integer, Cliente> porIdConta = new HashMap<>();
+
+        void adicionar(Cliente cliente) {
+            porCpf.put(cliente.getCpf(), cliente);
+            porIdConta.put(cliente.getConta().getId(), cliente);
+        }
+
+        @Override
+        public Usuario buscarPorCpf(String cpf) {
+            return porCpf.get(cpf);
+        }
+
+        @Override
+        public Cliente buscarClientePorIdConta(int idConta) {
+            return porIdConta.get(idConta);
+        }
+
+        @Override
+        public void cadastrarCliente(Cliente cliente) {
+            // Não guarda: o benchmark cadastra o mesmo cliente em toda iteração
+        }
+    }
+
+    static class ContaDAOEmMemoria extends ContaDAO {
+
+        private final Map<String, Conta> porNumero = new HashMap<>();
+
+        void adicionar(Conta conta) {
+            porNumero.put(conta.getAgencia() + "/" + conta.getNumero(), conta);
+        }
+
+        @Override
+        public Conta buscarContaPorAgenciaENumeroDaConta(String agencia, String numeroConta) {
+            return porNumero.get(agencia + "/" + numeroConta);
+        }
+
+        @Override
+        public Transacao realizarSaque(int idConta, double valor) {
+            Transacao transacao = new Transacao();
+            transacao.setIdConta(idConta);
+            transacao.setTipo("SAQUE");
+            transacao.setValor(BigDecimal.valueOf(valor));
+            transacao.setDataTransacao(LocalDateTime.now());
+            return transacao;
+        }
+
+        @Override
+        public Investimento realizarInvestimento(int idConta, String tipoInvestimento, double valor) {
+            Investimento investimento = new Investimento();
+            investimento.setIdConta(idConta);
+            investimento.setTipoInvestimento(tipoInvestimento);
+            investimento.setValorAplicado(BigDecimal.valueOf(valor));
+            investimento.setDataAplicacao(LocalDateTime.now());
+            return investimento;
+        }
+    }
+}
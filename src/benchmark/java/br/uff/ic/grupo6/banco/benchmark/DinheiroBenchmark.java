@@ -0,0 +1,57 @@
+package br.uff.ic.grupo6.banco.benchmark;
+
+import br.uff.ic.grupo6.banco.model.Dinheiro;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras do saque e valor gravado no banco: em double e BigDecimal (como era)
+ * e em centavos (como está no TransacaoService e no ContaDAO).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DinheiroBenchmark {
+
+    private double valorSaque = 150;
+    private double saldo = 1234.56;
+    private long centavosSaldo = 1234_56;
+
+    @Benchmark
+    public boolean validarSaqueDouble() {
+        return valorSaque > 0 && valorSaque <= 2000 && valorSaque % 10 == 0 && valorSaque >= 10.00
+                && saldo >= valorSaque;
+    }
+
+    @Benchmark
+    public boolean validarSaqueCentavos() {
+        long centavosSaque = Dinheiro.centavos(valorSaque);
+        return centavosSaque > 0 && centavosSaque <= 2000_00 && centavosSaque % 10_00 == 0
+                && centavosSaque >= 10_00 && centavosSaldo >= centavosSaque;
+    }
+
+    @Benchmark
+    public BigDecimal valorParaGravarDouble() {
+        return BigDecimal.valueOf(saldo - valorSaque).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal valorParaGravarCentavos() {
+        return Dinheiro.decimal(centavosSaldo - Dinheiro.centavos(valorSaque));
+    }
+}
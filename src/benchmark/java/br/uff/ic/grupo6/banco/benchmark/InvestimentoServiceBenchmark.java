@@ -0,0 +1,42 @@
+package br.uff.ic.grupo6.banco.benchmark;
+
+import br.uff.ic.grupo6.banco.model.Investimento;
+import br.uff.ic.grupo6.banco.service.InvestimentoService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplicação em investimento (validação do tipo por expressão regular e
+ * valores mínimos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvestimentoServiceBenchmark {
+
+    private InvestimentoService service;
+
+    @Setup
+    public void preparar() {
+        service = new InvestimentoService(new DaosEmMemoria.ContaDAOEmMemoria(), null);
+    }
+
+    @Benchmark
+    public Investimento realizarInvestimento() throws Exception {
+        return service.realizarInvestimento(1, "CDB", 500, 10000);
+    }
+}
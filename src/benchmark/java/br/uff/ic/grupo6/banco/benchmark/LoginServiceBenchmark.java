@@ -0,0 +1,54 @@
+package br.uff.ic.grupo6.banco.benchmark;
+
+import br.uff.ic.grupo6.banco.model.Usuario;
+import br.uff.ic.grupo6.banco.service.LoginService;
+import br.uff.ic.grupo6.banco.service.exception.LoginException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login com sucesso e com senha errada (o caminho de erro cria uma exceção).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginServiceBenchmark {
+
+    private LoginService service;
+
+    @Setup
+    public void preparar() {
+        DaosEmMemoria.UsuarioDAOEmMemoria usuarioDAO = new DaosEmMemoria.UsuarioDAOEmMemoria();
+        usuarioDAO.adicionar(DaosEmMemoria.novoCliente(1, DaosEmMemoria.CPF_CLIENTE, "0001", "100001", 1000));
+        service = new LoginService(usuarioDAO);
+    }
+
+    @Benchmark
+    public Usuario autenticar() throws Exception {
+        return service.autenticar(DaosEmMemoria.CPF_CLIENTE, DaosEmMemoria.SENHA_CLIENTE);
+    }
+
+    @Benchmark
+    public String autenticarComSenhaErrada() throws Exception {
+        try {
+            service.autenticar(DaosEmMemoria.CPF_CLIENTE, "errada");
+            return null;
+        } catch (LoginException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.uff.ic.grupo6.banco.benchmark;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Transacao;
+import br.uff.ic.grupo6.banco.service.TransacaoService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saque e preparação de transferência: validações e montagem do comprovante
+ * ou dos dados da confirmação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransacaoServiceBenchmark {
+
+    private TransacaoService service;
+    private Cliente origem;
+
+    @Setup
+    public void preparar() {
+        origem = DaosEmMemoria.novoCliente(1, DaosEmMemoria.CPF_CLIENTE, "0001", "100001", 100000);
+        Cliente destino = DaosEmMemoria.novoCliente(2, "55566677788", "0001", "100002", 0);
+
+        DaosEmMemoria.UsuarioDAOEmMemoria usuarioDAO = new DaosEmMemoria.UsuarioDAOEmMemoria();
+        usuarioDAO.adicionar(origem);
+        usuarioDAO.adicionar(destino);
+        DaosEmMemoria.ContaDAOEmMemoria contaDAO = new DaosEmMemoria.ContaDAOEmMemoria();
+        contaDAO.adicionar(origem.getConta());
+        contaDAO.adicionar(destino.getConta());
+
+        service = new TransacaoService(contaDAO, null, usuarioDAO);
+    }
+
+    @Benchmark
+    public Transacao realizarSaque() throws Exception {
+        return service.realizarSaque(origem.getConta(), 100);
+    }
+
+    @Benchmark
+    public Map<String, Object> prepararTransferencia() throws Exception {
+        return service.prepararTransferencia(origem, "0001", "100002", 250);
+    }
+}
@@ -0,0 +1,74 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.dao.AgrupadorDepositos;
+import br.uff.ic.grupo6.banco.dao.ConexaoDB;
+import br.uff.ic.grupo6.banco.dao.IndiceBuscaClientes;
+import br.uff.ic.grupo6.banco.dao.MigradorEsquema;
+import br.uff.ic.grupo6.banco.dao.OperacaoIdempotenteDAO;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trata o ciclo de vida da aplicação (deploy/undeploy) no servidor.
+ */
+public class AplicacaoListener implements ServletContextListener {
+
+	private ScheduledExecutorService limpeza;
+
+	@Override
+	public void contextInitialized(ServletContextEvent sce) {
+		// Atualiza o esquema do banco (pode ser desligado com -Dbanco.migracao.habilitada=false)
+		if (Boolean.parseBoolean(System.getProperty("banco.migracao.habilitada", "true"))) {
+			try {
+				int aplicadas = new MigradorEsquema(sce.getServletContext()::log).migrar();
+				sce.getServletContext().log("Migrações do esquema aplicadas: " + aplicadas);
+			} catch (SQLException e) {
+				// Sem banco a aplicação ainda sobe; as telas mostram o erro de conexão
+				sce.getServletContext().log("Falha ao migrar o esquema do banco", e);
+			}
+		}
+		// Apaga as chaves de idempotência que já não podem ser reenviadas
+		// (-Dbanco.idempotencia.retencaoHoras), agora e depois de hora em hora
+		limpeza = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "banco-limpeza-idempotencia");
+			thread.setDaemon(true);
+			return thread;
+		});
+		limpeza.scheduleWithFixedDelay(() -> removerChavesAntigas(sce.getServletContext()), 0, 1, TimeUnit.HOURS);
+		// Monta o índice da busca de clientes do gerente antes da primeira busca
+		try {
+			IndiceBuscaClientes.getInstancia().carregar();
+			sce.getServletContext().log("Clientes no índice de busca: " + IndiceBuscaClientes.getInstancia().getTamanho());
+		} catch (SQLException e) {
+			sce.getServletContext().log("Falha ao carregar o índice de busca de clientes", e);
+		}
+	}
+
+	private static void removerChavesAntigas(ServletContext contexto) {
+		try {
+			int removidas = new OperacaoIdempotenteDAO().removerAntigas();
+			contexto.log("Chaves de idempotência antigas removidas: " + removidas);
+		} catch (SQLException | RuntimeException e) {
+			// Uma exceção aqui cancelaria as próximas execuções
+			contexto.log("Falha ao remover as chaves de idempotência antigas", e);
+		}
+	}
+
+	@Override
+	public void contextDestroyed(ServletContextEvent sce) {
+		if (limpeza != null) {
+			limpeza.shutdownNow();
+		}
+		// Para as threads dos servlets assíncronos antes de fechar as conexões
+		ProcessamentoAssincrono.encerrar();
+		// Grava os depósitos que ainda estão na fila do lote (-Dbanco.deposito.agrupar)
+		AgrupadorDepositos.encerrarInstancia();
+		// Fecha as conexões do pool para não deixá-las abertas após o undeploy
+		ConexaoDB.encerrarPool();
+	}
+}
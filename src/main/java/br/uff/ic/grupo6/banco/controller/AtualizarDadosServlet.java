@@ -1,7 +1,7 @@
 package br.uff.ic.grupo6.banco.controller;
 
 import br.uff.ic.grupo6.banco.model.Cliente;
-import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.service.ClienteService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 import jakarta.servlet.ServletException;
@@ -26,13 +26,27 @@ public class AtualizarDadosServlet extends HttpServlet {
 
 		request.setCharacterEncoding("UTF-8");
 		HttpSession sessao = request.getSession(false);
+		SessaoUsuario usuario = UsuarioAtual.getCliente(sessao);
 
-		if (sessao == null || !(sessao.getAttribute("usuarioLogado") instanceof Cliente)) {
+		if (usuario == null) {
 			response.sendRedirect("login.jsp");
 			return;
 		}
 
-		Cliente clienteDaSessao = (Cliente) sessao.getAttribute("usuarioLogado");
+		// Cadastro atual (com a senha, para conferir a senha atual)
+		Cliente clienteDaSessao;
+		try {
+			clienteDaSessao = UsuarioAtual.carregarCliente(request, usuario, clienteService);
+		} catch (SQLException e) {
+			e.printStackTrace();
+			String msg = "Nao foi possivel atualizar os dados. Tente novamente.";
+			response.sendRedirect("DadosCadastraisServlet?erro=" + URLEncoder.encode(msg, StandardCharsets.UTF_8));
+			return;
+		}
+		if (clienteDaSessao == null) {
+			response.sendRedirect("login.jsp");
+			return;
+		}
 		int idCliente = clienteDaSessao.getId();
 		String mensagemSucesso = "Dados atualizados com sucesso!";
 
@@ -47,7 +61,7 @@ public class AtualizarDadosServlet extends HttpServlet {
 				clienteService.atualizarSenha(idCliente, senhaAtual, novaSenha, confirmarNovaSenha,
 						clienteDaSessao.getSenha());
 
-				// Atualiza também o objeto na sessão
+				// Atualiza também a cópia carregada, usada logo abaixo
 				clienteDaSessao.setSenha(novaSenha);
 				mensagemSucesso += " Sua senha tambem foi alterada.";
 
@@ -85,8 +99,8 @@ public class AtualizarDadosServlet extends HttpServlet {
 		try {
 			clienteService.atualizarCliente(clienteParaAtualizar);
 
-			// 3. CONTROLLER: Atualiza sessão e redireciona para a VIEW
-			sessao.setAttribute("usuarioLogado", clienteParaAtualizar);
+			// 3. CONTROLLER: Atualiza sessão (o nome pode ter mudado) e redireciona para a VIEW
+			UsuarioAtual.atualizar(sessao, clienteParaAtualizar);
 			response.sendRedirect("PerfilServlet?msg=" + URLEncoder.encode(mensagemSucesso, StandardCharsets.UTF_8));
 
 		} catch (SQLException e) {
@@ -1,12 +1,12 @@
 package br.uff.ic.grupo6.banco.controller;
 
 import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.service.ClienteService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -19,18 +19,16 @@ public class DadosCadastraisServlet extends HttpServlet {
 	protected void doGet(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
 
-		HttpSession sessao = request.getSession(false);
-		if (sessao == null || !(sessao.getAttribute("usuarioLogado") instanceof Cliente)) {
+		// 1. CONTROLLER: Pega o usuário da sessão
+		SessaoUsuario usuario = UsuarioAtual.getCliente(request.getSession(false));
+		if (usuario == null) {
 			response.sendRedirect("login.jsp");
 			return;
 		}
 
-		// 1. CONTROLLER: Pega dados da sessão
-		Cliente clienteDaSessao = (Cliente) sessao.getAttribute("usuarioLogado");
-
 		try {
 			// 2. CONTROLLER: Chama o SERVIÇO para buscar dados atualizados
-			Cliente clienteAtualizado = clienteService.buscarClientePorCpf(clienteDaSessao.getCpf());
+			Cliente clienteAtualizado = UsuarioAtual.carregarCliente(request, usuario, clienteService);
 
 			// 3. CONTROLLER: Prepara e encaminha para a VIEW
 			if (clienteAtualizado != null) {
@@ -1,7 +1,6 @@
 package br.uff.ic.grupo6.banco.controller;
 
-import br.uff.ic.grupo6.banco.model.Cliente;
-import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.model.Transacao;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
@@ -23,8 +22,14 @@ public class DepositoServlet extends HttpServlet {
 	@Override
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
+		// Roda no pool de threads do banco, liberando a thread do container
+		ProcessamentoAssincrono.executar(request, response, this::processarDeposito);
+	}
+
+	private void processarDeposito(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
 		HttpSession sessao = request.getSession();
-		Cliente cliente = (Cliente) sessao.getAttribute("usuarioLogado");
+		SessaoUsuario cliente = UsuarioAtual.getCliente(sessao);
 
 		if (cliente == null) {
 			response.sendRedirect("login.jsp");
@@ -34,13 +39,14 @@ public class DepositoServlet extends HttpServlet {
 		try {
 			// 1. CONTROLLER: Recebe dados
 			double valor = Double.parseDouble(request.getParameter("valor"));
-			Conta contaDoCliente = cliente.getConta();
 
-			// 2. CONTROLLER: Chama o SERVIÇO
-			Transacao transacao = transacaoService.realizarDeposito(contaDoCliente.getId(), valor);
+			// 2. CONTROLLER: Chama o SERVIÇO (com a chave do formulário, um reenvio não deposita de novo)
+			String chave = request.getParameter("chaveIdempotencia");
+			Transacao transacao = chave != null
+					? transacaoService.realizarDeposito(cliente.getIdConta(), valor, chave)
+					: transacaoService.realizarDeposito(cliente.getIdConta(), valor);
 
-			// 3. CONTROLLER: Atualiza dados da sessão e encaminha para VIEW
-			contaDoCliente.depositar(valor); // Atualiza o objeto na sessão
+			// 3. CONTROLLER: Encaminha para a VIEW (o comprovante carrega o saldo novo)
 			request.setAttribute("comprovante", transacao);
 			request.getRequestDispatcher("comprovanteDeposito.jsp").forward(request, response);
 
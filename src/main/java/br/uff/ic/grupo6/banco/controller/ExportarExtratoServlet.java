@@ -0,0 +1,162 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import br.uff.ic.grupo6.banco.service.ClienteService;
+import br.uff.ic.grupo6.banco.service.TransacaoService;
+import br.uff.ic.grupo6.banco.service.exportacao.EscritorExtrato;
+import br.uff.ic.grupo6.banco.service.exportacao.FormatoExtrato;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Download do extrato completo em CSV ou OFX
+ * (ExportarExtratoServlet?formato=csv&dataInicio=...&dataFim=...). As linhas
+ * são escritas na resposta conforme chegam do banco; se o cliente aceitar
+ * gzip, a resposta vai compactada.
+ */
+public class ExportarExtratoServlet extends HttpServlet {
+
+	private static final int TAMANHO_BUFFER = 8192;
+
+	private final TransacaoService transacaoService;
+	private final ClienteService clienteService = new ClienteService();
+
+	/**
+	 * Construtor padrão, usado pelo Tomcat (produção). Inicializa o serviço real.
+	 */
+	public ExportarExtratoServlet() {
+		this.transacaoService = new TransacaoService();
+	}
+
+	/**
+	 * Construtor para testes. Permite a injeção de um mock do serviço.
+	 *
+	 * @param transacaoService Uma instância (real ou mock) de TransacaoService.
+	 */
+	public ExportarExtratoServlet(TransacaoService transacaoService) {
+		this.transacaoService = transacaoService;
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		HttpSession session = request.getSession();
+		SessaoUsuario usuario = UsuarioAtual.getCliente(session);
+
+		if (usuario == null) {
+			response.sendRedirect("login.jsp?erro=Acesso não autorizado.");
+			return;
+		}
+
+		// 1. CONTROLLER: Recebe e valida os dados
+		FormatoExtrato formato = FormatoExtrato.de(request.getParameter("formato"));
+		if (formato == null) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Formato de exportação inválido. Use csv ou ofx.");
+			return;
+		}
+		LocalDate dataInicio;
+		LocalDate dataFim;
+		try {
+			dataInicio = lerData(request.getParameter("dataInicio"));
+			dataFim = lerData(request.getParameter("dataFim"));
+		} catch (DateTimeParseException e) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Formato de data inválido. Use AAAA-MM-DD.");
+			return;
+		}
+
+		// 2. CONTROLLER: Carrega a conta (número e saldo vão no arquivo)
+		Conta conta;
+		try {
+			Cliente clienteLogado = UsuarioAtual.carregarCliente(request, usuario, clienteService);
+			conta = clienteLogado != null ? clienteLogado.getConta() : null;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Ocorreu um erro ao exportar o extrato.");
+			return;
+		}
+		if (conta == null) {
+			response.sendRedirect("login.jsp?erro=Acesso não autorizado.");
+			return;
+		}
+
+		// 3. CONTROLLER: Prepara a resposta antes do primeiro byte
+		boolean gzip = aceitaGzip(request);
+		response.setContentType(formato.getTipoConteudo());
+		response.setHeader("Content-Disposition",
+				"attachment; filename=\"extrato-" + conta.getNumero() + "." + formato.getExtensao() + "\"");
+		response.setHeader("Cache-Control", "no-store");
+		response.addHeader("Vary", "Accept-Encoding");
+		if (gzip) {
+			response.setHeader("Content-Encoding", "gzip");
+		}
+
+		OutputStream corpo = response.getOutputStream();
+		SaidaGzip compactada = gzip ? new SaidaGzip(corpo) : null;
+		Writer saida = new BufferedWriter(
+				new OutputStreamWriter(compactada != null ? compactada : corpo, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+		EscritorExtrato escritor = formato.criarEscritor(saida);
+
+		// 4. CONTROLLER: Chama o SERVIÇO, que escreve direto na resposta
+		boolean concluido = false;
+		try {
+			transacaoService.exportarExtrato(conta, dataInicio, dataFim, escritor);
+			saida.close();
+			concluido = true;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			if (!response.isCommitted()) {
+				response.reset();
+				response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+						"Ocorreu um erro ao exportar o extrato.");
+			}
+			// Se parte do arquivo já foi enviada, não há como avisar: a conexão é
+			// encerrada e o download fica incompleto
+		} finally {
+			if (!concluido && compactada != null) {
+				// Libera o compactador sem escrever o final do gzip, para o
+				// arquivo cortado não parecer completo
+				compactada.descartar();
+			}
+		}
+	}
+
+	private static LocalDate lerData(String valor) {
+		return valor != null && !valor.isEmpty() ? LocalDate.parse(valor) : null;
+	}
+
+	private static boolean aceitaGzip(HttpServletRequest request) {
+		String aceita = request.getHeader("Accept-Encoding");
+		return aceita != null && aceita.toLowerCase().contains("gzip");
+	}
+
+	/**
+	 * GZIPOutputStream que pode ser abandonado no meio: libera a memória
+	 * nativa do compactador sem gravar o final do arquivo.
+	 */
+	private static final class SaidaGzip extends GZIPOutputStream {
+
+		SaidaGzip(OutputStream saida) throws IOException {
+			super(saida, TAMANHO_BUFFER);
+		}
+
+		void descartar() {
+			def.end();
+		}
+	}
+}
@@ -1,8 +1,10 @@
 package br.uff.ic.grupo6.banco.controller;
 
-import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Pagina;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.model.Transacao;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
+import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,16 +15,22 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
-import java.util.List;
 
 public class ExtratoServlet extends HttpServlet {
 
 	private final TransacaoService transacaoService = new TransacaoService();
 
+	@Override
 	protected void doGet(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
+		// Roda no pool de threads do banco, liberando a thread do container
+		ProcessamentoAssincrono.executar(request, response, this::processarExtrato);
+	}
+
+	private void processarExtrato(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
 		HttpSession session = request.getSession();
-		Cliente clienteLogado = (Cliente) session.getAttribute("usuarioLogado");
+		SessaoUsuario clienteLogado = UsuarioAtual.getCliente(session);
 
 		if (clienteLogado == null) {
 			response.sendRedirect("login.jsp?erro=Acesso não autorizado.");
@@ -30,11 +38,21 @@ public class ExtratoServlet extends HttpServlet {
 		}
 
 		// 1. CONTROLLER: Recebe dados
-		int idConta = clienteLogado.getConta().getId();
+		int idConta = clienteLogado.getIdConta();
 		LocalDate dataInicio = null;
 		LocalDate dataFim = null;
 		String dataInicioStr = request.getParameter("dataInicio");
 		String dataFimStr = request.getParameter("dataFim");
+		String cursor = request.getParameter("cursor");
+		int tamanhoPagina = TransacaoService.TAMANHO_PAGINA_PADRAO;
+		String tamanhoStr = request.getParameter("tamanho");
+		if (tamanhoStr != null && !tamanhoStr.isEmpty()) {
+			try {
+				tamanhoPagina = Integer.parseInt(tamanhoStr);
+			} catch (NumberFormatException e) {
+				// Mantém o tamanho padrão
+			}
+		}
 
 		try {
 			if (dataInicioStr != null && !dataInicioStr.isEmpty()) {
@@ -49,11 +67,16 @@ public class ExtratoServlet extends HttpServlet {
 
 		// 2. CONTROLLER: Chama o SERVIÇO
 		try {
-			List<Transacao> transacoes = transacaoService.buscarExtrato(idConta, dataInicio, dataFim);
+			Pagina<Transacao> pagina = transacaoService.buscarExtrato(idConta, dataInicio, dataFim, cursor,
+					tamanhoPagina);
 
 			// 3. CONTROLLER: Prepara a VIEW
-			request.setAttribute("listaTransacoes", transacoes);
+			request.setAttribute("listaTransacoes", pagina.getItens());
+			request.setAttribute("proximoCursor", pagina.getProximoCursor());
 
+		} catch (ValidationException e) {
+			// 3. CONTROLLER: Cursor de página inválido
+			request.setAttribute("erro", e.getMessage());
 		} catch (SQLException e) {
 			// 3. CONTROLLER: Trata erro do SERVIÇO
 			e.printStackTrace();
@@ -63,6 +86,7 @@ public class ExtratoServlet extends HttpServlet {
 		// 4. CONTROLLER: Encaminha para a VIEW
 		request.setAttribute("dataInicio", dataInicioStr);
 		request.setAttribute("dataFim", dataFimStr);
+		request.setAttribute("paginaAtual", cursor);
 		request.getRequestDispatcher("extrato.jsp").forward(request, response);
 	}
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package br.uff.ic.grupo6.banco.controller;
 
-import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.model.Transacao;
+import br.uff.ic.grupo6.banco.model.TransferenciaPendente;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
+import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +12,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -20,33 +24,39 @@ public class FinalizarTransferenciaServlet extends HttpServlet {
 	@Override
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
+		// Roda no pool de threads do banco, liberando a thread do container
+		ProcessamentoAssincrono.executar(request, response, this::processarTransferencia);
+	}
+
+	private void processarTransferencia(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
 		HttpSession sessao = request.getSession();
-		Cliente cliente = (Cliente) sessao.getAttribute("usuarioLogado");
+		SessaoUsuario cliente = UsuarioAtual.getCliente(sessao);
 
 		if (cliente == null) {
 			response.sendRedirect("login.jsp");
 			return;
 		}
 
-		try {
-			// 1. CONTROLLER: Coleta dados
-			int idContaOrigem = Integer.parseInt(request.getParameter("idContaOrigem"));
-			int idContaDestino = Integer.parseInt(request.getParameter("idContaDestino"));
-			double valor = Double.parseDouble(request.getParameter("valor"));
-
-			// Dados para o comprovante
-			String nomeDestino = request.getParameter("nomeDestino");
-			String cpfDestino = request.getParameter("cpfDestino");
-			String agenciaDestino = request.getParameter("agenciaDestino");
-			String numeroContaDestino = request.getParameter("numeroContaDestino");
+		// 1. CONTROLLER: Recupera a transferência validada na confirmação
+		String idConfirmacao = request.getParameter("idConfirmacao");
+		TransferenciaPendente pendente = TransferenciasPendentes.da(sessao).buscar(idConfirmacao);
+		if (pendente == null || pendente.getIdContaOrigem() != cliente.getIdConta()) {
+			// Id inventado ou expirado
+			response.sendRedirect("transferencia.jsp?erro=" + URLEncoder
+					.encode("Confirmação expirada. Refaça a transferência.", StandardCharsets.UTF_8));
+			return;
+		}
 
-			// 2. CONTROLLER: Chama o SERVIÇO
-			List<Transacao> transacoes = transacaoService.realizarTransferencia(idContaOrigem, idContaDestino, valor);
+		try {
+			int idContaOrigem = pendente.getIdContaOrigem();
 
-			// 3. CONTROLLER: Atualiza sessão
-			cliente.getConta().sacar(valor);
+			// 2. CONTROLLER: Chama o SERVIÇO. O id de confirmação é a chave de
+			// idempotência: reenviar a confirmação devolve o mesmo comprovante
+			List<Transacao> transacoes = transacaoService.realizarTransferencia(idContaOrigem,
+					pendente.getIdContaDestino(), pendente.getValor(), idConfirmacao);
 
-			// 4. CONTROLLER: Prepara dados para a VIEW (comprovante)
+			// 3. CONTROLLER: Prepara dados para a VIEW (comprovante, que carrega o saldo novo)
 			Transacao comprovanteRemetente = null;
 			for (Transacao t : transacoes) {
 				if (t.getIdConta() == idContaOrigem) {
@@ -56,15 +66,19 @@ public class FinalizarTransferenciaServlet extends HttpServlet {
 			}
 
 			request.setAttribute("comprovante", comprovanteRemetente);
-			request.setAttribute("nomeDestino", nomeDestino);
-			request.setAttribute("cpfDestino", cpfDestino);
-			request.setAttribute("agenciaDestino", agenciaDestino);
-			request.setAttribute("numeroContaDestino", numeroContaDestino);
+			request.setAttribute("nomeDestino", pendente.getNomeDestino());
+			request.setAttribute("cpfDestino", pendente.getCpfDestino());
+			request.setAttribute("agenciaDestino", pendente.getAgenciaDestino());
+			request.setAttribute("numeroContaDestino", pendente.getNumeroContaDestino());
 
-			// 5. CONTROLLER: Encaminha para a VIEW
+			// 4. CONTROLLER: Encaminha para a VIEW
 			request.getRequestDispatcher("comprovanteTransferencia.jsp").forward(request, response);
 
-		} catch (NumberFormatException | SQLException e) {
+		} catch (ValidationException e) {
+			// 3. CONTROLLER: Saldo mudou entre a confirmação e a efetivação
+			response.sendRedirect(
+					"transferencia.jsp?erro=" + URLEncoder.encode(e.getMessage(), StandardCharsets.UTF_8));
+		} catch (SQLException e) {
 			// 3. CONTROLLER: Trata erro
 			e.printStackTrace();
 			response.sendRedirect("dashboard.jsp?erro=Ocorreu+um+erro+ao+finalizar+a+transferencia");
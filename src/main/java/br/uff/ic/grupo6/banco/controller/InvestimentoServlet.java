@@ -3,6 +3,8 @@ package br.uff.ic.grupo6.banco.controller;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
 import br.uff.ic.grupo6.banco.model.Investimento;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import br.uff.ic.grupo6.banco.service.ClienteService;
 import br.uff.ic.grupo6.banco.service.InvestimentoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 
@@ -20,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 public class InvestimentoServlet extends HttpServlet {
 
 	private final InvestimentoService investimentoService;
+	private final ClienteService clienteService = new ClienteService();
 
 	/**
 	 * Construtor padrão, usado pelo Tomcat (produção). Inicializa o serviço real.
@@ -43,9 +46,9 @@ public class InvestimentoServlet extends HttpServlet {
 			throws ServletException, IOException {
 
 		HttpSession session = request.getSession();
-		Cliente clienteLogado = (Cliente) session.getAttribute("usuarioLogado");
+		SessaoUsuario usuario = UsuarioAtual.getCliente(session);
 
-		if (clienteLogado == null) {
+		if (usuario == null) {
 			response.sendRedirect("login.jsp");
 			return;
 		}
@@ -59,7 +62,8 @@ public class InvestimentoServlet extends HttpServlet {
 
 		try {
 			double valorInvestimento = Double.parseDouble(valorStr);
-			Conta contaCliente = clienteLogado.getConta();
+			Cliente clienteLogado = UsuarioAtual.carregarCliente(request, usuario, clienteService);
+			Conta contaCliente = clienteLogado != null ? clienteLogado.getConta() : null;
 
 			if (contaCliente == null) {
 				throw new ValidationException("Conta não encontrada para o cliente logado.");
@@ -69,7 +73,8 @@ public class InvestimentoServlet extends HttpServlet {
 			Investimento investimento = this.investimentoService.realizarInvestimento(contaCliente.getId(),
 					tipoInvestimento, valorInvestimento, contaCliente.getSaldo());
 
-			// Se o serviço foi executado com sucesso, atualiza a sessão e encaminha
+			// Se o serviço foi executado com sucesso, atualiza a cópia desta requisição
+			// (mostrada no comprovante) e encaminha
 			contaCliente.sacar(valorInvestimento);
 			request.setAttribute("comprovante", investimento);
 			request.getRequestDispatcher("comprovanteInvestimento.jsp").forward(request, response);
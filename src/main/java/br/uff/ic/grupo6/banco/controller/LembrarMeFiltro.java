@@ -1,6 +1,5 @@
 package br.uff.ic.grupo6.banco.controller;
 
-import br.uff.ic.grupo6.banco.model.Usuario;
 import br.uff.ic.grupo6.banco.service.LoginService;
 import jakarta.servlet.*;
 import jakarta.servlet.http.Cookie;
@@ -10,6 +9,10 @@ import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.sql.SQLException;
 
+/**
+ * Pré-preenche o CPF na tela de login a partir do cookie "Lembrar-me". Mapeado
+ * só para o login.jsp, a única página que usa o "cpfLembrado".
+ */
 public class LembrarMeFiltro implements Filter {
 
 	private final LoginService loginService = new LoginService();
@@ -27,16 +30,16 @@ public class LembrarMeFiltro implements Filter {
 			if (cookies != null) {
 				for (Cookie cookie : cookies) {
 					if ("lembrarMeToken".equals(cookie.getName())) {
-						String token = cookie.getValue();
 						try {
-							// 1. CONTROLLER (Filtro): Chama o SERVIÇO
-							Usuario usuario = loginService.buscarUsuarioPorToken(token);
+							// 1. CONTROLLER (Filtro): Chama o SERVIÇO (valida a assinatura e busca o CPF no cadastro)
+							String cpf = loginService.buscarCpfPorToken(cookie.getValue());
 
 							// 2. CONTROLLER (Filtro): Prepara dados para a VIEW
-							if (usuario != null) {
-								request.setAttribute("cpfLembrado", usuario.getLogin());
+							if (cpf != null) {
+								request.setAttribute("cpfLembrado", cpf);
 							}
 						} catch (SQLException e) {
+							// Sem banco o login só não vem preenchido
 							e.printStackTrace();
 						}
 						break; // Já achou o cookie
@@ -3,13 +3,13 @@ package br.uff.ic.grupo6.banco.controller;
 import br.uff.ic.grupo6.banco.model.Gerente;
 import br.uff.ic.grupo6.banco.model.Usuario;
 import br.uff.ic.grupo6.banco.service.LoginService;
+import br.uff.ic.grupo6.banco.service.TokenLembrarMe;
 import br.uff.ic.grupo6.banco.service.exception.LoginException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -30,22 +30,23 @@ public class LoginServlet extends HttpServlet {
 			// 2. CONTROLLER: Chama o SERVIÇO de autenticação
 			Usuario usuario = loginService.autenticar(cpf, senha);
 
-			// 3. CONTROLLER: Lógica de SESSÃO
-			HttpSession sessao = request.getSession();
-			sessao.setAttribute("usuarioLogado", usuario);
+			// 3. CONTROLLER: Lógica de SESSÃO (guarda só ids, perfil e nome)
+			UsuarioAtual.entrar(request, response, usuario);
 
 			// 4. CONTROLLER: Lógica de "Lembrar-me" (Cookies)
 			if (lembrar != null) {
-				// Chama o SERVIÇO para gerar e salvar o token
-				String token = loginService.gerarTokenLembrarMe(usuario.getId());
+				// Chama o SERVIÇO para gerar o token assinado
+				String token = loginService.gerarTokenLembrarMe(usuario);
 
 				// Cria o cookie
 				Cookie cookieLembrarMe = new Cookie("lembrarMeToken", token);
-				cookieLembrarMe.setMaxAge(30 * 24 * 60 * 60); // 30 dias
+				cookieLembrarMe.setMaxAge(TokenLembrarMe.VALIDADE_SEGUNDOS); // 30 dias
 				cookieLembrarMe.setPath(request.getContextPath());
+				cookieLembrarMe.setHttpOnly(true);
+				cookieLembrarMe.setSecure(request.isSecure());
 				response.addCookie(cookieLembrarMe);
 			} else {
-				// Chama o SERVIÇO para limpar o token
+				// Chama o SERVIÇO para revogar os tokens já emitidos
 				loginService.limparTokenLembrarMe(usuario.getId());
 
 				// Cria um cookie para expirar
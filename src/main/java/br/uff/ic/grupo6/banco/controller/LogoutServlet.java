@@ -13,15 +13,18 @@ public class LogoutServlet extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        // 1. Pega a sessão atual, se existir
+        // 1. Apaga a sessão externa (compartilhada entre os nós), se houver
+        SessaoExterna.encerrar(request, response);
+
+        // 2. Pega a sessão atual, se existir
         HttpSession sessao = request.getSession(false);
 
-        // 2. Se a sessão existir, a invalida
+        // 3. Se a sessão existir, a invalida
         if (sessao != null) {
             sessao.invalidate();
         }
 
-        // 3. Redireciona o usuário de volta para a página de login
+        // 4. Redireciona o usuário de volta para a página de login
         response.sendRedirect("login.jsp");
     }
 
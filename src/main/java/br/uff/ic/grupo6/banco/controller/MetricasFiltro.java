@@ -0,0 +1,113 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.metricas.MetricasRequisicao;
+import br.uff.ic.grupo6.banco.metricas.RegistroMetricas;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Mede cada requisição e registra a latência, os erros e as requisições em
+ * andamento no servlet de destino (o servlet-name do web.xml). As JSPs
+ * acessadas direto aparecem como "jsp" e os arquivos estáticos como "default".
+ */
+public class MetricasFiltro implements Filter {
+
+	private final RegistroMetricas registro;
+
+	public MetricasFiltro() {
+		this(RegistroMetricas.getInstancia());
+	}
+
+	// Construtor para testes
+	public MetricasFiltro(RegistroMetricas registro) {
+		this.registro = registro;
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		HttpServletRequest req = (HttpServletRequest) request;
+		HttpServletMapping mapeamento = req.getHttpServletMapping();
+		String servlet = mapeamento != null && mapeamento.getServletName() != null ? mapeamento.getServletName()
+				: "desconhecido";
+
+		MetricasRequisicao metricas = registro.getServlet(servlet);
+		RespostaObservada resposta = new RespostaObservada((HttpServletResponse) response);
+		long inicio = System.nanoTime();
+		metricas.iniciar();
+
+		boolean falhou = true;
+		try {
+			chain.doFilter(request, resposta);
+			falhou = false;
+		} finally {
+			if (!falhou && req.isAsyncStarted()) {
+				// Requisição assíncrona: só termina quando o AsyncContext for concluído
+				req.getAsyncContext().addListener(new FimAssincrono(metricas, resposta, inicio));
+			} else {
+				metricas.finalizar(System.nanoTime() - inicio, falhou || resposta.getStatus() >= 500,
+						resposta.recusada);
+			}
+		}
+	}
+
+	/**
+	 * Percebe os redirecionamentos com ?erro=, que é como os servlets devolvem
+	 * as falhas de validação e de banco.
+	 */
+	static class RespostaObservada extends HttpServletResponseWrapper {
+
+		private boolean recusada;
+
+		RespostaObservada(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			recusada = location != null && location.contains("erro=");
+			super.sendRedirect(location);
+		}
+	}
+
+	private static class FimAssincrono implements AsyncListener {
+
+		private final MetricasRequisicao metricas;
+		private final RespostaObservada resposta;
+		private final long inicio;
+
+		FimAssincrono(MetricasRequisicao metricas, RespostaObservada resposta, long inicio) {
+			this.metricas = metricas;
+			this.resposta = resposta;
+			this.inicio = inicio;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			metricas.finalizar(System.nanoTime() - inicio, resposta.getStatus() >= 500, resposta.recusada);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+}
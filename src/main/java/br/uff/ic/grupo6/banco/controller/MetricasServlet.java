@@ -0,0 +1,64 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.metricas.RegistroMetricas;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Expõe as métricas no formato texto do Prometheus (GET /metrics).
+ *
+ * Só responde aos endereços de -Dbanco.metricas.permitidos (lista separada
+ * por vírgulas, padrão só a própria máquina; "*" libera para todos). Os
+ * demais recebem 403: os nomes dos servlets e os SQLs não são públicos.
+ */
+public class MetricasServlet extends HttpServlet {
+
+	private static final String PERMITIDOS_PADRAO = "127.0.0.1,::1,0:0:0:0:0:0:0:1";
+
+	private final RegistroMetricas registro;
+	private final Set<String> permitidos;
+
+	public MetricasServlet() {
+		this(RegistroMetricas.getInstancia(),
+				lerPermitidos(System.getProperty("banco.metricas.permitidos", PERMITIDOS_PADRAO)));
+	}
+
+	// Construtores para testes
+	public MetricasServlet(RegistroMetricas registro) {
+		this(registro, lerPermitidos(PERMITIDOS_PADRAO));
+	}
+
+	public MetricasServlet(RegistroMetricas registro, Set<String> permitidos) {
+		this.registro = registro;
+		this.permitidos = permitidos;
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		if (!permitidos.contains("*") && !permitidos.contains(request.getRemoteAddr())) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+		StringBuilder saida = new StringBuilder(8192);
+		registro.escreverPrometheus(saida);
+
+		response.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+		response.setHeader("Cache-Control", "no-store");
+		response.getWriter().write(saida.toString());
+	}
+
+	static Set<String> lerPermitidos(String lista) {
+		return Arrays.stream(lista.split(","))
+				.map(String::trim)
+				.filter(endereco -> !endereco.isEmpty())
+				.collect(Collectors.toSet());
+	}
+}
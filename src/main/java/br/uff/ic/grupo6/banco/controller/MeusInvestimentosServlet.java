@@ -1,7 +1,7 @@
 package br.uff.ic.grupo6.banco.controller;
 
-import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Investimento;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.service.InvestimentoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 import jakarta.servlet.ServletException;
@@ -25,8 +25,14 @@ public class MeusInvestimentosServlet extends HttpServlet {
 	@Override
 	protected void doGet(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
+		// Roda no pool de threads do banco, liberando a thread do container
+		ProcessamentoAssincrono.executar(request, response, this::processarInvestimentos);
+	}
+
+	private void processarInvestimentos(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
 		HttpSession session = request.getSession();
-		Cliente clienteLogado = (Cliente) session.getAttribute("usuarioLogado");
+		SessaoUsuario clienteLogado = UsuarioAtual.getCliente(session);
 
 		if (clienteLogado == null) {
 			response.sendRedirect("login.jsp?erro=Acesso não autorizado.");
@@ -51,7 +57,7 @@ public class MeusInvestimentosServlet extends HttpServlet {
 
 			// 2. CONTROLLER: Chama o SERVIÇO
 			List<Investimento> listaInvestimentos = investimentoService
-					.buscarInvestimentos(clienteLogado.getConta().getId(), dataInicio, dataFim);
+					.buscarInvestimentos(clienteLogado.getIdConta(), dataInicio, dataFim);
 
 			// 3. CONTROLLER: Prepara a VIEW
 			request.setAttribute("listaInvestimentos", listaInvestimentos);
@@ -0,0 +1,266 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Executa o trabalho dos servlets que dependem do banco (saque, depósito,
+ * extrato...) num pool de threads próprio, via AsyncContext. Assim a thread do
+ * Tomcat volta logo para atender login e arquivos estáticos, e um banco lento
+ * gera fila aqui em vez de esgotar as threads do container.
+ *
+ * O pool é limitado (-Dbanco.async.threads, padrão 10, o mesmo máximo do pool
+ * de conexões) e a fila também (-Dbanco.async.fila, padrão 200). Requisições
+ * recusadas pela fila cheia, ou que esperaram na fila mais que
+ * -Dbanco.async.timeoutMs (padrão 30000), recebem 503. O timeout também vale
+ * para a execução: passado o prazo, a requisição recebe 503 e é encerrada aqui,
+ * e o worker deixa de enxergar a requisição e o que ele ainda escrever é
+ * descartado (ver RequisicaoProtegida e RespostaProtegida).
+ *
+ * Com -Dbanco.async.virtual=true (Java 21+, ver o perfil java21 do pom) cada
+ * requisição roda numa thread virtual, sem fila: até -Dbanco.async.virtual.maximo
+ * (padrão 10000) requisições esperam o banco ao mesmo tempo, e o limite real
+ * passa a ser o pool de conexões. Numa JVM sem threads virtuais o modo é
+ * ignorado e o pool de threads normal é usado.
+ *
+ * Quando a requisição não aceita modo assíncrono (filtro sem async-supported,
+ * testes com mocks), o trabalho roda direto na thread do container.
+ */
+public final class ProcessamentoAssincrono {
+
+	private static final Logger LOG = Logger.getLogger(ProcessamentoAssincrono.class.getName());
+
+	private static final int THREADS = Integer.getInteger("banco.async.threads", 10);
+	private static final int FILA = Integer.getInteger("banco.async.fila", 200);
+	private static final long TIMEOUT_MS = Long.getLong("banco.async.timeoutMs", 30000L);
+	private static final boolean VIRTUAL = Boolean.getBoolean("banco.async.virtual");
+	private static final int MAXIMO_VIRTUAL = Integer.getInteger("banco.async.virtual.maximo", 10000);
+
+	// Estados da requisição, para que só um entre o worker e o timeout responda
+	private static final int NA_FILA = 0;
+	private static final int EXECUTANDO = 1;
+	private static final int EXPIRADA = 2;
+	private static final int CONCLUIDA = 3;
+
+	private static ThreadPoolExecutor executor;
+
+	/**
+	 * Corpo do doGet/doPost, executado no pool do banco.
+	 */
+	@FunctionalInterface
+	public interface Tarefa {
+
+		void executar(HttpServletRequest request, HttpServletResponse response)
+				throws ServletException, IOException;
+	}
+
+	private ProcessamentoAssincrono() {
+	}
+
+	public static void executar(HttpServletRequest request, HttpServletResponse response, Tarefa tarefa)
+			throws ServletException, IOException {
+		if (!request.isAsyncSupported()) {
+			tarefa.executar(request, response);
+			return;
+		}
+
+		AsyncContext contexto = request.startAsync();
+		contexto.setTimeout(TIMEOUT_MS);
+		Execucao execucao = new Execucao(contexto, response);
+		contexto.addListener(new Expiracao(execucao));
+		try {
+			getExecutor().execute(() -> {
+				if (!execucao.iniciar()) {
+					return; // Já respondida com 503 pelo timeout
+				}
+				try {
+					tarefa.executar(new RequisicaoProtegida(request, execucao), new RespostaProtegida(response, execucao));
+				} catch (ServletException | IOException | RuntimeException e) {
+					e.printStackTrace();
+					execucao.falhar();
+				} finally {
+					execucao.concluir();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			execucao.expirar();
+		}
+	}
+
+	/**
+	 * Para o pool (chamado no undeploy). As tarefas na fila são descartadas.
+	 */
+	public static synchronized void encerrar() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			ThreadFactory virtuais = VIRTUAL ? fabricaVirtual() : null;
+			if (virtuais != null) {
+				// Uma thread virtual nova por tarefa (keepAlive 0), recusando acima do máximo
+				executor = new ThreadPoolExecutor(0, MAXIMO_VIRTUAL, 0, TimeUnit.SECONDS, new SynchronousQueue<>(),
+						virtuais);
+			} else {
+				AtomicInteger contador = new AtomicInteger();
+				executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+						new ArrayBlockingQueue<>(FILA), r -> {
+							Thread thread = new Thread(r, "banco-db-" + contador.incrementAndGet());
+							thread.setDaemon(true);
+							return thread;
+						});
+				executor.allowCoreThreadTimeOut(true);
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * @return Fábrica de threads virtuais "banco-db-v-N", ou null se a JVM não
+	 * tiver threads virtuais (o código compila para Java 11, por isso a reflexão)
+	 */
+	static ThreadFactory fabricaVirtual() {
+		try {
+			Object construtor = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> tipoConstrutor = Class.forName("java.lang.Thread$Builder");
+			construtor = tipoConstrutor.getMethod("name", String.class, long.class)
+					.invoke(construtor, "banco-db-v-", 1L);
+			return (ThreadFactory) tipoConstrutor.getMethod("factory").invoke(construtor);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			LOG.warning("Threads virtuais indisponíveis nesta JVM; usando o pool de threads");
+			return null;
+		}
+	}
+
+	private static void responderErro(HttpServletResponse response, int status) {
+		try {
+			if (!response.isCommitted()) {
+				if (status == HttpServletResponse.SC_SERVICE_UNAVAILABLE) {
+					response.setHeader("Retry-After", "1");
+				}
+				response.sendError(status);
+			}
+		} catch (IOException | IllegalStateException e) {
+			// Cliente já desconectou
+		}
+	}
+
+	private static void concluir(AsyncContext contexto) {
+		try {
+			contexto.complete();
+		} catch (IllegalStateException e) {
+			// O container já encerrou a requisição (timeout durante a execução)
+		}
+	}
+
+	/**
+	 * Estado de uma requisição, para que só um entre o worker e o timeout
+	 * responda. Tudo que o worker faz com a requisição e a resposta passa pelo
+	 * lock deste objeto (RequisicaoProtegida, RespostaProtegida), assim como a
+	 * resposta do timeout: depois que o timeout respondeu e encerrou a
+	 * requisição, nada do worker chega ao request e ao response, que o
+	 * container já pode ter reciclado para outro cliente.
+	 */
+	static final class Execucao {
+
+		private final AsyncContext contexto;
+		private final HttpServletResponse response;
+		private int estado = NA_FILA;
+
+		Execucao(AsyncContext contexto, HttpServletResponse response) {
+			this.contexto = contexto;
+			this.response = response;
+		}
+
+		synchronized boolean iniciar() {
+			if (estado != NA_FILA) {
+				return false;
+			}
+			estado = EXECUTANDO;
+			return true;
+		}
+
+		/**
+		 * @return Se o worker ainda pode escrever na resposta
+		 */
+		synchronized boolean isAtiva() {
+			return estado == EXECUTANDO;
+		}
+
+		synchronized void falhar() {
+			if (estado == EXECUTANDO) {
+				responderErro(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			}
+		}
+
+		synchronized void concluir() {
+			if (estado == EXECUTANDO) {
+				estado = CONCLUIDA;
+				ProcessamentoAssincrono.concluir(contexto);
+			}
+		}
+
+		/**
+		 * Timeout (na fila ou executando) ou fila cheia: responde 503 e encerra.
+		 */
+		synchronized void expirar() {
+			if (estado == CONCLUIDA || estado == EXPIRADA) {
+				return;
+			}
+			if (estado == EXECUTANDO) {
+				LOG.warning("Requisição ultrapassou " + TIMEOUT_MS + " ms executando no banco; respondida com 503");
+			}
+			estado = EXPIRADA;
+			responderErro(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			ProcessamentoAssincrono.concluir(contexto);
+		}
+	}
+
+	/**
+	 * No timeout, a requisição é sempre respondida e encerrada aqui, esteja a
+	 * tarefa na fila (ela é descartada quando chegar a vez) ou executando (o
+	 * que ela escrever depois é descartado). Nunca fica para o container.
+	 */
+	private static class Expiracao implements AsyncListener {
+
+		private final Execucao execucao;
+
+		Expiracao(Execucao execucao) {
+			this.execucao = execucao;
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			execucao.expirar();
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Requisição entregue às tarefas do ProcessamentoAssincrono, o par da
+ * {@link RespostaProtegida}. Parâmetros, atributos, sessão e o forward para a
+ * JSP passam pelo lock da execução e só chegam à requisição do container se
+ * ela ainda estiver ativa: depois do timeout o container já pode tê-la
+ * reciclado para outro cliente, então a tarefa passa a ver uma requisição
+ * vazia (sem parâmetros, atributos nem sessão) e o forward é ignorado.
+ */
+class RequisicaoProtegida extends HttpServletRequestWrapper {
+
+	private final ProcessamentoAssincrono.Execucao execucao;
+
+	RequisicaoProtegida(HttpServletRequest request, ProcessamentoAssincrono.Execucao execucao) {
+		super(request);
+		this.execucao = execucao;
+	}
+
+	private <T> T ler(Supplier<T> leitura, T seEncerrada) {
+		synchronized (execucao) {
+			return execucao.isAtiva() ? leitura.get() : seEncerrada;
+		}
+	}
+
+	private void alterar(Runnable alteracao) {
+		synchronized (execucao) {
+			if (execucao.isAtiva()) {
+				alteracao.run();
+			}
+		}
+	}
+
+	@Override
+	public String getParameter(String name) {
+		return ler(() -> super.getParameter(name), null);
+	}
+
+	@Override
+	public String[] getParameterValues(String name) {
+		return ler(() -> super.getParameterValues(name), null);
+	}
+
+	@Override
+	public Map<String, String[]> getParameterMap() {
+		return ler(super::getParameterMap, Collections.emptyMap());
+	}
+
+	@Override
+	public void setCharacterEncoding(String env) throws UnsupportedEncodingException {
+		synchronized (execucao) {
+			if (execucao.isAtiva()) {
+				super.setCharacterEncoding(env);
+			}
+		}
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return ler(() -> super.getAttribute(name), null);
+	}
+
+	@Override
+	public void setAttribute(String name, Object o) {
+		alterar(() -> super.setAttribute(name, o));
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		alterar(() -> super.removeAttribute(name));
+	}
+
+	/**
+	 * @return A sessão, ou null depois do timeout (a do container pode ser de
+	 *         outro cliente)
+	 */
+	@Override
+	public HttpSession getSession() {
+		return ler(super::getSession, null);
+	}
+
+	@Override
+	public HttpSession getSession(boolean create) {
+		return ler(() -> super.getSession(create), null);
+	}
+
+	@Override
+	public RequestDispatcher getRequestDispatcher(String path) {
+		return new RequestDispatcher() {
+			@Override
+			public void forward(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+				despachar(path, true, request, response);
+			}
+
+			@Override
+			public void include(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+				despachar(path, false, request, response);
+			}
+		};
+	}
+
+	/**
+	 * A JSP inteira roda com o lock: o timeout espera ela terminar em vez de
+	 * encerrar a requisição no meio do forward.
+	 */
+	private void despachar(String path, boolean forward, ServletRequest request, ServletResponse response)
+			throws ServletException, IOException {
+		synchronized (execucao) {
+			if (!execucao.isAtiva()) {
+				return;
+			}
+			RequestDispatcher dispatcher = super.getRequestDispatcher(path);
+			if (forward) {
+				dispatcher.forward(request, response);
+			} else {
+				dispatcher.include(request, response);
+			}
+		}
+	}
+}
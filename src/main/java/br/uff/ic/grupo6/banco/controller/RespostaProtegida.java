@@ -0,0 +1,182 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Resposta entregue às tarefas do ProcessamentoAssincrono. Cada escrita
+ * (status, cabeçalhos, corpo, redirecionamento) acontece com o lock da
+ * execução e só se ela ainda estiver ativa: depois do timeout, o que a tarefa
+ * escrever é descartado em vez de ir para um response já reciclado.
+ */
+class RespostaProtegida extends HttpServletResponseWrapper {
+
+	private final ProcessamentoAssincrono.Execucao execucao;
+	private PrintWriter writer;
+	private ServletOutputStream saida;
+
+	RespostaProtegida(HttpServletResponse response, ProcessamentoAssincrono.Execucao execucao) {
+		super(response);
+		this.execucao = execucao;
+	}
+
+	@FunctionalInterface
+	private interface Escrita {
+
+		void executar() throws IOException;
+	}
+
+	private void escrever(Escrita escrita) throws IOException {
+		synchronized (execucao) {
+			if (execucao.isAtiva()) {
+				escrita.executar();
+			}
+		}
+	}
+
+	private void alterar(Runnable alteracao) {
+		synchronized (execucao) {
+			if (execucao.isAtiva()) {
+				alteracao.run();
+			}
+		}
+	}
+
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		escrever(() -> super.sendError(sc, msg));
+	}
+
+	@Override
+	public void sendError(int sc) throws IOException {
+		escrever(() -> super.sendError(sc));
+	}
+
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		escrever(() -> super.sendRedirect(location));
+	}
+
+	@Override
+	public void setStatus(int sc) {
+		alterar(() -> super.setStatus(sc));
+	}
+
+	@Override
+	public void addCookie(Cookie cookie) {
+		alterar(() -> super.addCookie(cookie));
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		alterar(() -> super.setHeader(name, value));
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		alterar(() -> super.addHeader(name, value));
+	}
+
+	@Override
+	public void setContentType(String type) {
+		alterar(() -> super.setContentType(type));
+	}
+
+	@Override
+	public void setCharacterEncoding(String charset) {
+		alterar(() -> super.setCharacterEncoding(charset));
+	}
+
+	@Override
+	public void reset() {
+		alterar(super::reset);
+	}
+
+	@Override
+	public void resetBuffer() {
+		alterar(super::resetBuffer);
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		escrever(super::flushBuffer);
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		synchronized (execucao) {
+			if (writer == null) {
+				// Com a execução encerrada, o writer do container nem é pedido
+				PrintWriter original = execucao.isAtiva() ? super.getWriter() : new PrintWriter(Writer.nullWriter());
+				writer = new PrintWriter(new Writer() {
+					@Override
+					public void write(char[] cbuf, int off, int len) throws IOException {
+						escrever(() -> original.write(cbuf, off, len));
+					}
+
+					@Override
+					public void flush() throws IOException {
+						escrever(original::flush);
+					}
+
+					@Override
+					public void close() throws IOException {
+						escrever(original::close);
+					}
+				});
+			}
+			return writer;
+		}
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		synchronized (execucao) {
+			if (saida == null) {
+				// Com a execução encerrada, as escritas nunca chegam ao original (fica null)
+				ServletOutputStream original = execucao.isAtiva() ? super.getOutputStream() : null;
+				saida = new ServletOutputStream() {
+					@Override
+					public void write(int b) throws IOException {
+						escrever(() -> original.write(b));
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						escrever(() -> original.write(b, off, len));
+					}
+
+					@Override
+					public void flush() throws IOException {
+						escrever(() -> original.flush());
+					}
+
+					@Override
+					public void close() throws IOException {
+						escrever(() -> original.close());
+					}
+
+					@Override
+					public boolean isReady() {
+						return original == null || original.isReady();
+					}
+
+					@Override
+					public void setWriteListener(WriteListener writeListener) {
+						if (original != null) {
+							original.setWriteListener(writeListener);
+						}
+					}
+				};
+			}
+			return saida;
+		}
+	}
+}
@@ -2,7 +2,9 @@ package br.uff.ic.grupo6.banco.controller;
 
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.model.Transacao;
+import br.uff.ic.grupo6.banco.service.ClienteService;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 import jakarta.servlet.RequestDispatcher;
@@ -20,6 +22,7 @@ import java.sql.SQLException;
 public class SaqueServlet extends HttpServlet {
 
     private final TransacaoService transacaoService;
+    private final ClienteService clienteService = new ClienteService();
 
     // Construtor padrão exigido pelo container (Tomcat/Jetty)
     public SaqueServlet() {
@@ -34,11 +37,17 @@ public class SaqueServlet extends HttpServlet {
     @Override
     public void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        // Roda no pool de threads do banco, liberando a thread do container
+        ProcessamentoAssincrono.executar(request, response, this::processarSaque);
+    }
+
+    private void processarSaque(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
         HttpSession session = request.getSession();
-        Cliente clienteLogado = (Cliente) session.getAttribute("usuarioLogado");
+        SessaoUsuario usuario = UsuarioAtual.getCliente(session);
 
         // Aresta 1: Cliente não logado
-        if (clienteLogado == null) {
+        if (usuario == null) {
             String msg = URLEncoder.encode("Acesso não autorizado. Faça login como cliente.", StandardCharsets.UTF_8);
             response.sendRedirect("login.jsp?erro=" + msg);
             return;
@@ -50,7 +59,8 @@ public class SaqueServlet extends HttpServlet {
             // 1. CONTROLLER: Coleta dados
             String valorStr = request.getParameter("valor");
             double valorSaque = Double.parseDouble(valorStr);
-            Conta contaCliente = clienteLogado.getConta();
+            Cliente clienteLogado = UsuarioAtual.carregarCliente(request, usuario, clienteService);
+            Conta contaCliente = clienteLogado != null ? clienteLogado.getConta() : null;
 
             // Aresta 2: Cliente sem conta vinculada
             if (contaCliente == null) {
@@ -59,11 +69,14 @@ public class SaqueServlet extends HttpServlet {
                 return;
             }
 
-            // 2. CONTROLLER: Chama o SERVIÇO
-            Transacao transacaoSaque = transacaoService.realizarSaque(contaCliente, valorSaque);
+            // 2. CONTROLLER: Chama o SERVIÇO (com a chave do formulário, um reenvio não saca de novo)
+            String chave = request.getParameter("chaveIdempotencia");
+            Transacao transacaoSaque = chave != null
+                    ? transacaoService.realizarSaque(contaCliente, valorSaque, chave)
+                    : transacaoService.realizarSaque(contaCliente, valorSaque);
 
             // 3. CONTROLLER: Atualiza sessão e encaminha para VIEW
-            contaCliente.sacar(valorSaque); // Atualiza o objeto em memória na sessão
+            contaCliente.sacar(valorSaque); // Atualiza a cópia desta requisição, mostrada no comprovante
             request.setAttribute("comprovante", transacaoSaque);
             
             RequestDispatcher dispatcher = request.getRequestDispatcher("comprovanteSaque.jsp");
@@ -0,0 +1,258 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.metricas.RegistroMetricas;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import br.uff.ic.grupo6.banco.sessao.ArmazenamentoSessao;
+import br.uff.ic.grupo6.banco.sessao.ArmazenamentoSessaoArquivo;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Sessão externa: o usuário logado fica num {@link ArmazenamentoSessao},
+ * identificado pelo cookie "bancoSessao", e o HttpSession de cada nó vira só
+ * uma cópia local, refeita a cada requisição pelo {@link SessaoExternaFiltro}.
+ * Assim qualquer nó atrás do balanceador atende qualquer requisição. Outros
+ * dados da sessão que precisam valer em todos os nós (as
+ * {@link TransferenciasPendentes}) vão para o armazenamento junto com o usuário.
+ *
+ * Ligada por -Dbanco.sessao.armazenamento: "container" (padrão, só o
+ * HttpSession, como antes), "arquivo" ({@link ArmazenamentoSessaoArquivo}) ou
+ * o nome de uma classe que implemente ArmazenamentoSessao. Se o armazenamento
+ * falhar numa requisição, o erro é logado e ela segue com a sessão local.
+ */
+public final class SessaoExterna {
+
+	public static final String COOKIE = "bancoSessao";
+	// Id da sessão externa que a cópia local representa
+	private static final String ATRIBUTO_ID = "sessaoExternaId";
+	// 32 bytes aleatórios em base64 para URL, sem "="
+	private static final Pattern FORMATO_ID = Pattern.compile("[A-Za-z0-9_-]{43}");
+	// Mesmo session-timeout do web.xml, para quando o container não informa
+	private static final long VALIDADE_PADRAO_MS = TimeUnit.MINUTES.toMillis(10);
+
+	private static final SecureRandom ALEATORIO = new SecureRandom();
+
+	private static volatile ArmazenamentoSessao armazenamento = criarArmazenamento(
+			System.getProperty("banco.sessao.armazenamento", "container"));
+
+	private SessaoExterna() {
+	}
+
+	public static boolean isAtiva() {
+		return armazenamento != null;
+	}
+
+	/**
+	 * Troca o armazenamento (testes). null volta a usar só o HttpSession.
+	 */
+	static void configurar(ArmazenamentoSessao novo) {
+		armazenamento = novo;
+	}
+
+	/**
+	 * Login: grava o usuário com um id novo e manda o cookie. A sessão externa
+	 * de um login anterior no mesmo navegador é apagada.
+	 */
+	static void iniciar(HttpServletRequest request, HttpServletResponse response, SessaoUsuario usuario) {
+		ArmazenamentoSessao atual = armazenamento;
+		if (atual == null) {
+			return;
+		}
+		HttpSession sessao = request.getSession();
+		String anterior = getId(request);
+		String id = novoId();
+		if (gravar(atual, id, usuario, sessao)) {
+			sessao.setAttribute(ATRIBUTO_ID, id);
+			response.addCookie(cookie(request, id, -1)); // Cookie de sessão do navegador
+			if (anterior != null) {
+				remover(atual, anterior);
+			}
+		}
+	}
+
+	/**
+	 * Regrava o usuário já logado (ex: mudou o nome nos dados cadastrais).
+	 */
+	static void atualizar(HttpSession sessao, SessaoUsuario usuario) {
+		ArmazenamentoSessao atual = armazenamento;
+		Object id = atual != null ? sessao.getAttribute(ATRIBUTO_ID) : null;
+		if (id != null) {
+			gravar(atual, (String) id, usuario, sessao);
+		}
+	}
+
+	/**
+	 * Copia para o HttpSession deste nó o usuário da sessão externa do cookie.
+	 * Se ela não existe mais (logout em outro nó, expirou), a cópia local é
+	 * descartada.
+	 */
+	static void restaurar(HttpServletRequest request) {
+		ArmazenamentoSessao atual = armazenamento;
+		String id = atual != null ? getId(request) : null;
+		if (id == null) {
+			return;
+		}
+		SessaoUsuario usuario;
+		long inicio = System.nanoTime();
+		try {
+			usuario = atual.ler(id);
+		} catch (IOException | RuntimeException e) {
+			e.printStackTrace();
+			return;
+		} finally {
+			RegistroMetricas.getInstancia().registrarSessao("ler", System.nanoTime() - inicio);
+		}
+
+		HttpSession local = request.getSession(usuario != null);
+		if (usuario != null) {
+			local.setAttribute(UsuarioAtual.ATRIBUTO_SESSAO, usuario);
+			local.setAttribute(ATRIBUTO_ID, id);
+		} else if (local != null && id.equals(local.getAttribute(ATRIBUTO_ID))) {
+			local.removeAttribute(UsuarioAtual.ATRIBUTO_SESSAO);
+			local.removeAttribute(ATRIBUTO_ID);
+		}
+	}
+
+	/**
+	 * Logout: apaga a sessão externa e o cookie.
+	 */
+	public static void encerrar(HttpServletRequest request, HttpServletResponse response) {
+		ArmazenamentoSessao atual = armazenamento;
+		String id = atual != null ? getId(request) : null;
+		if (id != null) {
+			remover(atual, id);
+			response.addCookie(cookie(request, "", 0));
+		}
+	}
+
+	/**
+	 * @return true se o HttpSession é cópia de uma sessão externa: os dados
+	 *         da sessão devem ir para o armazenamento, e não para a cópia local
+	 */
+	static boolean isCompartilhada(HttpSession sessao) {
+		return armazenamento != null && sessao.getAttribute(ATRIBUTO_ID) != null;
+	}
+
+	/**
+	 * @return O dado guardado com a sessão externa, ou null se ele não existe
+	 *         ou o armazenamento falhou
+	 */
+	static String lerDado(HttpSession sessao, String nome) {
+		ArmazenamentoSessao atual = armazenamento;
+		Object id = atual != null ? sessao.getAttribute(ATRIBUTO_ID) : null;
+		if (id == null) {
+			return null;
+		}
+		long inicio = System.nanoTime();
+		try {
+			return atual.lerDado((String) id, nome);
+		} catch (IOException | RuntimeException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			RegistroMetricas.getInstancia().registrarSessao("lerDado", System.nanoTime() - inicio);
+		}
+	}
+
+	/**
+	 * @return false se a sessão externa não existe mais ou o armazenamento falhou
+	 */
+	static boolean gravarDado(HttpSession sessao, String nome, String valor) {
+		ArmazenamentoSessao atual = armazenamento;
+		Object id = atual != null ? sessao.getAttribute(ATRIBUTO_ID) : null;
+		if (id == null) {
+			return false;
+		}
+		long inicio = System.nanoTime();
+		try {
+			return atual.gravarDado((String) id, nome, valor);
+		} catch (IOException | RuntimeException e) {
+			e.printStackTrace();
+			return false;
+		} finally {
+			RegistroMetricas.getInstancia().registrarSessao("gravarDado", System.nanoTime() - inicio);
+		}
+	}
+
+	private static boolean gravar(ArmazenamentoSessao atual, String id, SessaoUsuario usuario, HttpSession sessao) {
+		long validadeMs = sessao.getMaxInactiveInterval() > 0
+				? TimeUnit.SECONDS.toMillis(sessao.getMaxInactiveInterval())
+				: VALIDADE_PADRAO_MS;
+		long inicio = System.nanoTime();
+		try {
+			atual.gravar(id, usuario, validadeMs);
+			return true;
+		} catch (IOException | RuntimeException e) {
+			e.printStackTrace();
+			return false;
+		} finally {
+			RegistroMetricas.getInstancia().registrarSessao("gravar", System.nanoTime() - inicio);
+		}
+	}
+
+	private static void remover(ArmazenamentoSessao atual, String id) {
+		long inicio = System.nanoTime();
+		try {
+			atual.remover(id);
+		} catch (IOException | RuntimeException e) {
+			e.printStackTrace();
+		} finally {
+			RegistroMetricas.getInstancia().registrarSessao("remover", System.nanoTime() - inicio);
+		}
+	}
+
+	/**
+	 * @return O id do cookie, ou null se não há cookie ou ele foi adulterado
+	 */
+	private static String getId(HttpServletRequest request) {
+		Cookie[] cookies = request.getCookies();
+		if (cookies != null) {
+			for (Cookie cookie : cookies) {
+				if (COOKIE.equals(cookie.getName())) {
+					String id = cookie.getValue();
+					return id != null && FORMATO_ID.matcher(id).matches() ? id : null;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static String novoId() {
+		byte[] bytes = new byte[32];
+		ALEATORIO.nextBytes(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	private static Cookie cookie(HttpServletRequest request, String valor, int maxAge) {
+		Cookie cookie = new Cookie(COOKIE, valor);
+		cookie.setHttpOnly(true);
+		cookie.setSecure(request.isSecure());
+		cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+		cookie.setMaxAge(maxAge);
+		return cookie;
+	}
+
+	private static ArmazenamentoSessao criarArmazenamento(String tipo) {
+		try {
+			switch (tipo) {
+				case "container":
+					return null;
+				case "arquivo":
+					return new ArmazenamentoSessaoArquivo();
+				default:
+					return (ArmazenamentoSessao) Class.forName(tipo).getDeclaredConstructor().newInstance();
+			}
+		} catch (IOException | ReflectiveOperationException | ClassCastException e) {
+			// Falha de configuração: melhor não subir do que perder as sessões entre os nós
+			throw new IllegalStateException("Armazenamento de sessões inválido: " + tipo, e);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+
+/**
+ * Antes dos outros filtros e dos servlets, traz para o HttpSession deste nó o
+ * usuário da sessão externa ({@link SessaoExterna}). Sem armazenamento
+ * configurado não faz nada. Arquivos estáticos (servlet "default" do
+ * container, como no {@link MetricasFiltro}) não consultam o armazenamento.
+ */
+public class SessaoExternaFiltro implements Filter {
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		HttpServletRequest req = (HttpServletRequest) request;
+		if (SessaoExterna.isAtiva() && !isArquivoEstatico(req)) {
+			SessaoExterna.restaurar(req);
+		}
+		chain.doFilter(request, response);
+	}
+
+	private static boolean isArquivoEstatico(HttpServletRequest request) {
+		HttpServletMapping mapeamento = request.getHttpServletMapping();
+		return mapeamento != null && "default".equals(mapeamento.getServletName());
+	}
+}
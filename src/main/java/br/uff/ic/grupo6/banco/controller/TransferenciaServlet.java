@@ -2,6 +2,9 @@ package br.uff.ic.grupo6.banco.controller;
 
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import br.uff.ic.grupo6.banco.model.TransferenciaPendente;
+import br.uff.ic.grupo6.banco.service.ClienteService;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 import jakarta.servlet.ServletException;
@@ -19,14 +22,15 @@ import java.util.Map;
 public class TransferenciaServlet extends HttpServlet {
 
 	private final TransacaoService transacaoService = new TransacaoService();
+	private final ClienteService clienteService = new ClienteService();
 
 	@Override
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
 		HttpSession sessao = request.getSession();
-		Cliente clienteOrigem = (Cliente) sessao.getAttribute("usuarioLogado");
+		SessaoUsuario usuario = UsuarioAtual.getCliente(sessao);
 
-		if (clienteOrigem == null) {
+		if (usuario == null) {
 			response.sendRedirect("login.jsp");
 			return;
 		}
@@ -36,16 +40,28 @@ public class TransferenciaServlet extends HttpServlet {
 			String agenciaDestino = request.getParameter("agenciaDestino");
 			String contaDestino = request.getParameter("contaDestino");
 			double valor = Double.parseDouble(request.getParameter("valor"));
+			Cliente clienteOrigem = UsuarioAtual.carregarCliente(request, usuario, clienteService);
+			if (clienteOrigem == null) {
+				response.sendRedirect("login.jsp");
+				return;
+			}
 
 			// 2. CONTROLLER: Chama o SERVIÇO
 			Map<String, Object> dadosConfirmacao = transacaoService.prepararTransferencia(clienteOrigem, agenciaDestino,
 					contaDestino, valor);
 
-			// 3. CONTROLLER: Prepara a VIEW de confirmação
+			// 3. CONTROLLER: Guarda a transferência validada; o formulário só leva o id
+			Cliente clienteDestino = (Cliente) dadosConfirmacao.get("clienteDestino");
+			Conta contaDeDestino = (Conta) dadosConfirmacao.get("contaDeDestino");
+			String idConfirmacao = TransferenciasPendentes.da(sessao).guardar(new TransferenciaPendente(
+					clienteOrigem.getConta().getId(), contaDeDestino, clienteDestino, valor));
+
+			// 4. CONTROLLER: Prepara a VIEW de confirmação
 			request.setAttribute("clienteOrigem", dadosConfirmacao.get("clienteOrigem"));
-			request.setAttribute("clienteDestino", dadosConfirmacao.get("clienteDestino"));
-			request.setAttribute("contaDeDestino", dadosConfirmacao.get("contaDeDestino"));
+			request.setAttribute("clienteDestino", clienteDestino);
+			request.setAttribute("contaDeDestino", contaDeDestino);
 			request.setAttribute("valor", dadosConfirmacao.get("valor"));
+			request.setAttribute("idConfirmacao", idConfirmacao);
 
 			request.getRequestDispatcher("confirmacaoTransferencia.jsp").forward(request, response);
 
@@ -0,0 +1,179 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.model.TransferenciaPendente;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.Serializable;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transferências validadas pelo {@link TransferenciaServlet} e ainda não
+ * confirmadas, guardadas na sessão do cliente: no HttpSession ou, com a
+ * {@link SessaoExterna} ativa, no armazenamento de sessões, ao lado do
+ * usuário, para que a confirmação possa cair em qualquer nó. A página de confirmação só
+ * leva um id aleatório; o {@link FinalizarTransferenciaServlet} busca a
+ * transferência por ele e executa o que foi validado, sem confiar em valores
+ * vindos do formulário.
+ *
+ * O id vale por pouco tempo (-Dbanco.transferencia.validadeSegundos, padrão
+ * 5 min) e é também a chave de idempotência da transferência: reenviar a
+ * confirmação devolve o comprovante da primeira execução. Poucas ficam
+ * guardadas por sessão: abrir muitas confirmações descarta as mais antigas.
+ */
+public final class TransferenciasPendentes implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	static final String ATRIBUTO_SESSAO = "transferenciasPendentes";
+	private static final long VALIDADE_MS = TimeUnit.SECONDS
+			.toMillis(Long.getLong("banco.transferencia.validadeSegundos", 300));
+	private static final int MAXIMO_POR_SESSAO = 5;
+
+	private static final SecureRandom ALEATORIO = new SecureRandom();
+
+	private static final class Item implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final TransferenciaPendente transferencia;
+		final long expiraEm;
+
+		Item(TransferenciaPendente transferencia, long expiraEm) {
+			this.transferencia = transferencia;
+			this.expiraEm = expiraEm;
+		}
+	}
+
+	// Ordem de inserção: a primeira é a mais antiga
+	private final Map<String, Item> itens = new LinkedHashMap<>();
+	// Sessão cujo armazenamento externo recebe as alterações; null no HttpSession
+	private transient HttpSession sessaoExterna;
+
+	/**
+	 * Com a sessão externa, cada chamada lê uma cópia do armazenamento. Sem
+	 * ela, devolve o objeto criado no login ({@link UsuarioAtual#entrar}).
+	 */
+	static TransferenciasPendentes da(HttpSession sessao) {
+		if (SessaoExterna.isCompartilhada(sessao)) {
+			TransferenciasPendentes pendentes = decodificar(SessaoExterna.lerDado(sessao, ATRIBUTO_SESSAO));
+			pendentes.sessaoExterna = sessao;
+			return pendentes;
+		}
+		Object atual = sessao.getAttribute(ATRIBUTO_SESSAO);
+		if (atual == null) {
+			// Sessão aberta sem passar pelo UsuarioAtual.entrar (ex: antes de uma atualização)
+			atual = new TransferenciasPendentes();
+			sessao.setAttribute(ATRIBUTO_SESSAO, atual);
+		}
+		return (TransferenciasPendentes) atual;
+	}
+
+	/**
+	 * @return O id de confirmação da transferência
+	 */
+	String guardar(TransferenciaPendente transferencia) {
+		String id = guardar(transferencia, System.currentTimeMillis());
+		if (sessaoExterna != null) {
+			SessaoExterna.gravarDado(sessaoExterna, ATRIBUTO_SESSAO, codificar());
+		}
+		return id;
+	}
+
+	synchronized String guardar(TransferenciaPendente transferencia, long agoraMs) {
+		removerExpiradas(agoraMs);
+		Iterator<String> maisAntigas = itens.keySet().iterator();
+		while (itens.size() >= MAXIMO_POR_SESSAO) {
+			maisAntigas.next();
+			maisAntigas.remove();
+		}
+		String id = novoId();
+		itens.put(id, new Item(transferencia, agoraMs + VALIDADE_MS));
+		return id;
+	}
+
+	/**
+	 * A transferência continua guardada até expirar, para que um reenvio da
+	 * confirmação (duplo clique, nova tentativa do navegador) chegue à mesma
+	 * chave de idempotência e receba o mesmo comprovante.
+	 *
+	 * @return A transferência, ou null se o id não existe ou expirou
+	 */
+	TransferenciaPendente buscar(String id) {
+		return buscar(id, System.currentTimeMillis());
+	}
+
+	synchronized TransferenciaPendente buscar(String id, long agoraMs) {
+		Item item = id != null ? itens.get(id) : null;
+		if (item != null && item.expiraEm <= agoraMs) {
+			itens.remove(id);
+			return null;
+		}
+		return item != null ? item.transferencia : null;
+	}
+
+	private void removerExpiradas(long agoraMs) {
+		itens.values().removeIf(item -> item.expiraEm <= agoraMs);
+	}
+
+	/**
+	 * Uma linha por transferência, com os campos separados por tabulação e
+	 * codificados como em URL (o nome do destinatário pode ter qualquer coisa).
+	 */
+	synchronized String codificar() {
+		StringBuilder texto = new StringBuilder();
+		for (Map.Entry<String, Item> e : itens.entrySet()) {
+			TransferenciaPendente t = e.getValue().transferencia;
+			texto.append(String.join("\t", codificar(e.getKey()), Long.toString(e.getValue().expiraEm),
+					Integer.toString(t.getIdContaOrigem()), Integer.toString(t.getIdContaDestino()),
+					Double.toString(t.getValor()), codificar(t.getNomeDestino()), codificar(t.getCpfDestino()),
+					codificar(t.getAgenciaDestino()), codificar(t.getNumeroContaDestino()))).append('\n');
+		}
+		return texto.toString();
+	}
+
+	/**
+	 * @param texto Saída do {@link #codificar()}; linhas inválidas são ignoradas
+	 */
+	static TransferenciasPendentes decodificar(String texto) {
+		TransferenciasPendentes pendentes = new TransferenciasPendentes();
+		if (texto == null) {
+			return pendentes;
+		}
+		for (String linha : texto.split("\n")) {
+			String[] campos = linha.split("\t", -1);
+			if (campos.length != 9) {
+				continue;
+			}
+			try {
+				TransferenciaPendente transferencia = new TransferenciaPendente(Integer.parseInt(campos[2]),
+						Integer.parseInt(campos[3]), Double.parseDouble(campos[4]), decodificarCampo(campos[5]),
+						decodificarCampo(campos[6]), decodificarCampo(campos[7]), decodificarCampo(campos[8]));
+				pendentes.itens.put(decodificarCampo(campos[0]), new Item(transferencia, Long.parseLong(campos[1])));
+			} catch (IllegalArgumentException e) {
+				// Linha corrompida: a confirmação dela é recusada e o cliente refaz
+			}
+		}
+		return pendentes;
+	}
+
+	private static String codificar(String campo) {
+		return campo != null ? URLEncoder.encode(campo, StandardCharsets.UTF_8) : "";
+	}
+
+	private static String decodificarCampo(String campo) {
+		return campo.isEmpty() ? null : URLDecoder.decode(campo, StandardCharsets.UTF_8);
+	}
+
+	private static String novoId() {
+		byte[] bytes = new byte[18];
+		ALEATORIO.nextBytes(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}
@@ -0,0 +1,104 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import br.uff.ic.grupo6.banco.model.Usuario;
+import br.uff.ic.grupo6.banco.service.ClienteService;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.sql.SQLException;
+
+/**
+ * Acesso ao usuário logado. A sessão guarda só o {@link SessaoUsuario}; o
+ * Cliente completo é carregado pelo ClienteService (que passa pelo cache dos
+ * DAOs) quando a página precisa dele, e fica guardado na requisição para que
+ * o servlet e a JSP do mesmo pedido não busquem duas vezes.
+ */
+public final class UsuarioAtual {
+
+	public static final String ATRIBUTO_SESSAO = "usuarioLogado";
+	// Cliente já carregado nesta requisição
+	public static final String ATRIBUTO_CLIENTE = "clienteAtual";
+
+	private UsuarioAtual() {
+	}
+
+	/**
+	 * Registra o usuário autenticado na sessão (e na sessão externa, se houver).
+	 */
+	public static void entrar(HttpServletRequest request, HttpServletResponse response, Usuario usuario) {
+		SessaoUsuario sessaoUsuario = SessaoUsuario.de(usuario);
+		HttpSession sessao = request.getSession();
+		sessao.setAttribute(ATRIBUTO_SESSAO, sessaoUsuario);
+		// Criadas aqui, uma vez por sessão, e não na primeira transferência (duas abas criariam duas)
+		sessao.setAttribute(TransferenciasPendentes.ATRIBUTO_SESSAO, new TransferenciasPendentes());
+		SessaoExterna.iniciar(request, response, sessaoUsuario);
+	}
+
+	/**
+	 * Atualiza o usuário já logado depois de uma mudança no cadastro (ex: nome).
+	 */
+	public static void atualizar(HttpSession sessao, Usuario usuario) {
+		SessaoUsuario sessaoUsuario = SessaoUsuario.de(usuario);
+		sessao.setAttribute(ATRIBUTO_SESSAO, sessaoUsuario);
+		SessaoExterna.atualizar(sessao, sessaoUsuario);
+	}
+
+	/**
+	 * @return O usuário logado, ou null se não há sessão ou login
+	 */
+	public static SessaoUsuario getSessao(HttpSession sessao) {
+		Object usuario = sessao != null ? sessao.getAttribute(ATRIBUTO_SESSAO) : null;
+		return usuario instanceof SessaoUsuario ? (SessaoUsuario) usuario : null;
+	}
+
+	/**
+	 * @return O usuário logado se for um cliente, ou null
+	 */
+	public static SessaoUsuario getCliente(HttpSession sessao) {
+		SessaoUsuario usuario = getSessao(sessao);
+		return usuario != null && usuario.isCliente() ? usuario : null;
+	}
+
+	public static boolean isGerente(HttpSession sessao) {
+		SessaoUsuario usuario = getSessao(sessao);
+		return usuario != null && usuario.isGerente();
+	}
+
+	/**
+	 * Carrega o cadastro completo (com a conta e o saldo) do cliente logado. A
+	 * cópia é da requisição: o servlet pode atualizá-la (ex: saldo depois do
+	 * saque) para a JSP de comprovante mostrar.
+	 *
+	 * @return O cliente, ou null se ele não existe mais
+	 */
+	public static Cliente carregarCliente(HttpServletRequest request, SessaoUsuario usuario,
+			ClienteService clienteService) throws SQLException {
+		Cliente cliente = (Cliente) request.getAttribute(ATRIBUTO_CLIENTE);
+		if (cliente == null) {
+			cliente = clienteService.buscarClientePorId(usuario.getIdUsuario());
+			request.setAttribute(ATRIBUTO_CLIENTE, cliente);
+		}
+		return cliente;
+	}
+
+	/**
+	 * Versão para as JSPs: carrega o cliente logado da sessão.
+	 *
+	 * @return O cliente, ou null se quem está logado não é um cliente
+	 */
+	public static Cliente carregarCliente(HttpServletRequest request, HttpSession sessao) throws ServletException {
+		SessaoUsuario usuario = getCliente(sessao);
+		if (usuario == null) {
+			return null;
+		}
+		try {
+			return carregarCliente(request, usuario, new ClienteService());
+		} catch (SQLException e) {
+			throw new ServletException("Erro ao carregar os dados do cliente", e);
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package br.uff.ic.grupo6.banco.controller.gerente;
 
 import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Pagina;
 import br.uff.ic.grupo6.banco.service.ClienteService;
+import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +24,13 @@ public class BuscaClientesServlet extends HttpServlet {
 		String termoBusca = request.getParameter("termoBusca");
 		String acao = request.getParameter("acao");
 
+		if ("listarTodos".equals(acao)) {
+			// "Listar Todos" pagina no banco em vez de trazer todos os clientes
+			listarPagina(clienteService, request, "dashboard.jsp");
+			request.getRequestDispatcher("/gerente/tabelaClientes.jsp").include(request, response);
+			return;
+		}
+
 		try {
 			// 2. CONTROLLER: Chama a camada de SERVIÇO
 			List<Cliente> clientesEncontrados = clienteService.buscarClientes(termoBusca, acao);
@@ -37,4 +46,32 @@ public class BuscaClientesServlet extends HttpServlet {
 		// 4. CONTROLLER: Encaminha para a VIEW
 		request.getRequestDispatcher("/gerente/tabelaClientes.jsp").include(request, response);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Prepara a VIEW com uma página da listagem de clientes (parâmetros
+	 * "ordem" e "cursor"). Também usado pelo ListaClientesServlet.
+	 *
+	 * @param urlListagem Para onde apontam os links de ordenação e de página
+	 */
+	static void listarPagina(ClienteService clienteService, HttpServletRequest request, String urlListagem) {
+		String ordem = request.getParameter("ordem");
+		String cursor = request.getParameter("cursor");
+		try {
+			Pagina<Cliente> pagina = clienteService.listarClientesPaginado(ordem, cursor,
+					ClienteService.TAMANHO_PAGINA_PADRAO);
+			request.setAttribute("listaClientes", pagina.getItens());
+			request.setAttribute("proximoCursor", pagina.getProximoCursor());
+			request.setAttribute("totalClientes", clienteService.contarClientes());
+		} catch (ValidationException e) {
+			// Ordenação ou cursor adulterados na URL
+			request.setAttribute("erro", e.getMessage());
+		} catch (SQLException e) {
+			e.printStackTrace();
+			request.setAttribute("erro", "Erro ao carregar a lista de clientes.");
+		}
+		request.setAttribute("listagemPaginada", true);
+		request.setAttribute("urlListagem", urlListagem);
+		request.setAttribute("ordem", ordem == null || ordem.isEmpty() ? "nome" : ordem);
+		request.setAttribute("paginaAtual", cursor);
+	}
+}
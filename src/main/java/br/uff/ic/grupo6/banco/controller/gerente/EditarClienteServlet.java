@@ -1,7 +1,7 @@
 package br.uff.ic.grupo6.banco.controller.gerente;
 
+import br.uff.ic.grupo6.banco.controller.UsuarioAtual;
 import br.uff.ic.grupo6.banco.model.Cliente;
-import br.uff.ic.grupo6.banco.model.Gerente;
 import br.uff.ic.grupo6.banco.service.ClienteService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
@@ -22,7 +22,7 @@ public class EditarClienteServlet extends HttpServlet {
 	protected void doGet(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
 		// Segurança (lógica de apresentação/controle)
-		if (!(request.getSession().getAttribute("usuarioLogado") instanceof Gerente)) {
+		if (!UsuarioAtual.isGerente(request.getSession())) {
 			response.sendRedirect(request.getContextPath() + "/login.jsp?erro=Acesso Negado");
 			return;
 		}
@@ -56,7 +56,7 @@ public class EditarClienteServlet extends HttpServlet {
 		request.setCharacterEncoding("UTF-8");
 
 		// Segurança
-		if (!(request.getSession().getAttribute("usuarioLogado") instanceof Gerente)) {
+		if (!UsuarioAtual.isGerente(request.getSession())) {
 			response.sendRedirect(request.getContextPath() + "/login.jsp?erro=Acesso+Negado");
 			return;
 		}
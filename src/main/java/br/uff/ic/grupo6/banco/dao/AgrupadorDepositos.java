@@ -0,0 +1,357 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Dinheiro;
+import br.uff.ic.grupo6.banco.model.Transacao;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Depósitos em grupo (-Dbanco.deposito.agrupar=true), para os picos de
+ * depósito em dinheiro no fim do dia: em vez de uma transação (e uma escrita
+ * no disco do banco) por depósito, os depósitos que chegam juntos esperam
+ * alguns milissegundos numa fila e são gravados numa só transação, com os
+ * comandos em lote. Cada chamador recebe o seu próprio comprovante.
+ *
+ * Um lote fecha com -Dbanco.deposito.loteMaximo depósitos (padrão 32) ou
+ * -Dbanco.deposito.esperaMaximaMs depois do primeiro (padrão 2). Os depósitos
+ * na mesma conta viram um só UPDATE com a soma. Se o lote falhar (uma conta
+ * inexistente, um deadlock), nada dele fica gravado e cada depósito é refeito
+ * sozinho, para que o erro de um não chegue aos outros. Se a falha for no
+ * próprio commit, o banco pode ter gravado o lote: ele não é refeito, e os
+ * depósitos falham (um reenvio com a mesma chave de idempotência recebe o
+ * comprovante, se o lote foi gravado).
+ *
+ * Quem deposita espera o comprovante por até -Dbanco.deposito.esperaReciboMs
+ * (padrão 30000); depois disso recebe um erro, e o depósito pode ou não ter
+ * sido gravado.
+ */
+public class AgrupadorDepositos {
+
+    private static final Logger LOG = Logger.getLogger(AgrupadorDepositos.class.getName());
+
+    private static final int LOTE_MAXIMO = Integer.getInteger("banco.deposito.loteMaximo", 32);
+    private static final long ESPERA_MAXIMA_MS = Long.getLong("banco.deposito.esperaMaximaMs", 2);
+    private static final long ESPERA_RECIBO_MS = Long.getLong("banco.deposito.esperaReciboMs", 30000);
+
+    private static final String SQL_CREDITO = "UPDATE CONTA SET saldo = saldo + ? WHERE id = ?";
+
+    private static AgrupadorDepositos global;
+
+    /**
+     * Falha no commit do lote: o resultado no banco é desconhecido.
+     */
+    private static final class FalhaNoCommit extends SQLException {
+
+        FalhaNoCommit(SQLException causa) {
+            super("Falha ao confirmar o lote de depósitos; o resultado é desconhecido", causa.getSQLState(), causa);
+        }
+    }
+
+    private static final class Pedido {
+
+        final int idConta;
+        final long centavos;
+        final String chave;
+        final CompletableFuture<Transacao> recibo = new CompletableFuture<>();
+        Transacao transacao;
+        boolean repetido;
+
+        Pedido(int idConta, long centavos, String chave) {
+            this.idConta = idConta;
+            this.centavos = centavos;
+            this.chave = chave;
+        }
+    }
+
+    private final int loteMaximo;
+    private final long esperaMaximaNanos;
+    private final long esperaReciboMs;
+    private final BlockingQueue<Pedido> fila = new LinkedBlockingQueue<>();
+    private final ContaDAO contaDAO = new ContaDAO();
+    private final TransacaoDAO transacaoDAO = new TransacaoDAO();
+    private final OperacaoIdempotenteDAO operacoes = new OperacaoIdempotenteDAO();
+    private final Thread gravadora;
+    private volatile boolean encerrado;
+
+    /**
+     * @param loteMaximo Depósitos gravados, no máximo, numa transação
+     * @param esperaMaximaMs Quanto o primeiro depósito do lote espera pelos outros
+     * @param esperaReciboMs Quanto quem deposita espera o comprovante
+     */
+    public AgrupadorDepositos(int loteMaximo, long esperaMaximaMs, long esperaReciboMs) {
+        if (loteMaximo < 1 || esperaMaximaMs < 0 || esperaReciboMs < 1) {
+            throw new IllegalArgumentException("Lote de depósitos inválido: " + loteMaximo + ", " + esperaMaximaMs
+                    + " ms, " + esperaReciboMs + " ms");
+        }
+        this.loteMaximo = loteMaximo;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.esperaReciboMs = esperaReciboMs;
+        this.gravadora = new Thread(this::executar, "banco-deposito-lote");
+        this.gravadora.setDaemon(true);
+        this.gravadora.start();
+    }
+
+    /**
+     * @return O agrupador usado pelo ContaDAO, criado no primeiro depósito
+     */
+    public static synchronized AgrupadorDepositos getInstancia() {
+        if (global == null) {
+            global = new AgrupadorDepositos(LOTE_MAXIMO, ESPERA_MAXIMA_MS, ESPERA_RECIBO_MS);
+        }
+        return global;
+    }
+
+    /**
+     * Grava o que está na fila e para a thread do agrupador (chamado no
+     * undeploy, antes de fechar o pool de conexões).
+     */
+    public static synchronized void encerrarInstancia() {
+        if (global != null) {
+            global.encerrar();
+            global = null;
+        }
+    }
+
+    /**
+     * Coloca o depósito no próximo lote e espera a transação do lote terminar.
+     *
+     * @param chave Chave de idempotência (null para não usar)
+     * @return O comprovante; com chave repetida, o da primeira execução
+     */
+    public Transacao depositar(int idConta, long centavos, String chave) throws SQLException {
+        Pedido pedido = new Pedido(idConta, centavos, chave);
+        fila.add(pedido);
+        // Se a thread já parou, ninguém vai tirar o pedido da fila
+        if (encerrado && fila.remove(pedido)) {
+            throw new SQLException("Depósitos agrupados encerrados");
+        }
+        try {
+            return pedido.recibo.get(esperaReciboMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new SQLException("Depósito sem resposta do lote em " + esperaReciboMs + " ms; pode ter sido gravado", e);
+        } catch (InterruptedException e) {
+            // O depósito continua no lote e pode ser gravado; só não há mais quem espere
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando o lote de depósitos", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Falha no lote de depósitos", e.getCause());
+        }
+    }
+
+    /**
+     * Para de aceitar depósitos, grava os que estão na fila e espera a thread.
+     */
+    public void encerrar() {
+        encerrado = true;
+        try {
+            gravadora.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void executar() {
+        List<Pedido> lote = new ArrayList<>(loteMaximo);
+        try {
+            while (!encerrado || !fila.isEmpty()) {
+                Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, loteMaximo - lote.size());
+                long limite = System.nanoTime() + esperaMaximaNanos;
+                while (lote.size() < loteMaximo) {
+                    Pedido proximo = fila.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+                gravar(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            SQLException erro = new SQLException("Thread de depósitos agrupados interrompida", e);
+            lote.addAll(fila);
+            fila.clear();
+            for (Pedido pedido : lote) {
+                pedido.recibo.completeExceptionally(erro);
+            }
+        }
+    }
+
+    private void gravar(List<Pedido> lote) {
+        boolean gravado = false;
+        if (lote.size() > 1) {
+            try {
+                gravarJuntos(lote);
+                gravado = true;
+            } catch (FalhaNoCommit e) {
+                // Refazer poderia creditar duas vezes os depósitos sem chave
+                for (Pedido pedido : lote) {
+                    pedido.recibo.completeExceptionally(e);
+                }
+                return;
+            } catch (SQLException | RuntimeException e) {
+                LOG.log(Level.WARNING, "Lote de " + lote.size() + " depósitos desfeito, refazendo um a um", e);
+            }
+        }
+        if (!gravado) {
+            for (Pedido pedido : lote) {
+                try {
+                    pedido.recibo.complete(contaDAO.depositarIsolado(pedido.idConta, pedido.centavos, pedido.chave));
+                } catch (SQLException | RuntimeException e) {
+                    pedido.recibo.completeExceptionally(e);
+                }
+            }
+            return;
+        }
+
+        List<Pedido> repetidos = new ArrayList<>();
+        for (Pedido pedido : lote) {
+            if (pedido.repetido) {
+                repetidos.add(pedido);
+            } else {
+                pedido.recibo.complete(pedido.transacao);
+            }
+        }
+        if (!repetidos.isEmpty()) {
+            responderRepetidos(repetidos);
+        }
+    }
+
+    /**
+     * Reserva as chaves, credita as contas, registra as transações e vincula
+     * as chaves, tudo numa transação.
+     *
+     * @throws FalhaNoCommit Se o commit falhou (o lote pode ter sido gravado);
+     * qualquer outra exceção garante que nada foi gravado
+     */
+    private void gravarJuntos(List<Pedido> lote) throws SQLException {
+        Connection conexao = null;
+        try {
+            conexao = ConexaoDB.getConexao();
+            conexao.setAutoCommit(false);
+
+            // 1. Chaves já usadas (também as repetidas dentro do lote) não depositam de novo
+            List<Pedido> novos = new ArrayList<>();
+            for (Pedido pedido : lote) {
+                pedido.repetido = pedido.chave != null && !operacoes.reservar(conexao, pedido.idConta, pedido.chave);
+                if (!pedido.repetido) {
+                    novos.add(pedido);
+                }
+            }
+
+            // 2. Um UPDATE por conta, com a soma dos depósitos dela. A ordem por id
+            // é a mesma em todos os lotes, então dois lotes não travam um ao outro
+            Map<Integer, Long> somaPorConta = new TreeMap<>();
+            for (Pedido pedido : novos) {
+                somaPorConta.merge(pedido.idConta, pedido.centavos, Long::sum);
+            }
+            try (PreparedStatement ps = conexao.prepareStatement(SQL_CREDITO)) {
+                for (Map.Entry<Integer, Long> credito : somaPorConta.entrySet()) {
+                    ps.setBigDecimal(1, Dinheiro.decimal(credito.getValue()));
+                    ps.setInt(2, credito.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            // 3. Uma transação (comprovante) por depósito
+            List<Transacao> transacoes = new ArrayList<>();
+            List<String> chaves = new ArrayList<>();
+            List<Transacao> transacoesComChave = new ArrayList<>();
+            for (Pedido pedido : novos) {
+                pedido.transacao = new Transacao();
+                pedido.transacao.setIdConta(pedido.idConta);
+                pedido.transacao.setTipo("DEPOSITO");
+                pedido.transacao.setValor(Dinheiro.decimal(pedido.centavos));
+                transacoes.add(pedido.transacao);
+                if (pedido.chave != null) {
+                    chaves.add(pedido.chave);
+                    transacoesComChave.add(pedido.transacao);
+                }
+            }
+            if (!transacoes.isEmpty()) {
+                transacaoDAO.registrarTransacoes(conexao, transacoes);
+            }
+            if (!chaves.isEmpty()) {
+                operacoes.vincular(conexao, chaves, transacoesComChave);
+            }
+
+            try {
+                conexao.commit();
+            } catch (SQLException e) {
+                throw new FalhaNoCommit(e);
+            }
+
+        } catch (SQLException | RuntimeException e) {
+            if (conexao != null) {
+                // Um erro no rollback não pode esconder o erro que o causou
+                try {
+                    conexao.rollback();
+                } catch (SQLException erroRollback) {
+                    e.addSuppressed(erroRollback);
+                }
+            }
+            throw e;
+        } finally {
+            for (Pedido pedido : lote) {
+                CacheCadastro.invalidarConta(pedido.idConta);
+            }
+            fechar(conexao);
+        }
+    }
+
+    /**
+     * Chaves repetidas: o comprovante é o da execução que usou a chave, que já
+     * terminou (o reservar esperou por ela) ou é deste mesmo lote.
+     */
+    private void responderRepetidos(List<Pedido> repetidos) {
+        try (Connection conexao = ConexaoDB.getConexao()) {
+            for (Pedido pedido : repetidos) {
+                Transacao recibo = operacoes.buscarRecibo(conexao, pedido.idConta, pedido.chave);
+                if (recibo != null) {
+                    pedido.recibo.complete(recibo);
+                } else {
+                    pedido.recibo.completeExceptionally(
+                            new SQLException("Chave de idempotência sem transação: " + pedido.chave));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            for (Pedido pedido : repetidos) {
+                pedido.recibo.completeExceptionally(e);
+            }
+        }
+    }
+
+    // Depois do commit, um erro ao devolver a conexão não pode fazer o lote ser refeito
+    private static void fechar(Connection conexao) {
+        if (conexao == null) {
+            return;
+        }
+        try {
+            conexao.setAutoCommit(true);
+            conexao.close();
+        } catch (SQLException e) {
+            LOG.log(Level.WARNING, "Falha ao devolver a conexão do lote de depósitos", e);
+        }
+    }
+}
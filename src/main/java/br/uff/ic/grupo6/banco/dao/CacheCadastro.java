@@ -0,0 +1,163 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Destinatario;
+import br.uff.ic.grupo6.banco.model.Gerente;
+import br.uff.ic.grupo6.banco.model.Usuario;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Caches compartilhados pelo UsuarioDAO e pelo ContaDAO para as buscas de
+ * cliente e conta que se repetem (preparação de transferência, dados
+ * cadastrais, edição pelo gerente). Os objetos são copiados ao entrar e ao
+ * sair do cache, então quem recebe pode alterá-los sem afetar o cache.
+ *
+ * Qualquer alteração de cadastro ou de saldo feita por estes DAOs invalida as
+ * entradas afetadas, e só elas: cada entrada é indexada pela conta e pelo
+ * usuário que carrega (grupos do CacheLRU). Alterações feitas direto no banco (ou por outro servidor)
+ * só aparecem depois do tempo de vida (-Dbanco.cache.tempoVidaMs).
+ */
+public final class CacheCadastro {
+
+    private static final int CAPACIDADE = Integer.getInteger("banco.cache.capacidade", 1000);
+    private static final long TEMPO_VIDA_MS = Long.getLong("banco.cache.tempoVidaMs", 60 * 1000L);
+    // Contas inexistentes: vida curta, o número pode passar a existir por fora destes DAOs
+    private static final long TEMPO_VIDA_NEGATIVO_MS = Long.getLong("banco.cache.tempoVidaNegativoMs", 5 * 1000L);
+
+    static final CacheLRU<Integer, Cliente> CLIENTES_POR_ID = new CacheLRU<>(CAPACIDADE, TEMPO_VIDA_MS,
+            CacheCadastro::grupos);
+    static final CacheLRU<Integer, Cliente> CLIENTES_POR_ID_CONTA = new CacheLRU<>(CAPACIDADE, TEMPO_VIDA_MS,
+            CacheCadastro::grupos);
+    static final CacheLRU<String, Usuario> USUARIOS_POR_CPF = new CacheLRU<>(CAPACIDADE, TEMPO_VIDA_MS,
+            CacheCadastro::grupos);
+    static final CacheLRU<Integer, Usuario> USUARIOS_POR_ID = new CacheLRU<>(CAPACIDADE, TEMPO_VIDA_MS,
+            CacheCadastro::grupos);
+    static final CacheLRU<String, Conta> CONTAS_POR_NUMERO = new CacheLRU<>(CAPACIDADE, TEMPO_VIDA_MS,
+            conta -> Collections.singletonList(grupoConta(conta.getId())));
+    static final CacheLRU<String, Destinatario> DESTINATARIOS = new CacheLRU<>(CAPACIDADE, TEMPO_VIDA_MS,
+            destinatario -> destinatario.getTitular() != null
+                    ? Collections.singletonList(grupoUsuario(destinatario.getTitular().getId()))
+                    : Collections.emptyList());
+    static final CacheLRU<String, Boolean> CONTAS_INEXISTENTES = new CacheLRU<>(CAPACIDADE, TEMPO_VIDA_NEGATIVO_MS);
+
+    private CacheCadastro() {
+    }
+
+    static String chaveConta(String agencia, String numero) {
+        return agencia + "/" + numero;
+    }
+
+    /**
+     * Remove tudo que foi guardado sobre o usuário (cadastro, senha ou
+     * exclusão).
+     */
+    static void invalidarUsuario(int idUsuario) {
+        String grupo = grupoUsuario(idUsuario);
+        CLIENTES_POR_ID.removerGrupo(grupo);
+        CLIENTES_POR_ID_CONTA.removerGrupo(grupo);
+        USUARIOS_POR_CPF.removerGrupo(grupo);
+        USUARIOS_POR_ID.removerGrupo(grupo);
+        DESTINATARIOS.removerGrupo(grupo);
+    }
+
+    /**
+     * Conta recém-criada: deixa de constar como inexistente.
+     */
+    static void invalidarContaNova(String agencia, String numero) {
+        CONTAS_INEXISTENTES.remover(chaveConta(agencia, numero));
+    }
+
+    /**
+     * Remove tudo que carrega o saldo da conta.
+     */
+    static void invalidarConta(int idConta) {
+        String grupo = grupoConta(idConta);
+        CLIENTES_POR_ID_CONTA.removerGrupo(grupo);
+        CLIENTES_POR_ID.removerGrupo(grupo);
+        USUARIOS_POR_CPF.removerGrupo(grupo);
+        USUARIOS_POR_ID.removerGrupo(grupo);
+        CONTAS_POR_NUMERO.removerGrupo(grupo);
+    }
+
+    /**
+     * Remove o usuário excluído e a sua conta. Como a conta não é conhecida pelo
+     * ID do usuário, o cache de contas é esvaziado (exclusão é rara).
+     */
+    static void invalidarExclusao(int idUsuario) {
+        invalidarUsuario(idUsuario);
+        CONTAS_POR_NUMERO.limpar();
+        DESTINATARIOS.limpar();
+    }
+
+    private static String grupoConta(int idConta) {
+        return "conta:" + idConta;
+    }
+
+    private static String grupoUsuario(int idUsuario) {
+        return "usuario:" + idUsuario;
+    }
+
+    /**
+     * O usuário e, se for cliente com conta, a conta dele.
+     */
+    private static List<String> grupos(Usuario usuario) {
+        List<String> grupos = new ArrayList<>(2);
+        if (usuario != null) {
+            grupos.add(grupoUsuario(usuario.getId()));
+            if (usuario instanceof Cliente && ((Cliente) usuario).getConta() != null) {
+                grupos.add(grupoConta(((Cliente) usuario).getConta().getId()));
+            }
+        }
+        return grupos;
+    }
+
+    /**
+     * Esvazia todos os caches (e o índice da busca de clientes).
+     */
+    public static void limpar() {
+        CLIENTES_POR_ID.limpar();
+        CLIENTES_POR_ID_CONTA.limpar();
+        USUARIOS_POR_CPF.limpar();
+        USUARIOS_POR_ID.limpar();
+        CONTAS_POR_NUMERO.limpar();
+        DESTINATARIOS.limpar();
+        CONTAS_INEXISTENTES.limpar();
+        IndiceBuscaClientes.getInstancia().descartar();
+    }
+
+    static Cliente copiar(Cliente cliente) {
+        return cliente != null ? new Cliente(cliente) : null;
+    }
+
+    static Conta copiar(Conta conta) {
+        return conta != null ? new Conta(conta) : null;
+    }
+
+    static Destinatario copiar(Destinatario destinatario) {
+        return destinatario != null
+                ? new Destinatario(copiar(destinatario.getConta()), copiar(destinatario.getTitular()))
+                : null;
+    }
+
+    static Usuario copiar(Usuario usuario) {
+        if (usuario instanceof Cliente) {
+            return new Cliente((Cliente) usuario);
+        }
+        if (usuario instanceof Gerente) {
+            return new Gerente((Gerente) usuario);
+        }
+        return usuario;
+    }
+
+    /**
+     * @return Acertos, falhas e tamanho de cada cache, para diagnóstico.
+     */
+    public static String getEstatisticas() {
+        return "clientesPorId[" + CLIENTES_POR_ID + "] clientesPorIdConta[" + CLIENTES_POR_ID_CONTA
+                + "] usuariosPorCpf[" + USUARIOS_POR_CPF + "] usuariosPorId[" + USUARIOS_POR_ID + "] contasPorNumero[" + CONTAS_POR_NUMERO
+                + "] destinatarios[" + DESTINATARIOS + "] contasInexistentes[" + CONTAS_INEXISTENTES + "]";
+    }
+}
@@ -0,0 +1,308 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Cache em memória com limite de tamanho (descarta o item usado há mais tempo)
+ * e tempo de vida por item. Seguro para uso por várias threads.
+ *
+ * Para não guardar um valor que ficou velho durante a consulta ao banco, quem
+ * lê do banco pega a geração antes da consulta e a passa para guardar(): se a
+ * chave (ou um grupo do valor) foi invalidada nesse meio tempo, o valor é
+ * descartado. As invalidações de outras chaves não atrapalham.
+ *
+ * Grupos são etiquetas tiradas do valor (ex: a conta do cliente): removerGrupo()
+ * apaga só as chaves daquele grupo, por um índice, sem percorrer o cache.
+ */
+public class CacheLRU<K, V> {
+
+    private static class Item<V> {
+
+        final V valor;
+        final long expiraEm;
+        final Collection<?> grupos;
+
+        Item(V valor, long expiraEm, Collection<?> grupos) {
+            this.valor = valor;
+            this.expiraEm = expiraEm;
+            this.grupos = grupos;
+        }
+    }
+
+    private final int capacidade;
+    private final long tempoVidaMs;
+    private final LongSupplier relogioMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Function<? super V, ? extends Collection<?>> grupos;
+    private final LinkedHashMap<K, Item<V>> itens;
+    private final Map<Object, Set<K>> chavesPorGrupo = new HashMap<>();
+    // Geração em que cada chave ou grupo foi invalidado pela última vez. Só as
+    // mais recentes são lembradas; as esquecidas sobem o piso, e leituras
+    // anteriores ao piso são descartadas por precaução
+    private final LinkedHashMap<Object, Long> invalidadasEm;
+    private long geracao;
+    private long piso;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder descartesPorTamanho = new LongAdder();
+    private final LongAdder invalidacoes = new LongAdder();
+
+    public CacheLRU(int capacidade, long tempoVidaMs) {
+        this(capacidade, tempoVidaMs, System::currentTimeMillis);
+    }
+
+    public CacheLRU(int capacidade, long tempoVidaMs, Function<? super V, ? extends Collection<?>> grupos) {
+        this(capacidade, tempoVidaMs, System::currentTimeMillis, grupos);
+    }
+
+    public CacheLRU(int capacidade, long tempoVidaMs, LongSupplier relogioMs) {
+        this(capacidade, tempoVidaMs, relogioMs, null);
+    }
+
+    /**
+     * @param capacidade Quantidade máxima de itens
+     * @param tempoVidaMs Tempo que um item fica válido depois de guardado
+     * @param relogioMs Fonte do horário atual (substituível nos testes)
+     * @param grupos Grupos de cada valor, para removerGrupo() (null se não usar)
+     */
+    public CacheLRU(int capacidade, long tempoVidaMs, LongSupplier relogioMs,
+            Function<? super V, ? extends Collection<?>> grupos) {
+        this.capacidade = capacidade;
+        this.tempoVidaMs = tempoVidaMs;
+        this.relogioMs = relogioMs;
+        this.grupos = grupos;
+        // accessOrder = true: cada leitura move o item para o fim da fila
+        this.itens = new LinkedHashMap<K, Item<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Item<V>> maisAntigo) {
+                if (size() > CacheLRU.this.capacidade) {
+                    descartesPorTamanho.increment();
+                    desindexar(maisAntigo.getKey(), maisAntigo.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+        int lembradas = Math.max(64, capacidade * 2);
+        this.invalidadasEm = new LinkedHashMap<Object, Long>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Long> maisAntiga) {
+                if (size() > lembradas) {
+                    piso = Math.max(piso, maisAntiga.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return O valor guardado, ou null se não existir ou tiver expirado
+     */
+    public V buscar(K chave) {
+        lock.lock();
+        try {
+            Item<V> item = itens.get(chave);
+            if (item != null && item.expiraEm <= relogioMs.getAsLong()) {
+                itens.remove(chave);
+                desindexar(chave, item);
+                item = null;
+            }
+            if (item == null) {
+                falhas.increment();
+                return null;
+            }
+            acertos.increment();
+            return item.valor;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return A geração atual, a ser lida antes de consultar o banco
+     */
+    public long getGeracao() {
+        lock.lock();
+        try {
+            return geracao;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Guarda o valor lido do banco, a menos que a chave ou um dos grupos do
+     * valor tenha sido invalidado depois da leitura.
+     *
+     * @param geracaoDaLeitura Valor de getGeracao() antes da consulta ao banco
+     */
+    public void guardar(K chave, V valor, long geracaoDaLeitura) {
+        if (capacidade <= 0 || valor == null) {
+            return;
+        }
+        Collection<?> gruposDoValor = grupos != null ? grupos.apply(valor) : Collections.emptyList();
+        lock.lock();
+        try {
+            if (invalidadaDepois(chave, geracaoDaLeitura)) {
+                return;
+            }
+            for (Object grupo : gruposDoValor) {
+                if (invalidadaDepois(grupo, geracaoDaLeitura)) {
+                    return;
+                }
+            }
+            desindexar(chave, itens.remove(chave));
+            Item<V> item = new Item<>(valor, relogioMs.getAsLong() + tempoVidaMs, gruposDoValor);
+            itens.put(chave, item);
+            for (Object grupo : gruposDoValor) {
+                chavesPorGrupo.computeIfAbsent(grupo, g -> new HashSet<>()).add(chave);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remover(K chave) {
+        lock.lock();
+        try {
+            marcarInvalidada(chave);
+            desindexar(chave, itens.remove(chave));
+            invalidacoes.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove os itens do grupo (ver o construtor), sem percorrer o cache. Uma
+     * leitura em andamento que traga um valor do grupo também é descartada.
+     */
+    public void removerGrupo(Object grupo) {
+        lock.lock();
+        try {
+            marcarInvalidada(grupo);
+            Set<K> chaves = chavesPorGrupo.remove(grupo);
+            if (chaves != null) {
+                for (K chave : chaves) {
+                    desindexar(chave, itens.remove(chave));
+                }
+            }
+            invalidacoes.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove todos os itens cujo valor atende à condição. Percorre o cache
+     * inteiro e descarta todas as leituras em andamento, então é só para
+     * invalidações raras que nem a chave nem um grupo atendem.
+     */
+    public void removerSe(Predicate<V> condicao) {
+        lock.lock();
+        try {
+            piso = ++geracao;
+            Iterator<Map.Entry<K, Item<V>>> it = itens.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Item<V>> entrada = it.next();
+                if (condicao.test(entrada.getValue().valor)) {
+                    it.remove();
+                    desindexar(entrada.getKey(), entrada.getValue());
+                }
+            }
+            invalidacoes.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void limpar() {
+        lock.lock();
+        try {
+            piso = ++geracao;
+            itens.clear();
+            chavesPorGrupo.clear();
+            invalidadasEm.clear();
+            invalidacoes.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Os métodos abaixo são chamados com o lock
+
+    private boolean invalidadaDepois(Object chaveOuGrupo, long geracaoDaLeitura) {
+        if (geracaoDaLeitura < piso) {
+            return true;
+        }
+        Long invalidadaEm = invalidadasEm.get(chaveOuGrupo);
+        return invalidadaEm != null && invalidadaEm > geracaoDaLeitura;
+    }
+
+    private void marcarInvalidada(Object chaveOuGrupo) {
+        geracao++;
+        // Remove antes para a chave ir para o fim da ordem (a mais recente)
+        invalidadasEm.remove(chaveOuGrupo);
+        invalidadasEm.put(chaveOuGrupo, geracao);
+    }
+
+    private void desindexar(K chave, Item<V> item) {
+        if (item == null) {
+            return;
+        }
+        for (Object grupo : item.grupos) {
+            Set<K> chaves = chavesPorGrupo.get(grupo);
+            if (chaves != null) {
+                chaves.remove(chave);
+                if (chaves.isEmpty()) {
+                    chavesPorGrupo.remove(grupo);
+                }
+            }
+        }
+    }
+
+    public int getTamanho() {
+        lock.lock();
+        try {
+            return itens.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public long getDescartesPorTamanho() {
+        return descartesPorTamanho.sum();
+    }
+
+    public long getInvalidacoes() {
+        return invalidacoes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "tamanho=" + getTamanho() + "/" + capacidade + ", acertos=" + getAcertos() + ", falhas="
+                + getFalhas() + ", descartes=" + getDescartesPorTamanho() + ", invalidacoes=" + getInvalidacoes();
+    }
+}
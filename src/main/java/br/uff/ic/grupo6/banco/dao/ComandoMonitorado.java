@@ -0,0 +1,206 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.metricas.RegistroMetricas;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Envolve um Statement/PreparedStatement para medir cada execução. Nas
+ * consultas, o tempo inclui a leitura do ResultSet (as chamadas a next()),
+ * e a medição termina quando o ResultSet ou o comando é fechado.
+ *
+ * O tempo vai para o /metrics agrupado pelo SQL normalizado (espaços
+ * colapsados e literais trocados por "?"), o que separa as variantes de SQL
+ * montadas com StringBuilder. Execuções acima de -Dbanco.sql.lentoMs (padrão
+ * 200) são logadas com o método que as executou e o formato dos parâmetros
+ * (tipos, nunca os valores, que podem ser CPF ou senha).
+ */
+final class ComandoMonitorado implements InvocationHandler {
+
+    private static final Logger LOG = Logger.getLogger(ComandoMonitorado.class.getName());
+
+    private static final long LIMIAR_LENTO_NANOS = Long.getLong("banco.sql.lentoMs", 200) * 1_000_000L;
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA_IN = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    // SQL executado -> normalizado. Os DAOs repetem os mesmos SQLs; o limite só
+    // protege contra SQL montado com valores, que nunca se repetiria
+    private static final int MAXIMO_NORMALIZADOS = 2000;
+    private static final Map<String, String> NORMALIZADOS = new ConcurrentHashMap<>();
+
+    private final Statement comando;
+    // Só conhecido na criação para PreparedStatement; no Statement vem em execute*(sql)
+    private String sql;
+    private final Map<Integer, String> parametros = new TreeMap<>();
+    private ResultadoMonitorado consultaAberta;
+
+    private ComandoMonitorado(Statement comando, String sql) {
+        this.comando = comando;
+        this.sql = sql;
+    }
+
+    static Statement monitorar(Statement comando, String sql) {
+        Class<?> tipo = comando instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{tipo},
+                new ComandoMonitorado(comando, sql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String nome = method.getName();
+        if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+            // setInt → "int", setNull → "null", setString(…, null) → "null"
+            parametros.put((Integer) args[0], args[1] == null || nome.equals("setNull") ? "null"
+                    : nome.substring(3).toLowerCase());
+        } else if (nome.equals("clearParameters")) {
+            parametros.clear();
+        } else if (nome.equals("close")) {
+            encerrarConsultaAberta();
+        }
+        if (!nome.startsWith("execute")) {
+            return repassar(method, args);
+        }
+
+        encerrarConsultaAberta();
+        if (args != null && args.length > 0 && args[0] instanceof String) {
+            sql = (String) args[0];
+        }
+        long inicio = System.nanoTime();
+        Object resultado;
+        try {
+            resultado = repassar(method, args);
+        } catch (Throwable e) {
+            registrar(sql, parametros.values().toString(), System.nanoTime() - inicio, -1);
+            throw e;
+        }
+        long execucao = System.nanoTime() - inicio;
+        if (resultado instanceof ResultSet) {
+            consultaAberta = new ResultadoMonitorado((ResultSet) resultado, sql, parametros.values().toString(),
+                    execucao);
+            return consultaAberta.proxy;
+        }
+        registrar(sql, parametros.values().toString(), execucao, -1);
+        return resultado;
+    }
+
+    private Object repassar(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(comando, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void encerrarConsultaAberta() {
+        if (consultaAberta != null) {
+            consultaAberta.encerrar();
+            consultaAberta = null;
+        }
+    }
+
+    private static void registrar(String sqlExecutado, String formaParametros, long nanos, int linhas) {
+        String normalizado = normalizar(sqlExecutado);
+        boolean lenta = nanos >= LIMIAR_LENTO_NANOS;
+        RegistroMetricas.getInstancia().registrarSql(normalizado, nanos, lenta);
+        if (lenta && LOG.isLoggable(Level.WARNING)) {
+            // Percorre a pilha só aqui, no log: o DAO que executou ainda está nela
+            LOG.warning("SQL lento (" + nanos / 1_000_000 + " ms"
+                    + (linhas >= 0 ? ", " + linhas + " linhas" : "") + ") em "
+                    + ConexaoMedida.descobrirOperacao() + ": " + normalizado
+                    + " | parâmetros: " + formaParametros);
+        }
+    }
+
+    /**
+     * @return O SQL sem quebras de linha, com literais e listas de IN trocados
+     * por "?"
+     */
+    static String normalizar(String sql) {
+        if (sql == null) {
+            return "desconhecido";
+        }
+        String normalizado = NORMALIZADOS.get(sql);
+        if (normalizado == null) {
+            normalizado = trocarLiterais(sql);
+            if (NORMALIZADOS.size() < MAXIMO_NORMALIZADOS) {
+                NORMALIZADOS.put(sql, normalizado);
+            }
+        }
+        return normalizado;
+    }
+
+    private static String trocarLiterais(String sql) {
+        String texto = ESPACOS.matcher(sql.trim()).replaceAll(" ");
+        texto = TEXTO.matcher(texto).replaceAll("?");
+        texto = NUMERO.matcher(texto).replaceAll("?");
+        return LISTA_IN.matcher(texto).replaceAll("(?...)");
+    }
+
+    /**
+     * Soma o tempo gasto em next() ao tempo da execução e registra tudo quando
+     * o ResultSet é fechado (direto, pelo comando ou por uma nova execução).
+     */
+    private static final class ResultadoMonitorado implements InvocationHandler {
+
+        private final ResultSet resultado;
+        private final String sqlDaConsulta;
+        private final String formaParametros;
+        private final ResultSet proxy;
+        private long nanos;
+        private int linhas;
+        private boolean encerrado;
+
+        private ResultadoMonitorado(ResultSet resultado, String sqlDaConsulta, String formaParametros,
+                long execucao) {
+            this.resultado = resultado;
+            this.sqlDaConsulta = sqlDaConsulta;
+            this.formaParametros = formaParametros;
+            this.nanos = execucao;
+            this.proxy = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+            if (nome.equals("close")) {
+                encerrar();
+            }
+            boolean proximaLinha = nome.equals("next");
+            long inicio = System.nanoTime();
+            try {
+                Object retorno = method.invoke(resultado, args);
+                if (proximaLinha) {
+                    nanos += System.nanoTime() - inicio;
+                    if (Boolean.TRUE.equals(retorno)) {
+                        linhas++;
+                    }
+                }
+                return retorno;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void encerrar() {
+            if (!encerrado) {
+                encerrado = true;
+                registrar(sqlDaConsulta, formaParametros, nanos, linhas);
+            }
+        }
+    }
+}
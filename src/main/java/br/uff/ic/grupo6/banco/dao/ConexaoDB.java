@@ -1,21 +1,214 @@
 package br.uff.ic.grupo6.banco.dao;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Ponto único de acesso ao banco. A conexão é configurada, nesta ordem de
+ * prioridade, por propriedades de sistema (-Dbanco.db.url=...), pelo arquivo
+ * {@code banco.properties} no classpath e pelos valores padrão (MySQL local).
+ *
+ * Com {@code banco.db.embarcado=true} a aplicação usa um H2 em memória no modo
+ * MySQL, criado a partir do {@code banco_inicial.sql} e das migrações. Serve
+ * para testes de DAO, benchmarks e testes de carga sem um MySQL instalado (o
+ * driver do H2 só está no classpath de testes).
+ */
 public class ConexaoDB {
 
     private static final String URL = "jdbc:mysql://localhost:3306/banco_atm?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
     private static final String USUARIO = "grupo"; // usuário criado ('grupo')
-    private static final String SENHA = "123"; // Senha criada ('123') 
+    private static final String SENHA = "123"; // Senha criada ('123')
+    private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
 
+    // Banco embarcado: DB_CLOSE_DELAY=-1 mantém os dados enquanto a JVM estiver de pé
+    public static final String URL_EMBARCADO = "jdbc:h2:mem:banco_atm;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String DRIVER_EMBARCADO = "org.h2.Driver";
+    public static final String SCRIPT_INICIAL = "db/banco_inicial.sql";
+
+    private static final String ARQUIVO_CONFIGURACAO = "banco.properties";
+
+    private static volatile PoolConexoes pool;
+    // ReentrantLock em vez de synchronized: a criação do pool faz I/O e não deve
+    // prender a thread portadora quando as requisições rodam em threads virtuais
+    private static final ReentrantLock TRAVA = new ReentrantLock();
+    // Configuração definida por reconfigurar(); null = propriedades de sistema e banco.properties
+    private static Properties configuracaoFixa;
+
+    // Tempo de cada método de DAO no /metrics (-Dbanco.metricas.dao=true). Desligado por
+    // padrão: descobrir o método percorre a pilha a cada conexão emprestada
+    private static final boolean MEDIR_DAOS = Boolean.getBoolean("banco.metricas.dao");
+    // Tempo de cada SQL e log de SQL lento (pode ser desligado com -Dbanco.sql.monitorar=false)
+    private static final boolean MONITORAR_SQL = Boolean.parseBoolean(System.getProperty("banco.sql.monitorar", "true"));
+
+    /**
+     * Empresta uma conexão do pool compartilhado por todos os DAOs. Fechar a
+     * conexão a devolve para o pool.
+     */
     public static Connection getConexao() throws SQLException {
+        Connection conexao = getPool().obterConexao();
+        if (MEDIR_DAOS || MONITORAR_SQL) {
+            return ConexaoMedida.medir(conexao, MEDIR_DAOS, MONITORAR_SQL);
+        }
+        return conexao;
+    }
+
+    /**
+     * @return Contadores do pool (ativas, ociosas, aguardando, latência de aquisição).
+     */
+    public static EstatisticasPool getEstatisticasPool() throws SQLException {
+        return getPool().getEstatisticas();
+    }
+
+    /**
+     * Fecha as conexões do pool. Chamado quando a aplicação é desligada.
+     */
+    public static void encerrarPool() {
+        TRAVA.lock();
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
+            if (pool != null) {
+                pool.encerrar();
+                pool = null;
+            }
+        } finally {
+            TRAVA.unlock();
+        }
+    }
+
+    /**
+     * Troca a configuração do banco (usado por testes e benchmarks). O pool
+     * atual é encerrado e o próximo getConexao() cria outro com as novas
+     * propriedades.
+     *
+     * @param propriedades Chaves banco.db.* e banco.pool.*; null volta a ler as
+     * propriedades de sistema e o banco.properties
+     */
+    public static void reconfigurar(Properties propriedades) {
+        TRAVA.lock();
+        try {
+            encerrarPool();
+            configuracaoFixa = propriedades;
+        } finally {
+            TRAVA.unlock();
+        }
+    }
+
+    /**
+     * @return Propriedades que ligam o banco embarcado, com um nome de banco
+     * próprio (bancos com nomes diferentes não compartilham dados)
+     */
+    public static Properties propriedadesEmbarcado(String nomeBanco) {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("banco.db.embarcado", "true");
+        propriedades.setProperty("banco.db.url", URL_EMBARCADO.replace("banco_atm", nomeBanco));
+        return propriedades;
+    }
+
+    private static PoolConexoes getPool() throws SQLException {
+        PoolConexoes atual = pool;
+        if (atual != null) {
+            return atual;
+        }
+        TRAVA.lock();
+        try {
+            if (pool == null) {
+                pool = criarPool(carregarConfiguracao());
+            }
+            return pool;
+        } finally {
+            TRAVA.unlock();
+        }
+    }
+
+    private static Properties carregarConfiguracao() throws SQLException {
+        if (configuracaoFixa != null) {
+            return configuracaoFixa;
+        }
+        Properties propriedades = new Properties();
+        try (InputStream entrada = ConexaoDB.class.getClassLoader().getResourceAsStream(ARQUIVO_CONFIGURACAO)) {
+            if (entrada != null) {
+                propriedades.load(entrada);
+            }
+        } catch (IOException e) {
+            throw new SQLException("Erro ao ler o " + ARQUIVO_CONFIGURACAO, e);
+        }
+        // Propriedades de sistema têm prioridade sobre o arquivo
+        for (String chave : System.getProperties().stringPropertyNames()) {
+            if (chave.startsWith("banco.db.") || chave.startsWith("banco.pool.")) {
+                propriedades.setProperty(chave, System.getProperty(chave));
+            }
+        }
+        return propriedades;
+    }
+
+    private static PoolConexoes criarPool(Properties config) throws SQLException {
+        boolean embarcado = Boolean.parseBoolean(config.getProperty("banco.db.embarcado", "false"));
+        String url = config.getProperty("banco.db.url", embarcado ? URL_EMBARCADO : URL);
+        String usuario = config.getProperty("banco.db.usuario", embarcado ? "sa" : USUARIO);
+        String senha = config.getProperty("banco.db.senha", embarcado ? "" : SENHA);
+        String driver = config.getProperty("banco.db.driver", embarcado ? DRIVER_EMBARCADO : DRIVER);
+        boolean inicializar = Boolean.parseBoolean(config.getProperty("banco.db.inicializar", String.valueOf(embarcado)));
+
+        try {
+            Class.forName(driver);
         } catch (ClassNotFoundException e) {
-            throw new SQLException("Driver JDBC do MySQL não encontrado!", e);
+            throw new SQLException("Driver JDBC não encontrado: " + driver, e);
+        }
+
+        // Dimensionamento do pool (pode ser ajustado com -Dbanco.pool.maximo=20, etc)
+        PoolConexoes novo = new PoolConexoes(() -> DriverManager.getConnection(url, usuario, senha),
+                inteiro(config, "banco.pool.minimo", 2),
+                inteiro(config, "banco.pool.maximo", 10),
+                longo(config, "banco.pool.ociosoMaximoMs", 10 * 60 * 1000L),
+                longo(config, "banco.pool.vidaMaximaMs", 30 * 60 * 1000L),
+                longo(config, "banco.pool.timeoutAquisicaoMs", 5000L));
+
+        if (inicializar) {
+            try (Connection conexao = novo.obterConexao()) {
+                criarEsquema(conexao);
+            } catch (SQLException e) {
+                novo.encerrar();
+                throw e;
+            }
+        }
+        return novo;
+    }
+
+    /**
+     * Cria as tabelas do banco_inicial.sql (se ainda não existirem) e aplica as
+     * migrações.
+     */
+    private static void criarEsquema(Connection conexao) throws SQLException {
+        boolean existe;
+        try (ResultSet rs = conexao.getMetaData().getTables(null, null, "USUARIO", null)) {
+            existe = rs.next();
         }
-        return DriverManager.getConnection(URL, USUARIO, SENHA);
+        if (!existe) {
+            try (Statement st = conexao.createStatement()) {
+                for (String comando : MigradorEsquema.separarComandos(MigradorEsquema.lerScript(SCRIPT_INICIAL))) {
+                    // O "USE banco_atm" só faz sentido no MySQL
+                    if (!comando.toUpperCase().startsWith("USE ")) {
+                        st.execute(comando);
+                    }
+                }
+            }
+        }
+        new MigradorEsquema().migrar(conexao);
+    }
+
+    private static int inteiro(Properties config, String chave, int padrao) {
+        String valor = config.getProperty(chave);
+        return valor != null ? Integer.parseInt(valor.trim()) : padrao;
+    }
+
+    private static long longo(Properties config, String chave, long padrao) {
+        String valor = config.getProperty(chave);
+        return valor != null ? Long.parseLong(valor.trim()) : padrao;
     }
 }
@@ -0,0 +1,85 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.metricas.RegistroMetricas;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Optional;
+
+/**
+ * Envolve a conexão emprestada pelo ConexaoDB para medir quanto tempo o método
+ * do DAO ficou com ela (do getConexao() até o close()). Como cada método de
+ * DAO pega a sua conexão no início e a fecha no fim, esse é o tempo do método
+ * no banco. Os comandos criados pela conexão também são medidos, um a um, pelo
+ * {@link ComandoMonitorado}.
+ */
+final class ConexaoMedida implements InvocationHandler {
+
+    private static final StackWalker PILHA = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final Connection conexao;
+    private final String operacao;
+    private final boolean monitorarComandos;
+    private final long inicio = System.nanoTime();
+    private boolean registrada;
+
+    private ConexaoMedida(Connection conexao, String operacao, boolean monitorarComandos) {
+        this.conexao = conexao;
+        this.operacao = operacao;
+        this.monitorarComandos = monitorarComandos;
+    }
+
+    /**
+     * @param medirOperacao Registra o tempo do método de DAO que pediu a conexão
+     * @param monitorarComandos Mede cada execução de SQL (log de SQL lento)
+     */
+    static Connection medir(Connection conexao, boolean medirOperacao, boolean monitorarComandos) {
+        String operacao = medirOperacao ? descobrirOperacao() : null;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConexaoMedida(conexao, operacao, monitorarComandos));
+    }
+
+    /**
+     * @return "Classe.metodo" de quem está usando a conexão (ex:
+     * "ContaDAO.realizarSaque"), pulando o pool e os proxies de medição
+     */
+    static String descobrirOperacao() {
+        Optional<StackWalker.StackFrame> chamador = PILHA.walk(frames -> frames
+                .filter(f -> !isMedicao(f.getDeclaringClass()))
+                .findFirst());
+        return chamador.map(f -> f.getDeclaringClass().getSimpleName() + "." + f.getMethodName())
+                .orElse("desconhecida");
+    }
+
+    private static boolean isMedicao(Class<?> classe) {
+        Class<?> externa = classe.getNestHost();
+        return externa == ConexaoMedida.class || externa == ConexaoDB.class || externa == ComandoMonitorado.class
+                || Proxy.isProxyClass(classe);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String nome = method.getName();
+        if (nome.equals("close") && !registrada) {
+            registrada = true;
+            if (operacao != null) {
+                RegistroMetricas.getInstancia().registrarDao(operacao, System.nanoTime() - inicio);
+            }
+        }
+        Object resultado;
+        try {
+            resultado = method.invoke(conexao, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        // prepareCall fica de fora: o proxy não implementaria CallableStatement
+        if (monitorarComandos && (nome.equals("prepareStatement") || nome.equals("createStatement"))) {
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            return ComandoMonitorado.monitorar((Statement) resultado, sql);
+        }
+        return resultado;
+    }
+}
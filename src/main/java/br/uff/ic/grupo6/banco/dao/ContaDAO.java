@@ -1,8 +1,10 @@
 package br.uff.ic.grupo6.banco.dao;
 
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Dinheiro;
 import br.uff.ic.grupo6.banco.model.Transacao;
 import br.uff.ic.grupo6.banco.model.Investimento;
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -12,10 +14,26 @@ import java.util.List;
 
 public class ContaDAO {
 
+    // Débito condicional: só altera a linha se o saldo no banco cobrir o valor.
+    // Assim o próprio banco garante que a conta nunca fica negativa, mesmo com
+    // várias sessões debitando a mesma conta ao mesmo tempo, sem lock na JVM.
+    private static final String SQL_DEBITO = "UPDATE CONTA SET saldo = saldo - ? WHERE id = ? AND saldo >= ?";
+
+    private static final boolean DEPOSITO_AGRUPADO = Boolean.getBoolean("banco.deposito.agrupar");
+
+    private final OperacaoIdempotenteDAO operacoes = new OperacaoIdempotenteDAO();
+
     /**
      * Busca uma conta pela agência e número.
      */
     public Conta buscarContaPorAgenciaENumeroDaConta(String agencia, String numeroConta) throws SQLException {
+        String chave = CacheCadastro.chaveConta(agencia, numeroConta);
+        Conta emCache = CacheCadastro.CONTAS_POR_NUMERO.buscar(chave);
+        if (emCache != null) {
+            return CacheCadastro.copiar(emCache);
+        }
+        long geracao = CacheCadastro.CONTAS_POR_NUMERO.getGeracao();
+
         String sql = "SELECT c.id, c.agencia, c.numero, c.saldo "
                 + "FROM CONTA c "
                 + "WHERE c.agencia = ? AND c.numero = ?";
@@ -28,22 +46,47 @@ public class ContaDAO {
                 ResultSet rs = ps.executeQuery();
 
                 if (rs.next()) {
-                    conta = new Conta(
-                            rs.getString("agencia"),
-                            rs.getString("numero"),
-                            rs.getDouble("saldo"));
+                    conta = new Conta(rs.getString("agencia"), rs.getString("numero"));
+                    conta.setSaldoCentavos(Dinheiro.centavos(rs.getBigDecimal("saldo")));
                     conta.setId(rs.getInt("id"));
                 }
             }
         }
+        CacheCadastro.CONTAS_POR_NUMERO.guardar(chave, CacheCadastro.copiar(conta), geracao);
         return conta;
     }
 
     /**
      * Realiza um depósito, atualizando o saldo e registrando a transação.
      * Retorna um objeto Transacao com os detalhes do comprovante.
+     * O incremento "saldo = saldo + ?" é atômico no banco, então não precisa de lock.
+     */
+    public Transacao realizarDeposito(int idConta, double valor) throws SQLException {
+        return realizarDeposito(idConta, valor, null);
+    }
+
+    /**
+     * Depósito com chave de idempotência: se a chave já foi usada nesta conta,
+     * nada é alterado e o comprovante da primeira execução é devolvido.
+     *
+     * Com -Dbanco.deposito.agrupar=true o depósito entra num lote do
+     * AgrupadorDepositos e é confirmado junto com os que chegaram ao mesmo tempo.
+     *
+     * @param chave Chave de idempotência (null para não usar)
+     */
+    public Transacao realizarDeposito(int idConta, double valor, String chave) throws SQLException {
+        long centavos = Dinheiro.centavos(valor);
+        if (DEPOSITO_AGRUPADO) {
+            return AgrupadorDepositos.getInstancia().depositar(idConta, centavos, chave);
+        }
+        return depositarIsolado(idConta, centavos, chave);
+    }
+
+    /**
+     * Depósito numa transação só dele (também usado pelo AgrupadorDepositos
+     * quando um lote falha).
      */
-    public synchronized Transacao realizarDeposito(int idConta, double valor) throws SQLException {
+    Transacao depositarIsolado(int idConta, long centavos, String chave) throws SQLException {
         String sqlUpdate = "UPDATE CONTA SET saldo = saldo + ? WHERE id = ?";
         Transacao transacaoRegistrada = null;
         Connection conexao = null;
@@ -52,16 +95,23 @@ public class ContaDAO {
             conexao = ConexaoDB.getConexao();
             conexao.setAutoCommit(false);
 
+            if (chave != null && !operacoes.reservar(conexao, idConta, chave)) {
+                return reciboAnterior(conexao, idConta, chave);
+            }
+
             // 1. Atualiza o saldo na conta
             try (PreparedStatement psUpdate = conexao.prepareStatement(sqlUpdate)) {
-                psUpdate.setDouble(1, valor);
+                psUpdate.setBigDecimal(1, Dinheiro.decimal(centavos));
                 psUpdate.setInt(2, idConta);
                 psUpdate.executeUpdate();
             }
 
             // 2. Registra a operação na tabela de transações
             TransacaoDAO transacaoDAO = new TransacaoDAO();
-            transacaoRegistrada = transacaoDAO.registrarTransacao(conexao, idConta, "DEPOSITO", valor);
+            transacaoRegistrada = transacaoDAO.registrarTransacao(conexao, idConta, "DEPOSITO", centavos);
+            if (chave != null) {
+                operacoes.vincular(conexao, idConta, chave, transacaoRegistrada.getId());
+            }
 
             conexao.commit();
 
@@ -71,6 +121,8 @@ public class ContaDAO {
             }
             throw e;
         } finally {
+            // O saldo mudou (ou o cache estava velho): descarta as cópias em cache
+            CacheCadastro.invalidarConta(idConta);
             if (conexao != null) {
                 conexao.setAutoCommit(true);
                 conexao.close();
@@ -82,10 +134,25 @@ public class ContaDAO {
     /**
      * Realiza uma transferência entre duas contas. 
      * Atualiza o saldo de ambas e registra as duas transações.
+     *
+     * @throws SaldoInsuficienteException Se o saldo do remetente não cobrir o valor.
      */
-    public synchronized List<Transacao> realizarTransferencia(int idRemetente, int idDestinatario, double valor) throws SQLException {
-        String sqlRemetente = "UPDATE CONTA SET saldo = saldo - ? WHERE id = ?";
+    public List<Transacao> realizarTransferencia(int idRemetente, int idDestinatario, double valor) throws SQLException {
+        return realizarTransferencia(idRemetente, idDestinatario, valor, null);
+    }
+
+    /**
+     * Transferência com chave de idempotência (da conta de origem). Se a chave
+     * já foi usada, nada é alterado e a lista traz só o débito da primeira
+     * execução.
+     *
+     * @param chave Chave de idempotência (null para não usar)
+     */
+    public List<Transacao> realizarTransferencia(int idRemetente, int idDestinatario, double valor, String chave)
+            throws SQLException {
+        String sqlRemetente = SQL_DEBITO;
         String sqlDestinatario = "UPDATE CONTA SET saldo = saldo + ? WHERE id = ?";
+        long centavos = Dinheiro.centavos(valor);
 
         List<Transacao> transacoes = new ArrayList<>();
         Connection conexao = null;
@@ -94,27 +161,45 @@ public class ContaDAO {
             conexao = ConexaoDB.getConexao();
             conexao.setAutoCommit(false);
 
+            if (chave != null && !operacoes.reservar(conexao, idRemetente, chave)) {
+                transacoes.add(reciboAnterior(conexao, idRemetente, chave));
+                return transacoes;
+            }
+
             // 1. Executa as atualizações de saldo
             try (PreparedStatement psRemetente = conexao.prepareStatement(sqlRemetente); PreparedStatement psDestinatario = conexao.prepareStatement(sqlDestinatario)) {
 
-                psRemetente.setDouble(1, valor);
+                BigDecimal valorExato = Dinheiro.decimal(centavos);
+                psRemetente.setBigDecimal(1, valorExato);
                 psRemetente.setInt(2, idRemetente);
+                psRemetente.setBigDecimal(3, valorExato);
 
-                psDestinatario.setDouble(1, valor);
+                psDestinatario.setBigDecimal(1, valorExato);
                 psDestinatario.setInt(2, idDestinatario);
 
-                psRemetente.executeUpdate();
-                psDestinatario.executeUpdate();
+                // As duas linhas são travadas em ordem crescente de id: transferências
+                // A->B e B->A simultâneas esperam uma pela outra em vez de se travarem.
+                // Débito sem linha alterada = saldo insuficiente (o catch desfaz a transação)
+                if (idRemetente < idDestinatario) {
+                    debitar(psRemetente, idRemetente);
+                    psDestinatario.executeUpdate();
+                } else {
+                    psDestinatario.executeUpdate();
+                    debitar(psRemetente, idRemetente);
+                }
             }
 
             // 2. Registra as duas transações
             TransacaoDAO transacaoDAO = new TransacaoDAO();
 
-            Transacao debito = transacaoDAO.registrarTransacao(conexao, idRemetente, "TRANSF_ENVIADA", valor);
-            Transacao credito = transacaoDAO.registrarTransacao(conexao, idDestinatario, "TRANSF_RECEBIDA", valor);
+            Transacao debito = transacaoDAO.registrarTransacao(conexao, idRemetente, "TRANSF_ENVIADA", centavos);
+            Transacao credito = transacaoDAO.registrarTransacao(conexao, idDestinatario, "TRANSF_RECEBIDA", centavos);
 
             transacoes.add(debito);
             transacoes.add(credito);
+            if (chave != null) {
+                operacoes.vincular(conexao, idRemetente, chave, debito.getId());
+            }
 
             conexao.commit();
 
@@ -124,6 +209,8 @@ public class ContaDAO {
             }
             throw e;
         } finally {
+            CacheCadastro.invalidarConta(idRemetente);
+            CacheCadastro.invalidarConta(idDestinatario);
             if (conexao != null) {
                 conexao.setAutoCommit(true);
                 conexao.close();
@@ -132,12 +219,31 @@ public class ContaDAO {
         return transacoes;
     }
     
+    private static void debitar(PreparedStatement psDebito, int idConta) throws SQLException {
+        if (psDebito.executeUpdate() == 0) {
+            throw new SaldoInsuficienteException(idConta);
+        }
+    }
+
     /**
      * Realiza um saque, atualizando o saldo e registrando a transação.
      * Retorna um objeto Transacao com os detalhes do comprovante.
+     *
+     * @throws SaldoInsuficienteException Se o saldo no banco não cobrir o valor.
      */
-    public synchronized Transacao realizarSaque(int idConta, double valor) throws SQLException {
-        String sqlUpdate = "UPDATE CONTA SET saldo = saldo - ? WHERE id = ?";
+    public Transacao realizarSaque(int idConta, double valor) throws SQLException {
+        return realizarSaque(idConta, valor, null);
+    }
+
+    /**
+     * Saque com chave de idempotência: se a chave já foi usada nesta conta,
+     * nada é debitado e o comprovante da primeira execução é devolvido.
+     *
+     * @param chave Chave de idempotência (null para não usar)
+     */
+    public Transacao realizarSaque(int idConta, double valor, String chave) throws SQLException {
+        String sqlUpdate = SQL_DEBITO;
+        long centavos = Dinheiro.centavos(valor);
         Transacao transacaoRegistrada = null;
         Connection conexao = null;
 
@@ -145,16 +251,29 @@ public class ContaDAO {
             conexao = ConexaoDB.getConexao(); // Obtém a conexão com o banco
             conexao.setAutoCommit(false); // Inicia a transação
 
-            // 1. Atualiza o saldo na conta (decrementa)
+            if (chave != null && !operacoes.reservar(conexao, idConta, chave)) {
+                return reciboAnterior(conexao, idConta, chave);
+            }
+
+            // 1. Atualiza o saldo na conta (decrementa, só se houver saldo)
             try (PreparedStatement psUpdate = conexao.prepareStatement(sqlUpdate)) {
-                psUpdate.setDouble(1, valor);
+                // Decimal exato dos centavos, nunca um double como 0.30000000000000004
+                // (que faria "saldo >= ?" recusar um saque do saldo todo)
+                BigDecimal valorExato = Dinheiro.decimal(centavos);
+                psUpdate.setBigDecimal(1, valorExato);
                 psUpdate.setInt(2, idConta);
-                psUpdate.executeUpdate();
+                psUpdate.setBigDecimal(3, valorExato);
+                if (psUpdate.executeUpdate() == 0) {
+                    throw new SaldoInsuficienteException(idConta);
+                }
             }
 
             // 2. Registra a operação na tabela de transações
             TransacaoDAO transacaoDAO = new TransacaoDAO();
-            transacaoRegistrada = transacaoDAO.registrarTransacao(conexao, idConta, "SAQUE", valor); // Usa o tipo "SAQUE"
+            transacaoRegistrada = transacaoDAO.registrarTransacao(conexao, idConta, "SAQUE", centavos); // Usa o tipo "SAQUE"
+            if (chave != null) {
+                operacoes.vincular(conexao, idConta, chave, transacaoRegistrada.getId());
+            }
 
             conexao.commit(); // Confirma a transação
 
@@ -164,6 +283,7 @@ public class ContaDAO {
             }
             throw e; // Lança a exceção para a camada superior
         } finally {
+            CacheCadastro.invalidarConta(idConta);
             if (conexao != null) {
                 conexao.setAutoCommit(true); // Restaura o auto-commit
                 conexao.close(); // Fecha a conexão
@@ -171,12 +291,28 @@ public class ContaDAO {
         }
         return transacaoRegistrada;
     }
+    /**
+     * Chave repetida: desfaz a transação (que não alterou nada) e busca o
+     * comprovante da execução que usou a chave.
+     */
+    private Transacao reciboAnterior(Connection conexao, int idConta, String chave) throws SQLException {
+        conexao.rollback();
+        Transacao recibo = operacoes.buscarRecibo(conexao, idConta, chave);
+        if (recibo == null) {
+            throw new SQLException("Chave de idempotência sem transação: " + chave);
+        }
+        return recibo;
+    }
+
     /**
     * Realiza um investimento, deduzindo o valor do saldo da conta e registrando a aplicação.
     * Retorna um objeto Investimento com os detalhes do comprovante.
+    *
+    * @throws SaldoInsuficienteException Se o saldo no banco não cobrir o valor.
     **/
-public synchronized Investimento realizarInvestimento(int idConta, String tipoInvestimento, double valor) throws SQLException {
-    String sqlUpdate = "UPDATE CONTA SET saldo = saldo - ? WHERE id = ?";
+public Investimento realizarInvestimento(int idConta, String tipoInvestimento, double valor) throws SQLException {
+    String sqlUpdate = SQL_DEBITO;
+    long centavos = Dinheiro.centavos(valor);
     Investimento investimentoRegistrado = null;
     Connection conexao = null;
 
@@ -186,14 +322,18 @@ public synchronized Investimento realizarInvestimento(int idConta, String tipoIn
 
         // 1. Atualiza o saldo na conta (deduz o valor do investimento)
         try (PreparedStatement psUpdate = conexao.prepareStatement(sqlUpdate)) {
-            psUpdate.setDouble(1, valor);
+            BigDecimal valorExato = Dinheiro.decimal(centavos);
+            psUpdate.setBigDecimal(1, valorExato);
             psUpdate.setInt(2, idConta);
-            psUpdate.executeUpdate();
+            psUpdate.setBigDecimal(3, valorExato);
+            if (psUpdate.executeUpdate() == 0) {
+                throw new SaldoInsuficienteException(idConta);
+            }
         }
 
         // 2. Registra o investimento na tabela de investimentos
         InvestimentoDAO investimentoDAO = new InvestimentoDAO();
-        investimentoRegistrado = investimentoDAO.registrarInvestimento(conexao, idConta, tipoInvestimento, valor);
+        investimentoRegistrado = investimentoDAO.registrarInvestimento(conexao, idConta, tipoInvestimento, centavos);
 
         conexao.commit();
 
@@ -203,6 +343,7 @@ public synchronized Investimento realizarInvestimento(int idConta, String tipoIn
         }
         throw e;
     } finally {
+        CacheCadastro.invalidarConta(idConta);
         if (conexao != null) {
             conexao.setAutoCommit(true);
             conexao.close();
@@ -0,0 +1,29 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Destinatario;
+import java.sql.SQLException;
+
+/**
+ * Busca, pela agência e número, a conta de destino de uma transferência junto
+ * com o titular, numa única consulta.
+ */
+public interface DiretorioDestinatarios {
+
+    /**
+     * @return A conta e o titular (null se não for cliente), ou null se a conta
+     * não existe
+     */
+    Destinatario buscar(String agencia, String numero) throws SQLException;
+
+    /**
+     * Diretório montado sobre as buscas separadas dos DAOs (conta, depois
+     * cliente). Usado quando os DAOs são injetados, como nos testes.
+     */
+    static DiretorioDestinatarios deDaos(ContaDAO contaDAO, UsuarioDAO usuarioDAO) {
+        return (agencia, numero) -> {
+            Conta conta = contaDAO.buscarContaPorAgenciaENumeroDaConta(agencia, numero);
+            return conta != null ? new Destinatario(conta, usuarioDAO.buscarClientePorIdConta(conta.getId())) : null;
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Destinatario;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Diretório de destinatários com índice em memória por "agencia/numero"
+ * (CacheCadastro.DESTINATARIOS), carregado sob demanda por um único SELECT de
+ * CONTA com USUARIO. Só lê as colunas exibidas na confirmação: o saldo da
+ * conta de destino não é carregado, então depósitos e transferências não
+ * invalidam o índice.
+ *
+ * Contas inexistentes ficam num cache negativo de vida curta
+ * (-Dbanco.cache.tempoVidaNegativoMs), para que números digitados errado não
+ * voltem ao banco a cada tentativa. O cadastro de um cliente remove a entrada
+ * negativa da conta criada.
+ */
+public class DiretorioDestinatariosBanco implements DiretorioDestinatarios {
+
+    @Override
+    public Destinatario buscar(String agencia, String numero) throws SQLException {
+        if (agencia == null || numero == null) {
+            return null;
+        }
+        String chave = CacheCadastro.chaveConta(agencia, numero);
+        Destinatario emCache = CacheCadastro.DESTINATARIOS.buscar(chave);
+        if (emCache != null) {
+            return CacheCadastro.copiar(emCache);
+        }
+        if (CacheCadastro.CONTAS_INEXISTENTES.buscar(chave) != null) {
+            return null;
+        }
+        long geracao = CacheCadastro.DESTINATARIOS.getGeracao();
+        long geracaoNegativa = CacheCadastro.CONTAS_INEXISTENTES.getGeracao();
+
+        // LEFT JOIN: conta sem cliente continua sendo "encontrada" (titular null)
+        String sql = "SELECT c.id, c.agencia, c.numero, u.id AS id_usuario, u.nome, u.cpf "
+                + "FROM CONTA c "
+                + "LEFT JOIN USUARIO u ON u.id = c.id_usuario AND u.tipo = 'CLIENTE' "
+                + "WHERE c.agencia = ? AND c.numero = ?";
+
+        Destinatario destinatario = null;
+        try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setString(1, agencia);
+            ps.setString(2, numero);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    Conta conta = new Conta(rs.getString("agencia"), rs.getString("numero"));
+                    conta.setId(rs.getInt("id"));
+                    Cliente titular = null;
+                    int idUsuario = rs.getInt("id_usuario");
+                    if (!rs.wasNull()) {
+                        titular = new Cliente();
+                        titular.setId(idUsuario);
+                        titular.setNome(rs.getString("nome"));
+                        titular.setCpf(rs.getString("cpf"));
+                    }
+                    destinatario = new Destinatario(conta, titular);
+                }
+            }
+        }
+        if (destinatario != null) {
+            CacheCadastro.DESTINATARIOS.guardar(chave, CacheCadastro.copiar(destinatario), geracao);
+        } else {
+            CacheCadastro.CONTAS_INEXISTENTES.guardar(chave, Boolean.TRUE, geracaoNegativa);
+        }
+        return destinatario;
+    }
+}
@@ -0,0 +1,91 @@
+package br.uff.ic.grupo6.banco.dao;
+
+/**
+ * Fotografia dos contadores do pool de conexões em um instante.
+ */
+public class EstatisticasPool {
+
+    private final int ativas;
+    private final int ociosas;
+    private final int aguardando;
+    private final int total;
+    private final int maximo;
+    private final long aquisicoes;
+    private final long timeouts;
+    private final long criadas;
+    private final long descartadas;
+    private final double tempoMedioAquisicaoMs;
+    private final double maiorTempoAquisicaoMs;
+
+    public EstatisticasPool(int ativas, int ociosas, int aguardando, int total, int maximo, long aquisicoes,
+            long timeouts, long criadas, long descartadas, double tempoMedioAquisicaoMs,
+            double maiorTempoAquisicaoMs) {
+        this.ativas = ativas;
+        this.ociosas = ociosas;
+        this.aguardando = aguardando;
+        this.total = total;
+        this.maximo = maximo;
+        this.aquisicoes = aquisicoes;
+        this.timeouts = timeouts;
+        this.criadas = criadas;
+        this.descartadas = descartadas;
+        this.tempoMedioAquisicaoMs = tempoMedioAquisicaoMs;
+        this.maiorTempoAquisicaoMs = maiorTempoAquisicaoMs;
+    }
+
+    // Conexões emprestadas neste momento
+    public int getAtivas() {
+        return ativas;
+    }
+
+    // Conexões abertas esperando para serem reutilizadas
+    public int getOciosas() {
+        return ociosas;
+    }
+
+    // Threads esperando uma conexão ficar livre
+    public int getAguardando() {
+        return aguardando;
+    }
+
+    // Conexões físicas abertas (ativas + ociosas)
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public long getAquisicoes() {
+        return aquisicoes;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getCriadas() {
+        return criadas;
+    }
+
+    public long getDescartadas() {
+        return descartadas;
+    }
+
+    public double getTempoMedioAquisicaoMs() {
+        return tempoMedioAquisicaoMs;
+    }
+
+    public double getMaiorTempoAquisicaoMs() {
+        return maiorTempoAquisicaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ativas=%d ociosas=%d aguardando=%d total=%d/%d aquisicoes=%d timeouts=%d "
+                + "criadas=%d descartadas=%d aquisicaoMedia=%.3fms aquisicaoMax=%.3fms", ativas, ociosas,
+                aguardando, total, maximo, aquisicoes, timeouts, criadas, descartadas, tempoMedioAquisicaoMs,
+                maiorTempoAquisicaoMs);
+    }
+}
@@ -0,0 +1,427 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória da busca de clientes do gerente, no lugar do
+ * "LOWER(nome) LIKE '%termo%'" que percorria a tabela USUARIO a cada tecla.
+ *
+ * Os nomes são normalizados (minúsculas, sem acentos) e quebrados em trigramas:
+ * um termo com 3 ou mais letras só é comparado com os nomes que têm o seu
+ * trigrama mais raro. Termos menores percorrem os nomes em memória. O CPF é
+ * buscado por prefixo num mapa ordenado.
+ *
+ * É carregado do banco na subida (ou na primeira busca) e atualizado pelo
+ * UsuarioDAO no cadastro, na edição e na exclusão. Alterações feitas direto no
+ * banco ou por outro servidor aparecem quando o índice é recarregado, depois de
+ * -Dbanco.busca.tempoVidaMs (padrão 5 min).
+ *
+ * A recarga lê o banco e monta o índice novo sem lock; as buscas continuam no
+ * anterior. As alterações dos DAOs feitas durante a carga são anotadas e
+ * refeitas no índice novo antes da troca, que é o único trecho com o lock de
+ * escrita.
+ */
+public class IndiceBuscaClientes {
+
+    private static final long TEMPO_VIDA_MS = Long.getLong("banco.busca.tempoVidaMs", 5 * 60 * 1000L);
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SO_CPF = Pattern.compile("[0-9.\\-]+");
+
+    private static final IndiceBuscaClientes GLOBAL = new IndiceBuscaClientes(
+            IndiceBuscaClientes::carregarDoBanco, TEMPO_VIDA_MS, System::currentTimeMillis);
+
+    /**
+     * Lê todos os clientes (id, nome, CPF, e-mail) para montar o índice.
+     */
+    @FunctionalInterface
+    public interface Carregador {
+
+        List<Cliente> carregar() throws SQLException;
+    }
+
+    private static final class Entrada {
+
+        final int id;
+        final String nome;
+        final String nomeNormalizado;
+        final String cpf;
+        final String email;
+
+        Entrada(int id, String nome, String cpf, String email) {
+            this.id = id;
+            this.nome = nome;
+            this.nomeNormalizado = normalizar(nome);
+            this.cpf = cpf;
+            this.email = email;
+        }
+    }
+
+    /**
+     * Os mapas do índice. Alterados só com o lock de escrita, ou antes de
+     * ficarem visíveis (na carga).
+     */
+    private static final class Conteudo {
+
+        final Map<Integer, Entrada> porId = new HashMap<>();
+        final Map<String, Set<Integer>> porTrigrama = new HashMap<>();
+        final NavigableMap<String, Integer> porCpf = new TreeMap<>();
+
+        void incluir(Entrada entrada) {
+            excluir(entrada.id);
+            porId.put(entrada.id, entrada);
+            for (String trigrama : trigramas(entrada.nomeNormalizado)) {
+                porTrigrama.computeIfAbsent(trigrama, t -> new HashSet<>()).add(entrada.id);
+            }
+            if (entrada.cpf != null) {
+                porCpf.put(entrada.cpf, entrada.id);
+            }
+        }
+
+        // Nome ou e-mail alterados (o CPF não muda)
+        void atualizar(int id, String nome, String email) {
+            Entrada anterior = porId.get(id);
+            if (anterior != null) {
+                incluir(new Entrada(id, nome, anterior.cpf, email));
+            }
+        }
+
+        void excluir(int id) {
+            Entrada anterior = porId.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            for (String trigrama : trigramas(anterior.nomeNormalizado)) {
+                Set<Integer> ids = porTrigrama.get(trigrama);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        porTrigrama.remove(trigrama);
+                    }
+                }
+            }
+            if (anterior.cpf != null) {
+                porCpf.remove(anterior.cpf, id);
+            }
+        }
+    }
+
+    private final Carregador carregador;
+    private final long tempoVidaMs;
+    private final LongSupplier relogioMs;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Uma carga por vez; quem encontra o índice vencido e a carga em andamento busca no anterior
+    private final ReentrantLock carga = new ReentrantLock();
+
+    private Conteudo conteudo = new Conteudo();
+    private boolean carregado;
+    private long carregadoEm;
+    // Alterações recebidas durante a carga em andamento (null sem carga)
+    private List<Consumer<Conteudo>> pendentes;
+    // Incrementada pelo descartar: a carga que começou antes dele não é usada
+    private long geracao;
+
+    /**
+     * @param tempoVidaMs Idade a partir da qual a próxima busca recarrega o índice
+     * @param relogioMs Hora atual em milissegundos (substituído nos testes)
+     */
+    public IndiceBuscaClientes(Carregador carregador, long tempoVidaMs, LongSupplier relogioMs) {
+        this.carregador = carregador;
+        this.tempoVidaMs = tempoVidaMs;
+        this.relogioMs = relogioMs;
+    }
+
+    public static IndiceBuscaClientes getInstancia() {
+        return GLOBAL;
+    }
+
+    /**
+     * Busca clientes cujo nome contém o termo ou cujo CPF começa por ele.
+     * Primeiro os que começam pelo termo (nome ou CPF), depois os que têm uma
+     * palavra começando por ele, depois os demais; em cada grupo, por nome.
+     *
+     * @param maximo Quantidade máxima de clientes devolvidos
+     * @return Cópias com id, nome, CPF e e-mail
+     */
+    public List<Cliente> buscar(String termo, int maximo) throws SQLException {
+        String termoNormalizado = normalizar(termo.trim());
+        if (termoNormalizado.isEmpty()) {
+            return new ArrayList<>();
+        }
+        prepararLeitura();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> relevancia = new HashMap<>();
+            for (Entrada entrada : candidatosPorNome(termoNormalizado)) {
+                int posicao = entrada.nomeNormalizado.indexOf(termoNormalizado);
+                if (posicao == 0) {
+                    relevancia.put(entrada.id, 0);
+                } else if (posicao > 0) {
+                    boolean inicioDePalavra = entrada.nomeNormalizado.indexOf(" " + termoNormalizado) >= 0;
+                    relevancia.put(entrada.id, inicioDePalavra ? 1 : 2);
+                }
+            }
+            if (SO_CPF.matcher(termo.trim()).matches()) {
+                String prefixo = termo.replaceAll("\\D", "");
+                if (!prefixo.isEmpty()) {
+                    for (Integer id : conteudo.porCpf.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).values()) {
+                        relevancia.put(id, 0);
+                    }
+                }
+            }
+
+            List<Entrada> encontradas = new ArrayList<>();
+            for (Integer id : relevancia.keySet()) {
+                encontradas.add(conteudo.porId.get(id));
+            }
+            encontradas.sort(Comparator.<Entrada>comparingInt(e -> relevancia.get(e.id))
+                    .thenComparing(e -> e.nomeNormalizado)
+                    .thenComparingInt(e -> e.id));
+
+            List<Cliente> clientes = new ArrayList<>();
+            for (Entrada entrada : encontradas.subList(0, Math.min(maximo, encontradas.size()))) {
+                Cliente cliente = new Cliente();
+                cliente.setId(entrada.id);
+                cliente.setNome(entrada.nome);
+                cliente.setCpf(entrada.cpf);
+                cliente.setEmail(entrada.email);
+                clientes.add(cliente);
+            }
+            return clientes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Carrega o índice na subida da aplicação, para a primeira busca não esperar.
+     */
+    public void carregar() throws SQLException {
+        carga.lock();
+        try {
+            recarregar();
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    /**
+     * Cliente cadastrado (ou recarregado). Se o índice ainda não foi carregado
+     * nem está carregando, não faz nada: a carga vai ler o cliente do banco.
+     */
+    public void adicionar(int id, String nome, String cpf, String email) {
+        Entrada entrada = new Entrada(id, nome, cpf, email);
+        alterar(c -> c.incluir(entrada));
+    }
+
+    /**
+     * Nome ou e-mail alterados (o CPF não muda).
+     */
+    public void atualizar(int id, String nome, String email) {
+        alterar(c -> c.atualizar(id, nome, email));
+    }
+
+    public void remover(int id) {
+        alterar(c -> c.excluir(id));
+    }
+
+    /**
+     * Descarta o conteúdo: a próxima busca recarrega do banco.
+     */
+    public void descartar() {
+        lock.writeLock().lock();
+        try {
+            conteudo = new Conteudo();
+            carregado = false;
+            geracao++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Total de clientes para a listagem do gerente, sem COUNT(*) no banco.
+     * Recarrega o índice como a busca, então tem o mesmo atraso máximo.
+     */
+    public int contar() throws SQLException {
+        prepararLeitura();
+        return getTamanho();
+    }
+
+    /**
+     * @return Quantidade de clientes no índice
+     */
+    public int getTamanho() {
+        lock.readLock().lock();
+        try {
+            return conteudo.porId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void alterar(Consumer<Conteudo> alteracao) {
+        lock.writeLock().lock();
+        try {
+            if (carregado) {
+                alteracao.accept(conteudo);
+            }
+            if (pendentes != null) {
+                pendentes.add(alteracao);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void prepararLeitura() throws SQLException {
+        boolean vencido;
+        lock.readLock().lock();
+        try {
+            if (carregado && relogioMs.getAsLong() - carregadoEm < tempoVidaMs) {
+                return;
+            }
+            vencido = carregado;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (vencido) {
+            // Com o índice vencido, só uma thread recarrega; as outras não esperam
+            if (!carga.tryLock()) {
+                return;
+            }
+        } else {
+            carga.lock();
+        }
+        try {
+            // Outra thread pode ter recarregado enquanto esta esperava
+            if (precisaCarregar()) {
+                recarregar();
+            }
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    private boolean precisaCarregar() {
+        lock.readLock().lock();
+        try {
+            return !carregado || relogioMs.getAsLong() - carregadoEm >= tempoVidaMs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Chamado com o lock da carga. O banco é lido e o índice novo montado sem
+    // o lock de escrita; as alterações anotadas nesse meio tempo são refeitas
+    // nele antes da troca, então nenhuma se perde
+    private void recarregar() throws SQLException {
+        long geracaoDaCarga;
+        lock.writeLock().lock();
+        try {
+            pendentes = new ArrayList<>();
+            geracaoDaCarga = geracao;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Conteudo novo = new Conteudo();
+        boolean lido = false;
+        try {
+            for (Cliente cliente : carregador.carregar()) {
+                novo.incluir(new Entrada(cliente.getId(), cliente.getNome(), cliente.getCpf(), cliente.getEmail()));
+            }
+            lido = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (lido && geracao == geracaoDaCarga) {
+                    for (Consumer<Conteudo> alteracao : pendentes) {
+                        alteracao.accept(novo);
+                    }
+                    conteudo = novo;
+                    carregado = true;
+                    carregadoEm = relogioMs.getAsLong();
+                }
+                pendentes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private List<Entrada> candidatosPorNome(String termoNormalizado) {
+        if (termoNormalizado.length() < 3) {
+            return new ArrayList<>(conteudo.porId.values());
+        }
+        // Todo nome que contém o termo contém todos os trigramas dele: basta o mais raro
+        Set<Integer> menor = null;
+        for (String trigrama : trigramas(termoNormalizado)) {
+            Set<Integer> ids = conteudo.porTrigrama.getOrDefault(trigrama, Collections.emptySet());
+            if (menor == null || ids.size() < menor.size()) {
+                menor = ids;
+            }
+        }
+        List<Entrada> candidatos = new ArrayList<>();
+        for (Integer id : menor) {
+            candidatos.add(conteudo.porId.get(id));
+        }
+        return candidatos;
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
+    /**
+     * Minúsculas e sem acentos, como a comparação do MySQL ("Joao" acha "João").
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Cliente> carregarDoBanco() throws SQLException {
+        String sql = "SELECT id, nome, cpf, email FROM USUARIO WHERE tipo = 'CLIENTE'";
+        List<Cliente> clientes = new ArrayList<>();
+        try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Cliente cliente = new Cliente();
+                cliente.setId(rs.getInt("id"));
+                cliente.setNome(rs.getString("nome"));
+                cliente.setCpf(rs.getString("cpf"));
+                cliente.setEmail(rs.getString("email"));
+                clientes.add(cliente);
+            }
+        }
+        return clientes;
+    }
+}
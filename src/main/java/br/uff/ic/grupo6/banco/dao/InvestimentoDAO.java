@@ -1,5 +1,6 @@
 package br.uff.ic.grupo6.banco.dao;
 
+import br.uff.ic.grupo6.banco.model.Dinheiro;
 import br.uff.ic.grupo6.banco.model.Investimento;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -15,7 +16,7 @@ import java.util.List;
 
 public class InvestimentoDAO {
 
-    public Investimento registrarInvestimento(Connection conexao, int idConta, String tipoInvestimento, double valor) throws SQLException {
+    public Investimento registrarInvestimento(Connection conexao, int idConta, String tipoInvestimento, long valorCentavos) throws SQLException {
         String sql = "INSERT INTO INVESTIMENTO (id_conta, tipo_investimento, valor_aplicado, data_aplicacao) VALUES (?, ?, ?, ?)";
 
         Investimento investimento = null;
@@ -26,7 +27,8 @@ public class InvestimentoDAO {
 
             ps.setInt(1, idConta);
             ps.setString(2, tipoInvestimento);
-            ps.setBigDecimal(3, BigDecimal.valueOf(valor));
+            BigDecimal valor = Dinheiro.decimal(valorCentavos);
+            ps.setBigDecimal(3, valor);
             ps.setTimestamp(4, dataAtual);
 
             ps.executeUpdate();
@@ -37,7 +39,7 @@ public class InvestimentoDAO {
                     investimento.setId(generatedKeys.getInt(1));
                     investimento.setIdConta(idConta);
                     investimento.setTipoInvestimento(tipoInvestimento);
-                    investimento.setValorAplicado(BigDecimal.valueOf(valor));
+                    investimento.setValorAplicado(valor);
                     investimento.setDataAplicacao(dataAtual.toLocalDateTime());
                 } else {
                     throw new SQLException("Falha ao obter o ID do investimento.");
@@ -0,0 +1,277 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Aplica as migrações do esquema que vão junto com o WAR. Os arquivos ficam em
+ * {@code db/migracao/} no classpath e são listados, em ordem, no arquivo
+ * {@code indice.txt} do mesmo diretório. Cada migração aplicada fica registrada
+ * na tabela SCHEMA_VERSAO e não é executada de novo.
+ *
+ * O MySQL não desfaz DDL: se um comando falha depois de outros do mesmo arquivo
+ * já terem rodado, a versão fica registrada como FALHOU e nenhuma migração roda
+ * até alguém acertar o esquema à mão e corrigir a linha em SCHEMA_VERSAO.
+ */
+public class MigradorEsquema {
+
+    public static final String DIRETORIO_PADRAO = "db/migracao/";
+
+    private static final String SQL_CRIAR_TABELA_VERSAO = "CREATE TABLE IF NOT EXISTS SCHEMA_VERSAO ("
+            + "versao INT PRIMARY KEY, "
+            + "descricao VARCHAR(200) NOT NULL, "
+            + "aplicada_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+            + "situacao VARCHAR(20) NOT NULL DEFAULT 'APLICADA')";
+    // Tabelas criadas antes da coluna situacao: as linhas existentes foram aplicadas
+    private static final String SQL_CRIAR_COLUNA_SITUACAO =
+            "ALTER TABLE SCHEMA_VERSAO ADD COLUMN situacao VARCHAR(20) NOT NULL DEFAULT 'APLICADA'";
+
+    private static final String APLICANDO = "APLICANDO";
+    private static final String APLICADA = "APLICADA";
+    private static final String FALHOU = "FALHOU";
+
+    private final String diretorio;
+    private final Consumer<String> registro;
+
+    public MigradorEsquema() {
+        this(DIRETORIO_PADRAO, mensagem -> { });
+    }
+
+    /**
+     * @param registro Recebe as mensagens do que foi aplicado (ex: o log do
+     * ServletContext)
+     */
+    public MigradorEsquema(Consumer<String> registro) {
+        this(DIRETORIO_PADRAO, registro);
+    }
+
+    /**
+     * @param diretorio Diretório do classpath com o indice.txt (terminado em "/")
+     * @param registro Recebe as mensagens do que foi aplicado
+     */
+    public MigradorEsquema(String diretorio, Consumer<String> registro) {
+        this.diretorio = diretorio;
+        this.registro = registro;
+    }
+
+    /**
+     * Aplica as migrações pendentes usando uma conexão do pool.
+     *
+     * @return Quantidade de migrações aplicadas agora
+     */
+    public int migrar() throws SQLException {
+        try (Connection conexao = ConexaoDB.getConexao()) {
+            return migrar(conexao);
+        }
+    }
+
+    /**
+     * Aplica as migrações pendentes na conexão informada.
+     *
+     * @return Quantidade de migrações aplicadas agora
+     * @throws SQLException Se uma migração falhar (as anteriores continuam
+     * registradas) ou se uma migração anterior ficou pela metade
+     */
+    public int migrar(Connection conexao) throws SQLException {
+        criarTabelaVersao(conexao);
+        Map<Integer, String> situacoes = buscarSituacoes(conexao);
+        for (Map.Entry<Integer, String> versao : situacoes.entrySet()) {
+            if (!APLICADA.equals(versao.getValue())) {
+                throw new SQLException("Migração " + versao.getKey() + " está como " + versao.getValue()
+                        + " em SCHEMA_VERSAO (falhou ou foi interrompida no meio, ou outro servidor a está aplicando)."
+                        + " Confira o esquema, complete ou desfaça a migração à mão e então marque a linha com"
+                        + " situacao = 'APLICADA' ou apague-a para rodar o arquivo de novo.");
+            }
+        }
+
+        int quantidade = 0;
+        for (String arquivo : listarMigracoes()) {
+            int versao = extrairVersao(arquivo);
+            if (situacoes.containsKey(versao)) {
+                continue;
+            }
+            // Registrar a versão antes de executar funciona como trava: se outro
+            // servidor subir junto, só um deles consegue inserir a linha
+            if (!reservarVersao(conexao, versao, arquivo)) {
+                // As próximas podem depender desta: ficam para a próxima subida
+                registro.accept("Migração " + arquivo + " sendo aplicada por outro servidor; as seguintes ficam para depois");
+                break;
+            }
+            List<String> comandos = separarComandos(lerRecurso(arquivo));
+            int executados = 0;
+            try (Statement st = conexao.createStatement()) {
+                for (String comando : comandos) {
+                    st.execute(comando);
+                    executados++;
+                }
+            } catch (SQLException e) {
+                SQLException falha = new SQLException("Falha ao aplicar a migração " + arquivo + " (comando "
+                        + (executados + 1) + " de " + comandos.size() + "): " + e.getMessage(), e);
+                try {
+                    if (executados == 0) {
+                        // Nada mudou no esquema: a versão pode rodar de novo na próxima subida
+                        liberarVersao(conexao, versao);
+                    } else {
+                        marcarSituacao(conexao, versao, FALHOU);
+                    }
+                } catch (SQLException registroFalha) {
+                    falha.addSuppressed(registroFalha);
+                }
+                throw falha;
+            }
+            marcarSituacao(conexao, versao, APLICADA);
+            registro.accept("Migração aplicada: " + arquivo);
+            quantidade++;
+        }
+        return quantidade;
+    }
+
+    private static void criarTabelaVersao(Connection conexao) throws SQLException {
+        try (Statement st = conexao.createStatement()) {
+            st.execute(SQL_CRIAR_TABELA_VERSAO);
+            try {
+                st.executeQuery("SELECT situacao FROM SCHEMA_VERSAO WHERE 1 = 0").close();
+            } catch (SQLException e) {
+                st.execute(SQL_CRIAR_COLUNA_SITUACAO);
+            }
+        }
+    }
+
+    /**
+     * @return Situação de cada versão registrada, em ordem de versão
+     */
+    private Map<Integer, String> buscarSituacoes(Connection conexao) throws SQLException {
+        Map<Integer, String> situacoes = new TreeMap<>();
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT versao, situacao FROM SCHEMA_VERSAO");
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                situacoes.put(rs.getInt("versao"), rs.getString("situacao"));
+            }
+        }
+        return situacoes;
+    }
+
+    private boolean reservarVersao(Connection conexao, int versao, String arquivo) throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement(
+                "INSERT INTO SCHEMA_VERSAO (versao, descricao, situacao) VALUES (?, ?, ?)")) {
+            ps.setInt(1, versao);
+            ps.setString(2, arquivo);
+            ps.setString(3, APLICANDO);
+            ps.executeUpdate();
+            return true;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            return false;
+        }
+    }
+
+    private static void marcarSituacao(Connection conexao, int versao, String situacao) throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement(
+                "UPDATE SCHEMA_VERSAO SET situacao = ? WHERE versao = ?")) {
+            ps.setString(1, situacao);
+            ps.setInt(2, versao);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void liberarVersao(Connection conexao, int versao) throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement("DELETE FROM SCHEMA_VERSAO WHERE versao = ?")) {
+            ps.setInt(1, versao);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * @return Os arquivos listados no indice.txt, ignorando linhas vazias e
+     * comentários (#)
+     */
+    public List<String> listarMigracoes() throws SQLException {
+        List<String> arquivos = new ArrayList<>();
+        for (String linha : lerRecurso("indice.txt").split("\\R")) {
+            String arquivo = linha.trim();
+            if (!arquivo.isEmpty() && !arquivo.startsWith("#")) {
+                arquivos.add(arquivo);
+            }
+        }
+        return arquivos;
+    }
+
+    private static int extrairVersao(String arquivo) throws SQLException {
+        int fim = 0;
+        while (fim < arquivo.length() && Character.isDigit(arquivo.charAt(fim))) {
+            fim++;
+        }
+        if (fim == 0) {
+            throw new SQLException("Migração sem número de versão: " + arquivo);
+        }
+        return Integer.parseInt(arquivo.substring(0, fim));
+    }
+
+    /**
+     * Separa o script em comandos pelo ";" no fim da linha, descartando os
+     * comentários de linha (--).
+     */
+    public static List<String> separarComandos(String script) {
+        List<String> comandos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        for (String linha : script.split("\\R")) {
+            String texto = linha.trim();
+            if (texto.isEmpty() || texto.startsWith("--")) {
+                continue;
+            }
+            atual.append(texto);
+            if (texto.endsWith(";")) {
+                atual.setLength(atual.length() - 1);
+                comandos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(' ');
+            }
+        }
+        if (atual.toString().trim().length() > 0) {
+            comandos.add(atual.toString().trim());
+        }
+        return comandos;
+    }
+
+    private String lerRecurso(String nome) throws SQLException {
+        return lerScript(diretorio + nome);
+    }
+
+    /**
+     * Lê um script SQL do classpath.
+     *
+     * @param caminho Caminho do recurso (ex: "db/banco_inicial.sql")
+     * @throws SQLException Se o recurso não existir ou não puder ser lido
+     */
+    public static String lerScript(String caminho) throws SQLException {
+        InputStream entrada = MigradorEsquema.class.getClassLoader().getResourceAsStream(caminho);
+        if (entrada == null) {
+            throw new SQLException("Script SQL não encontrado no classpath: " + caminho);
+        }
+        StringBuilder conteudo = new StringBuilder();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                conteudo.append(linha).append('\n');
+            }
+        } catch (IOException e) {
+            throw new SQLException("Erro ao ler o script " + caminho, e);
+        }
+        return conteudo.toString();
+    }
+}
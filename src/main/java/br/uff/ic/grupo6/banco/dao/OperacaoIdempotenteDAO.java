@@ -0,0 +1,131 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Transacao;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Tabela OPERACAO_IDEMPOTENTE: liga a chave de idempotência de uma operação
+ * (por conta) à transação que ela gerou. Os métodos recebem a conexão da
+ * transação que movimenta o saldo, como o TransacaoDAO.registrarTransacao.
+ *
+ * Uma chave só precisa existir enquanto o formulário ou a confirmação que a
+ * carrega pode ser reenviado; as mais velhas que
+ * -Dbanco.idempotencia.retencaoHoras (padrão 24) são apagadas na subida da
+ * aplicação e depois de hora em hora ({@link #removerAntigas()}).
+ */
+public class OperacaoIdempotenteDAO {
+
+    public static final long RETENCAO_HORAS = Long.getLong("banco.idempotencia.retencaoHoras", 24);
+
+    // Apaga aos poucos para não travar a tabela de uma vez só
+    private static final int LOTE_REMOCAO = 1000;
+
+    /**
+     * Reserva a chave. Se outra transação reservou a mesma chave e ainda não
+     * terminou, o banco espera por ela antes de responder.
+     *
+     * @return false se a chave já foi usada (a operação não deve ser repetida)
+     */
+    public boolean reservar(Connection conexao, int idConta, String chave) throws SQLException {
+        String sql = "INSERT INTO OPERACAO_IDEMPOTENTE (id_conta, chave, criada_em) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setInt(1, idConta);
+            ps.setString(2, chave);
+            ps.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            // Classe 23: violação de integridade, aqui só a chave primária duplicada
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Grava a transação gerada pela operação da chave reservada.
+     */
+    public void vincular(Connection conexao, int idConta, String chave, int idTransacao) throws SQLException {
+        String sql = "UPDATE OPERACAO_IDEMPOTENTE SET id_transacao = ? WHERE id_conta = ? AND chave = ?";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setInt(1, idTransacao);
+            ps.setInt(2, idConta);
+            ps.setString(3, chave);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Grava, num só comando em lote, a transação gerada por cada chave
+     * reservada (depósitos agrupados). As listas andam juntas: a chave i gerou
+     * a transação i.
+     */
+    public void vincular(Connection conexao, List<String> chaves, List<Transacao> transacoes) throws SQLException {
+        String sql = "UPDATE OPERACAO_IDEMPOTENTE SET id_transacao = ? WHERE id_conta = ? AND chave = ?";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < chaves.size(); i++) {
+                Transacao transacao = transacoes.get(i);
+                ps.setInt(1, transacao.getId());
+                ps.setInt(2, transacao.getIdConta());
+                ps.setString(3, chaves.get(i));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * @return A transação gerada pela primeira execução com a chave, ou null
+     */
+    public Transacao buscarRecibo(Connection conexao, int idConta, String chave) throws SQLException {
+        String sql = "SELECT t.id, t.tipo, t.valor, t.data_transacao, t.id_conta "
+                + "FROM OPERACAO_IDEMPOTENTE o "
+                + "JOIN TRANSACAO t ON t.id = o.id_transacao "
+                + "WHERE o.id_conta = ? AND o.chave = ?";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setInt(1, idConta);
+            ps.setString(2, chave);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return TransacaoDAO.lerTransacao(rs);
+            }
+        }
+    }
+
+    /**
+     * Apaga as chaves criadas há mais de RETENCAO_HORAS.
+     *
+     * @return Quantidade de chaves apagadas
+     */
+    public int removerAntigas() throws SQLException {
+        return removerAntigas(new Timestamp(System.currentTimeMillis() - RETENCAO_HORAS * 60 * 60 * 1000));
+    }
+
+    /**
+     * Apaga as chaves criadas antes do instante informado, em lotes de
+     * LOTE_REMOCAO (cada um na sua transação, com autocommit).
+     *
+     * @return Quantidade de chaves apagadas
+     */
+    public int removerAntigas(Timestamp criadasAntesDe) throws SQLException {
+        String sql = "DELETE FROM OPERACAO_IDEMPOTENTE WHERE criada_em < ? LIMIT " + LOTE_REMOCAO;
+        int total = 0;
+        try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
+            int removidas;
+            do {
+                ps.setTimestamp(1, criadasAntesDe);
+                removidas = ps.executeUpdate();
+                total += removidas;
+            } while (removidas == LOTE_REMOCAO);
+        }
+        return total;
+    }
+}
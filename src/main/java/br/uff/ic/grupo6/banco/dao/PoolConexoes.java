@@ -0,0 +1,314 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexões JDBC limitado. Mantém um número mínimo de conexões
+ * abertas, nunca empresta mais que o máximo ao mesmo tempo, valida conexões
+ * que ficaram ociosas, descarta as que passaram do tempo de vida ou ficaram
+ * ociosas demais e limita o tempo que uma thread pode esperar por uma conexão.
+ *
+ * As conexões entregues são proxies: chamar close() devolve a conexão física
+ * ao pool em vez de fechá-la, então os DAOs continuam usando
+ * try-with-resources normalmente.
+ */
+public class PoolConexoes {
+
+    private static final Logger LOG = Logger.getLogger(PoolConexoes.class.getName());
+
+    /**
+     * Cria as conexões físicas do pool (ex: DriverManager.getConnection).
+     */
+    @FunctionalInterface
+    public interface FabricaConexao {
+
+        Connection criar() throws SQLException;
+    }
+
+    // Conexões ociosas há menos tempo que isso são entregues sem validação
+    private static final long LIMIAR_VALIDACAO_MS = 500;
+    private static final int TIMEOUT_VALIDACAO_SEGUNDOS = 2;
+
+    private final FabricaConexao fabrica;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final long tempoOciosoMaximoMs;
+    private final long tempoVidaMaximoMs;
+    private final long timeoutAquisicaoMs;
+
+    // Uma permissão por conexão emprestada: limita as conexões ativas ao máximo
+    private final Semaphore permissoes;
+    // Usada como pilha (LIFO): as conexões mais "quentes" são reaproveitadas primeiro
+    private final LinkedBlockingDeque<ConexaoFisica> ociosas = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService manutencao;
+    private volatile boolean encerrado;
+
+    // Contadores para dimensionar o pool sob carga real
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger ativas = new AtomicInteger();
+    private final AtomicInteger aguardando = new AtomicInteger();
+    private final LongAdder aquisicoes = new LongAdder();
+    private final LongAdder tempoTotalAquisicaoNanos = new LongAdder();
+    private final AtomicLong maiorTempoAquisicaoNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder criadas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+
+    public PoolConexoes(FabricaConexao fabrica, int tamanhoMinimo, int tamanhoMaximo, long tempoOciosoMaximoMs,
+            long tempoVidaMaximoMs, long timeoutAquisicaoMs) {
+        if (tamanhoMaximo < 1 || tamanhoMinimo < 0 || tamanhoMinimo > tamanhoMaximo) {
+            throw new IllegalArgumentException("Tamanhos de pool inválidos: mínimo=" + tamanhoMinimo
+                    + ", máximo=" + tamanhoMaximo);
+        }
+        this.fabrica = fabrica;
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.tempoOciosoMaximoMs = tempoOciosoMaximoMs;
+        this.tempoVidaMaximoMs = tempoVidaMaximoMs;
+        this.timeoutAquisicaoMs = timeoutAquisicaoMs;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexoes-manutencao");
+            t.setDaemon(true);
+            return t;
+        });
+        // A primeira execução já abre as conexões mínimas, sem bloquear quem criou o pool
+        long intervalo = Math.max(1000, Math.min(30000, tempoOciosoMaximoMs / 2));
+        this.manutencao.scheduleWithFixedDelay(this::executarManutencao, 0, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Empresta uma conexão do pool, esperando no máximo o timeout de aquisição.
+     *
+     * @return Uma conexão que volta para o pool quando for fechada.
+     * @throws SQLTimeoutException Se nenhuma conexão ficar livre a tempo.
+     * @throws SQLException Se não for possível abrir uma nova conexão.
+     */
+    public Connection obterConexao() throws SQLException {
+        if (encerrado) {
+            throw new SQLException("O pool de conexões foi encerrado.");
+        }
+        long inicio = System.nanoTime();
+
+        boolean obteve;
+        aguardando.incrementAndGet();
+        try {
+            obteve = permissoes.tryAcquire(timeoutAquisicaoMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Thread interrompida aguardando conexão do pool.", e);
+        } finally {
+            aguardando.decrementAndGet();
+        }
+        if (!obteve) {
+            timeouts.increment();
+            throw new SQLTimeoutException("Tempo esgotado (" + timeoutAquisicaoMs
+                    + " ms) aguardando uma conexão livre no pool.");
+        }
+
+        try {
+            ConexaoFisica fisica = obterOuCriar();
+            ativas.incrementAndGet();
+            registrarAquisicao(System.nanoTime() - inicio);
+            return fisica.emprestar();
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Fecha todas as conexões ociosas e recusa novos empréstimos. Conexões
+     * ainda emprestadas são fechadas quando forem devolvidas.
+     */
+    public void encerrar() {
+        encerrado = true;
+        manutencao.shutdownNow();
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            descartar(fisica);
+        }
+    }
+
+    /**
+     * @return Uma fotografia dos contadores do pool neste instante.
+     */
+    public EstatisticasPool getEstatisticas() {
+        long quantidade = aquisicoes.sum();
+        double tempoMedioMs = quantidade == 0 ? 0 : tempoTotalAquisicaoNanos.sum() / (double) quantidade / 1_000_000;
+        return new EstatisticasPool(ativas.get(), ociosas.size(), aguardando.get(), total.get(), tamanhoMaximo,
+                quantidade, timeouts.sum(), criadas.sum(), descartadas.sum(), tempoMedioMs,
+                maiorTempoAquisicaoNanos.get() / 1_000_000.0);
+    }
+
+    private ConexaoFisica obterOuCriar() throws SQLException {
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            long agora = System.currentTimeMillis();
+            if (fisica.expirou(agora)) {
+                descartar(fisica);
+            } else if (agora - fisica.ultimoUso < LIMIAR_VALIDACAO_MS || fisica.valida()) {
+                return fisica;
+            } else {
+                descartar(fisica);
+            }
+        }
+        return criar();
+    }
+
+    private ConexaoFisica criar() throws SQLException {
+        Connection real = fabrica.criar();
+        total.incrementAndGet();
+        criadas.increment();
+        return new ConexaoFisica(real);
+    }
+
+    private void devolver(ConexaoFisica fisica) {
+        ativas.decrementAndGet();
+        try {
+            if (encerrado || fisica.expirou(System.currentTimeMillis()) || fisica.real.isClosed()) {
+                descartar(fisica);
+                return;
+            }
+            // Não deixa transação aberta "vazar" para o próximo usuário da conexão
+            if (!fisica.real.getAutoCommit()) {
+                fisica.real.rollback();
+                fisica.real.setAutoCommit(true);
+            }
+            fisica.real.clearWarnings();
+            fisica.ultimoUso = System.currentTimeMillis();
+            ociosas.offerFirst(fisica);
+        } catch (SQLException e) {
+            descartar(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    private void descartar(ConexaoFisica fisica) {
+        total.decrementAndGet();
+        descartadas.increment();
+        try {
+            fisica.real.close();
+        } catch (SQLException e) {
+            /* Ignora: a conexão já está sendo descartada */ }
+    }
+
+    private void registrarAquisicao(long nanos) {
+        aquisicoes.increment();
+        tempoTotalAquisicaoNanos.add(nanos);
+        maiorTempoAquisicaoNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Remove conexões ociosas demais ou velhas demais e repõe o mínimo.
+     */
+    private void executarManutencao() {
+        try {
+            long agora = System.currentTimeMillis();
+            for (ConexaoFisica fisica : ociosas) {
+                boolean ociosaDemais = total.get() > tamanhoMinimo && agora - fisica.ultimoUso > tempoOciosoMaximoMs;
+                if ((ociosaDemais || fisica.expirou(agora)) && ociosas.remove(fisica)) {
+                    descartar(fisica);
+                }
+            }
+            while (!encerrado && total.get() < tamanhoMinimo) {
+                ociosas.offerLast(criar());
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Banco indisponível: tenta de novo na próxima rodada
+            LOG.log(Level.WARNING, "Pool de conexões: falha na manutenção", e);
+        }
+    }
+
+    /**
+     * Conexão real aberta com o banco e seus metadados de uso.
+     */
+    private final class ConexaoFisica {
+
+        private final Connection real;
+        private final long criadaEm = System.currentTimeMillis();
+        private volatile long ultimoUso = criadaEm;
+
+        private ConexaoFisica(Connection real) {
+            this.real = real;
+        }
+
+        private boolean expirou(long agora) {
+            return tempoVidaMaximoMs > 0 && agora - criadaEm > tempoVidaMaximoMs;
+        }
+
+        private boolean valida() {
+            try {
+                return real.isValid(TIMEOUT_VALIDACAO_SEGUNDOS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private Connection emprestar() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ConexaoEmprestada(this));
+        }
+    }
+
+    /**
+     * Intercepta close() para devolver a conexão ao pool; o resto é repassado
+     * para a conexão real.
+     */
+    private final class ConexaoEmprestada implements InvocationHandler {
+
+        private final ConexaoFisica fisica;
+        private boolean fechada;
+
+        private ConexaoEmprestada(ConexaoFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!fechada) {
+                        fechada = true;
+                        devolver(fisica);
+                    }
+                    return null;
+                case "isClosed":
+                    return fechada || fisica.real.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexaoPool[" + fisica.real + "]";
+                default:
+                    if (fechada) {
+                        throw new SQLException("A conexão já foi devolvida ao pool.");
+                    }
+                    try {
+                        return method.invoke(fisica.real, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Dinheiro;
+import br.uff.ic.grupo6.banco.model.Gerente;
+import br.uff.ic.grupo6.banco.model.Usuario;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Colunas de USUARIO (alias u) e CONTA (alias c) que cada consulta do
+ * UsuarioDAO traz, no lugar de "SELECT u.*", e a leitura de cada linha.
+ *
+ * A lista de colunas e o leitor ficam juntos porque o leitor lê pela posição
+ * (1, 2, 3...), sem procurar o nome da coluna em cada linha. A conta é sempre
+ * a última parte da projeção e vem null quando o LEFT JOIN não encontra conta.
+ */
+final class ProjecaoUsuario<T> {
+
+    @FunctionalInterface
+    interface Leitor<T> {
+
+        T ler(ResultSet rs) throws SQLException;
+    }
+
+    private static final String COLUNAS_CONTA = "c.id, c.agencia, c.numero, c.saldo";
+
+    /**
+     * Linha das listas do gerente: id, nome, CPF, e-mail e conta.
+     */
+    static final ProjecaoUsuario<Cliente> RESUMO = new ProjecaoUsuario<>(
+            "u.id, u.nome, u.cpf, u.email, " + COLUNAS_CONTA,
+            rs -> {
+                Cliente cliente = new Cliente(rs.getString(3), null, rs.getString(2), rs.getString(3));
+                cliente.setId(rs.getInt(1));
+                cliente.setEmail(rs.getString(4));
+                cliente.setConta(lerConta(rs, 5));
+                return cliente;
+            });
+
+    /**
+     * Cadastro completo do cliente, para as telas dele e a edição pelo
+     * gerente. Traz a senha porque a alteração de dados confere a senha atual;
+     * o token do "Lembrar-me" e o tipo ficam de fora.
+     */
+    static final ProjecaoUsuario<Cliente> PERFIL = new ProjecaoUsuario<>(
+            "u.id, u.nome, u.cpf, u.email, u.senha, u.data_nascimento, u.telefone, u.cep, u.endereco, "
+            + "u.bairro, u.cidade, u.estado, u.renda, u.ocupacao, " + COLUNAS_CONTA,
+            rs -> {
+                Cliente cliente = new Cliente(rs.getString(3), rs.getString(5), rs.getString(2), rs.getString(3));
+                cliente.setId(rs.getInt(1));
+                cliente.setEmail(rs.getString(4));
+                Date dataNascimento = rs.getDate(6);
+                if (dataNascimento != null) {
+                    cliente.setDataNascimento(dataNascimento.toLocalDate());
+                }
+                cliente.setTelefone(rs.getString(7));
+                cliente.setCep(rs.getString(8));
+                cliente.setEndereco(rs.getString(9));
+                cliente.setBairro(rs.getString(10));
+                cliente.setCidade(rs.getString(11));
+                cliente.setEstado(rs.getString(12));
+                double renda = rs.getDouble(13);
+                if (!rs.wasNull()) {
+                    cliente.setRenda(renda);
+                }
+                cliente.setOcupacao(rs.getString(14));
+                cliente.setConta(lerConta(rs, 15));
+                return cliente;
+            });
+
+    /**
+     * Login: o tipo decide entre Cliente e Gerente; só id, nome, CPF, senha e
+     * a conta (para a sessão). Devolve null para outros tipos.
+     */
+    static final ProjecaoUsuario<Usuario> AUTENTICACAO = new ProjecaoUsuario<>(
+            "u.id, u.tipo, u.nome, u.cpf, u.senha, " + COLUNAS_CONTA,
+            rs -> {
+                String tipo = rs.getString(2);
+                if ("CLIENTE".equals(tipo)) {
+                    Cliente cliente = new Cliente(rs.getString(4), rs.getString(5), rs.getString(3), rs.getString(4));
+                    cliente.setId(rs.getInt(1));
+                    cliente.setConta(lerConta(rs, 6));
+                    return cliente;
+                } else if ("GERENTE".equals(tipo)) {
+                    Gerente gerente = new Gerente(rs.getString(4), rs.getString(5));
+                    gerente.setId(rs.getInt(1));
+                    gerente.setNome(rs.getString(3));
+                    return gerente;
+                }
+                return null;
+            });
+
+    private final String colunas;
+    private final Leitor<T> leitor;
+
+    private ProjecaoUsuario(String colunas, Leitor<T> leitor) {
+        this.colunas = colunas;
+        this.leitor = leitor;
+    }
+
+    /**
+     * @return As colunas para o SELECT, na ordem que o leitor espera
+     */
+    String getColunas() {
+        return colunas;
+    }
+
+    /**
+     * Monta o objeto a partir da linha atual do ResultSet.
+     */
+    T ler(ResultSet rs) throws SQLException {
+        return leitor.ler(rs);
+    }
+
+    private static Conta lerConta(ResultSet rs, int primeiraColuna) throws SQLException {
+        String agencia = rs.getString(primeiraColuna + 1);
+        if (agencia == null) {
+            return null;
+        }
+        Conta conta = new Conta(agencia, rs.getString(primeiraColuna + 2));
+        conta.setSaldoCentavos(Dinheiro.centavos(rs.getBigDecimal(primeiraColuna + 3)));
+        conta.setId(rs.getInt(primeiraColuna));
+        return conta;
+    }
+}
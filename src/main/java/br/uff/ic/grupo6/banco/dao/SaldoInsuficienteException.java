@@ -0,0 +1,15 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Lançada quando o débito condicional não altera nenhuma linha, ou seja, o
+ * saldo da conta no banco não cobria o valor. A transação já foi desfeita
+ * quando esta exceção chega na camada de serviço.
+ */
+public class SaldoInsuficienteException extends SQLException {
+
+    public SaldoInsuficienteException(int idConta) {
+        super("Saldo insuficiente na conta " + idConta + ".");
+    }
+}
@@ -1,6 +1,8 @@
 package br.uff.ic.grupo6.banco.dao;
 
+import br.uff.ic.grupo6.banco.model.Dinheiro;
 import br.uff.ic.grupo6.banco.model.Transacao;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -15,7 +17,22 @@ import java.util.List;
 
 public class TransacaoDAO {
 
-    public Transacao registrarTransacao(Connection conexao, int idConta, String tipo, double valor) throws SQLException {
+    /**
+     * Linhas por consulta na exportação (ver percorrerTransacoes). Limita a
+     * memória usada e o tempo de cada consulta.
+     */
+    public static final int TAMANHO_LOTE_EXPORTACAO = 500;
+
+    /**
+     * Recebe as transações uma a uma durante a exportação do extrato.
+     */
+    @FunctionalInterface
+    public interface LeitorTransacao {
+
+        void ler(Transacao transacao) throws IOException;
+    }
+
+    public Transacao registrarTransacao(Connection conexao, int idConta, String tipo, long valorCentavos) throws SQLException {
         String sql = "INSERT INTO TRANSACAO (id_conta, tipo, valor, data_transacao) VALUES (?, ?, ?, ?)";
         Transacao transacao = null;
 
@@ -25,7 +42,9 @@ public class TransacaoDAO {
 
             ps.setInt(1, idConta);
             ps.setString(2, tipo);
-            ps.setBigDecimal(3, BigDecimal.valueOf(valor));
+            // O mesmo BigDecimal (imutável) vai para o banco e para o comprovante
+            BigDecimal valor = Dinheiro.decimal(valorCentavos);
+            ps.setBigDecimal(3, valor);
             ps.setTimestamp(4, dataAtual);
 
             ps.executeUpdate();
@@ -36,7 +55,7 @@ public class TransacaoDAO {
                     transacao.setId(generatedKeys.getInt(1));
                     transacao.setIdConta(idConta);
                     transacao.setTipo(tipo);
-                    transacao.setValor(BigDecimal.valueOf(valor));
+                    transacao.setValor(valor);
                     transacao.setDataTransacao(dataAtual.toLocalDateTime());
                 } else {
                     throw new SQLException("Falha ao obter o ID da transação.");
@@ -46,6 +65,37 @@ public class TransacaoDAO {
         return transacao;
     }
 
+    /**
+     * Grava várias transações num só INSERT em lote (depósitos agrupados).
+     * Cada transação chega com conta, tipo e valor; volta com id e data.
+     */
+    public void registrarTransacoes(Connection conexao, List<Transacao> transacoes) throws SQLException {
+        String sql = "INSERT INTO TRANSACAO (id_conta, tipo, valor, data_transacao) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement ps = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            Timestamp dataAtual = new Timestamp(System.currentTimeMillis());
+            for (Transacao transacao : transacoes) {
+                ps.setInt(1, transacao.getIdConta());
+                ps.setString(2, transacao.getTipo());
+                ps.setBigDecimal(3, transacao.getValor());
+                ps.setTimestamp(4, dataAtual);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+            // As chaves geradas vêm na ordem em que as linhas entraram no lote
+            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                for (Transacao transacao : transacoes) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Falha ao obter o ID da transação.");
+                    }
+                    transacao.setId(generatedKeys.getInt(1));
+                    transacao.setDataTransacao(dataAtual.toLocalDateTime());
+                }
+            }
+        }
+    }
+
     /**
      * Busca todas as transações para uma conta específica, ordenadas pela data da transação (mais recente primeiro).
      * @param idConta O ID da conta.
@@ -62,14 +112,7 @@ public class TransacaoDAO {
             ps.setInt(1, idConta);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Transacao transacao = new Transacao();
-                    transacao.setId(rs.getInt("id"));
-                    transacao.setTipo(rs.getString("tipo"));
-                    transacao.setValor(rs.getBigDecimal("valor"));
-                    // Converte Timestamp para LocalDateTime
-                    transacao.setDataTransacao(rs.getTimestamp("data_transacao").toLocalDateTime());
-                    transacao.setIdConta(rs.getInt("id_conta"));
-                    transacoes.add(transacao);
+                    transacoes.add(lerTransacao(rs));
                 }
             }
         }
@@ -114,16 +157,166 @@ public class TransacaoDAO {
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Transacao transacao = new Transacao();
-                    transacao.setId(rs.getInt("id"));
-                    transacao.setTipo(rs.getString("tipo"));
-                    transacao.setValor(rs.getBigDecimal("valor"));
-                    transacao.setDataTransacao(rs.getTimestamp("data_transacao").toLocalDateTime());
-                    transacao.setIdConta(rs.getInt("id_conta"));
-                    transacoes.add(transacao);
+                    transacoes.add(lerTransacao(rs));
                 }
             }
         }
         return transacoes;
     }
-}
\ No newline at end of file
+
+    /**
+     * Busca uma página do extrato usando paginação por chave (keyset): em vez
+     * de OFFSET, continua a partir da última transação já exibida, ordenando por
+     * (data_transacao, id). O custo por página não depende da idade da conta.
+     * As datas de início e fim são opcionais.
+     * @param idConta O ID da conta.
+     * @param dataInicio Data de início do período (opcional).
+     * @param dataFim Data de fim do período (opcional).
+     * @param depoisDeData Data da última transação da página anterior (null na primeira página).
+     * @param depoisDeId ID da última transação da página anterior (ignorado na primeira página).
+     * @param limite Quantidade máxima de transações retornadas.
+     * @return Uma lista de no máximo 'limite' transações, da mais recente para a mais antiga.
+     * @throws SQLException
+     */
+    public List<Transacao> buscarPaginaTransacoes(int idConta, LocalDate dataInicio, LocalDate dataFim,
+            LocalDateTime depoisDeData, int depoisDeId, int limite) throws SQLException {
+        List<Transacao> transacoes = new ArrayList<>(limite);
+        StringBuilder sqlBuilder = new StringBuilder("SELECT id, tipo, valor, data_transacao, id_conta FROM TRANSACAO WHERE id_conta = ?");
+
+        if (dataInicio != null) {
+            sqlBuilder.append(" AND data_transacao >= ?");
+        }
+        if (dataFim != null) {
+            sqlBuilder.append(" AND data_transacao <= ?");
+        }
+        if (depoisDeData != null) {
+            // Desempate pelo id para transações com a mesma data
+            sqlBuilder.append(" AND (data_transacao < ? OR (data_transacao = ? AND id < ?))");
+        }
+        sqlBuilder.append(" ORDER BY data_transacao DESC, id DESC LIMIT ?");
+
+        try (Connection conexao = ConexaoDB.getConexao();
+             PreparedStatement ps = conexao.prepareStatement(sqlBuilder.toString())) {
+
+            int paramIndex = 1;
+            ps.setInt(paramIndex++, idConta);
+
+            if (dataInicio != null) {
+                ps.setTimestamp(paramIndex++, Timestamp.valueOf(dataInicio.atStartOfDay()));
+            }
+            if (dataFim != null) {
+                ps.setTimestamp(paramIndex++, Timestamp.valueOf(dataFim.atTime(23, 59, 59, 999999999)));
+            }
+            if (depoisDeData != null) {
+                Timestamp cursor = Timestamp.valueOf(depoisDeData);
+                ps.setTimestamp(paramIndex++, cursor);
+                ps.setTimestamp(paramIndex++, cursor);
+                ps.setInt(paramIndex++, depoisDeId);
+            }
+            ps.setInt(paramIndex, limite);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    transacoes.add(lerTransacao(rs));
+                }
+            }
+        }
+        return transacoes;
+    }
+
+    /**
+     * Percorre as transações de uma conta em ordem cronológica, entregando cada
+     * uma ao leitor sem montar a lista inteira. As linhas vêm em lotes de
+     * TAMANHO_LOTE_EXPORTACAO, cada lote numa consulta própria que continua da
+     * última linha do anterior (data e id). A conexão volta ao pool antes de o
+     * lote ir para o leitor, então um download lento não prende conexão, e a
+     * memória usada não depende do tamanho do extrato. Transações gravadas
+     * durante a exportação podem aparecer no fim. As datas são opcionais.
+     * @param idConta O ID da conta.
+     * @param dataInicio Data de início do período (opcional).
+     * @param dataFim Data de fim do período (opcional).
+     * @param leitor Recebe cada transação lida.
+     * @return A quantidade de transações lidas.
+     * @throws SQLException
+     * @throws IOException Repassada do leitor (ex: cliente desconectou no meio do download).
+     */
+    public int percorrerTransacoes(int idConta, LocalDate dataInicio, LocalDate dataFim, LeitorTransacao leitor)
+            throws SQLException, IOException {
+        int quantidade = 0;
+        Transacao ultima = null;
+        List<Transacao> lote;
+        do {
+            lote = buscarLoteExportacao(idConta, dataInicio, dataFim, ultima);
+            for (Transacao transacao : lote) {
+                leitor.ler(transacao);
+            }
+            quantidade += lote.size();
+            if (!lote.isEmpty()) {
+                ultima = lote.get(lote.size() - 1);
+            }
+        } while (lote.size() == TAMANHO_LOTE_EXPORTACAO);
+        return quantidade;
+    }
+
+    /**
+     * Próximo lote da exportação, depois da transação "depoisDe" (null para o
+     * primeiro). Usa o índice (id_conta, data_transacao, id).
+     */
+    private List<Transacao> buscarLoteExportacao(int idConta, LocalDate dataInicio, LocalDate dataFim,
+            Transacao depoisDe) throws SQLException {
+        StringBuilder sqlBuilder = new StringBuilder("SELECT id, tipo, valor, data_transacao, id_conta FROM TRANSACAO WHERE id_conta = ?");
+
+        if (dataInicio != null) {
+            sqlBuilder.append(" AND data_transacao >= ?");
+        }
+        if (dataFim != null) {
+            sqlBuilder.append(" AND data_transacao <= ?");
+        }
+        if (depoisDe != null) {
+            sqlBuilder.append(" AND (data_transacao > ? OR (data_transacao = ? AND id > ?))");
+        }
+        sqlBuilder.append(" ORDER BY data_transacao, id LIMIT ").append(TAMANHO_LOTE_EXPORTACAO);
+
+        List<Transacao> lote = new ArrayList<>(TAMANHO_LOTE_EXPORTACAO);
+        try (Connection conexao = ConexaoDB.getConexao();
+             PreparedStatement ps = conexao.prepareStatement(sqlBuilder.toString())) {
+
+            int paramIndex = 1;
+            ps.setInt(paramIndex++, idConta);
+
+            if (dataInicio != null) {
+                ps.setTimestamp(paramIndex++, Timestamp.valueOf(dataInicio.atStartOfDay()));
+            }
+            if (dataFim != null) {
+                ps.setTimestamp(paramIndex++, Timestamp.valueOf(dataFim.atTime(23, 59, 59, 999999999)));
+            }
+            if (depoisDe != null) {
+                Timestamp data = Timestamp.valueOf(depoisDe.getDataTransacao());
+                ps.setTimestamp(paramIndex++, data);
+                ps.setTimestamp(paramIndex++, data);
+                ps.setInt(paramIndex++, depoisDe.getId());
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lote.add(lerTransacao(rs));
+                }
+            }
+        }
+        return lote;
+    }
+
+    /**
+     * Monta a transação da linha atual (colunas id, tipo, valor,
+     * data_transacao e id_conta). Também usado pelo OperacaoIdempotenteDAO.
+     */
+    static Transacao lerTransacao(ResultSet rs) throws SQLException {
+        Transacao transacao = new Transacao();
+        transacao.setId(rs.getInt("id"));
+        transacao.setTipo(rs.getString("tipo"));
+        transacao.setValor(rs.getBigDecimal("valor"));
+        transacao.setDataTransacao(rs.getTimestamp("data_transacao").toLocalDateTime());
+        transacao.setIdConta(rs.getInt("id_conta"));
+        return transacao;
+    }
+}
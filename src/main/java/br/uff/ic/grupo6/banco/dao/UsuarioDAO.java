@@ -1,9 +1,9 @@
 package br.uff.ic.grupo6.banco.dao;
 
 import br.uff.ic.grupo6.banco.model.Cliente;
-import br.uff.ic.grupo6.banco.model.Conta;
-import br.uff.ic.grupo6.banco.model.Gerente;
+import br.uff.ic.grupo6.banco.model.Dinheiro;
 import br.uff.ic.grupo6.banco.model.Usuario;
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -19,64 +19,113 @@ import java.util.List;
  */
 public class UsuarioDAO {
 
+    // Resultados da busca de clientes do gerente (os mais relevantes primeiro)
+    public static final int MAXIMO_RESULTADOS_BUSCA = 50;
+
+    /**
+     * Ordenações da listagem paginada de clientes. Cada uma desempata por um
+     * id, para que o cursor (valor e id do último cliente da página) aponte
+     * para uma posição única.
+     */
+    public enum OrdemClientes {
+        NOME("u.nome ASC, u.id ASC", "(u.nome > ? OR (u.nome = ? AND u.id > ?))"),
+        CPF("u.cpf ASC, u.id ASC", "(u.cpf > ? OR (u.cpf = ? AND u.id > ?))"),
+        // Maiores saldos primeiro; desempata pelo id da conta, que está no índice do saldo
+        SALDO("c.saldo DESC, c.id DESC", "(c.saldo < ? OR (c.saldo = ? AND c.id < ?))");
+
+        private final String orderBy;
+        private final String depoisDe;
+
+        OrdemClientes(String orderBy, String depoisDe) {
+            this.orderBy = orderBy;
+            this.depoisDe = depoisDe;
+        }
+
+        /**
+         * @return O valor da coluna ordenada para o cursor
+         */
+        public String valorCursor(Cliente cliente) {
+            switch (this) {
+                case CPF:
+                    return cliente.getCpf();
+                case SALDO:
+                    return Dinheiro.decimal(cliente.getConta().getSaldoCentavos()).toPlainString();
+                default:
+                    return cliente.getNome();
+            }
+        }
+
+        /**
+         * @return O id de desempate para o cursor
+         */
+        public int idCursor(Cliente cliente) {
+            return this == SALDO ? cliente.getConta().getId() : cliente.getId();
+        }
+    }
+
     /**
      * Busca um usuário (Cliente ou Gerente) pelo CPF. Faz um LEFT JOIN com a
      * tabela CONTA para já trazer os dados bancários se existirem.
      *
      * @param cpf O CPF a ser buscado.
-     * @return Um objeto Usuario (Cliente ou Gerente), ou null se não for
-     * encontrado.
+     * @return Um objeto Usuario (Cliente ou Gerente) com os dados do login
+     * (id, nome, CPF, senha e conta), ou null se não for encontrado.
      * @throws SQLException
      */
     public Usuario buscarPorCpf(String cpf) throws SQLException {
-        String sql = "SELECT u.*, c.id as conta_id, c.agencia, c.numero, c.saldo "
+        Usuario emCache = CacheCadastro.USUARIOS_POR_CPF.buscar(cpf);
+        if (emCache != null) {
+            return CacheCadastro.copiar(emCache);
+        }
+        long geracao = CacheCadastro.USUARIOS_POR_CPF.getGeracao();
+
+        // Só o que o login usa: tipo, nome, senha e conta
+        String sql = "SELECT " + ProjecaoUsuario.AUTENTICACAO.getColunas() + " "
                 + "FROM USUARIO u "
                 + "LEFT JOIN CONTA c ON u.id = c.id_usuario "
                 + "WHERE u.cpf = ?";
         Usuario usuario = null;
         try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
             ps.setString(1, cpf);
-            ResultSet rs = ps.executeQuery();
-
-            // Se encontrou um resultado, monta o objeto correspondente
-            if (rs.next()) {
-                String tipo = rs.getString("tipo");
-                // Verifica se é Cliente ou Gerente para criar o objeto correto
-                if ("CLIENTE".equals(tipo)) {
-                    Cliente cliente = new Cliente(rs.getString("cpf"), rs.getString("senha"), rs.getString("nome"), rs.getString("cpf"));
-                    // Preenche todos os atributos do cliente com os dados do banco
-                    cliente.setId(rs.getInt("id"));
-                    java.sql.Date dataNascimentoSql = rs.getDate("data_nascimento");
-                    if (dataNascimentoSql != null) {
-                        cliente.setDataNascimento(dataNascimentoSql.toLocalDate());
-                    }
-                    cliente.setEmail(rs.getString("email"));
-                    cliente.setTelefone(rs.getString("telefone"));
-                    cliente.setCep(rs.getString("cep"));
-                    cliente.setEndereco(rs.getString("endereco"));
-                    cliente.setBairro(rs.getString("bairro"));
-                    cliente.setCidade(rs.getString("cidade"));
-                    cliente.setEstado(rs.getString("estado"));
-                    cliente.setOcupacao(rs.getString("ocupacao"));
-                    double renda = rs.getDouble("renda");
-                    if (!rs.wasNull()) {
-                        cliente.setRenda(renda);
-                    }
-                    // Se o cliente tiver uma conta, cria e associa o objeto Conta
-                    if (rs.getString("agencia") != null) {
-                        Conta conta = new Conta(rs.getString("agencia"), rs.getString("numero"), rs.getDouble("saldo"));
-                        conta.setId(rs.getInt("conta_id"));
-                        cliente.setConta(conta);
-                    }
-                    usuario = cliente;
-                } else if ("GERENTE".equals(tipo)) {
-                    Gerente gerente = new Gerente(rs.getString("cpf"), rs.getString("senha"));
-                    gerente.setId(rs.getInt("id"));
-                    gerente.setNome(rs.getString("nome"));
-                    usuario = gerente;
+            try (ResultSet rs = ps.executeQuery()) {
+                // Se encontrou um resultado, monta o Cliente ou o Gerente
+                if (rs.next()) {
+                    usuario = ProjecaoUsuario.AUTENTICACAO.ler(rs);
+                }
+            }
+        }
+        CacheCadastro.USUARIOS_POR_CPF.guardar(cpf, CacheCadastro.copiar(usuario), geracao);
+        return usuario;
+    }
+
+    /**
+     * Busca um usuário (cliente ou gerente) pelo ID, com os mesmos dados do
+     * {@link #buscarPorCpf}. Usado pelo "Lembrar-me", cujo token só leva o ID.
+     *
+     * @return O usuário, ou null se não for encontrado.
+     * @throws SQLException
+     */
+    public Usuario buscarPorId(int id) throws SQLException {
+        Usuario emCache = CacheCadastro.USUARIOS_POR_ID.buscar(id);
+        if (emCache != null) {
+            return CacheCadastro.copiar(emCache);
+        }
+        long geracao = CacheCadastro.USUARIOS_POR_ID.getGeracao();
+
+        String sql = "SELECT " + ProjecaoUsuario.AUTENTICACAO.getColunas() + " "
+                + "FROM USUARIO u "
+                + "LEFT JOIN CONTA c ON u.id = c.id_usuario "
+                + "WHERE u.id = ?";
+        Usuario usuario = null;
+        try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    usuario = ProjecaoUsuario.AUTENTICACAO.ler(rs);
                 }
             }
         }
+        CacheCadastro.USUARIOS_POR_ID.guardar(id, CacheCadastro.copiar(usuario), geracao);
         return usuario;
     }
 
@@ -94,6 +143,8 @@ public class UsuarioDAO {
         PreparedStatement psUsuario = null;
         PreparedStatement psConta = null;
         ResultSet generatedKeys = null;
+        String numeroConta = null;
+        int idUsuario = 0;
         try {
             conexao = ConexaoDB.getConexao();
             // Inicia uma transação, desativando o auto-commit
@@ -120,11 +171,11 @@ public class UsuarioDAO {
 
             generatedKeys = psUsuario.getGeneratedKeys();
             if (generatedKeys.next()) {
-                int idUsuario = generatedKeys.getInt(1);
+                idUsuario = generatedKeys.getInt(1);
                 // Usa o ID do usuário recém-criado para criar a conta associada a ele
                 psConta = conexao.prepareStatement(sqlConta);
                 psConta.setString(1, "0001"); // Agência padrão
-                String numeroConta = String.format("%06d", (100000 + idUsuario)); // Lógica para gerar número da conta
+                numeroConta = String.format("%06d", (100000 + idUsuario)); // Lógica para gerar número da conta
                 psConta.setString(2, numeroConta);
                 psConta.setInt(3, idUsuario);
                 psConta.executeUpdate();
@@ -133,6 +184,10 @@ public class UsuarioDAO {
             }
             // Se tudo correu bem, efetiva a transação
             conexao.commit();
+            // A conta nova pode ter sido procurada antes (cache negativo de destinatários)
+            CacheCadastro.invalidarContaNova("0001", numeroConta);
+            IndiceBuscaClientes.getInstancia().adicionar(idUsuario, cliente.getNome(), cliente.getCpf(),
+                    cliente.getEmail());
         } catch (SQLException e) {
             // Se qualquer erro ocorreu, desfaz todas as operações da transação
             if (conexao != null) {
@@ -164,14 +219,14 @@ public class UsuarioDAO {
     }
 
     /**
-     * Atualiza os dados cadastrais de um cliente (exceto CPF e senha). O
-     * 'synchronized' previne problemas de concorrência se duas threads tentarem
-     * atualizar o mesmo cliente ao mesmo tempo.
+     * Atualiza os dados cadastrais de um cliente (exceto CPF e senha). Não usa
+     * 'synchronized': o UPDATE de uma linha já é atômico no banco, e um monitor
+     * segurado durante o JDBC prenderia a thread portadora das threads virtuais.
      *
      * @param cliente Objeto cliente com os dados atualizados.
      * @throws SQLException
      */
-    public synchronized void atualizarCliente(Cliente cliente) throws SQLException {
+    public void atualizarCliente(Cliente cliente) throws SQLException {
         String sql = "UPDATE USUARIO SET nome = ?, data_nascimento = ?, email = ?, telefone = ?, cep = ?, endereco = ?, bairro = ?, cidade = ?, estado = ?, renda = ?, ocupacao = ? WHERE id = ?";
         try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
             ps.setString(1, cliente.getNome());
@@ -187,6 +242,9 @@ public class UsuarioDAO {
             ps.setString(11, cliente.getOcupacao());
             ps.setInt(12, cliente.getId());
             ps.executeUpdate();
+            IndiceBuscaClientes.getInstancia().atualizar(cliente.getId(), cliente.getNome(), cliente.getEmail());
+        } finally {
+            CacheCadastro.invalidarUsuario(cliente.getId());
         }
     }
 
@@ -203,6 +261,8 @@ public class UsuarioDAO {
             ps.setString(1, novaSenha);
             ps.setInt(2, idCliente);
             ps.executeUpdate();
+        } finally {
+            CacheCadastro.invalidarUsuario(idCliente);
         }
     }
 
@@ -214,41 +274,26 @@ public class UsuarioDAO {
      * @throws SQLException
      */
     public Cliente buscarClientePorId(int id) throws SQLException {
-        // A lógica de busca e montagem do objeto é similar ao buscarPorCpf
-        String sql = "SELECT u.*, c.id as conta_id, c.agencia, c.numero, c.saldo "
+        Cliente emCache = CacheCadastro.CLIENTES_POR_ID.buscar(id);
+        if (emCache != null) {
+            return CacheCadastro.copiar(emCache);
+        }
+        long geracao = CacheCadastro.CLIENTES_POR_ID.getGeracao();
+
+        String sql = "SELECT " + ProjecaoUsuario.PERFIL.getColunas() + " "
                 + "FROM USUARIO u "
                 + "LEFT JOIN CONTA c ON u.id = c.id_usuario "
                 + "WHERE u.id = ? AND u.tipo = 'CLIENTE'";
         Cliente cliente = null;
         try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
             ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                cliente = new Cliente(rs.getString("cpf"), rs.getString("senha"), rs.getString("nome"), rs.getString("cpf"));
-                cliente.setId(rs.getInt("id"));
-                java.sql.Date dataNascimentoSql = rs.getDate("data_nascimento");
-                if (dataNascimentoSql != null) {
-                    cliente.setDataNascimento(dataNascimentoSql.toLocalDate());
-                }
-                cliente.setEmail(rs.getString("email"));
-                cliente.setTelefone(rs.getString("telefone"));
-                cliente.setCep(rs.getString("cep"));
-                cliente.setEndereco(rs.getString("endereco"));
-                cliente.setBairro(rs.getString("bairro"));
-                cliente.setCidade(rs.getString("cidade"));
-                cliente.setEstado(rs.getString("estado"));
-                cliente.setOcupacao(rs.getString("ocupacao"));
-                double renda = rs.getDouble("renda");
-                if (!rs.wasNull()) {
-                    cliente.setRenda(renda);
-                }
-                if (rs.getString("agencia") != null) {
-                    Conta conta = new Conta(rs.getString("agencia"), rs.getString("numero"), rs.getDouble("saldo"));
-                    conta.setId(rs.getInt("conta_id"));
-                    cliente.setConta(conta);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    cliente = ProjecaoUsuario.PERFIL.ler(rs);
                 }
             }
         }
+        CacheCadastro.CLIENTES_POR_ID.guardar(id, CacheCadastro.copiar(cliente), geracao);
         return cliente;
     }
 
@@ -257,34 +302,13 @@ public class UsuarioDAO {
      * gerente.
      *
      * @param termo O texto a ser buscado no nome ou CPF.
-     * @return Uma lista de Clientes que correspondem à busca.
+     * @return Até MAXIMO_RESULTADOS_BUSCA clientes (id, nome, CPF e e-mail),
+     * os mais relevantes primeiro.
      * @throws SQLException
      */
     public List<Cliente> buscarClientesPorTermo(String termo) throws SQLException {
-        List<Cliente> clientes = new ArrayList<>();
-        // A busca usa LIKE com '%' para procurar por partes do nome ou do CPF
-        String sql = "SELECT u.*, c.id as conta_id, c.agencia, c.numero, c.saldo "
-                + "FROM USUARIO u "
-                + "LEFT JOIN CONTA c ON u.id = c.id_usuario "
-                + "WHERE u.tipo = 'CLIENTE' AND (LOWER(u.nome) LIKE ? OR u.cpf LIKE ?)";
-        try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
-            ps.setString(1, "%" + termo.toLowerCase() + "%");
-            ps.setString(2, termo + "%");
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                // Monta uma lista de clientes encontrados
-                Cliente cliente = new Cliente(rs.getString("cpf"), rs.getString("senha"), rs.getString("nome"), rs.getString("cpf"));
-                cliente.setId(rs.getInt("id"));
-                cliente.setEmail(rs.getString("email"));
-                if (rs.getString("agencia") != null) {
-                    Conta conta = new Conta(rs.getString("agencia"), rs.getString("numero"), rs.getDouble("saldo"));
-                    conta.setId(rs.getInt("conta_id"));
-                    cliente.setConta(conta);
-                }
-                clientes.add(cliente);
-            }
-        }
-        return clientes;
+        // Índice em memória (trigramas do nome e prefixo do CPF) em vez de LIKE '%termo%'
+        return IndiceBuscaClientes.getInstancia().buscar(termo, MAXIMO_RESULTADOS_BUSCA);
     }
 
     /**
@@ -297,6 +321,7 @@ public class UsuarioDAO {
     public void excluirClientePorId(int idUsuario) throws SQLException {
         // A ordem dos deletes é importante para respeitar as chaves estrangeiras (de baixo para cima)
         String sqlDeleteInvestimentos = "DELETE FROM INVESTIMENTO WHERE id_conta IN (SELECT id FROM CONTA WHERE id_usuario = ?)";
+        String sqlDeleteOperacoes = "DELETE FROM OPERACAO_IDEMPOTENTE WHERE id_conta IN (SELECT id FROM CONTA WHERE id_usuario = ?)";
         String sqlDeleteTransacoes = "DELETE FROM TRANSACAO WHERE id_conta IN (SELECT id FROM CONTA WHERE id_usuario = ?)";
         String sqlDeleteConta = "DELETE FROM CONTA WHERE id_usuario = ?";
         String sqlDeleteUsuario = "DELETE FROM USUARIO WHERE id = ? AND tipo = 'CLIENTE'";
@@ -309,6 +334,10 @@ public class UsuarioDAO {
                 ps.setInt(1, idUsuario);
                 ps.executeUpdate();
             }
+            try (PreparedStatement ps = conexao.prepareStatement(sqlDeleteOperacoes)) {
+                ps.setInt(1, idUsuario);
+                ps.executeUpdate();
+            }
             try (PreparedStatement ps = conexao.prepareStatement(sqlDeleteTransacoes)) {
                 ps.setInt(1, idUsuario);
                 ps.executeUpdate();
@@ -322,12 +351,14 @@ public class UsuarioDAO {
                 ps.executeUpdate();
             }
             conexao.commit(); // Confirma todos os deletes
+            IndiceBuscaClientes.getInstancia().remover(idUsuario);
         } catch (SQLException e) {
             if (conexao != null) {
                 conexao.rollback(); // Desfaz tudo se der erro
             }
             throw e;
         } finally {
+            CacheCadastro.invalidarExclusao(idUsuario);
             if (conexao != null) {
                 conexao.setAutoCommit(true);
                 conexao.close();
@@ -338,171 +369,128 @@ public class UsuarioDAO {
     /**
      * Busca todos os clientes cadastrados, ordenados por nome.
      *
-     * @return Uma lista de todos os Clientes.
+     * @return Uma lista de todos os Clientes (id, nome, CPF, e-mail e conta).
      * @throws SQLException
      */
     public List<Cliente> buscarTodosClientesOrdenados() throws SQLException {
-        List<Cliente> clientes = new ArrayList<>();
-        String sql = "SELECT u.*, c.id as conta_id, c.agencia, c.numero, c.saldo "
-                + "FROM USUARIO u "
-                + "LEFT JOIN CONTA c ON u.id = c.id_usuario "
-                + "WHERE u.tipo = 'CLIENTE' ORDER BY nome ASC";
-
-        try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
-
-            // O loop percorre cada linha retornada pela consulta no banco
-            while (rs.next()) {
-                // Para cada linha, cria um novo objeto Cliente
-                Cliente cliente = new Cliente(rs.getString("cpf"), rs.getString("senha"), rs.getString("nome"), rs.getString("cpf"));
-                cliente.setId(rs.getInt("id"));
-
-                // Preenche todos os outros dados do cliente
-                cliente.setEmail(rs.getString("email"));
-                java.sql.Date dataNascimentoSql = rs.getDate("data_nascimento");
-                if (dataNascimentoSql != null) {
-                    cliente.setDataNascimento(dataNascimentoSql.toLocalDate());
-                }
-                cliente.setTelefone(rs.getString("telefone"));
-                cliente.setCep(rs.getString("cep"));
-                cliente.setEndereco(rs.getString("endereco"));
-                cliente.setBairro(rs.getString("bairro"));
-                cliente.setCidade(rs.getString("cidade"));
-                cliente.setEstado(rs.getString("estado"));
-                cliente.setOcupacao(rs.getString("ocupacao"));
-                double renda = rs.getDouble("renda");
-                if (!rs.wasNull()) {
-                    cliente.setRenda(renda);
-                }
-
-                // Se o cliente tiver uma conta associada, cria o objeto Conta também
-                if (rs.getString("agencia") != null) {
-                    Conta conta = new Conta(rs.getString("agencia"), rs.getString("numero"), rs.getDouble("saldo"));
-                    conta.setId(rs.getInt("conta_id"));
-                    cliente.setConta(conta);
-                }
-
-                // Adiciona o cliente totalmente preenchido à lista
-                clientes.add(cliente);
-            }
-        }
-        return clientes;
+        return buscarListaClientes(" ORDER BY u.nome ASC");
     }
 
     public List<Cliente> buscarTodosClientes() throws SQLException {
+        return buscarListaClientes("");
+    }
+
+    private List<Cliente> buscarListaClientes(String orderBy) throws SQLException {
         List<Cliente> clientes = new ArrayList<>();
-        String sql = "SELECT u.*, c.id as conta_id, c.agencia, c.numero, c.saldo "
+        String sql = "SELECT " + ProjecaoUsuario.RESUMO.getColunas() + " "
                 + "FROM USUARIO u "
                 + "LEFT JOIN CONTA c ON u.id = c.id_usuario "
-                + "WHERE u.tipo = 'CLIENTE'";
+                + "WHERE u.tipo = 'CLIENTE'" + orderBy;
 
         try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
-
+            // Para cada linha, um Cliente só com o que a tabela do gerente mostra
             while (rs.next()) {
-                // Para cada linha, cria um novo objeto Cliente
-                Cliente cliente = new Cliente(rs.getString("cpf"), rs.getString("senha"), rs.getString("nome"), rs.getString("cpf"));
-                cliente.setId(rs.getInt("id"));
-                cliente.setEmail(rs.getString("email"));
-
-                // Se houver uma conta bancária associada, cria e adiciona o objeto Conta
-                if (rs.getString("agencia") != null) {
-                    Conta conta = new Conta(rs.getString("agencia"), rs.getString("numero"), rs.getDouble("saldo"));
-                    conta.setId(rs.getInt("conta_id"));
-                    cliente.setConta(conta);
-                }
-
-                clientes.add(cliente);
+                clientes.add(ProjecaoUsuario.RESUMO.ler(rs));
             }
         }
         return clientes;
     }
 
     /**
-     * Busca os dados de um cliente a partir do ID da sua conta bancária. Usado
-     * na confirmação de transferência para pegar os dados do destinatário.
+     * Busca uma página da listagem de clientes do gerente, continuando depois
+     * do último cliente da página anterior (paginação por chave, sem OFFSET).
+     * Traz só o que a tabela mostra: id, nome, CPF, e-mail e a conta; a senha
+     * e o endereço não saem do banco. Todo cliente tem conta (criada junto no
+     * cadastro), por isso o JOIN.
      *
-     * @param idConta O ID da conta (da tabela CONTA).
-     * @return Um objeto Cliente completo, ou null se não for encontrado.
+     * @param ordem Coluna e sentido da ordenação.
+     * @param depoisDeValor Valor da coluna ordenada no último cliente da
+     * página anterior (null na primeira página).
+     * @param depoisDeId Id de desempate do último cliente da página anterior
+     * (ignorado na primeira página).
+     * @param limite Quantidade máxima de clientes retornados.
+     * @return Uma lista de no máximo 'limite' clientes.
      * @throws SQLException
      */
-    public Cliente buscarClientePorIdConta(int idConta) throws SQLException {
-        String sql = "SELECT u.*, c.id as conta_id, c.agencia, c.numero, c.saldo "
+    public List<Cliente> buscarPaginaClientes(OrdemClientes ordem, String depoisDeValor, int depoisDeId, int limite)
+            throws SQLException {
+        List<Cliente> clientes = new ArrayList<>(limite);
+        StringBuilder sqlBuilder = new StringBuilder("SELECT " + ProjecaoUsuario.RESUMO.getColunas() + " "
                 + "FROM USUARIO u "
-                + "JOIN CONTA c ON u.id = c.id_usuario " // JOIN normal para garantir que a conta exista
-                + "WHERE c.id = ? AND u.tipo = 'CLIENTE'";
-
-        Cliente cliente = null;
-        try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
-            ps.setInt(1, idConta);
-            ResultSet rs = ps.executeQuery();
-
-            // Se a consulta retornou um resultado, monta o objeto Cliente
-            if (rs.next()) {
-                // cria o objeto Cliente
-                cliente = new Cliente(rs.getString("cpf"), rs.getString("senha"), rs.getString("nome"), rs.getString("cpf"));
-                cliente.setId(rs.getInt("id"));
+                + "JOIN CONTA c ON u.id = c.id_usuario "
+                + "WHERE u.tipo = 'CLIENTE'");
+        if (depoisDeValor != null) {
+            sqlBuilder.append(" AND ").append(ordem.depoisDe);
+        }
+        sqlBuilder.append(" ORDER BY ").append(ordem.orderBy).append(" LIMIT ?");
 
-                java.sql.Date dataNascimentoSql = rs.getDate("data_nascimento");
-                if (dataNascimentoSql != null) {
-                    cliente.setDataNascimento(dataNascimentoSql.toLocalDate());
+        try (Connection conexao = ConexaoDB.getConexao();
+                PreparedStatement ps = conexao.prepareStatement(sqlBuilder.toString())) {
+            int paramIndex = 1;
+            if (depoisDeValor != null) {
+                if (ordem == OrdemClientes.SALDO) {
+                    BigDecimal saldo = new BigDecimal(depoisDeValor);
+                    ps.setBigDecimal(paramIndex++, saldo);
+                    ps.setBigDecimal(paramIndex++, saldo);
+                } else {
+                    ps.setString(paramIndex++, depoisDeValor);
+                    ps.setString(paramIndex++, depoisDeValor);
                 }
-                cliente.setEmail(rs.getString("email"));
-                cliente.setTelefone(rs.getString("telefone"));
-                cliente.setCep(rs.getString("cep"));
-                cliente.setEndereco(rs.getString("endereco"));
-                cliente.setBairro(rs.getString("bairro"));
-                cliente.setCidade(rs.getString("cidade"));
-                cliente.setEstado(rs.getString("estado"));
-                cliente.setOcupacao(rs.getString("ocupacao"));
-                double renda = rs.getDouble("renda");
-                if (!rs.wasNull()) {
-                    cliente.setRenda(renda);
+                ps.setInt(paramIndex++, depoisDeId);
+            }
+            ps.setInt(paramIndex, limite);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    clientes.add(ProjecaoUsuario.RESUMO.ler(rs));
                 }
-                // Como a busca é pela conta, a conta sempre existirá neste ponto
-                Conta conta = new Conta(rs.getString("agencia"), rs.getString("numero"), rs.getDouble("saldo"));
-                conta.setId(rs.getInt("conta_id"));
-                cliente.setConta(conta);
             }
         }
-        return cliente;
+        return clientes;
     }
 
     /**
-     * Salva ou limpa um token de login persistente ("Lembrar de mim") para um
-     * usuário.
+     * Total de clientes cadastrados, lido do índice de busca em memória (que
+     * é recarregado periodicamente) em vez de um COUNT(*) a cada página.
      *
-     * @param idUsuario O ID do usuário.
-     * @param token O token a ser salvo, ou null para limpar/remover o token.
+     * @return A quantidade de clientes.
      * @throws SQLException
      */
-    public void salvarTokenLembrarMe(int idUsuario, String token) throws SQLException {
-        String sql = "UPDATE USUARIO SET token_lembrar_me = ? WHERE id = ?";
-        try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
-            ps.setString(1, token);
-            ps.setInt(2, idUsuario);
-            ps.executeUpdate();
-        }
+    public int contarClientes() throws SQLException {
+        return IndiceBuscaClientes.getInstancia().contar();
     }
 
     /**
-     * Busca um usuário no banco a partir de um token de login persistente.
-     * Usado pelo filtro para a funcionalidade "Lembrar de mim".
+     * Busca os dados de um cliente a partir do ID da sua conta bancária. Usado
+     * na confirmação de transferência para pegar os dados do destinatário.
      *
-     * @param token O token vindo do cookie do navegador.
-     * @return O objeto Usuario correspondente, ou null se não for encontrado.
+     * @param idConta O ID da conta (da tabela CONTA).
+     * @return O Cliente (id, nome, CPF, e-mail e conta), ou null se não for
+     * encontrado.
      * @throws SQLException
      */
-    public Usuario buscarUsuarioPorToken(String token) throws SQLException {
-        String sql = "SELECT * FROM USUARIO WHERE token_lembrar_me = ?";
-        Usuario usuario = null;
+    public Cliente buscarClientePorIdConta(int idConta) throws SQLException {
+        Cliente emCache = CacheCadastro.CLIENTES_POR_ID_CONTA.buscar(idConta);
+        if (emCache != null) {
+            return CacheCadastro.copiar(emCache);
+        }
+        long geracao = CacheCadastro.CLIENTES_POR_ID_CONTA.getGeracao();
+
+        String sql = "SELECT " + ProjecaoUsuario.RESUMO.getColunas() + " "
+                + "FROM USUARIO u "
+                + "JOIN CONTA c ON u.id = c.id_usuario " // JOIN normal para garantir que a conta exista
+                + "WHERE c.id = ? AND u.tipo = 'CLIENTE'";
+
+        Cliente cliente = null;
         try (Connection conexao = ConexaoDB.getConexao(); PreparedStatement ps = conexao.prepareStatement(sql)) {
-            ps.setString(1, token);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                // Reutiliza o método buscarPorCpf para não duplicar a lógica de montar o objeto
-                String cpf = rs.getString("cpf");
-                usuario = this.buscarPorCpf(cpf);
+            ps.setInt(1, idConta);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    cliente = ProjecaoUsuario.RESUMO.ler(rs);
+                }
             }
         }
-        return usuario;
+        CacheCadastro.CLIENTES_POR_ID_CONTA.guardar(idConta, CacheCadastro.copiar(cliente), geracao);
+        return cliente;
     }
 }
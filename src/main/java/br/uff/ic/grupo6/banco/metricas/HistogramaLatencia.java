@@ -0,0 +1,120 @@
+package br.uff.ic.grupo6.banco.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências no estilo do HdrHistogram: cada potência de 2 é
+ * dividida em 32 faixas iguais, então qualquer percentil sai com erro relativo
+ * menor que ~3%, de 1 ns até ~18 minutos, em um array fixo de contadores.
+ *
+ * Registrar é só um incremento atômico (sem lock e sem alocação), por isso pode
+ * ficar em todo request. As leituras não param os registros: um percentil lido
+ * durante a carga pode não incluir os valores registrados naquele instante.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUBFAIXA = 5;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    // 2^40 ns ≈ 18 minutos; valores maiores caem na última faixa
+    private static final int EXPOENTE_MAXIMO = 40;
+    private static final int TAMANHO = (EXPOENTE_MAXIMO - BITS_SUBFAIXA + 2) * SUBFAIXAS;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(TAMANHO);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder somaNanos = new LongAdder();
+    private final AtomicLong maximoNanos = new AtomicLong();
+
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        contagens.incrementAndGet(indice(valor));
+        total.increment();
+        somaNanos.add(valor);
+        if (valor > maximoNanos.get()) {
+            maximoNanos.accumulateAndGet(valor, Math::max);
+        }
+    }
+
+    static int indice(long valor) {
+        if (valor < SUBFAIXAS) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        if (expoente > EXPOENTE_MAXIMO) {
+            return TAMANHO - 1;
+        }
+        int subfaixa = (int) (valor >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+        return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+    }
+
+    /**
+     * @return O maior valor (em ns) que cai na faixa do índice
+     */
+    static long limiteSuperior(int indice) {
+        if (indice < SUBFAIXAS) {
+            return indice;
+        }
+        int expoente = indice / SUBFAIXAS + BITS_SUBFAIXA - 1;
+        int subfaixa = indice % SUBFAIXAS;
+        return ((long) (SUBFAIXAS + subfaixa + 1) << (expoente - BITS_SUBFAIXA)) - 1;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getSomaNanos() {
+        return somaNanos.sum();
+    }
+
+    public long getMaximoNanos() {
+        return maximoNanos.get();
+    }
+
+    /**
+     * @param fracao Entre 0 e 1 (ex: 0.99 para o p99)
+     * @return O percentil em nanossegundos (limite superior da faixa), ou 0 se
+     * nada foi registrado
+     */
+    public long getPercentilNanos(double fracao) {
+        long[] copia = copiarContagens();
+        long quantidade = 0;
+        for (long contagem : copia) {
+            quantidade += contagem;
+        }
+        if (quantidade == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(fracao * quantidade));
+        long acumulado = 0;
+        for (int i = 0; i < copia.length; i++) {
+            acumulado += copia[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), getMaximoNanos());
+            }
+        }
+        return getMaximoNanos();
+    }
+
+    /**
+     * @return Quantos valores registrados são menores ou iguais ao limite
+     * (arredondado para a faixa que contém o limite)
+     */
+    public long contarAte(long limiteNanos) {
+        int ultimo = indice(limiteNanos);
+        long acumulado = 0;
+        for (int i = 0; i <= ultimo; i++) {
+            acumulado += contagens.get(i);
+        }
+        return acumulado;
+    }
+
+    private long[] copiarContagens() {
+        long[] copia = new long[TAMANHO];
+        for (int i = 0; i < TAMANHO; i++) {
+            copia[i] = contagens.get(i);
+        }
+        return copia;
+    }
+}
@@ -0,0 +1,53 @@
+package br.uff.ic.grupo6.banco.metricas;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de um servlet: latência, erros (exceção ou HTTP 5xx), recusas
+ * (redirecionamento com ?erro=, que é como os servlets avisam falhas de
+ * validação) e requisições em andamento.
+ */
+public class MetricasRequisicao {
+
+    private final HistogramaLatencia latencia = new HistogramaLatencia();
+    private final LongAdder erros = new LongAdder();
+    private final LongAdder recusas = new LongAdder();
+    private final AtomicInteger emAndamento = new AtomicInteger();
+
+    public void iniciar() {
+        emAndamento.incrementAndGet();
+    }
+
+    /**
+     * @param nanos Duração da requisição
+     * @param erro Terminou com exceção ou status 5xx
+     * @param recusada Terminou redirecionando com ?erro=
+     */
+    public void finalizar(long nanos, boolean erro, boolean recusada) {
+        emAndamento.decrementAndGet();
+        latencia.registrar(nanos);
+        if (erro) {
+            erros.increment();
+        }
+        if (recusada) {
+            recusas.increment();
+        }
+    }
+
+    public HistogramaLatencia getLatencia() {
+        return latencia;
+    }
+
+    public long getErros() {
+        return erros.sum();
+    }
+
+    public long getRecusas() {
+        return recusas.sum();
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.get();
+    }
+}
@@ -0,0 +1,170 @@
+package br.uff.ic.grupo6.banco.metricas;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guarda as métricas da aplicação (por servlet, por método de DAO, por SQL e do
+ * armazenamento de sessões) e as escreve no formato texto do Prometheus,
+ * servido em /metrics.
+ */
+public class RegistroMetricas {
+
+    private static final RegistroMetricas GLOBAL = new RegistroMetricas();
+
+    // Limites (em segundos) das faixas do histograma HTTP exposto ao Prometheus
+    private static final double[] LIMITES_SEGUNDOS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final double[] QUANTIS = {0.5, 0.95, 0.99};
+
+    private final Map<String, MetricasRequisicao> porServlet = new ConcurrentHashMap<>();
+    private final Map<String, HistogramaLatencia> porOperacaoDao = new ConcurrentHashMap<>();
+    private final Map<String, HistogramaLatencia> porSql = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> lentasPorSql = new ConcurrentHashMap<>();
+    private final Map<String, HistogramaLatencia> porOperacaoSessao = new ConcurrentHashMap<>();
+
+    /**
+     * @return O registro usado pela aplicação
+     */
+    public static RegistroMetricas getInstancia() {
+        return GLOBAL;
+    }
+
+    public MetricasRequisicao getServlet(String servlet) {
+        return porServlet.computeIfAbsent(servlet, s -> new MetricasRequisicao());
+    }
+
+    /**
+     * @param operacao Ex: "ContaDAO.realizarSaque"
+     */
+    public void registrarDao(String operacao, long nanos) {
+        porOperacaoDao.computeIfAbsent(operacao, o -> new HistogramaLatencia()).registrar(nanos);
+    }
+
+    public HistogramaLatencia getOperacaoDao(String operacao) {
+        return porOperacaoDao.get(operacao);
+    }
+
+    /**
+     * @param sql SQL normalizado (sem valores), que identifica a variante da consulta
+     * @param lenta Passou do limite do log de SQL lento
+     */
+    public void registrarSql(String sql, long nanos, boolean lenta) {
+        porSql.computeIfAbsent(sql, s -> new HistogramaLatencia()).registrar(nanos);
+        if (lenta) {
+            lentasPorSql.computeIfAbsent(sql, s -> new LongAdder()).increment();
+        }
+    }
+
+    public HistogramaLatencia getSql(String sql) {
+        return porSql.get(sql);
+    }
+
+    /**
+     * @param operacao "ler", "gravar", "remover", "lerDado" ou "gravarDado" no armazenamento de sessões externo
+     */
+    public void registrarSessao(String operacao, long nanos) {
+        porOperacaoSessao.computeIfAbsent(operacao, o -> new HistogramaLatencia()).registrar(nanos);
+    }
+
+    public HistogramaLatencia getOperacaoSessao(String operacao) {
+        return porOperacaoSessao.get(operacao);
+    }
+
+    /**
+     * Escreve todas as métricas no formato de exposição em texto do Prometheus
+     * (versão 0.0.4).
+     */
+    public void escreverPrometheus(StringBuilder saida) {
+        Map<String, MetricasRequisicao> servlets = new TreeMap<>(porServlet);
+
+        saida.append("# HELP banco_http_requisicao_segundos Tempo de resposta por servlet.\n");
+        saida.append("# TYPE banco_http_requisicao_segundos histogram\n");
+        for (Map.Entry<String, MetricasRequisicao> e : servlets.entrySet()) {
+            HistogramaLatencia h = e.getValue().getLatencia();
+            String servlet = "servlet=\"" + escapar(e.getKey()) + "\"";
+            for (double limite : LIMITES_SEGUNDOS) {
+                linha(saida, "banco_http_requisicao_segundos_bucket", servlet + ",le=\"" + numero(limite) + "\"",
+                        h.contarAte((long) (limite * 1e9)));
+            }
+            long total = h.getTotal();
+            linha(saida, "banco_http_requisicao_segundos_bucket", servlet + ",le=\"+Inf\"", total);
+            linha(saida, "banco_http_requisicao_segundos_sum", servlet, h.getSomaNanos() / 1e9);
+            linha(saida, "banco_http_requisicao_segundos_count", servlet, total);
+        }
+
+        Map<String, HistogramaLatencia> latencias = new TreeMap<>();
+        for (Map.Entry<String, MetricasRequisicao> e : servlets.entrySet()) {
+            latencias.put(e.getKey(), e.getValue().getLatencia());
+        }
+        escreverResumo(saida, "banco_http_latencia_segundos", "Percentis do tempo de resposta por servlet.",
+                "servlet", latencias);
+
+        saida.append("# HELP banco_http_erros_total Requisições que terminaram com exceção ou HTTP 5xx.\n");
+        saida.append("# TYPE banco_http_erros_total counter\n");
+        for (Map.Entry<String, MetricasRequisicao> e : servlets.entrySet()) {
+            linha(saida, "banco_http_erros_total", "servlet=\"" + escapar(e.getKey()) + "\"", e.getValue().getErros());
+        }
+
+        saida.append("# HELP banco_http_recusas_total Requisições redirecionadas com mensagem de erro.\n");
+        saida.append("# TYPE banco_http_recusas_total counter\n");
+        for (Map.Entry<String, MetricasRequisicao> e : servlets.entrySet()) {
+            linha(saida, "banco_http_recusas_total", "servlet=\"" + escapar(e.getKey()) + "\"", e.getValue().getRecusas());
+        }
+
+        saida.append("# HELP banco_http_em_andamento Requisições sendo processadas agora.\n");
+        saida.append("# TYPE banco_http_em_andamento gauge\n");
+        for (Map.Entry<String, MetricasRequisicao> e : servlets.entrySet()) {
+            linha(saida, "banco_http_em_andamento", "servlet=\"" + escapar(e.getKey()) + "\"",
+                    e.getValue().getEmAndamento());
+        }
+
+        escreverResumo(saida, "banco_dao_operacao_segundos", "Tempo de cada método de DAO (conexão emprestada).",
+                "operacao", new TreeMap<>(porOperacaoDao));
+
+        escreverResumo(saida, "banco_sql_segundos", "Tempo de execução e leitura de cada SQL (normalizado).", "sql",
+                new TreeMap<>(porSql));
+
+        saida.append("# HELP banco_sql_lentas_total Execuções acima do limite do log de SQL lento.\n");
+        saida.append("# TYPE banco_sql_lentas_total counter\n");
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(lentasPorSql).entrySet()) {
+            linha(saida, "banco_sql_lentas_total", "sql=\"" + escapar(e.getKey()) + "\"", e.getValue().sum());
+        }
+
+        escreverResumo(saida, "banco_sessao_operacao_segundos", "Leitura e escrita no armazenamento de sessões externo.",
+                "operacao", new TreeMap<>(porOperacaoSessao));
+    }
+
+    private static void escreverResumo(StringBuilder saida, String nome, String ajuda, String rotulo,
+            Map<String, HistogramaLatencia> histogramas) {
+        saida.append("# HELP ").append(nome).append(' ').append(ajuda).append('\n');
+        saida.append("# TYPE ").append(nome).append(" summary\n");
+        for (Map.Entry<String, HistogramaLatencia> e : histogramas.entrySet()) {
+            HistogramaLatencia h = e.getValue();
+            String valorRotulo = rotulo + "=\"" + escapar(e.getKey()) + "\"";
+            for (double quantil : QUANTIS) {
+                linha(saida, nome, valorRotulo + ",quantile=\"" + numero(quantil) + "\"",
+                        h.getPercentilNanos(quantil) / 1e9);
+            }
+            linha(saida, nome + "_sum", valorRotulo, h.getSomaNanos() / 1e9);
+            linha(saida, nome + "_count", valorRotulo, h.getTotal());
+        }
+    }
+
+    private static void linha(StringBuilder saida, String nome, String rotulos, double valor) {
+        saida.append(nome).append('{').append(rotulos).append("} ").append(numero(valor)).append('\n');
+    }
+
+    private static void linha(StringBuilder saida, String nome, String rotulos, long valor) {
+        saida.append(nome).append('{').append(rotulos).append("} ").append(valor).append('\n');
+    }
+
+    private static String numero(double valor) {
+        return Double.toString(valor);
+    }
+
+    private static String escapar(String valor) {
+        return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -30,6 +30,26 @@ public class Cliente extends Usuario {
 
     }
 
+    /**
+     * Construtor de cópia. A conta também é copiada.
+     */
+    public Cliente(Cliente outro) {
+        super(outro);
+        this.nome = outro.nome;
+        this.cpf = outro.cpf;
+        this.conta = outro.conta != null ? new Conta(outro.conta) : null;
+        this.dataNascimento = outro.dataNascimento;
+        this.email = outro.email;
+        this.telefone = outro.telefone;
+        this.cep = outro.cep;
+        this.endereco = outro.endereco;
+        this.bairro = outro.bairro;
+        this.cidade = outro.cidade;
+        this.estado = outro.estado;
+        this.renda = outro.renda;
+        this.ocupacao = outro.ocupacao;
+    }
+
     public String getNome() {
         return nome;
     }
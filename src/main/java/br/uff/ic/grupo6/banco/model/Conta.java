@@ -5,18 +5,29 @@ public class Conta {
     private int id;
     private String agencia;
     private String numero;
-    private double saldo;
+    // Em centavos (ver Dinheiro); getSaldo/setSaldo convertem de e para reais
+    private long saldoCentavos;
 
     public Conta(String agencia, String numero, double saldo) {
         this.agencia = agencia;
         this.numero = numero;
-        this.saldo = saldo;
+        this.saldoCentavos = Dinheiro.centavos(saldo);
     }
 
     public Conta(String agencia, String numero) {
         this.agencia = agencia;
         this.numero = numero;
-        this.saldo = 0.0;
+        this.saldoCentavos = 0;
+    }
+
+    /**
+     * Construtor de cópia.
+     */
+    public Conta(Conta outra) {
+        this.id = outra.id;
+        this.agencia = outra.agencia;
+        this.numero = outra.numero;
+        this.saldoCentavos = outra.saldoCentavos;
     }
 
     // Métodos para as operações bancárias
@@ -26,8 +37,9 @@ public class Conta {
      * @param valor O valor a ser depositado (deve ser positivo)
      */
     public void depositar(double valor) {
-        if (valor > 0) {
-            this.saldo += valor;
+        long centavos = Dinheiro.centavos(valor);
+        if (centavos > 0) {
+            this.saldoCentavos += centavos;
         }
     }
 
@@ -38,8 +50,9 @@ public class Conta {
      * @return true se o saque foi bem-sucedido, false caso contrário.
      */
     public boolean sacar(double valor) {
-        if (valor > 0 && this.saldo >= valor) {
-            this.saldo -= valor;
+        long centavos = Dinheiro.centavos(valor);
+        if (centavos > 0 && this.saldoCentavos >= centavos) {
+            this.saldoCentavos -= centavos;
             return true;
         }
         return false;
@@ -70,11 +83,19 @@ public class Conta {
     }
 
     public double getSaldo() {
-        return saldo;
+        return Dinheiro.reais(saldoCentavos);
     }
     
     public void setSaldo(double valor) {
-    	this.saldo = valor;
+    	this.saldoCentavos = Dinheiro.centavos(valor);
+    }
+
+    public long getSaldoCentavos() {
+        return saldoCentavos;
+    }
+
+    public void setSaldoCentavos(long saldoCentavos) {
+        this.saldoCentavos = saldoCentavos;
     }
 
     // O saldo não tem "set" público para evitar que seja alterado externamente
@@ -0,0 +1,25 @@
+package br.uff.ic.grupo6.banco.model;
+
+/**
+ * Conta de destino de uma transferência e o seu titular, como aparecem na
+ * confirmação: id, agência e número da conta; id, nome e CPF do cliente.
+ */
+public final class Destinatario {
+
+    private final Conta conta;
+    // null se a conta não pertence a um cliente
+    private final Cliente titular;
+
+    public Destinatario(Conta conta, Cliente titular) {
+        this.conta = conta;
+        this.titular = titular;
+    }
+
+    public Conta getConta() {
+        return conta;
+    }
+
+    public Cliente getTitular() {
+        return titular;
+    }
+}
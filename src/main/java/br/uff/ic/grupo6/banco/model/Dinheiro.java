@@ -0,0 +1,50 @@
+package br.uff.ic.grupo6.banco.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores em dinheiro como centavos num long: somas e comparações exatas e
+ * sem criar objetos, ao contrário do double (0.1 + 0.2 != 0.3) e do
+ * BigDecimal (um objeto por operação).
+ *
+ * Os valores continuam entrando e saindo em reais (double) nos formulários e
+ * nas telas; a conversão para centavos acontece uma vez, na entrada. No
+ * código, 2000_00 se lê "R$ 2.000,00".
+ */
+public final class Dinheiro {
+
+    private Dinheiro() {
+    }
+
+    /**
+     * @param reais Valor em reais; frações de centavo são arredondadas
+     * @return O valor em centavos
+     */
+    public static long centavos(double reais) {
+        return Math.round(reais * 100);
+    }
+
+    /**
+     * Lê um DECIMAL(15, 2) do banco.
+     *
+     * @return O valor em centavos
+     */
+    public static long centavos(BigDecimal valor) {
+        return valor.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * @return O valor em reais, para as telas e as APIs que usam double
+     */
+    public static double reais(long centavos) {
+        return centavos / 100.0;
+    }
+
+    /**
+     * @return O valor exato com duas casas, para gravar num DECIMAL(15, 2)
+     */
+    public static BigDecimal decimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
@@ -10,6 +10,15 @@ public class Gerente extends Usuario {
         super(login, senha);
     }
 
+    /**
+     * Construtor de cópia.
+     */
+    public Gerente(Gerente outro) {
+        super(outro);
+        this.nome = outro.nome;
+        this.cargo = outro.cargo;
+    }
+
     public String getNome() {
         return nome;
     }
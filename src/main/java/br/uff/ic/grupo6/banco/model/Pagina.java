@@ -0,0 +1,34 @@
+package br.uff.ic.grupo6.banco.model;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados de uma listagem paginada por cursor. O cursor é um
+ * texto opaco que aponta para depois do último item da página; ele é passado
+ * de volta para buscar a próxima página.
+ */
+public class Pagina<T> {
+
+    private final List<T> itens;
+    private final String proximoCursor;
+
+    public Pagina(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * @return O cursor da próxima página, ou null se esta for a última.
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public boolean isTemProxima() {
+        return proximoCursor != null;
+    }
+}
@@ -0,0 +1,73 @@
+package br.uff.ic.grupo6.banco.model;
+
+import java.io.Serializable;
+
+/**
+ * O que fica na sessão HTTP depois do login: só identificadores, o perfil e o
+ * nome de exibição. Os dados completos (cadastro, senha, saldo) são carregados
+ * do banco, via cache dos DAOs, na requisição que precisa deles.
+ *
+ * É imutável e serializável, para a sessão ser pequena e poder ser replicada.
+ */
+public final class SessaoUsuario implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Perfil {
+        CLIENTE, GERENTE
+    }
+
+    private final int idUsuario;
+    private final Perfil perfil;
+    private final String nome;
+    // 0 para gerentes e para clientes sem conta
+    private final int idConta;
+
+    public SessaoUsuario(int idUsuario, Perfil perfil, String nome, int idConta) {
+        this.idUsuario = idUsuario;
+        this.perfil = perfil;
+        this.nome = nome;
+        this.idConta = idConta;
+    }
+
+    /**
+     * @throws IllegalArgumentException Se o usuário não é cliente nem gerente
+     */
+    public static SessaoUsuario de(Usuario usuario) {
+        if (usuario instanceof Cliente) {
+            Cliente cliente = (Cliente) usuario;
+            int idConta = cliente.getConta() != null ? cliente.getConta().getId() : 0;
+            return new SessaoUsuario(cliente.getId(), Perfil.CLIENTE, cliente.getNome(), idConta);
+        }
+        if (usuario instanceof Gerente) {
+            return new SessaoUsuario(usuario.getId(), Perfil.GERENTE, ((Gerente) usuario).getNome(), 0);
+        }
+        // Um tipo novo de usuário não pode ganhar acesso de gerente por omissão
+        throw new IllegalArgumentException("Perfil de usuário desconhecido: "
+                + (usuario != null ? usuario.getClass().getName() : null));
+    }
+
+    public int getIdUsuario() {
+        return idUsuario;
+    }
+
+    public Perfil getPerfil() {
+        return perfil;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getIdConta() {
+        return idConta;
+    }
+
+    public boolean isCliente() {
+        return perfil == Perfil.CLIENTE;
+    }
+
+    public boolean isGerente() {
+        return perfil == Perfil.GERENTE;
+    }
+}
@@ -0,0 +1,73 @@
+package br.uff.ic.grupo6.banco.model;
+
+import java.io.Serializable;
+
+/**
+ * Transferência já validada, esperando a confirmação do cliente. Guarda tudo
+ * que a efetivação e o comprovante precisam, para que nada disso volte pelo
+ * formulário.
+ */
+public final class TransferenciaPendente implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int idContaOrigem;
+    private final int idContaDestino;
+    private final double valor;
+    private final String nomeDestino;
+    private final String cpfDestino;
+    private final String agenciaDestino;
+    private final String numeroContaDestino;
+
+    public TransferenciaPendente(int idContaOrigem, Conta contaDestino, Cliente clienteDestino, double valor) {
+        this.idContaOrigem = idContaOrigem;
+        this.idContaDestino = contaDestino.getId();
+        this.valor = valor;
+        this.nomeDestino = clienteDestino.getNome();
+        this.cpfDestino = clienteDestino.getCpf();
+        this.agenciaDestino = contaDestino.getAgencia();
+        this.numeroContaDestino = contaDestino.getNumero();
+    }
+
+    /**
+     * Remonta uma transferência guardada fora da memória (sessão externa).
+     */
+    public TransferenciaPendente(int idContaOrigem, int idContaDestino, double valor, String nomeDestino,
+            String cpfDestino, String agenciaDestino, String numeroContaDestino) {
+        this.idContaOrigem = idContaOrigem;
+        this.idContaDestino = idContaDestino;
+        this.valor = valor;
+        this.nomeDestino = nomeDestino;
+        this.cpfDestino = cpfDestino;
+        this.agenciaDestino = agenciaDestino;
+        this.numeroContaDestino = numeroContaDestino;
+    }
+
+    public int getIdContaOrigem() {
+        return idContaOrigem;
+    }
+
+    public int getIdContaDestino() {
+        return idContaDestino;
+    }
+
+    public double getValor() {
+        return valor;
+    }
+
+    public String getNomeDestino() {
+        return nomeDestino;
+    }
+
+    public String getCpfDestino() {
+        return cpfDestino;
+    }
+
+    public String getAgenciaDestino() {
+        return agenciaDestino;
+    }
+
+    public String getNumeroContaDestino() {
+        return numeroContaDestino;
+    }
+}
@@ -14,6 +14,16 @@ public abstract class Usuario {
     public Usuario() {
     }
 
+    /**
+     * Construtor de cópia (usado pelo cache dos DAOs para não compartilhar a
+     * mesma instância entre requisições).
+     */
+    protected Usuario(Usuario outro) {
+        this.id = outro.id;
+        this.login = outro.login;
+        this.senha = outro.senha;
+    }
+
     public int getId() {
         return id;
     }
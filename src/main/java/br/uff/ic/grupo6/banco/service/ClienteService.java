@@ -1,13 +1,19 @@
 package br.uff.ic.grupo6.banco.service;
 
 import br.uff.ic.grupo6.banco.dao.UsuarioDAO;
+import br.uff.ic.grupo6.banco.dao.UsuarioDAO.OrdemClientes;
 import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Pagina;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.time.LocalDate; 
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 import java.util.regex.Pattern; 
 
 /**
@@ -18,6 +24,10 @@ public class ClienteService {
 	// Padrão de regex para senha: Pelo menos 8 chars, 1 letra, 1 numero
 	private static final Pattern SENHA_PATTERN = Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d)[A-Za-z\\d]{8,}$");
 
+	// Listagem paginada de clientes do gerente
+	public static final int TAMANHO_PAGINA_PADRAO = 50;
+	public static final int TAMANHO_PAGINA_MAXIMO = 200;
+
 	private final UsuarioDAO usuarioDAO;
 
 	public ClienteService() {
@@ -57,6 +67,17 @@ public class ClienteService {
 		return usuarioDAO.buscarClientePorId(idCliente);
 	}
 
+	/**
+	 * Busca o cliente logado (com a conta) a partir do ID guardado na sessão.
+	 * 
+	 * @param idCliente ID do cliente
+	 * @return Objeto Cliente, ou null se não existir
+	 * @throws SQLException
+	 */
+	public Cliente buscarClientePorId(int idCliente) throws SQLException {
+		return usuarioDAO.buscarClientePorId(idCliente);
+	}
+
 	/**
 	 * Atualiza os dados cadastrais de um cliente.
 	 * 
@@ -87,6 +108,76 @@ public class ClienteService {
 		return usuarioDAO.buscarTodosClientes();
 	}
 
+	/**
+	 * Lista os clientes uma página por vez, na ordem pedida. Usa o cursor da
+	 * página anterior em vez de OFFSET, então cada página custa o mesmo com
+	 * dez ou com cem mil clientes.
+	 * 
+	 * @param ordem         "nome", "cpf" ou "saldo" (null para nome)
+	 * @param cursor        Cursor devolvido pela página anterior (null para a primeira)
+	 * @param tamanhoPagina Quantidade de clientes por página (limitada ao máximo)
+	 * @return A página com os clientes e o cursor da próxima página
+	 * @throws ValidationException Se a ordenação ou o cursor forem inválidos
+	 * @throws SQLException
+	 */
+	public Pagina<Cliente> listarClientesPaginado(String ordem, String cursor, int tamanhoPagina)
+			throws ValidationException, SQLException {
+		int tamanho = tamanhoPagina <= 0 ? TAMANHO_PAGINA_PADRAO : Math.min(tamanhoPagina, TAMANHO_PAGINA_MAXIMO);
+
+		OrdemClientes ordemClientes = OrdemClientes.NOME;
+		if (ordem != null && !ordem.isEmpty()) {
+			try {
+				ordemClientes = OrdemClientes.valueOf(ordem.toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new ValidationException("Ordenacao invalida.");
+			}
+		}
+
+		// Cursor: "ORDEM|id|valor", em base64 para ir na URL
+		String depoisDeValor = null;
+		int depoisDeId = 0;
+		if (cursor != null && !cursor.isEmpty()) {
+			try {
+				String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+				if (!ordemClientes.name().equals(partes[0])) {
+					throw new ValidationException("Pagina da listagem invalida.");
+				}
+				depoisDeId = Integer.parseInt(partes[1]);
+				depoisDeValor = partes[2];
+				if (ordemClientes == OrdemClientes.SALDO) {
+					new BigDecimal(depoisDeValor);
+				}
+			} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+				throw new ValidationException("Pagina da listagem invalida.");
+			}
+		}
+
+		// Busca um item a mais só para saber se existe próxima página
+		List<Cliente> clientes = usuarioDAO.buscarPaginaClientes(ordemClientes, depoisDeValor, depoisDeId, tamanho + 1);
+
+		String proximoCursor = null;
+		if (clientes.size() > tamanho) {
+			clientes = clientes.subList(0, tamanho);
+			Cliente ultimo = clientes.get(tamanho - 1);
+			String chave = ordemClientes.name() + "|" + ordemClientes.idCursor(ultimo) + "|"
+					+ ordemClientes.valorCursor(ultimo);
+			proximoCursor = Base64.getUrlEncoder().withoutPadding()
+					.encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+		}
+		return new Pagina<>(clientes, proximoCursor);
+	}
+
+	/**
+	 * Total de clientes cadastrados (pode atrasar alguns minutos em relação ao
+	 * banco: vem do índice de busca em memória).
+	 * 
+	 * @return Quantidade de clientes
+	 * @throws SQLException
+	 */
+	public int contarClientes() throws SQLException {
+		return usuarioDAO.contarClientes();
+	}
+
 	/**
 	 * Atualiza a senha do cliente após validar a senha atual.
 	 * 
@@ -181,7 +272,7 @@ public class ClienteService {
 	}
 
 	/**
-	 * Busca dados atualizados de um cliente pelo CPF.
+	 * Busca um cliente pelo CPF (dados do login: id, nome, senha e conta).
 	 * 
 	 * @param cpf CPF do cliente
 	 * @return Objeto Cliente
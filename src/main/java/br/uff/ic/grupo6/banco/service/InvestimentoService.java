@@ -2,6 +2,8 @@ package br.uff.ic.grupo6.banco.service;
 
 import br.uff.ic.grupo6.banco.dao.ContaDAO;
 import br.uff.ic.grupo6.banco.dao.InvestimentoDAO;
+import br.uff.ic.grupo6.banco.dao.SaldoInsuficienteException;
+import br.uff.ic.grupo6.banco.model.Dinheiro;
 import br.uff.ic.grupo6.banco.model.Investimento;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 
@@ -51,11 +53,14 @@ public class InvestimentoService {
 			throw new ValidationException("Tipo de investimento invalido.");
 		}
 
-		if (valorInvestimento <= 0) { // CC +1 = 5
+		// Valor e saldo em centavos (ver Dinheiro), para a comparação ser exata
+		long centavos = Dinheiro.centavos(valorInvestimento);
+
+		if (centavos <= 0) { // CC +1 = 5
 			throw new ValidationException("O valor do investimento deve ser positivo.");
 		}
 
-		if (saldoAtual < valorInvestimento) { // CC +1 = 6
+		if (Dinheiro.centavos(saldoAtual) < centavos) { // CC +1 = 6
 			throw new ValidationException("Saldo insuficiente para realizar o investimento.");
 		}
 
@@ -63,17 +68,22 @@ public class InvestimentoService {
 
 		// NOVA REGRA (CC +2 = 8): FII (Fundos Imobiliários) exige um valor mínimo de R$
 		// 1000
-		if (tipoInvestimento.equals("FII") && valorInvestimento < 1000) {
+		if (tipoInvestimento.equals("FII") && centavos < 1000_00) {
 			throw new ValidationException("O valor minimo para aplicar em FII e R$ 1.000,00.");
 		}
 
 		// NOVA REGRA (CC +2 = 10): CDB exige um valor mínimo de R$ 100
-		if (tipoInvestimento.equals("CDB") && valorInvestimento < 100) {
+		if (tipoInvestimento.equals("CDB") && centavos < 100_00) {
 			throw new ValidationException("O valor minimo para aplicar em CDB e R$ 100,00.");
 		}
 
-		// Se passou nas validações, chama o DAO
-		return this.contaDAO.realizarInvestimento(idConta, tipoInvestimento, valorInvestimento);
+		// Se passou nas validações, chama o DAO. O débito é condicional no banco,
+		// então um saldo da sessão desatualizado nunca deixa a conta negativa
+		try {
+			return this.contaDAO.realizarInvestimento(idConta, tipoInvestimento, valorInvestimento);
+		} catch (SaldoInsuficienteException e) {
+			throw new ValidationException("Saldo insuficiente para realizar o investimento.");
+		}
 	}
 
 	/**
@@ -7,7 +7,6 @@ import br.uff.ic.grupo6.banco.model.Usuario;
 import br.uff.ic.grupo6.banco.service.exception.LoginException;
 
 import java.sql.SQLException;
-import java.util.UUID;
 
 /**
  * Camada de Serviço para regras de negócio relacionadas a Autenticação e Login.
@@ -15,14 +14,17 @@ import java.util.UUID;
 public class LoginService {
 
 	private final UsuarioDAO usuarioDAO;
+	private final TokenLembrarMe tokenLembrarMe;
 
 	public LoginService() {
-		this.usuarioDAO = new UsuarioDAO();
+		this(new UsuarioDAO());
 	}
 
 	// Construtor para injeção de dependência (facilita testes)
 	public LoginService(UsuarioDAO usuarioDAO) {
 		this.usuarioDAO = usuarioDAO;
+		// Instância única: a revogação feita no login vale para o filtro
+		this.tokenLembrarMe = TokenLembrarMe.getInstancia();
 	}
 
 	/**
@@ -84,39 +86,38 @@ public class LoginService {
 	}
 
 	/**
-	 * Gera e salva um novo token "Lembrar-me".
+	 * Gera um token "Lembrar-me" assinado (não é gravado no banco).
 	 * 
-	 * @param idUsuario ID do usuário
+	 * @param usuario Usuário que acabou de se autenticar
 	 * @return O token gerado
-	 * @throws SQLException
 	 */
-	public String gerarTokenLembrarMe(int idUsuario) throws SQLException {
-		String token = UUID.randomUUID().toString();
-		usuarioDAO.salvarTokenLembrarMe(idUsuario, token);
-		return token;
+	public String gerarTokenLembrarMe(Usuario usuario) {
+		return tokenLembrarMe.gerar(usuario.getId());
 	}
 
 	/**
-	 * Limpa o token "Lembrar-me" do banco de dados.
+	 * Revoga os tokens "Lembrar-me" já emitidos para o usuário.
 	 * 
 	 * @param idUsuario ID do usuário
-	 * @throws SQLException
 	 */
-	public void limparTokenLembrarMe(int idUsuario) throws SQLException {
-		usuarioDAO.salvarTokenLembrarMe(idUsuario, null);
+	public void limparTokenLembrarMe(int idUsuario) {
+		tokenLembrarMe.revogar(idUsuario);
 	}
 
 	/**
-	 * Busca um usuário pelo token "Lembrar-me".
+	 * Valida o token "Lembrar-me" em memória e busca o CPF do usuário (pelo
+	 * cache do cadastro, sem ir ao banco na maioria das vezes).
 	 * 
-	 * @param token O token
-	 * @return O objeto Usuario
+	 * @param token O token do cookie
+	 * @return O CPF para pré-preencher o login, ou null se o token não vale
 	 * @throws SQLException
 	 */
-	public Usuario buscarUsuarioPorToken(String token) throws SQLException {
-		if (token != null && !token.isEmpty()) {
-			return usuarioDAO.buscarUsuarioPorToken(token);
+	public String buscarCpfPorToken(String token) throws SQLException {
+		Integer idUsuario = token != null && !token.isEmpty() ? tokenLembrarMe.validar(token) : null;
+		if (idUsuario == null) {
+			return null;
 		}
-		return null;
+		Usuario usuario = usuarioDAO.buscarPorId(idUsuario);
+		return usuario != null ? usuario.getLogin() : null;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package br.uff.ic.grupo6.banco.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Token do "Lembrar-me" assinado com HMAC-SHA256: "v2.id.emitido.expira.assinatura".
+ * O filtro valida o token em memória; o CPF mostrado no login vem do cadastro
+ * (com cache), e não do cookie, para não ficar em texto puro no navegador.
+ *
+ * A chave vem de -Dbanco.lembrarMe.segredo e deve ser a mesma em todos os nós.
+ * Sem ela, uma chave aleatória é gerada na subida (os tokens deixam de valer
+ * quando a aplicação reinicia).
+ *
+ * Para revogar (login sem "Lembrar-me"), guarda-se em memória, por usuário, o
+ * instante da revogação: tokens emitidos até ele são recusados. Cada entrada
+ * só precisa durar a validade de um token.
+ */
+public class TokenLembrarMe {
+
+	private static final Logger LOG = Logger.getLogger(TokenLembrarMe.class.getName());
+
+	public static final int VALIDADE_SEGUNDOS = (int) TimeUnit.DAYS.toSeconds(30);
+	private static final long VALIDADE_MS = TimeUnit.SECONDS.toMillis(VALIDADE_SEGUNDOS);
+
+	// A v1 levava o CPF: é recusada
+	private static final String VERSAO = "v2";
+	private static final String ALGORITMO = "HmacSHA256";
+
+	private static final TokenLembrarMe GLOBAL = new TokenLembrarMe(segredoConfigurado(),
+			System::currentTimeMillis);
+
+	private final SecretKeySpec chave;
+	private final LongSupplier relogio;
+	// idUsuario -> instante (ms) da última revogação
+	private final Map<Integer, Long> revogados = new ConcurrentHashMap<>();
+
+	/**
+	 * @param relogio Hora atual em milissegundos (substituído nos testes)
+	 */
+	public TokenLembrarMe(byte[] segredo, LongSupplier relogio) {
+		this.chave = new SecretKeySpec(segredo, ALGORITMO);
+		this.relogio = relogio;
+	}
+
+	/**
+	 * @return A instância usada pela aplicação (a lista de revogados é compartilhada)
+	 */
+	public static TokenLembrarMe getInstancia() {
+		return GLOBAL;
+	}
+
+	public String gerar(int idUsuario) {
+		long emitido = relogio.getAsLong();
+		String dados = VERSAO + "." + idUsuario + "." + emitido + "." + (emitido + VALIDADE_MS);
+		return dados + "." + assinar(dados);
+	}
+
+	/**
+	 * @return O ID do usuário do token, ou null se ele foi adulterado, expirou ou foi revogado
+	 */
+	public Integer validar(String token) {
+		if (token == null) {
+			return null;
+		}
+		String[] campos = token.split("\\.");
+		if (campos.length != 5 || !VERSAO.equals(campos[0])) {
+			return null;
+		}
+		String dados = token.substring(0, token.lastIndexOf('.'));
+		if (!MessageDigest.isEqual(assinar(dados).getBytes(StandardCharsets.US_ASCII),
+				campos[4].getBytes(StandardCharsets.US_ASCII))) {
+			return null;
+		}
+		try {
+			int idUsuario = Integer.parseInt(campos[1]);
+			long emitido = Long.parseLong(campos[2]);
+			long expira = Long.parseLong(campos[3]);
+			Long revogadoEm = revogados.get(idUsuario);
+			if (relogio.getAsLong() >= expira || (revogadoEm != null && emitido <= revogadoEm)) {
+				return null;
+			}
+			return idUsuario;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Invalida os tokens já emitidos para o usuário.
+	 */
+	public void revogar(int idUsuario) {
+		long agora = relogio.getAsLong();
+		revogados.put(idUsuario, agora);
+		// Revogações mais antigas que a validade não recusam mais nenhum token
+		revogados.values().removeIf(revogadoEm -> revogadoEm < agora - VALIDADE_MS);
+	}
+
+	private String assinar(String dados) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITMO);
+			mac.init(chave);
+			return Base64.getUrlEncoder().withoutPadding()
+					.encodeToString(mac.doFinal(dados.getBytes(StandardCharsets.UTF_8)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+		}
+	}
+
+	private static byte[] segredoConfigurado() {
+		String segredo = System.getProperty("banco.lembrarMe.segredo");
+		if (segredo != null && !segredo.isEmpty()) {
+			return segredo.getBytes(StandardCharsets.UTF_8);
+		}
+		LOG.warning("banco.lembrarMe.segredo não definido: tokens do Lembrar-me valem só até reiniciar");
+		byte[] aleatorio = new byte[32];
+		new SecureRandom().nextBytes(aleatorio);
+		return aleatorio;
+	}
+}
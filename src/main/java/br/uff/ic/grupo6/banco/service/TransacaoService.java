@@ -1,19 +1,34 @@
 package br.uff.ic.grupo6.banco.service;
 
+import br.uff.ic.grupo6.banco.dao.CacheLRU;
 import br.uff.ic.grupo6.banco.dao.ContaDAO;
+import br.uff.ic.grupo6.banco.dao.DiretorioDestinatarios;
+import br.uff.ic.grupo6.banco.dao.DiretorioDestinatariosBanco;
+import br.uff.ic.grupo6.banco.dao.SaldoInsuficienteException;
 import br.uff.ic.grupo6.banco.dao.TransacaoDAO;
 import br.uff.ic.grupo6.banco.dao.UsuarioDAO;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Destinatario;
+import br.uff.ic.grupo6.banco.model.Dinheiro;
+import br.uff.ic.grupo6.banco.model.Pagina;
 import br.uff.ic.grupo6.banco.model.Transacao;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
+import br.uff.ic.grupo6.banco.service.exportacao.EscritorExtrato;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime; 
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * Camada de Serviço para regras de negócio relacionadas a Transações (Saque,
@@ -21,21 +36,34 @@ import java.util.Map;
  */
 public class TransacaoService {
 
+	// Limites da paginação do extrato
+	public static final int TAMANHO_PAGINA_PADRAO = 50;
+	public static final int TAMANHO_PAGINA_MAXIMO = 200;
+
+	// Chave de idempotência enviada pelos formulários (UUID ou id de confirmação)
+	private static final Pattern FORMATO_CHAVE = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+	// Comprovantes das últimas operações com chave ("idConta:chave"): o reenvio
+	// de um formulário é respondido sem ir ao banco. Sem o comprovante aqui
+	// (outro nó, cache cheio), a tabela OPERACAO_IDEMPOTENTE impede a repetição.
+	private static final CacheLRU<String, Transacao> RECIBOS = new CacheLRU<>(
+			Integer.getInteger("banco.idempotencia.capacidade", 10000), TimeUnit.HOURS.toMillis(1));
+
 	private final ContaDAO contaDAO;
 	private final TransacaoDAO transacaoDAO;
-	private final UsuarioDAO usuarioDAO;
+	private final DiretorioDestinatarios diretorioDestinatarios;
 
 	public TransacaoService() {
 		this.contaDAO = new ContaDAO();
 		this.transacaoDAO = new TransacaoDAO();
-		this.usuarioDAO = new UsuarioDAO();
+		this.diretorioDestinatarios = new DiretorioDestinatariosBanco();
 	}
 
 	// Construtor para injeção de dependência (facilita testes)
 	public TransacaoService(ContaDAO contaDAO, TransacaoDAO transacaoDAO, UsuarioDAO usuarioDAO) {
 		this.contaDAO = contaDAO;
 		this.transacaoDAO = transacaoDAO;
-		this.usuarioDAO = usuarioDAO;
+		this.diretorioDestinatarios = DiretorioDestinatarios.deDaos(contaDAO, usuarioDAO);
 	}
 
 	/**
@@ -48,12 +76,36 @@ public class TransacaoService {
 	 * @throws SQLException
 	 */
 	public Transacao realizarDeposito(int idConta, double valor) throws ValidationException, SQLException {
-		if (valor <= 0) {
+		if (Dinheiro.centavos(valor) <= 0) {
 			throw new ValidationException("O valor do deposito deve ser positivo.");
 		}
 		return contaDAO.realizarDeposito(idConta, valor);
 	}
 
+	/**
+	 * Depósito idempotente: repetido com a mesma chave, devolve o comprovante
+	 * do primeiro sem depositar de novo.
+	 * 
+	 * @param chaveIdempotencia Chave gerada pelo formulário
+	 * @throws ValidationException Se o valor ou a chave forem inválidos
+	 * @throws SQLException
+	 */
+	public Transacao realizarDeposito(int idConta, double valor, String chaveIdempotencia)
+			throws ValidationException, SQLException {
+		String chave = chaveRecibo(idConta, chaveIdempotencia);
+		Transacao recibo = RECIBOS.buscar(chave);
+		if (recibo != null) {
+			return recibo;
+		}
+		if (Dinheiro.centavos(valor) <= 0) {
+			throw new ValidationException("O valor do deposito deve ser positivo.");
+		}
+		long geracao = RECIBOS.getGeracao();
+		recibo = contaDAO.realizarDeposito(idConta, valor, chaveIdempotencia);
+		RECIBOS.guardar(chave, recibo, geracao);
+		return recibo;
+	}
+
 	/**
 	 * Busca o extrato (lista de transações) da conta, filtrando por período ou
 	 * buscando tudo.
@@ -74,6 +126,72 @@ public class TransacaoService {
 		}
 	}
 
+	/**
+	 * Busca uma página do extrato, da transação mais recente para a mais antiga.
+	 * Usa o cursor da página anterior em vez de carregar todo o histórico, então
+	 * o tempo e a memória por página não crescem com a idade da conta.
+	 * 
+	 * @param idConta      ID da conta
+	 * @param dataInicio   Data de início do filtro (opcional)
+	 * @param dataFim      Data de fim do filtro (opcional)
+	 * @param cursor       Cursor devolvido pela página anterior (null para a primeira)
+	 * @param tamanhoPagina Quantidade de transações por página (limitada ao máximo)
+	 * @return A página com as transações e o cursor da próxima página
+	 * @throws ValidationException Se o cursor for inválido
+	 * @throws SQLException
+	 */
+	public Pagina<Transacao> buscarExtrato(int idConta, LocalDate dataInicio, LocalDate dataFim, String cursor,
+			int tamanhoPagina) throws ValidationException, SQLException {
+		int tamanho = tamanhoPagina <= 0 ? TAMANHO_PAGINA_PADRAO : Math.min(tamanhoPagina, TAMANHO_PAGINA_MAXIMO);
+
+		LocalDateTime depoisDeData = null;
+		int depoisDeId = 0;
+		if (cursor != null && !cursor.isEmpty()) {
+			try {
+				String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+				depoisDeData = LocalDateTime.parse(partes[0]);
+				depoisDeId = Integer.parseInt(partes[1]);
+			} catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+				throw new ValidationException("Pagina do extrato invalida.");
+			}
+		}
+
+		// Busca um item a mais só para saber se existe próxima página
+		List<Transacao> transacoes = transacaoDAO.buscarPaginaTransacoes(idConta, dataInicio, dataFim, depoisDeData,
+				depoisDeId, tamanho + 1);
+
+		String proximoCursor = null;
+		if (transacoes.size() > tamanho) {
+			transacoes = transacoes.subList(0, tamanho);
+			Transacao ultima = transacoes.get(tamanho - 1);
+			String chave = ultima.getDataTransacao() + "|" + ultima.getId();
+			proximoCursor = Base64.getUrlEncoder().withoutPadding()
+					.encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+		}
+		return new Pagina<>(transacoes, proximoCursor);
+	}
+
+	/**
+	 * Exporta o extrato completo do período, escrevendo cada transação assim
+	 * que ela é lida do banco. A memória usada é a mesma para um mês ou para
+	 * vários anos de histórico.
+	 * 
+	 * @param conta      Conta do cliente
+	 * @param dataInicio Data de início (opcional)
+	 * @param dataFim    Data de fim (opcional)
+	 * @param escritor   Formato do arquivo (CSV, OFX)
+	 * @return Quantidade de transações exportadas
+	 * @throws SQLException
+	 * @throws IOException Se a escrita na saída falhar
+	 */
+	public int exportarExtrato(Conta conta, LocalDate dataInicio, LocalDate dataFim, EscritorExtrato escritor)
+			throws SQLException, IOException {
+		escritor.iniciar(conta, dataInicio, dataFim);
+		int quantidade = transacaoDAO.percorrerTransacoes(conta.getId(), dataInicio, dataFim, escritor::escrever);
+		escritor.finalizar();
+		return quantidade;
+	}
+
 	/**
 	 * Efetiva a transferência (chamado pela FinalizarTransferenciaServlet).
 	 * 
@@ -81,11 +199,46 @@ public class TransacaoService {
 	 * @param idContaDestino ID da conta de destino
 	 * @param valor          Valor a transferir
 	 * @return Lista com as duas transações (débito e crédito)
+	 * @throws ValidationException Se o saldo no banco não cobrir o valor
 	 * @throws SQLException
 	 */
 	public List<Transacao> realizarTransferencia(int idContaOrigem, int idContaDestino, double valor)
-			throws SQLException {
-		return contaDAO.realizarTransferencia(idContaOrigem, idContaDestino, valor);
+			throws ValidationException, SQLException {
+		try {
+			return contaDAO.realizarTransferencia(idContaOrigem, idContaDestino, valor);
+		} catch (SaldoInsuficienteException e) {
+			throw new ValidationException("Saldo insuficiente");
+		}
+	}
+
+	/**
+	 * Transferência idempotente (chave da conta de origem): repetida com a
+	 * mesma chave, devolve só o débito da primeira, sem transferir de novo.
+	 * 
+	 * @param chaveIdempotencia Id de confirmação da transferência
+	 * @throws ValidationException Se o saldo não cobrir o valor ou a chave for inválida
+	 * @throws SQLException
+	 */
+	public List<Transacao> realizarTransferencia(int idContaOrigem, int idContaDestino, double valor,
+			String chaveIdempotencia) throws ValidationException, SQLException {
+		String chave = chaveRecibo(idContaOrigem, chaveIdempotencia);
+		Transacao recibo = RECIBOS.buscar(chave);
+		if (recibo != null) {
+			return List.of(recibo);
+		}
+		long geracao = RECIBOS.getGeracao();
+		List<Transacao> transacoes;
+		try {
+			transacoes = contaDAO.realizarTransferencia(idContaOrigem, idContaDestino, valor, chaveIdempotencia);
+		} catch (SaldoInsuficienteException e) {
+			throw new ValidationException("Saldo insuficiente");
+		}
+		for (Transacao transacao : transacoes) {
+			if (transacao.getIdConta() == idContaOrigem) {
+				RECIBOS.guardar(chave, transacao, geracao);
+			}
+		}
+		return transacoes;
 	}
 
 	/**
@@ -97,25 +250,51 @@ public class TransacaoService {
 	 * @throws ValidationException Se qualquer regra de saque for violada
 	 * @throws SQLException
 	 */
-	
-	// ** COMPLEXIDADE CICLOMÁTICA = 10
 	public Transacao realizarSaque(Conta conta, double valorSaque) throws ValidationException, SQLException {
-		double saldoAtual = conta.getSaldo();
+		return realizarSaque(conta, valorSaque, null);
+	}
+
+	/**
+	 * Saque idempotente: repetido com a mesma chave, devolve o comprovante do
+	 * primeiro sem debitar de novo. O comprovante guardado é consultado antes
+	 * das validações, que no reenvio já veriam o saldo sem o valor sacado.
+	 * 
+	 * @param chaveIdempotencia Chave gerada pelo formulário (null para não usar)
+	 * @throws ValidationException Se qualquer regra de saque for violada
+	 * @throws SQLException
+	 */
+
+	// ** COMPLEXIDADE CICLOMÁTICA = 14
+	public Transacao realizarSaque(Conta conta, double valorSaque, String chaveIdempotencia)
+			throws ValidationException, SQLException {
+		String chave = null;
+		long geracao = 0;
+		if (chaveIdempotencia != null) {
+			chave = chaveRecibo(conta.getId(), chaveIdempotencia);
+			Transacao recibo = RECIBOS.buscar(chave);
+			if (recibo != null) {
+				return recibo;
+			}
+			geracao = RECIBOS.getGeracao();
+		}
+		// Regras em centavos (ver Dinheiro): o resto da divisão e as comparações são exatos
+		long saldoAtual = conta.getSaldoCentavos();
+		long centavosSaque = Dinheiro.centavos(valorSaque);
 
 		// Validação 1: Valor positivo
-		if (valorSaque <= 0) {
+		if (centavosSaque <= 0) {
 			throw new ValidationException("O valor do saque deve ser positivo.");
 		}
 		// Validação 2: Limite máximo por transação
-		if (valorSaque > 2000) {
+		if (centavosSaque > 2000_00) {
 			throw new ValidationException("O valor do saque excede o limite de R$ 2.000,00 por transacao.");
 		}
 		// Validação 3: Múltiplo de R$ 10,00
-		if (valorSaque % 10 != 0) {
+		if (centavosSaque % 10_00 != 0) {
 			throw new ValidationException("O valor do saque deve ser em multiplos de R$ 10,00.");
 		}
 		// Validação 4: Valor mínimo de saque
-		if (valorSaque < 10.00) {
+		if (centavosSaque < 10_00) {
 			throw new ValidationException("O valor minimo para saque e R$ 10,00.");
 		}
 		// Validação 5: Bloqueio de Contas Salário (ex: iniciadas com '9')
@@ -125,16 +304,36 @@ public class TransacaoService {
 
 		// Validação 6: Limite de horário para valores altos
 		int hora = LocalTime.now().getHour();
-		if (valorSaque > 1000 && (hora < 6 || hora >= 22)) {
+		if (centavosSaque > 1000_00 && (hora < 6 || hora >= 22)) {
 			throw new ValidationException("Saques acima de R$ 1.000,00 so podem ser feitos entre 06:00 e 22:00.");
 		}
 
-		// Validação 7: Saldo insuficiente
-		if (saldoAtual < valorSaque) {
+		// Validação 7: Saldo insuficiente (pelo saldo da sessão, evita ir ao banco à toa)
+		if (saldoAtual < centavosSaque) {
 			throw new ValidationException("Saldo insuficiente para realizar o saque.");
 		}
 
-		return contaDAO.realizarSaque(conta.getId(), valorSaque);
+		// O débito no banco é condicional: se outra sessão gastou o saldo nesse meio
+		// tempo, nenhuma linha é alterada e o saque é recusado
+		Transacao recibo;
+		try {
+			recibo = chave == null
+					? contaDAO.realizarSaque(conta.getId(), valorSaque)
+					: contaDAO.realizarSaque(conta.getId(), valorSaque, chaveIdempotencia);
+		} catch (SaldoInsuficienteException e) {
+			throw new ValidationException("Saldo insuficiente para realizar o saque.");
+		}
+		if (chave != null) {
+			RECIBOS.guardar(chave, recibo, geracao);
+		}
+		return recibo;
+	}
+
+	private static String chaveRecibo(int idConta, String chaveIdempotencia) throws ValidationException {
+		if (chaveIdempotencia == null || !FORMATO_CHAVE.matcher(chaveIdempotencia).matches()) {
+			throw new ValidationException("Chave de idempotencia invalida.");
+		}
+		return idConta + ":" + chaveIdempotencia;
 	}
 
 	/**
@@ -156,28 +355,31 @@ public class TransacaoService {
 			double valor) throws ValidationException, SQLException {
 
 		Conta contaOrigem = clienteOrigem.getConta();
-		Conta contaDeDestino = contaDAO.buscarContaPorAgenciaENumeroDaConta(agenciaDestino, contaDestino);
+		// Conta e titular numa só busca (índice em memória, sem ir ao banco na maioria das vezes)
+		Destinatario destinatario = diretorioDestinatarios.buscar(agenciaDestino, contaDestino);
+		long centavos = Dinheiro.centavos(valor);
 
 		// --- VALIDAÇÕES DE NEGÓCIO ---
 
 		// Validação 1: Valor positivo
-		if (valor <= 0) {
+		if (centavos <= 0) {
 			throw new ValidationException("Valor deve ser positivo");
 		}
 		// Validação 2: Saldo suficiente
-		if (valor > contaOrigem.getSaldo()) {
+		if (centavos > contaOrigem.getSaldoCentavos()) {
 			throw new ValidationException("Saldo insuficiente");
 		}
 		// Validação 3: Conta de destino existe
-		if (contaDeDestino == null) {
+		if (destinatario == null) {
 			throw new ValidationException("Conta de destino nao encontrada");
 		}
+		Conta contaDeDestino = destinatario.getConta();
 		// Validação 4: Transferência para mesma conta
 		if (contaDeDestino.getId() == contaOrigem.getId()) {
 			throw new ValidationException("Conta de destino nao pode ser a mesma de origem");
 		}
 		// Validação 5: Limite máximo por transferência
-		if (valor > 5000.00) {
+		if (centavos > 5000_00) {
 			throw new ValidationException("O limite maximo por transferencia e de R$ 5.000,00.");
 		}
 		// Validação 6: Bloqueio de agências administrativas
@@ -186,7 +388,7 @@ public class TransacaoService {
 		}
 
 		// Validação 7: Limite para clientes de baixa renda
-		if (clienteOrigem.getRenda() != null && clienteOrigem.getRenda() < 2000 && valor > 1000) {
+		if (clienteOrigem.getRenda() != null && clienteOrigem.getRenda() < 2000 && centavos > 1000_00) {
 			throw new ValidationException(
 					"Clientes com renda inferior a R$ 2.000,00 tem limite de R$ 1.000,00 por transferencia.");
 		}
@@ -197,7 +399,7 @@ public class TransacaoService {
 		}
 
 		// Validação 9: Cliente de destino existe
-		Cliente clienteDestino = usuarioDAO.buscarClientePorIdConta(contaDeDestino.getId());
+		Cliente clienteDestino = destinatario.getTitular();
 		if (clienteDestino == null) {
 			throw new ValidationException("Cliente de destino nao encontrado");
 		}
@@ -0,0 +1,37 @@
+package br.uff.ic.grupo6.banco.service.exportacao;
+
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Transacao;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Escreve o extrato em um formato de arquivo, uma transação por vez, direto
+ * na saída (sem guardar as transações em memória).
+ */
+public interface EscritorExtrato {
+
+	/**
+	 * Escreve o cabeçalho do arquivo.
+	 * 
+	 * @param conta      Conta do extrato
+	 * @param dataInicio Início do período (pode ser null)
+	 * @param dataFim    Fim do período (pode ser null)
+	 */
+	void iniciar(Conta conta, LocalDate dataInicio, LocalDate dataFim) throws IOException;
+
+	void escrever(Transacao transacao) throws IOException;
+
+	/**
+	 * Escreve o rodapé do arquivo e descarrega o buffer.
+	 */
+	void finalizar() throws IOException;
+
+	/**
+	 * Transações que tiram dinheiro da conta saem com valor negativo no arquivo.
+	 */
+	static boolean isDebito(Transacao transacao) {
+		return "SAQUE".equals(transacao.getTipo()) || "TRANSF_ENVIADA".equals(transacao.getTipo());
+	}
+}
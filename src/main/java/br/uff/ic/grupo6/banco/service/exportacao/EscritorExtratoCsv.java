@@ -0,0 +1,46 @@
+package br.uff.ic.grupo6.banco.service.exportacao;
+
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Transacao;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+/**
+ * Extrato em CSV (RFC 4180): separador vírgula, ponto decimal e data ISO, para
+ * ser lido por planilhas e pelas ferramentas de conciliação.
+ */
+public class EscritorExtratoCsv implements EscritorExtrato {
+
+	private final Writer saida;
+
+	public EscritorExtratoCsv(Writer saida) {
+		this.saida = saida;
+	}
+
+	@Override
+	public void iniciar(Conta conta, LocalDate dataInicio, LocalDate dataFim) throws IOException {
+		saida.write("id,data,tipo,valor\r\n");
+	}
+
+	@Override
+	public void escrever(Transacao transacao) throws IOException {
+		saida.write(Integer.toString(transacao.getId()));
+		saida.write(',');
+		saida.write(transacao.getDataTransacao().toString());
+		saida.write(',');
+		saida.write(transacao.getTipo());
+		saida.write(',');
+		if (EscritorExtrato.isDebito(transacao)) {
+			saida.write('-');
+		}
+		saida.write(transacao.getValor().toPlainString());
+		saida.write("\r\n");
+	}
+
+	@Override
+	public void finalizar() throws IOException {
+		saida.flush();
+	}
+}
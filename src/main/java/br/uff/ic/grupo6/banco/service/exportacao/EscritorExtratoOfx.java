@@ -0,0 +1,80 @@
+package br.uff.ic.grupo6.banco.service.exportacao;
+
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Dinheiro;
+import br.uff.ic.grupo6.banco.model.Transacao;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Extrato em OFX 1.0.2 (SGML), o formato importado pelos programas de finanças
+ * pessoais e de contabilidade.
+ */
+public class EscritorExtratoOfx implements EscritorExtrato {
+
+	private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+	// Sem data de início, o período vai desde o começo (o OFX exige DTSTART antes das transações)
+	private static final LocalDate INICIO_SEM_FILTRO = LocalDate.of(1970, 1, 1);
+
+	private final Writer saida;
+	private Conta conta;
+	private LocalDateTime geradoEm;
+
+	public EscritorExtratoOfx(Writer saida) {
+		this.saida = saida;
+	}
+
+	@Override
+	public void iniciar(Conta conta, LocalDate dataInicio, LocalDate dataFim) throws IOException {
+		this.conta = conta;
+		this.geradoEm = LocalDateTime.now();
+		LocalDateTime inicio = (dataInicio != null ? dataInicio : INICIO_SEM_FILTRO).atStartOfDay();
+		LocalDateTime fim = dataFim != null ? dataFim.atTime(23, 59, 59) : geradoEm;
+
+		saida.write("OFXHEADER:100\r\nDATA:OFXSGML\r\nVERSION:102\r\nSECURITY:NONE\r\n"
+				+ "ENCODING:UTF-8\r\nCHARSET:NONE\r\nCOMPRESSION:NONE\r\nOLDFILEUID:NONE\r\nNEWFILEUID:NONE\r\n\r\n");
+		saida.write("<OFX>\r\n<SIGNONMSGSRSV1><SONRS>\r\n"
+				+ "<STATUS><CODE>0<SEVERITY>INFO</STATUS>\r\n"
+				+ "<DTSERVER>" + FORMATO_DATA.format(geradoEm) + "\r\n<LANGUAGE>POR\r\n"
+				+ "</SONRS></SIGNONMSGSRSV1>\r\n");
+		saida.write("<BANKMSGSRSV1><STMTTRNRS>\r\n<TRNUID>1\r\n"
+				+ "<STATUS><CODE>0<SEVERITY>INFO</STATUS>\r\n<STMTRS>\r\n<CURDEF>BRL\r\n");
+		saida.write("<BANKACCTFROM>\r\n<BANKID>" + conta.getAgencia() + "\r\n<ACCTID>" + conta.getNumero()
+				+ "\r\n<ACCTTYPE>CHECKING\r\n</BANKACCTFROM>\r\n");
+		saida.write("<BANKTRANLIST>\r\n<DTSTART>" + FORMATO_DATA.format(inicio) + "\r\n<DTEND>"
+				+ FORMATO_DATA.format(fim) + "\r\n");
+	}
+
+	@Override
+	public void escrever(Transacao transacao) throws IOException {
+		boolean debito = EscritorExtrato.isDebito(transacao);
+		saida.write("<STMTTRN>\r\n<TRNTYPE>");
+		saida.write(debito ? "DEBIT" : "CREDIT");
+		saida.write("\r\n<DTPOSTED>");
+		saida.write(FORMATO_DATA.format(transacao.getDataTransacao()));
+		saida.write("\r\n<TRNAMT>");
+		if (debito) {
+			saida.write('-');
+		}
+		saida.write(transacao.getValor().toPlainString());
+		saida.write("\r\n<FITID>");
+		saida.write(Integer.toString(transacao.getId()));
+		saida.write("\r\n<MEMO>");
+		saida.write(transacao.getTipo());
+		saida.write("\r\n</STMTTRN>\r\n");
+	}
+
+	@Override
+	public void finalizar() throws IOException {
+		saida.write("</BANKTRANLIST>\r\n<LEDGERBAL>\r\n<BALAMT>"
+				+ Dinheiro.decimal(conta.getSaldoCentavos()).toPlainString() + "\r\n<DTASOF>"
+				+ FORMATO_DATA.format(geradoEm) + "\r\n</LEDGERBAL>\r\n");
+		saida.write("</STMTRS>\r\n</STMTTRNRS></BANKMSGSRSV1>\r\n</OFX>\r\n");
+		saida.flush();
+	}
+}
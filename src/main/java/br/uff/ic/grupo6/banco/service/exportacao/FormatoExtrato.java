@@ -0,0 +1,51 @@
+package br.uff.ic.grupo6.banco.service.exportacao;
+
+import java.io.Writer;
+
+/**
+ * Formatos de arquivo em que o extrato pode ser exportado.
+ */
+public enum FormatoExtrato {
+
+	CSV("text/csv; charset=UTF-8", "csv"),
+	OFX("application/x-ofx; charset=UTF-8", "ofx");
+
+	private final String tipoConteudo;
+	private final String extensao;
+
+	FormatoExtrato(String tipoConteudo, String extensao) {
+		this.tipoConteudo = tipoConteudo;
+		this.extensao = extensao;
+	}
+
+	/**
+	 * @return O Content-Type da resposta HTTP
+	 */
+	public String getTipoConteudo() {
+		return tipoConteudo;
+	}
+
+	/**
+	 * @return A extensão do arquivo baixado (sem o ponto)
+	 */
+	public String getExtensao() {
+		return extensao;
+	}
+
+	public EscritorExtrato criarEscritor(Writer saida) {
+		return this == CSV ? new EscritorExtratoCsv(saida) : new EscritorExtratoOfx(saida);
+	}
+
+	/**
+	 * @param valor Formato pedido ("csv" ou "ofx", sem diferenciar maiúsculas)
+	 * @return O formato, ou null se não for suportado
+	 */
+	public static FormatoExtrato de(String valor) {
+		for (FormatoExtrato formato : values()) {
+			if (formato.extensao.equalsIgnoreCase(valor)) {
+				return formato;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,53 @@
+package br.uff.ic.grupo6.banco.sessao;
+
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import java.io.IOException;
+
+/**
+ * Guarda os usuários logados fora do container, para que qualquer nó atrás do
+ * balanceador atenda qualquer requisição (sem sticky session). A chave é o id
+ * aleatório do cookie de sessão externa.
+ *
+ * Para usar um armazenamento remoto (Redis, memcached, uma tabela...),
+ * implemente esta interface com um construtor público sem parâmetros e passe o
+ * nome da classe em -Dbanco.sessao.armazenamento. As implementações são usadas
+ * por várias threads ao mesmo tempo.
+ */
+public interface ArmazenamentoSessao {
+
+    /**
+     * Busca a sessão e estende a validade dela (expiração por inatividade,
+     * como a do HttpSession).
+     *
+     * @return O usuário, ou null se a sessão não existe ou expirou
+     */
+    SessaoUsuario ler(String id) throws IOException;
+
+    /**
+     * Cria ou substitui a sessão.
+     *
+     * @param validadeMs Tempo sem acesso depois do qual a sessão expira
+     */
+    void gravar(String id, SessaoUsuario usuario, long validadeMs) throws IOException;
+
+    /**
+     * Apaga a sessão e os dados guardados com ela.
+     */
+    void remover(String id) throws IOException;
+
+    /**
+     * Lê um dado guardado ao lado do usuário (ex: as transferências aguardando
+     * confirmação). Não estende a validade da sessão.
+     *
+     * @return O valor, ou null se ele não existe ou a sessão expirou
+     */
+    String lerDado(String id, String nome) throws IOException;
+
+    /**
+     * Grava (ou apaga, com valor null) um dado da sessão, mantendo o usuário e
+     * os outros dados. Conta como acesso à sessão.
+     *
+     * @return false se a sessão não existe mais
+     */
+    boolean gravarDado(String id, String nome, String valor) throws IOException;
+}
@@ -0,0 +1,239 @@
+package br.uff.ic.grupo6.banco.sessao;
+
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Implementação de referência do {@link ArmazenamentoSessao}: um arquivo
+ * pequeno por sessão num diretório (-Dbanco.sessao.diretorio, padrão
+ * "banco-sessoes" na pasta temporária). Com o diretório num disco
+ * compartilhado (NFS, volume do Kubernetes) os nós enxergam as mesmas sessões.
+ *
+ * O arquivo guarda só os campos do {@link SessaoUsuario}, a validade e os
+ * dados da sessão como texto (sem serialização Java, para não desserializar
+ * bytes vindos do disco). A data de
+ * modificação do arquivo é o último acesso: a leitura a atualiza quando já
+ * passou metade da validade, para não escrever no disco a cada requisição.
+ */
+public class ArmazenamentoSessaoArquivo implements ArmazenamentoSessao {
+
+    private static final int VERSAO_FORMATO = 2;
+    // Arquivos gravados antes dos dados da sessão: só o usuário
+    private static final int VERSAO_SEM_DADOS = 1;
+    private static final String EXTENSAO = ".sessao";
+    // Os ids viram nomes de arquivo: só caracteres de base64 para URL
+    private static final Pattern FORMATO_ID = Pattern.compile("[A-Za-z0-9_-]{16,128}");
+    // Sessões abandonadas (sem logout) são apagadas no máximo uma vez por minuto
+    private static final long INTERVALO_LIMPEZA_MS = 60_000;
+
+    private static final class Registro {
+        final long validadeMs;
+        final SessaoUsuario usuario;
+        final Map<String, String> dados;
+
+        Registro(long validadeMs, SessaoUsuario usuario, Map<String, String> dados) {
+            this.validadeMs = validadeMs;
+            this.usuario = usuario;
+            this.dados = dados;
+        }
+    }
+
+    private final Path diretorio;
+    private final LongSupplier relogio;
+    private final AtomicLong proximaLimpeza = new AtomicLong();
+
+    public ArmazenamentoSessaoArquivo() throws IOException {
+        this(Paths.get(System.getProperty("banco.sessao.diretorio",
+                Paths.get(System.getProperty("java.io.tmpdir"), "banco-sessoes").toString())),
+                System::currentTimeMillis);
+    }
+
+    /**
+     * @param relogio Hora atual em milissegundos (substituído nos testes)
+     */
+    public ArmazenamentoSessaoArquivo(Path diretorio, LongSupplier relogio) throws IOException {
+        this.diretorio = Files.createDirectories(diretorio);
+        this.relogio = relogio;
+    }
+
+    @Override
+    public SessaoUsuario ler(String id) throws IOException {
+        Registro registro = lerValido(id, true);
+        return registro != null ? registro.usuario : null;
+    }
+
+    @Override
+    public void gravar(String id, SessaoUsuario usuario, long validadeMs) throws IOException {
+        // Regravar o usuário (ex: mudou o nome) não perde os dados da sessão
+        Registro anterior = lerValido(id, false);
+        Map<String, String> dados = anterior != null ? anterior.dados : new TreeMap<>();
+        long agora = relogio.getAsLong();
+        escrever(arquivo(id), new Registro(validadeMs, usuario, dados), agora);
+
+        long limpeza = proximaLimpeza.get();
+        if (agora >= limpeza && proximaLimpeza.compareAndSet(limpeza, agora + INTERVALO_LIMPEZA_MS)) {
+            removerExpiradas();
+        }
+    }
+
+    @Override
+    public String lerDado(String id, String nome) throws IOException {
+        Registro registro = lerValido(id, false);
+        return registro != null ? registro.dados.get(nome) : null;
+    }
+
+    /**
+     * Lê e regrava o arquivo inteiro: se dois nós gravarem dados da mesma
+     * sessão ao mesmo tempo, vale a última gravação.
+     */
+    @Override
+    public boolean gravarDado(String id, String nome, String valor) throws IOException {
+        Registro registro = lerValido(id, false);
+        if (registro == null) {
+            return false;
+        }
+        if (valor != null) {
+            registro.dados.put(nome, valor);
+        } else {
+            registro.dados.remove(nome);
+        }
+        escrever(arquivo(id), registro, relogio.getAsLong());
+        return true;
+    }
+
+    @Override
+    public void remover(String id) throws IOException {
+        Files.deleteIfExists(arquivo(id));
+    }
+
+    /**
+     * Apaga as sessões que expiraram sem logout.
+     *
+     * @return Quantas foram apagadas
+     */
+    public int removerExpiradas() throws IOException {
+        long agora = relogio.getAsLong();
+        int removidas = 0;
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                try {
+                    long ultimoAcesso = Files.getLastModifiedTime(arquivo).toMillis();
+                    long validadeMs;
+                    try (DataInputStream entrada = new DataInputStream(Files.newInputStream(arquivo))) {
+                        entrada.readInt();
+                        validadeMs = entrada.readLong();
+                    }
+                    if (agora - ultimoAcesso >= validadeMs && Files.deleteIfExists(arquivo)) {
+                        removidas++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // Removida por outro nó durante a varredura
+                }
+            }
+        }
+        return removidas;
+    }
+
+    /**
+     * @param renovar Se a leitura conta como acesso (atualiza a data do arquivo)
+     * @return O conteúdo da sessão, ou null se ela não existe ou expirou
+     */
+    private Registro lerValido(String id, boolean renovar) throws IOException {
+        if (!FORMATO_ID.matcher(id).matches()) {
+            return null;
+        }
+        Path arquivo = arquivo(id);
+        try {
+            long agora = relogio.getAsLong();
+            long ultimoAcesso = Files.getLastModifiedTime(arquivo).toMillis();
+            Registro registro = lerRegistro(arquivo);
+            if (agora - ultimoAcesso >= registro.validadeMs) {
+                Files.deleteIfExists(arquivo);
+                return null;
+            }
+            if (renovar && agora - ultimoAcesso > registro.validadeMs / 2) {
+                Files.setLastModifiedTime(arquivo, FileTime.fromMillis(agora));
+            }
+            return registro;
+        } catch (NoSuchFileException e) {
+            return null; // Nunca existiu, ou logout/limpeza em outro nó
+        }
+    }
+
+    private static Registro lerRegistro(Path arquivo) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            int versao = entrada.readInt();
+            if (versao != VERSAO_FORMATO && versao != VERSAO_SEM_DADOS) {
+                throw new IOException("Formato de sessão desconhecido: " + arquivo);
+            }
+            long validadeMs = entrada.readLong();
+            int idUsuario = entrada.readInt();
+            SessaoUsuario.Perfil perfil = SessaoUsuario.Perfil.valueOf(entrada.readUTF());
+            String nome = entrada.readBoolean() ? entrada.readUTF() : null;
+            int idConta = entrada.readInt();
+            Map<String, String> dados = new TreeMap<>();
+            if (versao == VERSAO_FORMATO) {
+                for (int i = entrada.readInt(); i > 0; i--) {
+                    dados.put(entrada.readUTF(), entrada.readUTF());
+                }
+            }
+            return new Registro(validadeMs, new SessaoUsuario(idUsuario, perfil, nome, idConta), dados);
+        }
+    }
+
+    private void escrever(Path arquivo, Registro registro, long agora) throws IOException {
+        SessaoUsuario usuario = registro.usuario;
+        // Escreve num temporário e renomeia: outro nó nunca lê o arquivo pela metade
+        Path temporario = Files.createTempFile(diretorio, "gravando-", ".tmp");
+        try {
+            try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                saida.writeInt(VERSAO_FORMATO);
+                saida.writeLong(registro.validadeMs);
+                saida.writeInt(usuario.getIdUsuario());
+                saida.writeUTF(usuario.getPerfil().name());
+                saida.writeBoolean(usuario.getNome() != null);
+                if (usuario.getNome() != null) {
+                    saida.writeUTF(usuario.getNome());
+                }
+                saida.writeInt(usuario.getIdConta());
+                saida.writeInt(registro.dados.size());
+                for (Map.Entry<String, String> dado : registro.dados.entrySet()) {
+                    saida.writeUTF(dado.getKey());
+                    saida.writeUTF(dado.getValue());
+                }
+            }
+            Files.setLastModifiedTime(temporario, FileTime.fromMillis(agora));
+            try {
+                Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    private Path arquivo(String id) {
+        if (!FORMATO_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Id de sessão inválido");
+        }
+        return diretorio.resolve(id + EXTENSAO);
+    }
+}
@@ -0,0 +1,9 @@
+-- Extrato e investimentos filtram por conta e ordenam por data (mais recente primeiro).
+-- O índice composto atende o filtro e a ordenação sem ordenar em memória, e também
+-- serve para as chaves estrangeiras de id_conta.
+
+-- TransacaoDAO: WHERE id_conta = ? [AND data_transacao ...] ORDER BY data_transacao DESC, id DESC
+CREATE INDEX idx_transacao_conta_data ON TRANSACAO (id_conta, data_transacao, id);
+
+-- InvestimentoDAO: WHERE id_conta = ? [AND data_aplicacao ...] ORDER BY data_aplicacao DESC
+CREATE INDEX idx_investimento_conta_data ON INVESTIMENTO (id_conta, data_aplicacao);
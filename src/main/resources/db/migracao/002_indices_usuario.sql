@@ -0,0 +1,5 @@
+-- UsuarioDAO.buscarUsuarioPorToken (filtro "Lembrar-me", roda em toda requisição sem sessão)
+CREATE INDEX idx_usuario_token_lembrar_me ON USUARIO (token_lembrar_me);
+
+-- Listagem de clientes do gerente: WHERE tipo = 'CLIENTE' ORDER BY nome
+CREATE INDEX idx_usuario_tipo_nome ON USUARIO (tipo, nome);
@@ -0,0 +1,11 @@
+-- Chaves de idempotência de saques, depósitos e transferências. A chave é
+-- reservada na mesma transação que movimenta o dinheiro: um reenvio com a mesma
+-- chave esbarra na chave primária e recebe o comprovante da primeira execução.
+-- id_transacao fica nulo só enquanto a transação que reservou a chave não termina.
+CREATE TABLE OPERACAO_IDEMPOTENTE (
+    id_conta INT NOT NULL,
+    chave VARCHAR(64) NOT NULL,
+    id_transacao INT,
+    criada_em TIMESTAMP NOT NULL,
+    PRIMARY KEY (id_conta, chave)
+);
@@ -0,0 +1,10 @@
+-- Listagem paginada de clientes do gerente (UsuarioDAO.buscarPaginaClientes).
+-- Cada ordenação desempata pelo id; o cursor da página anterior vira um
+-- intervalo no índice, então cada página lê só as suas linhas.
+-- A ordenação por nome usa idx_usuario_tipo_nome (002).
+
+-- WHERE u.tipo = 'CLIENTE' ORDER BY u.cpf, u.id
+CREATE INDEX idx_usuario_tipo_cpf ON USUARIO (tipo, cpf, id);
+
+-- ORDER BY c.saldo DESC, c.id DESC
+CREATE INDEX idx_conta_saldo ON CONTA (saldo, id);
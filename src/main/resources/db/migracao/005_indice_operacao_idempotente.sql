@@ -0,0 +1,3 @@
+-- Limpeza das chaves de idempotência antigas (OperacaoIdempotenteDAO.removerAntigas):
+-- WHERE criada_em < ? vira um intervalo no índice em vez de percorrer a tabela.
+CREATE INDEX idx_operacao_idempotente_criada ON OPERACAO_IDEMPOTENTE (criada_em);
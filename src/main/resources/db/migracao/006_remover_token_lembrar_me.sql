@@ -0,0 +1,4 @@
+-- O token do "Lembrar-me" passou a ser assinado e validado em memória
+-- (TokenLembrarMe): a coluna e o índice da 002 não são mais lidos nem gravados.
+ALTER TABLE USUARIO DROP INDEX idx_usuario_token_lembrar_me;
+ALTER TABLE USUARIO DROP COLUMN token_lembrar_me;
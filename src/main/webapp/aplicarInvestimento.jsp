@@ -1,8 +1,8 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
-<%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%
     // Segurança
-    if (!(session.getAttribute("usuarioLogado") instanceof Cliente)) {
+    if (UsuarioAtual.getCliente(session) == null) {
         response.sendRedirect("login.jsp");
         return;
     }
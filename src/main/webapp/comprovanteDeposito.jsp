@@ -1,11 +1,12 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Conta"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Transacao"%>
 <%@ page import="java.time.format.DateTimeFormatter"%>
 <%@ page import="java.text.NumberFormat"%>
 <%
-    Cliente cliente = (Cliente) session.getAttribute("usuarioLogado");
+    Cliente cliente = UsuarioAtual.carregarCliente(request, session);
     Transacao comprovante = (Transacao) request.getAttribute("comprovante");
 
     if (cliente == null || comprovante == null) {
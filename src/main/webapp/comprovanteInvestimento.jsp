@@ -1,5 +1,6 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Conta"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Investimento"%>
 <%@ page import="java.time.format.DateTimeFormatter"%>
@@ -7,7 +8,7 @@
 <%@ page import="java.util.Locale"%>
 
 <%
-    Cliente cliente = (Cliente) session.getAttribute("usuarioLogado");
+    Cliente cliente = UsuarioAtual.carregarCliente(request, session);
     Investimento comprovante = (Investimento) request.getAttribute("comprovante");
 
     if (cliente == null || comprovante == null) {
@@ -1,11 +1,12 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Conta"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Transacao"%>
 <%@ page import="java.time.format.DateTimeFormatter"%>
 <%@ page import="java.text.NumberFormat"%>
 <%
-    Cliente clienteOrigem = (Cliente) session.getAttribute("usuarioLogado");
+    Cliente clienteOrigem = UsuarioAtual.carregarCliente(request, session);
     Transacao comprovante = (Transacao) request.getAttribute("comprovante");
     String nomeDestino = (String) request.getAttribute("nomeDestino");
     String cpfDestino = (String) request.getAttribute("cpfDestino");
@@ -54,13 +54,7 @@
                                 </div>
 
                                 <form action="FinalizarTransferenciaServlet" method="post" class="mt-4">
-                                    <input type="hidden" name="idContaOrigem" value="<%= clienteOrigem.getConta().getId()%>">
-                                    <input type="hidden" name="idContaDestino" value="<%= contaDestino.getId()%>">
-                                    <input type="hidden" name="valor" value="<%= valor%>">
-                                    <input type="hidden" name="nomeDestino" value="<%= clienteDestino.getNome()%>">
-                                    <input type="hidden" name="cpfDestino" value="<%= clienteDestino.getCpf()%>">
-                                    <input type="hidden" name="agenciaDestino" value="<%= contaDestino.getAgencia()%>">
-                                    <input type="hidden" name="numeroContaDestino" value="<%= contaDestino.getNumero()%>">
+                                    <input type="hidden" name="idConfirmacao" value="<%= request.getAttribute("idConfirmacao")%>">
 
                                     <div class="d-flex justify-content-center gap-3">
                                         <button type="submit" class="btn btn-custom">Confirmar Transferência</button>
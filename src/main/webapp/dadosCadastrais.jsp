@@ -1,5 +1,6 @@
 <%@page contentType="text/html" pageEncoding="UTF-8"%>
 <%@page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%@page import="java.time.format.DateTimeFormatter"%>
 <!DOCTYPE html>
 <html lang="pt-BR" data-bs-theme="dark">
@@ -21,10 +22,9 @@
             // Se o 'cliente' não veio pela requisição (ex: usuário atualizou a página),
             // tenta pegar da sessão para evitar erros.
             if (cliente == null) {
-                // se não houver cliente na requisição, busca na sessão
-                if (session.getAttribute("usuarioLogado") instanceof Cliente) {
-                    cliente = (Cliente) session.getAttribute("usuarioLogado");
-                } else {
+                // se não houver cliente na requisição, carrega o cliente logado
+                cliente = UsuarioAtual.carregarCliente(request, session);
+                if (cliente == null) {
                     // Se não há cliente em nenhum lugar, o acesso é inválido. Redireciona para o login.
                     response.sendRedirect("login.jsp");
                     return; // Interrompe a execução da página
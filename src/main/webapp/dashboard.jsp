@@ -1,5 +1,6 @@
 <%@page contentType="text/html" pageEncoding="UTF-8"%>
 <%@page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%@page import="br.uff.ic.grupo6.banco.model.Conta"%>
 <%@ page import="java.text.NumberFormat"%>
 <!DOCTYPE html>
@@ -14,10 +15,9 @@
     </head>
     <body>
         <%
-            Cliente cliente = null;
-            if (session.getAttribute("usuarioLogado") instanceof Cliente) {
-                cliente = (Cliente) session.getAttribute("usuarioLogado");
-            } else {
+            // Carrega o cliente logado (a sessão só guarda o id)
+            Cliente cliente = UsuarioAtual.carregarCliente(request, session);
+            if (cliente == null) {
                 response.sendRedirect("login.jsp");
                 return;
             }
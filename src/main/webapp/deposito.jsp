@@ -1,7 +1,7 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
-<%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%
-    if (!(session.getAttribute("usuarioLogado") instanceof Cliente)) {
+    if (UsuarioAtual.getCliente(session) == null) {
         response.sendRedirect("login.jsp");
         return;
     }
@@ -38,6 +38,8 @@
                                 </div>
 
                                 <form action="DepositoServlet" method="post">
+                                    <%-- Uma chave por exibição do formulário: duplo clique ou reenvio não repetem a operação --%>
+                                    <input type="hidden" name="chaveIdempotencia" value="<%= java.util.UUID.randomUUID()%>">
                                     <% if (erro != null && !erro.isEmpty()) {%>
                                     <div class="alert alert-danger" role="alert">
                                         <%= erro%>
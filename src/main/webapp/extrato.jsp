@@ -1,5 +1,5 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
-<%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Transacao"%>
 <%@ page import="java.util.List"%>
 <%@ page import="java.math.BigDecimal"%>
@@ -8,7 +8,7 @@
 
 <%
     // Segurança
-    if (!(session.getAttribute("usuarioLogado") instanceof Cliente)) {
+    if (UsuarioAtual.getCliente(session) == null) {
         response.sendRedirect("login.jsp");
         return;
     }
@@ -72,8 +72,23 @@
                             </div>
 
                             <div class="card" style="background-color: #1e1e1e;">
-                                <div class="card-header">
+                                <div class="card-header d-flex justify-content-between align-items-center">
                                     Transações
+                                    <%-- Exportação do período inteiro (não só da página exibida) --%>
+                                    <div>
+                                        <c:url var="urlExportarCsv" value="ExportarExtratoServlet">
+                                            <c:param name="formato" value="csv" />
+                                            <c:param name="dataInicio" value="${dataInicio}" />
+                                            <c:param name="dataFim" value="${dataFim}" />
+                                        </c:url>
+                                        <c:url var="urlExportarOfx" value="ExportarExtratoServlet">
+                                            <c:param name="formato" value="ofx" />
+                                            <c:param name="dataInicio" value="${dataInicio}" />
+                                            <c:param name="dataFim" value="${dataFim}" />
+                                        </c:url>
+                                        <a href="${urlExportarCsv}" class="btn btn-outline-light btn-sm"><i class="bi bi-filetype-csv"></i> CSV</a>
+                                        <a href="${urlExportarOfx}" class="btn btn-outline-light btn-sm"><i class="bi bi-download"></i> OFX</a>
+                                    </div>
                                 </div>
                                 <div class="card-body p-0">
                                     <div class="table-responsive">
@@ -132,6 +147,31 @@
                                         </table>
                                     </div>
                                 </div>
+                                <%-- Paginação por cursor: só avança; "Mais recentes" volta para a primeira página --%>
+                                <c:if test="${not empty proximoCursor || not empty paginaAtual}">
+                                    <div class="card-footer d-flex justify-content-between">
+                                        <c:url var="urlPrimeiraPagina" value="ExtratoServlet">
+                                            <c:param name="dataInicio" value="${dataInicio}" />
+                                            <c:param name="dataFim" value="${dataFim}" />
+                                            <c:param name="tamanho" value="${param.tamanho}" />
+                                        </c:url>
+                                        <c:url var="urlProximaPagina" value="ExtratoServlet">
+                                            <c:param name="dataInicio" value="${dataInicio}" />
+                                            <c:param name="dataFim" value="${dataFim}" />
+                                            <c:param name="tamanho" value="${param.tamanho}" />
+                                            <c:param name="cursor" value="${proximoCursor}" />
+                                        </c:url>
+                                        <c:choose>
+                                            <c:when test="${not empty paginaAtual}">
+                                                <a href="${urlPrimeiraPagina}" class="btn btn-outline-light btn-sm"><i class="bi bi-chevron-double-left"></i> Mais recentes</a>
+                                            </c:when>
+                                            <c:otherwise><span></span></c:otherwise>
+                                        </c:choose>
+                                        <c:if test="${not empty proximoCursor}">
+                                            <a href="${urlProximaPagina}" class="btn btn-custom btn-sm">Mais antigas <i class="bi bi-chevron-right"></i></a>
+                                        </c:if>
+                                    </div>
+                                </c:if>
                             </div>
                         </div>
                     </div>
@@ -1,13 +1,14 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
-<%@ page import="br.uff.ic.grupo6.banco.model.Gerente" %>
+<%@ page import="br.uff.ic.grupo6.banco.model.SessaoUsuario" %>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual" %>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
 <%
     // Medida de segurança: Verifica se o usuário logado é um Gerente
-    if (!(session.getAttribute("usuarioLogado") instanceof Gerente)) {
+    SessaoUsuario gerente = UsuarioAtual.getSessao(session);
+    if (gerente == null || !gerente.isGerente()) {
         response.sendRedirect("../login.jsp?erro=Acesso Negado");
         return;
     }
-    Gerente gerente = (Gerente) session.getAttribute("usuarioLogado");
 %>
 <!DOCTYPE html>
 <html lang="pt-BR" data-bs-theme="dark">
@@ -1,9 +1,9 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
-<%@ page import="br.uff.ic.grupo6.banco.model.Gerente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%
     // Segurança: Apenas gerentes podem acessar
-    if (!(session.getAttribute("usuarioLogado") instanceof Gerente)) {
+    if (!UsuarioAtual.isGerente(session)) {
         response.sendRedirect("../login.jsp?erro=Acesso Negado");
         return;
     }
@@ -1,5 +1,34 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+
+<c:if test="${not empty erro}">
+    <div class="alert alert-danger m-3"><c:out value="${erro}" /></div>
+</c:if>
+
+<%-- Listagem paginada ("Listar Todos"): total, ordenação e cursor da próxima página --%>
+<c:if test="${listagemPaginada}">
+    <c:url var="urlPorNome" value="${urlListagem}">
+        <c:param name="acao" value="listarTodos" />
+        <c:param name="ordem" value="nome" />
+    </c:url>
+    <c:url var="urlPorCpf" value="${urlListagem}">
+        <c:param name="acao" value="listarTodos" />
+        <c:param name="ordem" value="cpf" />
+    </c:url>
+    <c:url var="urlPorSaldo" value="${urlListagem}">
+        <c:param name="acao" value="listarTodos" />
+        <c:param name="ordem" value="saldo" />
+    </c:url>
+    <div class="d-flex justify-content-between align-items-center px-3 py-2">
+        <span class="text-white-50 small"><c:if test="${not empty totalClientes}"><c:out value="${totalClientes}" /> clientes</c:if></span>
+        <div class="btn-group btn-group-sm">
+            <a href="${urlPorNome}" class="btn ${ordem == 'nome' ? 'btn-secondary' : 'btn-outline-secondary'}">Nome</a>
+            <a href="${urlPorCpf}" class="btn ${ordem == 'cpf' ? 'btn-secondary' : 'btn-outline-secondary'}">CPF</a>
+            <a href="${urlPorSaldo}" class="btn ${ordem == 'saldo' ? 'btn-secondary' : 'btn-outline-secondary'}">Maior saldo</a>
+        </div>
+    </div>
+</c:if>
 
 <div class="table-responsive">
     <table class="table table-dark table-hover mb-0 align-middle">
@@ -8,6 +37,9 @@
                 <th scope="col">Nome</th>
                 <th scope="col">CPF</th>
                 <th scope="col">Email</th>
+                <c:if test="${listagemPaginada}">
+                    <th scope="col" class="text-end">Saldo</th>
+                </c:if>
                 <th scope="col" class="text-center">Ações</th>
             </tr>
         </thead>
@@ -17,6 +49,9 @@
                     <td><c:out value="${cliente.nome}" /></td>
                     <td><c:out value="${cliente.cpf}" /></td>
                     <td><c:out value="${cliente.email}" />
+                    <c:if test="${listagemPaginada}">
+                        <td class="text-end"><fmt:formatNumber value="${cliente.conta.saldo}" type="currency" currencySymbol="R$ "/></td>
+                    </c:if>
 
                     <td class="text-end">
                         <div class="d-grid gap-2 d-sm-flex justify-content-sm-end">
@@ -29,9 +64,33 @@
             </c:forEach>
             <c:if test="${empty listaClientes}">
                 <tr>
-                    <td colspan="4" class="text-center py-4">Nenhum cliente cadastrado.</td>
+                    <td colspan="${listagemPaginada ? 5 : 4}" class="text-center py-4">Nenhum cliente cadastrado.</td>
                 </tr>
             </c:if>
         </tbody>
     </table>
-</div>
\ No newline at end of file
+</div>
+
+<%-- Paginação por cursor: só avança; "Início" volta para a primeira página --%>
+<c:if test="${listagemPaginada && (not empty proximoCursor || not empty paginaAtual)}">
+    <div class="d-flex justify-content-between px-3 py-2">
+        <c:url var="urlPrimeiraPagina" value="${urlListagem}">
+            <c:param name="acao" value="listarTodos" />
+            <c:param name="ordem" value="${ordem}" />
+        </c:url>
+        <c:url var="urlProximaPagina" value="${urlListagem}">
+            <c:param name="acao" value="listarTodos" />
+            <c:param name="ordem" value="${ordem}" />
+            <c:param name="cursor" value="${proximoCursor}" />
+        </c:url>
+        <c:choose>
+            <c:when test="${not empty paginaAtual}">
+                <a href="${urlPrimeiraPagina}" class="btn btn-outline-light btn-sm"><i class="bi bi-chevron-double-left"></i> Início</a>
+            </c:when>
+            <c:otherwise><span></span></c:otherwise>
+        </c:choose>
+        <c:if test="${not empty proximoCursor}">
+            <a href="${urlProximaPagina}" class="btn btn-primary btn-sm">Próximos <i class="bi bi-chevron-right"></i></a>
+        </c:if>
+    </div>
+</c:if>
@@ -1,5 +1,6 @@
 <%@page contentType="text/html" pageEncoding="UTF-8"%>
 <%@page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%@page import="br.uff.ic.grupo6.banco.model.Conta"%>
 <!DOCTYPE html>
 <html lang="pt-BR" data-bs-theme="dark">
@@ -14,11 +15,9 @@
 
     <body>
         <%
-            // Recupera o cliente da sessão
-            Cliente cliente = null;
-            if (session.getAttribute("usuarioLogado") instanceof Cliente) {
-                cliente = (Cliente) session.getAttribute("usuarioLogado");
-            } else {
+            // Carrega o cliente logado (a sessão só guarda o id)
+            Cliente cliente = UsuarioAtual.carregarCliente(request, session);
+            if (cliente == null) {
                 // Se não houver cliente na sessão, redireciona para o login.
                 response.sendRedirect("login.jsp");
                 return;
@@ -1,15 +1,16 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%@ page import="br.uff.ic.grupo6.banco.model.Conta"%>
 <%@ page import="java.text.NumberFormat"%>
 <%@ page import="java.util.Locale"%>
 <%
     // Segurança e recuperação de dados
-    if (!(session.getAttribute("usuarioLogado") instanceof Cliente)) {
+    Cliente cliente = UsuarioAtual.carregarCliente(request, session);
+    if (cliente == null) {
         response.sendRedirect("login.jsp");
         return;
     }
-    Cliente cliente = (Cliente) session.getAttribute("usuarioLogado");
     Conta conta = cliente.getConta();
 
     // Formatação de moeda
@@ -1,7 +1,7 @@
 <%@ page contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
-<%@ page import="br.uff.ic.grupo6.banco.model.Cliente"%>
+<%@ page import="br.uff.ic.grupo6.banco.controller.UsuarioAtual"%>
 <%
-    if (!(session.getAttribute("usuarioLogado") instanceof Cliente)) {
+    if (UsuarioAtual.getCliente(session) == null) {
         response.sendRedirect("login.jsp");
         return;
     }
@@ -44,6 +44,8 @@
                                 <% }%>
 
                                 <form action="SaqueServlet" method="post">
+                                    <%-- Uma chave por exibição do formulário: duplo clique ou reenvio não repetem a operação --%>
+                                    <input type="hidden" name="chaveIdempotencia" value="<%= java.util.UUID.randomUUID()%>">
                                     <div class="form-floating mb-3">
                                         <input type="number" step="0.01" min="0.01" class="form-control" id="valor" name="valor" placeholder="Valor do saque" required>
                                         <label for="valor">Valor do Saque (R$)</label>
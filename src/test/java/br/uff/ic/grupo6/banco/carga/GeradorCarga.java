@@ -0,0 +1,152 @@
+package br.uff.ic.grupo6.banco.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Teste de carga HTTP: vários usuários virtuais executam o roteiro do
+ * {@link UsuarioVirtual} ao mesmo tempo contra a aplicação, e no fim sai a
+ * latência (p50/p95/p99) e a vazão de cada endpoint.
+ *
+ * Pelo Maven: {@code mvn -P carga test-compile exec:exec}. Sem
+ * {@code -Dcarga.url}, a aplicação sobe num Tomcat embarcado dentro do
+ * próprio processo.
+ */
+public class GeradorCarga {
+
+    private final int usuarios;
+    private final Duration aquecimento;
+    private final Duration duracao;
+
+    /**
+     * @param usuarios Usuários virtuais simultâneos (no mínimo 2, pois um
+     * transfere para o outro)
+     * @param aquecimento Tempo inicial que não entra na medição
+     * @param duracao Tempo medido, depois do aquecimento
+     */
+    public GeradorCarga(int usuarios, Duration aquecimento, Duration duracao) {
+        if (usuarios < 2) {
+            throw new IllegalArgumentException("O teste de carga precisa de pelo menos 2 usuários virtuais.");
+        }
+        this.usuarios = usuarios;
+        this.aquecimento = aquecimento;
+        this.duracao = duracao;
+    }
+
+    /**
+     * Cadastra os usuários virtuais e executa a carga contra a aplicação.
+     *
+     * @param urlBase URL da aplicação (ex: http://localhost:8080/banco-atm)
+     * @return As medições somadas de todos os usuários
+     */
+    public RegistroLatencias executar(String urlBase) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        // CPFs novos a cada execução, para poder repetir contra o mesmo banco
+        long execucao = System.currentTimeMillis() / 1000 % 100000;
+        List<UsuarioVirtual> virtuais = new ArrayList<>();
+        List<String> contas = new ArrayList<>();
+        for (int i = 0; i < usuarios; i++) {
+            UsuarioVirtual virtual = new UsuarioVirtual(http, urlBase, String.format("7%05d%05d", execucao, i));
+            contas.add(virtual.preparar());
+            virtuais.add(virtual);
+        }
+
+        long inicioMedicao = System.nanoTime() + aquecimento.toNanos();
+        long fimMedicao = inicioMedicao + duracao.toNanos();
+        for (int i = 0; i < usuarios; i++) {
+            virtuais.get(i).configurar(contas.get((i + 1) % usuarios), inicioMedicao, fimMedicao);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(usuarios);
+        RegistroLatencias total = new RegistroLatencias();
+        try {
+            for (Future<RegistroLatencias> resultado : executor.invokeAll(virtuais)) {
+                total.juntar(resultado.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return total;
+    }
+
+    public double getSegundosMedidos() {
+        return duracao.toMillis() / 1000.0;
+    }
+
+    public void imprimir(RegistroLatencias registro, PrintStream saida) {
+        saida.printf("%n%d usuários virtuais, %.0f s medidos (%.0f s de aquecimento)%n", usuarios,
+                getSegundosMedidos(), aquecimento.toMillis() / 1000.0);
+        saida.printf("%-30s %8s %6s %9s %9s %9s %9s %9s%n", "endpoint", "req", "erros", "req/s", "p50 ms",
+                "p95 ms", "p99 ms", "máx ms");
+        for (String endpoint : UsuarioVirtual.ENDPOINTS) {
+            RegistroLatencias.Resumo r = registro.resumir(endpoint, getSegundosMedidos());
+            if (r == null) {
+                continue;
+            }
+            saida.printf(Locale.ROOT, "%-30s %8d %6d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint,
+                    r.getRequisicoes(), r.getErros(), r.getVazao(), r.getP50(), r.getP95(), r.getP99(),
+                    r.getMaximo());
+        }
+    }
+
+    public void salvarCsv(RegistroLatencias registro, Path arquivo) throws IOException {
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8))) {
+            csv.println("endpoint,requisicoes,erros,vazao_rps,p50_ms,p95_ms,p99_ms,max_ms");
+            for (String endpoint : UsuarioVirtual.ENDPOINTS) {
+                RegistroLatencias.Resumo r = registro.resumir(endpoint, getSegundosMedidos());
+                if (r == null) {
+                    continue;
+                }
+                csv.printf(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f%n", endpoint, r.getRequisicoes(),
+                        r.getErros(), r.getVazao(), r.getP50(), r.getP95(), r.getP99(), r.getMaximo());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int usuarios = Integer.getInteger("carga.usuarios", 50);
+        Duration aquecimento = Duration.ofSeconds(Long.getLong("carga.aquecimentoSegundos", 5));
+        Duration duracao = Duration.ofSeconds(Long.getLong("carga.duracaoSegundos", 30));
+        String url = System.getProperty("carga.url", "");
+        String relatorio = System.getProperty("carga.relatorio", "target/carga-resultado.csv");
+
+        GeradorCarga gerador = new GeradorCarga(usuarios, aquecimento, duracao);
+        ServidorEmbarcado servidor = null;
+        try {
+            if (url.isEmpty()) {
+                servidor = ServidorEmbarcado.iniciar();
+                url = servidor.getUrlBase();
+            }
+            System.out.println("Teste de carga contra " + url);
+            RegistroLatencias registro = gerador.executar(url);
+            gerador.imprimir(registro, System.out);
+            gerador.salvarCsv(registro, Paths.get(relatorio));
+            System.out.println("\nResultado salvo em " + relatorio);
+        } finally {
+            if (servidor != null) {
+                servidor.close();
+            }
+        }
+    }
+}
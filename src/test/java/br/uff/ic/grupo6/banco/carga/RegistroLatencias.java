@@ -0,0 +1,131 @@
+package br.uff.ic.grupo6.banco.carga;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Latências e erros por endpoint. Cada usuário virtual tem o seu registro (sem
+ * sincronização); no fim da execução os registros são somados com juntar().
+ */
+public class RegistroLatencias {
+
+    /**
+     * Números de um endpoint ao fim da execução. Latências em milissegundos.
+     */
+    public static class Resumo {
+
+        private final String endpoint;
+        private final int requisicoes;
+        private final int erros;
+        private final double vazao;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double maximo;
+
+        Resumo(String endpoint, long[] nanos, int erros, double segundos) {
+            Arrays.sort(nanos);
+            this.endpoint = endpoint;
+            this.requisicoes = nanos.length;
+            this.erros = erros;
+            this.vazao = segundos > 0 ? nanos.length / segundos : 0;
+            this.p50 = percentil(nanos, 50);
+            this.p95 = percentil(nanos, 95);
+            this.p99 = percentil(nanos, 99);
+            this.maximo = nanos.length == 0 ? 0 : nanos[nanos.length - 1] / 1_000_000.0;
+        }
+
+        // Método "nearest rank": o menor valor que cobre o percentual pedido
+        private static double percentil(long[] ordenados, int percentual) {
+            if (ordenados.length == 0) {
+                return 0;
+            }
+            int posicao = (int) Math.ceil(percentual / 100.0 * ordenados.length) - 1;
+            return ordenados[Math.max(0, posicao)] / 1_000_000.0;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public int getRequisicoes() {
+            return requisicoes;
+        }
+
+        public int getErros() {
+            return erros;
+        }
+
+        public double getVazao() {
+            return vazao;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP95() {
+            return p95;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getMaximo() {
+            return maximo;
+        }
+    }
+
+    private static class Amostras {
+
+        long[] nanos = new long[256];
+        int quantidade;
+        int erros;
+
+        void adicionar(long valor) {
+            if (quantidade == nanos.length) {
+                nanos = Arrays.copyOf(nanos, quantidade * 2);
+            }
+            nanos[quantidade++] = valor;
+        }
+    }
+
+    private final Map<String, Amostras> porEndpoint = new HashMap<>();
+
+    /**
+     * @param nanos Tempo de resposta da requisição
+     * @param sucesso false se o servidor respondeu com erro ou recusou a operação
+     */
+    public void registrar(String endpoint, long nanos, boolean sucesso) {
+        Amostras amostras = porEndpoint.computeIfAbsent(endpoint, e -> new Amostras());
+        amostras.adicionar(nanos);
+        if (!sucesso) {
+            amostras.erros++;
+        }
+    }
+
+    public void juntar(RegistroLatencias outro) {
+        for (Map.Entry<String, Amostras> entrada : outro.porEndpoint.entrySet()) {
+            Amostras destino = porEndpoint.computeIfAbsent(entrada.getKey(), e -> new Amostras());
+            Amostras origem = entrada.getValue();
+            for (int i = 0; i < origem.quantidade; i++) {
+                destino.adicionar(origem.nanos[i]);
+            }
+            destino.erros += origem.erros;
+        }
+    }
+
+    /**
+     * @param segundos Duração da medição, para calcular a vazão
+     * @return O resumo do endpoint, ou null se ele não foi chamado
+     */
+    public Resumo resumir(String endpoint, double segundos) {
+        Amostras amostras = porEndpoint.get(endpoint);
+        if (amostras == null) {
+            return null;
+        }
+        return new Resumo(endpoint, Arrays.copyOf(amostras.nanos, amostras.quantidade), amostras.erros, segundos);
+    }
+}
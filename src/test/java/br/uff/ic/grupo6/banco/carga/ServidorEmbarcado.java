@@ -0,0 +1,55 @@
+package br.uff.ic.grupo6.banco.carga;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.File;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sobe a aplicação (src/main/webapp + classes compiladas) num Tomcat
+ * embarcado, numa porta livre. Os servlets e filtros vêm do web.xml, como no
+ * GlassFish.
+ */
+public class ServidorEmbarcado implements AutoCloseable {
+
+    public static final String CONTEXTO = "/banco-atm";
+
+    private final Tomcat tomcat;
+
+    private ServidorEmbarcado(Tomcat tomcat) {
+        this.tomcat = tomcat;
+    }
+
+    public static ServidorEmbarcado iniciar() throws LifecycleException {
+        // O Tomcat loga cada etapa da inicialização; só interessam os problemas
+        Logger.getLogger("org.apache").setLevel(Level.WARNING);
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(new File("target/tomcat-embarcado").getAbsolutePath());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+
+        Context contexto = tomcat.addWebapp(CONTEXTO, new File("src/main/webapp").getAbsolutePath());
+        // As classes da aplicação estão no classpath da JVM, não em WEB-INF/classes
+        contexto.setParentClassLoader(ServidorEmbarcado.class.getClassLoader());
+
+        tomcat.start();
+        return new ServidorEmbarcado(tomcat);
+    }
+
+    /**
+     * @return URL da aplicação, sem barra no fim (ex: http://localhost:50123/banco-atm)
+     */
+    public String getUrlBase() {
+        return "http://localhost:" + tomcat.getConnector().getLocalPort() + CONTEXTO;
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
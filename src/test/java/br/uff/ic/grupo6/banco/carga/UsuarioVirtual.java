@@ -0,0 +1,198 @@
+package br.uff.ic.grupo6.banco.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Um cliente do banco usando a aplicação pelo HTTP, como o navegador faria
+ * (formulários e cookie de sessão), mas sem renderizar as páginas. Cada volta
+ * do roteiro faz login, depósito, saque, transferência (confirmação e
+ * efetivação) e consulta o extrato.
+ */
+public class UsuarioVirtual implements Callable<RegistroLatencias> {
+
+    /**
+     * Endpoints medidos, na ordem do roteiro.
+     */
+    public static final List<String> ENDPOINTS = List.of("LoginServlet", "DepositoServlet", "SaqueServlet",
+            "TransferenciaServlet", "FinalizarTransferenciaServlet", "ExtratoServlet");
+
+    static final String SENHA = "Carga1234";
+
+    private static final Pattern NUMERO_CONTA = Pattern.compile("Conta Corrente:</span> <strong>(\\d+)</strong>");
+    private static final Pattern CAMPO_OCULTO = Pattern.compile("type=\"hidden\" name=\"(\\w+)\" value=\"([^\"]*)\"");
+
+    private final HttpClient http;
+    private final String urlBase;
+    private final String cpf;
+    private String sessao;
+
+    private String contaDestino;
+    private long inicioMedicao;
+    private long fimMedicao;
+
+    public UsuarioVirtual(HttpClient http, String urlBase, String cpf) {
+        this.http = http;
+        this.urlBase = urlBase;
+        this.cpf = cpf;
+    }
+
+    /**
+     * Cadastra o cliente, deposita um saldo inicial e descobre o número da
+     * conta. Não entra na medição.
+     *
+     * @return Número da conta criada
+     */
+    public String preparar() throws IOException, InterruptedException {
+        Map<String, String> cadastro = new LinkedHashMap<>();
+        cadastro.put("nome", "Cliente Carga " + cpf);
+        cadastro.put("cpf", cpf);
+        cadastro.put("senha", SENHA);
+        cadastro.put("confirmaSenha", SENHA);
+        cadastro.put("dataNascimento", "1990-01-01");
+        cadastro.put("email", "carga" + cpf + "@email.com");
+        cadastro.put("telefone", "21999999999");
+        cadastro.put("cep", "24000000");
+        cadastro.put("endereco", "Rua da Carga");
+        cadastro.put("bairro", "Centro");
+        cadastro.put("cidade", "Niteroi");
+        cadastro.put("estado", "RJ");
+        cadastro.put("renda", "10000");
+        cadastro.put("ocupacao", "Outros");
+        HttpResponse<String> resposta = post("/CadastroServlet", cadastro);
+        if (!redirecionouPara(resposta, "login.jsp?msg=")) {
+            throw new IllegalStateException("Cadastro do usuário virtual " + cpf + " falhou (HTTP "
+                    + resposta.statusCode() + ")");
+        }
+
+        if (!logar() || post("/DepositoServlet", Map.of("valor", "100000")).statusCode() != 200) {
+            throw new IllegalStateException("Login ou depósito inicial do usuário virtual " + cpf + " falhou");
+        }
+        Matcher numero = NUMERO_CONTA.matcher(get("/saldo.jsp").body());
+        if (!numero.find()) {
+            throw new IllegalStateException("Número da conta do usuário virtual " + cpf + " não encontrado");
+        }
+        return numero.group(1);
+    }
+
+    /**
+     * @param contaDestino Conta que recebe as transferências deste usuário
+     * @param inicioMedicao Instante (System.nanoTime) em que o aquecimento acaba
+     * @param fimMedicao Instante em que o usuário para
+     */
+    public void configurar(String contaDestino, long inicioMedicao, long fimMedicao) {
+        this.contaDestino = contaDestino;
+        this.inicioMedicao = inicioMedicao;
+        this.fimMedicao = fimMedicao;
+    }
+
+    /**
+     * Os servlets respondem às falhas com redirecionamento (?erro=), então só
+     * 200 conta como operação concluída.
+     */
+    @Override
+    public RegistroLatencias call() throws Exception {
+        RegistroLatencias registro = new RegistroLatencias();
+        while (System.nanoTime() < fimMedicao) {
+            sessao = null;
+            long inicio = System.nanoTime();
+            boolean logado = logar();
+            medir(registro, "LoginServlet", inicio, logado);
+            if (!logado) {
+                continue;
+            }
+
+            inicio = System.nanoTime();
+            int status = post("/DepositoServlet", Map.of("valor", "50", "chaveIdempotencia", UUID.randomUUID().toString())).statusCode();
+            medir(registro, "DepositoServlet", inicio, status == 200);
+
+            inicio = System.nanoTime();
+            status = post("/SaqueServlet", Map.of("valor", "10", "chaveIdempotencia", UUID.randomUUID().toString())).statusCode();
+            medir(registro, "SaqueServlet", inicio, status == 200);
+
+            inicio = System.nanoTime();
+            HttpResponse<String> confirmacao = post("/TransferenciaServlet",
+                    Map.of("agenciaDestino", "0001", "contaDestino", contaDestino, "valor", "10"));
+            boolean confirmou = confirmacao.statusCode() == 200;
+            medir(registro, "TransferenciaServlet", inicio, confirmou);
+            if (confirmou) {
+                // Reenvia os campos ocultos da página de confirmação, como o formulário faz
+                Map<String, String> campos = new LinkedHashMap<>();
+                Matcher campo = CAMPO_OCULTO.matcher(confirmacao.body());
+                while (campo.find()) {
+                    campos.put(campo.group(1), campo.group(2));
+                }
+                inicio = System.nanoTime();
+                status = post("/FinalizarTransferenciaServlet", campos).statusCode();
+                medir(registro, "FinalizarTransferenciaServlet", inicio, status == 200);
+            }
+
+            inicio = System.nanoTime();
+            status = get("/ExtratoServlet").statusCode();
+            medir(registro, "ExtratoServlet", inicio, status == 200);
+        }
+        return registro;
+    }
+
+    private void medir(RegistroLatencias registro, String endpoint, long inicio, boolean sucesso) {
+        // Durante o aquecimento (JIT, JSPs sendo compiladas, pool enchendo) nada é registrado
+        if (inicio >= inicioMedicao) {
+            registro.registrar(endpoint, System.nanoTime() - inicio, sucesso);
+        }
+    }
+
+    private boolean logar() throws IOException, InterruptedException {
+        HttpResponse<String> resposta = post("/LoginServlet", Map.of("login", cpf, "senha", SENHA));
+        return redirecionouPara(resposta, "dashboard.jsp");
+    }
+
+    private static boolean redirecionouPara(HttpResponse<String> resposta, String destino) {
+        return resposta.statusCode() == 302
+                && resposta.headers().firstValue("Location").map(l -> l.contains(destino)).orElse(false);
+    }
+
+    private HttpResponse<String> get(String caminho) throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(urlBase + caminho)).GET());
+    }
+
+    private HttpResponse<String> post(String caminho, Map<String, String> campos)
+            throws IOException, InterruptedException {
+        StringBuilder corpo = new StringBuilder();
+        for (Map.Entry<String, String> campo : campos.entrySet()) {
+            if (corpo.length() > 0) {
+                corpo.append('&');
+            }
+            corpo.append(URLEncoder.encode(campo.getKey(), StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(campo.getValue(), StandardCharsets.UTF_8));
+        }
+        return enviar(HttpRequest.newBuilder(URI.create(urlBase + caminho))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo.toString())));
+    }
+
+    private HttpResponse<String> enviar(HttpRequest.Builder requisicao) throws IOException, InterruptedException {
+        if (sessao != null) {
+            requisicao.header("Cookie", sessao);
+        }
+        HttpResponse<String> resposta = http.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+        // Guarda só o cookie de sessão; o HttpClient é compartilhado entre os usuários
+        for (String cookie : resposta.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith("JSESSIONID=")) {
+                sessao = cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length());
+            }
+        }
+        return resposta;
+    }
+}
@@ -3,6 +3,7 @@ package br.uff.ic.grupo6.banco.controller;
 import br.uff.ic.grupo6.banco.dao.UsuarioDAO;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -44,6 +45,12 @@ class AtualizarDadosServletTest {
         Mockito.lenient().when(request.getParameter(anyString())).thenReturn(null);
     }
 
+    private void logarCliente(Cliente cliente) {
+        when(session.getAttribute("usuarioLogado")).thenReturn(SessaoUsuario.de(cliente));
+        // Cliente já carregado nesta requisição (evita ir ao banco)
+        when(request.getAttribute(UsuarioAtual.ATRIBUTO_CLIENTE)).thenReturn(cliente);
+    }
+
     @Test
     @DisplayName("Deve redirecionar para login se nao houver sessao")
     void deveRedirecionarParaLoginQuandoNaoHouverSessao() throws ServletException, IOException {
@@ -72,7 +79,7 @@ class AtualizarDadosServletTest {
 
         Cliente cliente = new Cliente();
         cliente.setSenha("senhaCerta");
-        when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
+        logarCliente(cliente);
 
         when(request.getParameter("senhaAtual")).thenReturn("senhaErrada");
         when(request.getParameter("novaSenha")).thenReturn("nova");
@@ -90,7 +97,7 @@ class AtualizarDadosServletTest {
 
         Cliente cliente = new Cliente();
         cliente.setSenha("senhaCerta");
-        when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
+        logarCliente(cliente);
 
         when(request.getParameter("senhaAtual")).thenReturn("senhaCerta");
         when(request.getParameter("novaSenha")).thenReturn("nova");
@@ -109,7 +116,7 @@ class AtualizarDadosServletTest {
         Cliente cliente = new Cliente();
         cliente.setId(5);
         cliente.setSenha("senhaCerta");
-        when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
+        logarCliente(cliente);
 
         when(request.getParameter("senhaAtual")).thenReturn("senhaCerta");
         when(request.getParameter("novaSenha")).thenReturn("nova");
@@ -136,7 +143,7 @@ class AtualizarDadosServletTest {
         cliente.setSenha("senhaCerta");
         Conta conta = new Conta("0001", "123", 100.0);
         cliente.setConta(conta);
-        when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
+        logarCliente(cliente);
         
         when(request.getParameter("nome")).thenReturn("Nome Teste");
         when(request.getParameter("dataNascimento")).thenReturn("2000-01-01");
@@ -170,7 +177,7 @@ class AtualizarDadosServletTest {
             assertEquals("Nome Teste", capturado.getNome());
             assertEquals("test@example.com", capturado.getEmail());
 
-            verify(session).setAttribute(eq("usuarioLogado"), any(Cliente.class));
+            verify(session).setAttribute(eq("usuarioLogado"), any(SessaoUsuario.class));
 
             verify(response).sendRedirect(contains("PerfilServlet?msg="));
         }
@@ -0,0 +1,153 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.dao.ContaDAO;
+import br.uff.ic.grupo6.banco.dao.TransacaoDAO;
+import br.uff.ic.grupo6.banco.dao.UsuarioDAO;
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import br.uff.ic.grupo6.banco.model.Transacao;
+import br.uff.ic.grupo6.banco.service.TransacaoService;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExportarExtratoServletTest {
+
+    private final ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+
+    private TransacaoDAO transacaoDAO;
+    private ExportarExtratoServlet servlet;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    @BeforeEach
+    void setup() throws Exception {
+        transacaoDAO = mock(TransacaoDAO.class);
+        servlet = new ExportarExtratoServlet(
+                new TransacaoService(mock(ContaDAO.class), transacaoDAO, mock(UsuarioDAO.class)));
+
+        Conta conta = new Conta("0001", "12345");
+        conta.setId(10);
+        Cliente cliente = new Cliente();
+        cliente.setConta(conta);
+
+        HttpSession session = mock(HttpSession.class);
+        when(session.getAttribute("usuarioLogado")).thenReturn(SessaoUsuario.de(cliente));
+        request = mock(HttpServletRequest.class);
+        when(request.getAttribute(UsuarioAtual.ATRIBUTO_CLIENTE)).thenReturn(cliente);
+        when(request.getSession()).thenReturn(session);
+        response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                corpo.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+
+        // Simula o banco entregando as linhas uma a uma
+        doAnswer(invocacao -> {
+            TransacaoDAO.LeitorTransacao leitor = invocacao.getArgument(3);
+            leitor.ler(transacao(1, "DEPOSITO", "150.00"));
+            leitor.ler(transacao(2, "SAQUE", "40.00"));
+            return 2;
+        }).when(transacaoDAO).percorrerTransacoes(eq(10), isNull(), isNull(), any());
+    }
+
+    private Transacao transacao(int id, String tipo, String valor) {
+        Transacao transacao = new Transacao();
+        transacao.setId(id);
+        transacao.setTipo(tipo);
+        transacao.setValor(new BigDecimal(valor));
+        transacao.setDataTransacao(LocalDateTime.of(2024, 3, id, 10, 0));
+        return transacao;
+    }
+
+    @Test
+    @DisplayName("Exportação CSV deve escrever uma linha por transação, com débitos negativos")
+    void deveExportarCsv() throws Exception {
+        when(request.getParameter("formato")).thenReturn("csv");
+
+        servlet.doGet(request, response);
+
+        assertEquals("id,data,tipo,valor\r\n"
+                + "1,2024-03-01T10:00,DEPOSITO,150.00\r\n"
+                + "2,2024-03-02T10:00,SAQUE,-40.00\r\n",
+                corpo.toString(StandardCharsets.UTF_8));
+        verify(response).setContentType("text/csv; charset=UTF-8");
+        verify(response).setHeader("Content-Disposition", "attachment; filename=\"extrato-12345.csv\"");
+    }
+
+    @Test
+    @DisplayName("Exportação OFX deve ser compactada quando o cliente aceita gzip")
+    void deveCompactarOfxQuandoClienteAceitaGzip() throws Exception {
+        when(request.getParameter("formato")).thenReturn("ofx");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        servlet.doGet(request, response);
+
+        String ofx;
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(corpo.toByteArray()))) {
+            ofx = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertTrue(ofx.startsWith("OFXHEADER:100"));
+        assertTrue(ofx.contains("<TRNTYPE>DEBIT\r\n<DTPOSTED>20240302100000\r\n<TRNAMT>-40.00"));
+        assertTrue(ofx.trim().endsWith("</OFX>"));
+    }
+
+    @Test
+    @DisplayName("Formato desconhecido deve responder 400 sem consultar o banco")
+    void deveRecusarFormatoInvalido() throws Exception {
+        when(request.getParameter("formato")).thenReturn("pdf");
+
+        servlet.doGet(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verify(transacaoDAO, never()).percorrerTransacoes(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Erro do banco antes do primeiro byte deve responder 500 sem corpo compactado")
+    void deveResponderErroSemCorpoQuandoBancoFalha() throws Exception {
+        when(request.getParameter("formato")).thenReturn("csv");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        doThrow(new SQLException("banco fora")).when(transacaoDAO)
+                .percorrerTransacoes(eq(10), isNull(), isNull(), any());
+
+        servlet.doGet(request, response);
+
+        verify(response).reset();
+        verify(response).sendError(eq(HttpServletResponse.SC_INTERNAL_SERVER_ERROR), anyString());
+        // Só o cabeçalho do gzip chegou ao buffer descartado pelo reset, sem o final do arquivo
+        assertTrue(corpo.size() <= 10);
+    }
+}
@@ -1,8 +1,8 @@
 package br. uff.ic.grupo6.banco.controller;
 
-import br.uff.ic.grupo6.banco.model.Cliente;
-import br.uff. ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br. uff.ic.grupo6. banco.model.Transacao;
+import br.uff.ic.grupo6.banco.model.Pagina;
 import br.uff.ic.grupo6.banco.service. TransacaoService;
 
 import jakarta.servlet.RequestDispatcher;
@@ -46,8 +46,7 @@ class ExtratoServletTest {
     @Mock
     private RequestDispatcher dispatcher;
 
-    private Cliente cliente;
-    private Conta conta;
+    private SessaoUsuario cliente;
 
     @BeforeEach
     void setup() throws Exception {
@@ -59,8 +58,7 @@ class ExtratoServletTest {
         field.setAccessible(true);
         field. set(servlet, transacaoService);
         
-        cliente = mock(Cliente.class);
-        conta = mock(Conta.class);
+        cliente = new SessaoUsuario(1, SessaoUsuario.Perfil.CLIENTE, "Cliente", 10);
     }
 
     @Test
@@ -81,21 +79,21 @@ class ExtratoServletTest {
     void deveBuscarExtratoSemDatas() throws Exception {
         when(request.getSession()).thenReturn(session);
         when(session.getAttribute("usuarioLogado")). thenReturn(cliente);
-        when(cliente.getConta()).thenReturn(conta);
-        when(conta.getId()).thenReturn(10);
 
         when(request.getParameter("dataInicio")). thenReturn(null);
         when(request.getParameter("dataFim")).thenReturn(null);
 
         List<Transacao> lista = List.of(new Transacao());
-        when(transacaoService.buscarExtrato(10, null, null)). thenReturn(lista);
+        when(transacaoService.buscarExtrato(10, null, null, null, TransacaoService.TAMANHO_PAGINA_PADRAO))
+                .thenReturn(new Pagina<>(lista, "cursor-proxima"));
 
         when(request.getRequestDispatcher("extrato.jsp")).thenReturn(dispatcher);
 
         servlet. doGet(request, response);
 
-        verify(transacaoService). buscarExtrato(10, null, null);
+        verify(transacaoService). buscarExtrato(10, null, null, null, TransacaoService.TAMANHO_PAGINA_PADRAO);
         verify(request).setAttribute("listaTransacoes", lista);
+        verify(request).setAttribute("proximoCursor", "cursor-proxima");
         verify(dispatcher).forward(request, response);
     }
 
@@ -103,15 +101,14 @@ class ExtratoServletTest {
     void deveBuscarPorPeriodoQuandoDatasValidas() throws Exception {
         when(request.getSession()). thenReturn(session);
         when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
-        when(cliente.getConta()).thenReturn(conta);
-        when(conta.getId()). thenReturn(10);
 
         when(request.getParameter("dataInicio")).thenReturn("2024-01-01");
         when(request.getParameter("dataFim")).thenReturn("2024-12-31");
 
         List<Transacao> lista = List.of(new Transacao());
-        when(transacaoService.buscarExtrato(10, LocalDate.parse("2024-01-01"), LocalDate. parse("2024-12-31")))
-                .thenReturn(lista);
+        when(transacaoService.buscarExtrato(10, LocalDate.parse("2024-01-01"), LocalDate. parse("2024-12-31"),
+                null, TransacaoService.TAMANHO_PAGINA_PADRAO))
+                .thenReturn(new Pagina<>(lista, null));
 
         when(request. getRequestDispatcher("extrato. jsp")).thenReturn(dispatcher);
 
@@ -119,7 +116,9 @@ class ExtratoServletTest {
 
         verify(transacaoService).buscarExtrato(10,
                 LocalDate. parse("2024-01-01"),
-                LocalDate.parse("2024-12-31")
+                LocalDate.parse("2024-12-31"),
+                null,
+                TransacaoService.TAMANHO_PAGINA_PADRAO
         );
 
         verify(request). setAttribute("listaTransacoes", lista);
@@ -130,11 +129,11 @@ class ExtratoServletTest {
     void deveRegistrarErroQuandoDataInvalida() throws Exception {
         when(request.getSession()).thenReturn(session);
         when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
-        when(cliente.getConta()).thenReturn(conta);
-        when(conta. getId()).thenReturn(10);
 
         when(request.getParameter("dataInicio")).thenReturn("2024-99-99");
         when(request.getParameter("dataFim")). thenReturn("2024-12-31");
+        when(transacaoService.buscarExtrato(eq(10), any(), any(), any(), anyInt()))
+                .thenReturn(new Pagina<>(List.of(), null));
 
         when(request.getRequestDispatcher("extrato.jsp")).thenReturn(dispatcher);
 
@@ -148,8 +147,6 @@ class ExtratoServletTest {
     void deveTratarSQLExceptionQuandoServicoFalhar() throws Exception {
         when(request.getSession()).thenReturn(session);
         when(session.getAttribute("usuarioLogado")). thenReturn(cliente);
-        when(cliente.getConta()).thenReturn(conta);
-        when(conta.getId()).thenReturn(10);
 
         when(request.getParameter("dataInicio")). thenReturn(null);
         when(request.getParameter("dataFim")).thenReturn(null);
@@ -157,11 +154,32 @@ class ExtratoServletTest {
         when(request.getRequestDispatcher("extrato.jsp")).thenReturn(dispatcher);
 
         doThrow(new SQLException("Erro SQL"))
-                .when(transacaoService).buscarExtrato(10, null, null);
+                .when(transacaoService).buscarExtrato(10, null, null, null, TransacaoService.TAMANHO_PAGINA_PADRAO);
 
         servlet.doGet(request, response);
 
         verify(request).setAttribute(eq("erro"), contains("Ocorreu um erro ao buscar o extrato"));
         verify(dispatcher).forward(request, response);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveRepassarCursorETamanhoDaPagina() throws Exception {
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
+
+        when(request.getParameter("dataInicio")).thenReturn(null);
+        when(request.getParameter("dataFim")).thenReturn(null);
+        when(request.getParameter("cursor")).thenReturn("abc");
+        when(request.getParameter("tamanho")).thenReturn("20");
+        when(transacaoService.buscarExtrato(10, null, null, "abc", 20))
+                .thenReturn(new Pagina<>(List.of(), null));
+
+        when(request.getRequestDispatcher("extrato.jsp")).thenReturn(dispatcher);
+
+        servlet.doGet(request, response);
+
+        verify(transacaoService).buscarExtrato(10, null, null, "abc", 20);
+        verify(request).setAttribute("paginaAtual", "abc");
+        verify(dispatcher).forward(request, response);
+    }
+}
@@ -3,6 +3,7 @@ package br.uff.ic.grupo6.banco.controller;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
 import br.uff.ic.grupo6.banco.model.Investimento;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.service.InvestimentoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 
@@ -53,6 +54,12 @@ class InvestimentoServletTest {
 		when(request.getSession()).thenReturn(session);
 	}
 
+	private void logarCliente(Cliente cliente) {
+		when(session.getAttribute("usuarioLogado")).thenReturn(SessaoUsuario.de(cliente));
+		// Cliente já carregado nesta requisição (evita ir ao banco)
+		when(request.getAttribute(UsuarioAtual.ATRIBUTO_CLIENTE)).thenReturn(cliente);
+	}
+
 	@Test
 	@DisplayName("Deve redirecionar para login se nao houver cliente logado")
 	void doPost_QuandoClienteNaoLogado_DeveRedirecionarParaLogin() throws ServletException, IOException {
@@ -66,7 +73,7 @@ class InvestimentoServletTest {
 	void doPost_QuandoTipoInvestimentoInvalido_DeveRedirecionarComErro()
 			throws ServletException, IOException, SQLException, ValidationException {
 		// Setup
-		when(session.getAttribute("usuarioLogado")).thenReturn(new Cliente());
+		logarCliente(new Cliente());
 		when(request.getParameter("tipoInvestimento")).thenReturn("TIPO_INVALIDO");
 		when(request.getParameter("valor")).thenReturn("100.00"); // Precisa de um valor para a chamada do serviço
 
@@ -86,7 +93,7 @@ class InvestimentoServletTest {
 	void doPost_QuandoValorInvestimentoNegativo_DeveRedirecionarComErro()
 			throws ServletException, IOException, SQLException, ValidationException {
 		// Setup
-		when(session.getAttribute("usuarioLogado")).thenReturn(new Cliente());
+		logarCliente(new Cliente());
 		when(request.getParameter("tipoInvestimento")).thenReturn("SELIC");
 		when(request.getParameter("valor")).thenReturn("-100.00");
 
@@ -109,7 +116,7 @@ class InvestimentoServletTest {
 		Cliente cliente = new Cliente();
 		Conta contaComPoucoSaldo = new Conta("0001", "123", 50.0); // Saldo de R$ 50
 		cliente.setConta(contaComPoucoSaldo);
-		when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
+		logarCliente(cliente);
 		when(request.getParameter("tipoInvestimento")).thenReturn("CDB");
 		when(request.getParameter("valor")).thenReturn("100.00"); // Tentando investir R$ 100
 
@@ -133,7 +140,7 @@ class InvestimentoServletTest {
 		contaComSaldo.setId(1);
 		cliente.setConta(contaComSaldo);
 
-		when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
+		logarCliente(cliente);
 		when(request.getParameter("tipoInvestimento")).thenReturn("FII");
 		when(request.getParameter("valor")).thenReturn("500.00");
 
@@ -152,8 +159,8 @@ class InvestimentoServletTest {
 		// O método do SERVIÇO foi chamado com os valores corretos?
 		verify(investimentoService).realizarInvestimento(1, "FII", 500.00, 1000.0);
 
-		// O saldo do objeto na sessão foi atualizado?
-		assertEquals(500.0, contaComSaldo.getSaldo(), "O saldo na sessão deveria ser atualizado para 500.0");
+		// O saldo do cliente carregado na requisição (usado no comprovante) foi atualizado?
+		assertEquals(500.0, contaComSaldo.getSaldo(), "O saldo do comprovante deveria ser atualizado para 500.0");
 
 		// O comprovante foi colocado como atributo na requisição?
 		verify(request).setAttribute("comprovante", investimentoComprovante);
@@ -171,7 +178,7 @@ class InvestimentoServletTest {
 		contaComSaldo.setId(1);
 		cliente.setConta(contaComSaldo);
 
-		when(session.getAttribute("usuarioLogado")).thenReturn(cliente);
+		logarCliente(cliente);
 		when(request.getParameter("tipoInvestimento")).thenReturn("CDB");
 		when(request.getParameter("valor")).thenReturn("200.00");
 
@@ -0,0 +1,110 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.metricas.MetricasRequisicao;
+import br.uff.ic.grupo6.banco.metricas.RegistroMetricas;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MetricasFiltroTest {
+
+    private RegistroMetricas registro;
+    private MetricasFiltro filtro;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    @BeforeEach
+    void setup() {
+        registro = new RegistroMetricas();
+        filtro = new MetricasFiltro(registro);
+
+        HttpServletMapping mapeamento = mock(HttpServletMapping.class);
+        when(mapeamento.getServletName()).thenReturn("SaqueServlet");
+        request = mock(HttpServletRequest.class);
+        when(request.getHttpServletMapping()).thenReturn(mapeamento);
+        response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(200);
+    }
+
+    @Test
+    @DisplayName("Requisição deve ser registrada no servlet do web.xml, com recusa quando redireciona com erro")
+    void deveRegistrarLatenciaERecusaPorServlet() throws Exception {
+        FilterChain chain = (req, resp) -> ((HttpServletResponse) resp).sendRedirect("saque.jsp?erro=Saldo");
+
+        filtro.doFilter(request, response, chain);
+
+        MetricasRequisicao metricas = registro.getServlet("SaqueServlet");
+        assertEquals(1, metricas.getLatencia().getTotal());
+        assertEquals(1, metricas.getRecusas());
+        assertEquals(0, metricas.getErros());
+        assertEquals(0, metricas.getEmAndamento());
+        verify(response).sendRedirect("saque.jsp?erro=Saldo");
+    }
+
+    @Test
+    @DisplayName("Exceção no servlet deve contar como erro e ser repassada")
+    void deveContarErroQuandoServletLancaExcecao() {
+        FilterChain chain = (req, resp) -> {
+            throw new ServletException("falha");
+        };
+
+        assertThrows(ServletException.class, () -> filtro.doFilter(request, response, chain));
+
+        MetricasRequisicao metricas = registro.getServlet("SaqueServlet");
+        assertEquals(1, metricas.getErros());
+        assertEquals(0, metricas.getEmAndamento());
+    }
+
+    @Test
+    @DisplayName("/metrics deve expor histograma, percentis e erros no formato do Prometheus")
+    void deveExporMetricasNoFormatoPrometheus() throws Exception {
+        filtro.doFilter(request, response, (req, resp) -> { });
+        registro.registrarDao("ContaDAO.realizarSaque", 2_000_000L);
+
+        StringWriter texto = new StringWriter();
+        HttpServletRequest pedidoLocal = mock(HttpServletRequest.class);
+        when(pedidoLocal.getRemoteAddr()).thenReturn("127.0.0.1");
+        HttpServletResponse respostaMetricas = mock(HttpServletResponse.class);
+        when(respostaMetricas.getWriter()).thenReturn(new PrintWriter(texto));
+        new MetricasServlet(registro).doGet(pedidoLocal, respostaMetricas);
+
+        String saida = texto.toString();
+        verify(respostaMetricas).setContentType(startsWith("text/plain; version=0.0.4"));
+        assertTrue(saida.contains("# TYPE banco_http_requisicao_segundos histogram"));
+        assertTrue(saida.contains("banco_http_requisicao_segundos_bucket{servlet=\"SaqueServlet\",le=\"+Inf\"} 1"));
+        assertTrue(saida.contains("banco_http_latencia_segundos{servlet=\"SaqueServlet\",quantile=\"0.99\"}"));
+        assertTrue(saida.contains("banco_http_erros_total{servlet=\"SaqueServlet\"} 0"));
+        assertTrue(saida.contains("banco_dao_operacao_segundos_count{operacao=\"ContaDAO.realizarSaque\"} 1"));
+    }
+
+    @Test
+    @DisplayName("/metrics deve responder 403 para endereços fora da lista de permitidos")
+    void deveRecusarMetricasParaEnderecoNaoPermitido() throws Exception {
+        HttpServletRequest pedidoExterno = mock(HttpServletRequest.class);
+        when(pedidoExterno.getRemoteAddr()).thenReturn("203.0.113.7");
+        HttpServletResponse resposta = mock(HttpServletResponse.class);
+
+        new MetricasServlet(registro).doGet(pedidoExterno, resposta);
+        verify(resposta).sendError(HttpServletResponse.SC_FORBIDDEN);
+        verify(resposta, never()).getWriter();
+
+        HttpServletResponse liberada = mock(HttpServletResponse.class);
+        when(liberada.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+        new MetricasServlet(registro, MetricasServlet.lerPermitidos("127.0.0.1, 203.0.113.7")).doGet(pedidoExterno, liberada);
+        verify(liberada, never()).sendError(anyInt());
+    }
+}
@@ -0,0 +1,153 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProcessamentoAssincronoTest {
+
+    @Test
+    @DisplayName("Sem suporte a modo assíncrono a tarefa deve rodar na própria thread")
+    void deveExecutarNaMesmaThreadSemSuporteAssincrono() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AtomicReference<Thread> executora = new AtomicReference<>();
+
+        ProcessamentoAssincrono.executar(request, response, (req, resp) -> executora.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), executora.get());
+        verify(request, never()).startAsync();
+    }
+
+    @Test
+    @DisplayName("Com modo assíncrono a tarefa deve rodar no pool do banco e concluir o AsyncContext")
+    void deveExecutarNoPoolEConcluirContexto() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext contexto = mock(AsyncContext.class);
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(contexto);
+        AtomicReference<String> executora = new AtomicReference<>();
+
+        ProcessamentoAssincrono.executar(request, response,
+                (req, resp) -> executora.set(Thread.currentThread().getName()));
+
+        verify(contexto, timeout(2000)).complete();
+        assertTrue(executora.get().startsWith("banco-db-"));
+        verify(contexto).addListener(any());
+        verify(response, never()).sendError(anyInt());
+    }
+
+    @Test
+    @DisplayName("Timeout durante a execução deve responder 503, encerrar a requisição e descartar o que o worker escrever depois")
+    void deveResponderTimeoutEDescartarEscritasDoWorker() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext contexto = mock(AsyncContext.class);
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(contexto);
+        CountDownLatch executando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch terminou = new CountDownLatch(1);
+
+        ProcessamentoAssincrono.executar(request, response, (req, resp) -> {
+            executando.countDown();
+            try {
+                liberar.await();
+                resp.sendRedirect("depois-do-timeout.jsp");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                terminou.countDown();
+            }
+        });
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(contexto).addListener(listener.capture());
+        assertTrue(executando.await(2, TimeUnit.SECONDS));
+
+        listener.getValue().onTimeout(mock(AsyncEvent.class));
+        verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(contexto).complete();
+
+        liberar.countDown();
+        assertTrue(terminou.await(2, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        verify(response, never()).sendRedirect(anyString());
+        verify(contexto, times(1)).complete();
+    }
+
+    @Test
+    @DisplayName("Depois do timeout o worker não deve ler, alterar nem encaminhar a requisição do container")
+    void deveIsolarRequisicaoDepoisDoTimeout() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext contexto = mock(AsyncContext.class);
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(contexto);
+        when(request.getParameter("valor")).thenReturn("100");
+        CountDownLatch executando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch terminou = new CountDownLatch(1);
+        AtomicReference<String> antes = new AtomicReference<>();
+        AtomicReference<Object> depois = new AtomicReference<>("não leu");
+
+        ProcessamentoAssincrono.executar(request, response, (req, resp) -> {
+            antes.set(req.getParameter("valor"));
+            executando.countDown();
+            try {
+                liberar.await(); // "Banco" lento: passa do timeout
+                depois.set(req.getParameter("valor"));
+                req.setAttribute("comprovante", "recibo");
+                assertNull(req.getSession());
+                req.getRequestDispatcher("comprovanteSaque.jsp").forward(req, resp);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                terminou.countDown();
+            }
+        });
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(contexto).addListener(listener.capture());
+        assertTrue(executando.await(2, TimeUnit.SECONDS));
+
+        listener.getValue().onTimeout(mock(AsyncEvent.class));
+        liberar.countDown();
+        assertTrue(terminou.await(2, TimeUnit.SECONDS));
+
+        assertEquals("100", antes.get());
+        assertNull(depois.get());
+        verify(request, times(1)).getParameter("valor");
+        verify(request, never()).setAttribute(anyString(), any());
+        verify(request, never()).getSession();
+        verify(request, never()).getRequestDispatcher(anyString());
+        verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Fábrica de threads virtuais só deve existir em JVMs com threads virtuais")
+    void deveCriarThreadsVirtuaisQuandoJvmSuporta() throws Exception {
+        ThreadFactory fabrica = ProcessamentoAssincrono.fabricaVirtual();
+
+        if (Runtime.version().feature() >= 21) {
+            Thread thread = fabrica.newThread(() -> { });
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            assertTrue(thread.getName().startsWith("banco-db-v-"));
+        } else {
+            assertNull(fabrica);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import br.uff.ic.grupo6.banco.model.TransferenciaPendente;
+import br.uff.ic.grupo6.banco.sessao.ArmazenamentoSessaoArquivo;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Dois "nós" (requisições com HttpSessions diferentes) compartilhando o
+ * armazenamento de sessões em arquivo.
+ */
+class SessaoExternaTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final SessaoExternaFiltro filtro = new SessaoExternaFiltro();
+    private final FilterChain chain = mock(FilterChain.class);
+
+    @BeforeEach
+    void setup() throws Exception {
+        SessaoExterna.configurar(new ArmazenamentoSessaoArquivo(diretorio, System::currentTimeMillis));
+    }
+
+    @AfterEach
+    void restaurarPadrao() {
+        SessaoExterna.configurar(null);
+    }
+
+    private Cookie logarNoNoA() {
+        Cliente cliente = new Cliente();
+        cliente.setId(5);
+        cliente.setNome("Maria");
+        Conta conta = new Conta("0001", "12345");
+        conta.setId(9);
+        cliente.setConta(conta);
+
+        HttpServletRequest request = requisicao(null);
+        HttpSession sessaoA = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(sessaoA);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        UsuarioAtual.entrar(request, response, cliente);
+
+        ArgumentCaptor<Cookie> cookie = ArgumentCaptor.forClass(Cookie.class);
+        verify(response).addCookie(cookie.capture());
+        assertTrue(cookie.getValue().isHttpOnly());
+        assertEquals("/banco", cookie.getValue().getPath());
+        return cookie.getValue();
+    }
+
+    private HttpServletRequest requisicao(Cookie cookie) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getCookies()).thenReturn(cookie != null ? new Cookie[]{cookie} : null);
+        when(request.getContextPath()).thenReturn("/banco");
+        return request;
+    }
+
+    @Test
+    @DisplayName("Outro nó deve reconhecer o usuário logado pelo cookie da sessão externa")
+    void deveRestaurarUsuarioEmOutroNo() throws Exception {
+        Cookie cookie = logarNoNoA();
+
+        HttpServletRequest requestB = requisicao(cookie);
+        HttpSession sessaoB = mock(HttpSession.class);
+        when(requestB.getSession(true)).thenReturn(sessaoB);
+
+        filtro.doFilter(requestB, mock(HttpServletResponse.class), chain);
+
+        ArgumentCaptor<Object> usuario = ArgumentCaptor.forClass(Object.class);
+        verify(sessaoB).setAttribute(eq(UsuarioAtual.ATRIBUTO_SESSAO), usuario.capture());
+        SessaoUsuario restaurado = (SessaoUsuario) usuario.getValue();
+        assertEquals(5, restaurado.getIdUsuario());
+        assertEquals(9, restaurado.getIdConta());
+        assertEquals("Maria", restaurado.getNome());
+        verify(chain).doFilter(eq(requestB), any());
+    }
+
+    /**
+     * HttpSession de um nó depois que o filtro copiou a sessão externa.
+     */
+    private static HttpSession copiaLocal(Cookie cookie) {
+        HttpSession sessao = mock(HttpSession.class);
+        when(sessao.getAttribute("sessaoExternaId")).thenReturn(cookie.getValue());
+        return sessao;
+    }
+
+    @Test
+    @DisplayName("Transferência montada em um nó deve poder ser confirmada em outro")
+    void deveConfirmarTransferenciaEmOutroNo() throws Exception {
+        Cookie cookie = logarNoNoA();
+        String id = TransferenciasPendentes.da(copiaLocal(cookie))
+                .guardar(new TransferenciaPendente(9, 2, 150.25, "João\tda Silva", "22233344455", "0001", "100002"));
+
+        HttpSession sessaoB = copiaLocal(cookie);
+        TransferenciaPendente encontrada = TransferenciasPendentes.da(sessaoB).buscar(id);
+
+        assertEquals(9, encontrada.getIdContaOrigem());
+        assertEquals(2, encontrada.getIdContaDestino());
+        assertEquals(150.25, encontrada.getValor());
+        assertEquals("João\tda Silva", encontrada.getNomeDestino());
+        assertEquals("100002", encontrada.getNumeroContaDestino());
+        verify(sessaoB, never()).setAttribute(eq(TransferenciasPendentes.ATRIBUTO_SESSAO), any());
+    }
+
+    @Test
+    @DisplayName("Logout em um nó deve derrubar a cópia local da sessão nos outros")
+    void deveDescartarCopiaLocalDepoisDoLogoutEmOutroNo() throws Exception {
+        Cookie cookie = logarNoNoA();
+
+        HttpServletRequest logout = requisicao(cookie);
+        HttpServletResponse respostaLogout = mock(HttpServletResponse.class);
+        new LogoutServlet().doGet(logout, respostaLogout);
+        verify(respostaLogout).addCookie(argThat(c -> SessaoExterna.COOKIE.equals(c.getName()) && c.getMaxAge() == 0));
+
+        HttpServletRequest requestA = requisicao(cookie);
+        HttpSession sessaoA = mock(HttpSession.class);
+        when(sessaoA.getAttribute("sessaoExternaId")).thenReturn(cookie.getValue());
+        when(requestA.getSession(false)).thenReturn(sessaoA);
+
+        filtro.doFilter(requestA, mock(HttpServletResponse.class), chain);
+
+        verify(sessaoA).removeAttribute(UsuarioAtual.ATRIBUTO_SESSAO);
+        verify(sessaoA, never()).setAttribute(eq(UsuarioAtual.ATRIBUTO_SESSAO), any());
+    }
+
+    @Test
+    @DisplayName("Arquivos estáticos não devem consultar o armazenamento de sessões")
+    void deveIgnorarArquivosEstaticos() throws Exception {
+        Cookie cookie = logarNoNoA();
+
+        HttpServletRequest css = requisicao(cookie);
+        HttpServletMapping mapeamento = mock(HttpServletMapping.class);
+        when(mapeamento.getServletName()).thenReturn("default");
+        when(css.getHttpServletMapping()).thenReturn(mapeamento);
+
+        filtro.doFilter(css, mock(HttpServletResponse.class), chain);
+
+        verify(css, never()).getCookies();
+        verify(css, never()).getSession(anyBoolean());
+        verify(chain).doFilter(eq(css), any());
+    }
+}
@@ -0,0 +1,67 @@
+package br.uff.ic.grupo6.banco.controller;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.TransferenciaPendente;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferenciasPendentesTest {
+
+    private final TransferenciasPendentes pendentes = new TransferenciasPendentes();
+
+    private static TransferenciaPendente transferencia(double valor) {
+        Conta destino = new Conta("0001", "100002");
+        destino.setId(2);
+        Cliente titular = new Cliente();
+        titular.setNome("Destino");
+        titular.setCpf("22233344455");
+        return new TransferenciaPendente(1, destino, titular, valor);
+    }
+
+    @Test
+    @DisplayName("Confirmação deve continuar disponível para reenvios até expirar")
+    void deveManterConfirmacaoAteExpirar() {
+        String id = pendentes.guardar(transferencia(100), 0);
+        TransferenciaPendente encontrada = pendentes.buscar(id, 1_000);
+        assertEquals(2, encontrada.getIdContaDestino());
+        assertEquals(100.0, encontrada.getValor());
+        assertEquals("Destino", encontrada.getNomeDestino());
+        assertSame(encontrada, pendentes.buscar(id, 2_000)); // Reenvio do formulário: mesma chave
+
+        assertNull(pendentes.buscar(id, 10 * 60 * 1000L));
+        assertNull(pendentes.buscar("id-inventado", 0));
+        assertNull(pendentes.buscar(null, 0));
+    }
+
+    @Test
+    @DisplayName("Muitas confirmações abertas devem descartar as mais antigas")
+    void deveDescartarMaisAntigas() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(pendentes.guardar(transferencia(i + 1), i));
+        }
+        assertNull(pendentes.buscar(ids.get(0), 10));
+        assertEquals(6.0, pendentes.buscar(ids.get(5), 10).getValor());
+    }
+
+    @Test
+    @DisplayName("Pendências gravadas como texto devem voltar iguais, sem as linhas corrompidas")
+    void deveCodificarEDecodificar() {
+        String id = pendentes.guardar(transferencia(12.5), 0);
+
+        TransferenciasPendentes lidas = TransferenciasPendentes.decodificar(pendentes.codificar() + "lixo\tx\n");
+
+        TransferenciaPendente encontrada = lidas.buscar(id, 1_000);
+        assertEquals(12.5, encontrada.getValor());
+        assertEquals("22233344455", encontrada.getCpfDestino());
+        assertEquals("0001", encontrada.getAgenciaDestino());
+        assertNull(TransferenciasPendentes.decodificar(null).buscar(id, 1_000));
+    }
+}
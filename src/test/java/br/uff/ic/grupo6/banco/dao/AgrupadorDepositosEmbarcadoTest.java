@@ -0,0 +1,120 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Transacao;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Depósitos agrupados numa só transação, contra o banco embarcado.
+ */
+class AgrupadorDepositosEmbarcadoTest {
+
+    private static final UsuarioDAO usuarioDAO = new UsuarioDAO();
+
+    @BeforeAll
+    static void configurarBanco() {
+        BancoEmbarcadoTeste.ligar("agrupador_depositos_teste");
+    }
+
+    @AfterAll
+    static void restaurarBanco() {
+        BancoEmbarcadoTeste.desligar();
+    }
+
+    private static double saldo(int idConta) throws Exception {
+        return usuarioDAO.buscarClientePorIdConta(idConta).getConta().getSaldo();
+    }
+
+    // Envia todos ao mesmo tempo; com o lote do tamanho dos envios, caem juntos
+    private static List<Future<Transacao>> enviar(AgrupadorDepositos agrupador, ExecutorService executor,
+            int[] contas, long[] centavos, String[] chaves) throws Exception {
+        List<Callable<Transacao>> envios = new ArrayList<>();
+        for (int i = 0; i < contas.length; i++) {
+            int idConta = contas[i];
+            long valor = centavos[i];
+            String chave = chaves[i];
+            envios.add(() -> agrupador.depositar(idConta, valor, chave));
+        }
+        return executor.invokeAll(envios);
+    }
+
+    @Test
+    @DisplayName("Depósitos simultâneos devem receber comprovantes próprios e a chave repetida deve depositar uma vez")
+    void deveGravarLoteComUmComprovantePorDeposito() throws Exception {
+        int contaA = BancoEmbarcadoTeste.cadastrarCliente("11122233301").getConta().getId();
+        int contaB = BancoEmbarcadoTeste.cadastrarCliente("11122233302").getConta().getId();
+        AgrupadorDepositos agrupador = new AgrupadorDepositos(5, 2000, 10000);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Transacao>> recibos = enviar(agrupador, executor,
+                    new int[]{contaA, contaA, contaB, contaB, contaB},
+                    new long[]{10_00, 20_50, 5_00, 7_00, 7_00},
+                    new String[]{null, "a-1", "b-1", "b-2", "b-2"});
+
+            List<Integer> ids = new ArrayList<>();
+            for (Future<Transacao> recibo : recibos) {
+                assertEquals("DEPOSITO", recibo.get().getTipo());
+                ids.add(recibo.get().getId());
+            }
+            assertEquals(ids.get(3), ids.get(4));
+            assertEquals(4, ids.stream().distinct().count());
+            assertEquals(30.50, saldo(contaA), 0.001);
+            assertEquals(12.00, saldo(contaB), 0.001);
+        } finally {
+            executor.shutdown();
+            agrupador.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Um depósito com erro não deve impedir os outros depósitos do lote")
+    void deveRefazerUmAUmQuandoOLoteFalha() throws Exception {
+        int conta = BancoEmbarcadoTeste.cadastrarCliente("11122233303").getConta().getId();
+        AgrupadorDepositos agrupador = new AgrupadorDepositos(3, 2000, 10000);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Transacao>> recibos = enviar(agrupador, executor,
+                    new int[]{conta, 999999, conta},
+                    new long[]{1_00, 1_00, 2_00},
+                    new String[]{null, null, null});
+
+            assertNotNull(recibos.get(0).get());
+            ExecutionException erro = assertThrows(ExecutionException.class, () -> recibos.get(1).get());
+            assertInstanceOf(SQLException.class, erro.getCause());
+            assertNotNull(recibos.get(2).get());
+            assertEquals(3.00, saldo(conta), 0.001);
+        } finally {
+            executor.shutdown();
+            agrupador.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Quem deposita não deve esperar o lote além do limite de espera do comprovante")
+    void deveDesistirDeEsperarOComprovante() throws Exception {
+        int conta = BancoEmbarcadoTeste.cadastrarCliente("11122233304").getConta().getId();
+        // O lote espera 1 s por outros depósitos; o comprovante só 50 ms
+        AgrupadorDepositos agrupador = new AgrupadorDepositos(10, 1000, 50);
+        try {
+            SQLException erro = assertThrows(SQLException.class, () -> agrupador.depositar(conta, 1_00, "sem-espera"));
+            assertTrue(erro.getMessage().contains("pode ter sido gravado"));
+        } finally {
+            agrupador.encerrar();
+        }
+        // Quem esperava desistiu, mas o depósito ficou no lote e foi gravado no encerramento
+        assertEquals(1.00, saldo(conta), 0.001);
+    }
+}
@@ -0,0 +1,49 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+
+import java.time.LocalDate;
+
+/**
+ * Apoio comum aos testes contra o banco embarcado (H2 em memória no modo
+ * MySQL): liga e desliga o banco e cadastra clientes.
+ */
+final class BancoEmbarcadoTeste {
+
+    private static final UsuarioDAO usuarioDAO = new UsuarioDAO();
+
+    private BancoEmbarcadoTeste() {
+    }
+
+    /**
+     * Passa a usar um banco em memória novo, criado pelo script inicial e
+     * pelas migrações. Cada classe de teste usa o seu nome.
+     */
+    static void ligar(String nome) {
+        ConexaoDB.reconfigurar(ConexaoDB.propriedadesEmbarcado(nome));
+        CacheCadastro.limpar();
+    }
+
+    /**
+     * Volta à configuração normal para não afetar os demais testes da JVM.
+     */
+    static void desligar() {
+        ConexaoDB.reconfigurar(null);
+        CacheCadastro.limpar();
+    }
+
+    /**
+     * @return O cliente cadastrado, com a conta aberta no cadastro
+     */
+    static Cliente cadastrarCliente(String cpf) throws Exception {
+        return cadastrarCliente(cpf, "Cliente " + cpf);
+    }
+
+    static Cliente cadastrarCliente(String cpf, String nome) throws Exception {
+        Cliente cliente = new Cliente(cpf, "senha123", nome, cpf);
+        cliente.setDataNascimento(LocalDate.of(1990, 1, 1));
+        cliente.setRenda(3000.0);
+        usuarioDAO.cadastrarCliente(cliente);
+        return (Cliente) usuarioDAO.buscarPorCpf(cpf);
+    }
+}
@@ -0,0 +1,60 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.metricas.HistogramaLatencia;
+import br.uff.ic.grupo6.banco.metricas.RegistroMetricas;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ComandoMonitoradoTest {
+
+    @Test
+    @DisplayName("SQL normalizado não deve conter valores nem quebras de linha")
+    void deveNormalizarSql() {
+        assertEquals("SELECT * FROM CONTA WHERE numero = ? AND agencia = ?",
+                ComandoMonitorado.normalizar("SELECT *\n  FROM CONTA WHERE numero = '12345-6' AND agencia = 1"));
+        assertEquals("SELECT * FROM TRANSACAO WHERE id_conta IN (?...)",
+                ComandoMonitorado.normalizar("SELECT * FROM TRANSACAO WHERE id_conta IN (?, ?, ?)"));
+        assertEquals("desconhecido", ComandoMonitorado.normalizar(null));
+        // O mesmo SQL é normalizado uma vez só
+        String sql = "SELECT * FROM CONTA WHERE id = 7";
+        assertSame(ComandoMonitorado.normalizar(sql), ComandoMonitorado.normalizar(new String(sql)));
+    }
+
+    @Test
+    @DisplayName("Log de SQL lento deve identificar o método que usa a conexão, fora dos proxies de medição")
+    void deveDescobrirMetodoChamador() {
+        assertEquals("ComandoMonitoradoTest.deveDescobrirMetodoChamador", ConexaoMedida.descobrirOperacao());
+    }
+
+    @Test
+    @DisplayName("Consulta deve ser registrada uma vez, ao fechar o ResultSet, com a leitura das linhas")
+    void deveRegistrarConsultaAoFecharResultSet() throws Exception {
+        String sql = "SELECT saldo FROM CONTA WHERE id = ?  /* teste-monitorado */";
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, true, false);
+        PreparedStatement real = mock(PreparedStatement.class);
+        when(real.executeQuery()).thenReturn(rs);
+
+        PreparedStatement comando = (PreparedStatement) ComandoMonitorado.monitorar(real, sql);
+        comando.setInt(1, 42);
+        ResultSet resultado = comando.executeQuery();
+        while (resultado.next()) {
+            resultado.getDouble("saldo");
+        }
+        resultado.close();
+        comando.close();
+
+        HistogramaLatencia histograma = RegistroMetricas.getInstancia().getSql(ComandoMonitorado.normalizar(sql));
+        assertEquals(1, histograma.getTotal());
+        verify(real).setInt(1, 42);
+        verify(rs, times(2)).getDouble("saldo");
+        verify(rs).close();
+    }
+}
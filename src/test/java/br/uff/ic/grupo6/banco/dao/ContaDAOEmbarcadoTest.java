@@ -0,0 +1,164 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Gerente;
+import br.uff.ic.grupo6.banco.model.Transacao;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes dos DAOs contra o banco embarcado (H2 em memória no modo MySQL),
+ * sem depender de um MySQL instalado.
+ */
+class ContaDAOEmbarcadoTest {
+
+    private static final UsuarioDAO usuarioDAO = new UsuarioDAO();
+    private static final ContaDAO contaDAO = new ContaDAO();
+
+    @BeforeAll
+    static void configurarBanco() {
+        BancoEmbarcadoTeste.ligar("conta_dao_teste");
+    }
+
+    @AfterAll
+    static void restaurarBanco() {
+        BancoEmbarcadoTeste.desligar();
+    }
+
+    @Test
+    @DisplayName("Banco embarcado deve ser criado pelo banco_inicial.sql e pelas migrações")
+    void deveCriarEsquemaComScriptInicialEMigracoes() throws Exception {
+        assertTrue(usuarioDAO.buscarPorCpf("00000000000") instanceof Gerente);
+
+        try (Connection conexao = ConexaoDB.getConexao();
+                PreparedStatement ps = conexao.prepareStatement("SELECT COUNT(*) FROM SCHEMA_VERSAO");
+                ResultSet rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals(new MigradorEsquema().listarMigracoes().size(), rs.getInt(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Saque acima do saldo deve ser recusado pelo débito condicional")
+    void deveRecusarSaqueAcimaDoSaldo() throws Exception {
+        Cliente cliente = BancoEmbarcadoTeste.cadastrarCliente("11122233344");
+        int idConta = cliente.getConta().getId();
+        contaDAO.realizarDeposito(idConta, 50.0);
+
+        assertThrows(SaldoInsuficienteException.class, () -> contaDAO.realizarSaque(idConta, 80.0));
+
+        assertEquals(50.0, usuarioDAO.buscarClientePorId(cliente.getId()).getConta().getSaldo(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Saques concorrentes não devem deixar a conta negativa")
+    void naoDeveDeixarContaNegativaComSaquesConcorrentes() throws Exception {
+        Cliente cliente = BancoEmbarcadoTeste.cadastrarCliente("55566677788");
+        int idConta = cliente.getConta().getId();
+        contaDAO.realizarDeposito(idConta, 100.0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> saques = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            saques.add(() -> {
+                try {
+                    contaDAO.realizarSaque(idConta, 10.0);
+                    return true;
+                } catch (SaldoInsuficienteException e) {
+                    return false;
+                }
+            });
+        }
+        int aprovados = 0;
+        try {
+            for (Future<Boolean> resultado : executor.invokeAll(saques)) {
+                if (resultado.get()) {
+                    aprovados++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(10, aprovados);
+        assertEquals(0.0, usuarioDAO.buscarClientePorId(cliente.getId()).getConta().getSaldo(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Transferências cruzadas simultâneas (A->B e B->A) devem terminar todas, sem deadlock")
+    void deveConcluirTransferenciasCruzadasSimultaneas() throws Exception {
+        int idA = BancoEmbarcadoTeste.cadastrarCliente("12312312300").getConta().getId();
+        int idB = BancoEmbarcadoTeste.cadastrarCliente("32132132100").getConta().getId();
+        contaDAO.realizarDeposito(idA, 1000.0);
+        contaDAO.realizarDeposito(idB, 1000.0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Integer>> transferencias = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            boolean deAParaB = i % 2 == 0;
+            transferencias.add(() -> contaDAO.realizarTransferencia(deAParaB ? idA : idB, deAParaB ? idB : idA, 10.0).size());
+        }
+        try {
+            for (Future<Integer> resultado : executor.invokeAll(transferencias)) {
+                assertEquals(2, resultado.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1000.0, usuarioDAO.buscarClientePorIdConta(idA).getConta().getSaldo(), 0.001);
+        assertEquals(1000.0, usuarioDAO.buscarClientePorIdConta(idB).getConta().getSaldo(), 0.001);
+        // Remetente com id maior: o débito é o segundo UPDATE e ainda é conferido
+        assertThrows(SaldoInsuficienteException.class, () -> contaDAO.realizarTransferencia(idB, idA, 5000.0));
+        assertEquals(1000.0, usuarioDAO.buscarClientePorIdConta(idA).getConta().getSaldo(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Exportação em lotes deve entregar cada transação uma vez, em ordem, mesmo com datas repetidas")
+    void devePercorrerTransacoesEmLotes() throws Exception {
+        int idConta = BancoEmbarcadoTeste.cadastrarCliente("55566677701").getConta().getId();
+        // Cada lote gravado tem uma única data: os lotes da exportação cortam no meio do empate
+        int total = TransacaoDAO.TAMANHO_LOTE_EXPORTACAO * 2 + 1;
+        try (Connection conexao = ConexaoDB.getConexao()) {
+            for (int gravadas = 0; gravadas < total; gravadas += 700) {
+                List<Transacao> lote = new ArrayList<>();
+                for (int i = gravadas; i < Math.min(total, gravadas + 700); i++) {
+                    Transacao transacao = new Transacao();
+                    transacao.setIdConta(idConta);
+                    transacao.setTipo("DEPOSITO");
+                    transacao.setValor(BigDecimal.ONE);
+                    lote.add(transacao);
+                }
+                new TransacaoDAO().registrarTransacoes(conexao, lote);
+                Thread.sleep(5);
+            }
+        }
+
+        List<Transacao> lidas = new ArrayList<>();
+        int quantidade = new TransacaoDAO().percorrerTransacoes(idConta, null, null, lidas::add);
+
+        assertEquals(total, quantidade);
+        assertEquals(total, lidas.size());
+        for (int i = 1; i < lidas.size(); i++) {
+            Transacao anterior = lidas.get(i - 1);
+            Transacao atual = lidas.get(i);
+            assertTrue(anterior.getDataTransacao().isBefore(atual.getDataTransacao())
+                    || (anterior.getDataTransacao().equals(atual.getDataTransacao()) && anterior.getId() < atual.getId()));
+        }
+    }
+}
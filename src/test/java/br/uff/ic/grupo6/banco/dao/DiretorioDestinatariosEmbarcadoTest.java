@@ -0,0 +1,71 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Destinatario;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do diretório de destinatários contra o banco embarcado.
+ */
+class DiretorioDestinatariosEmbarcadoTest {
+
+    private static final UsuarioDAO usuarioDAO = new UsuarioDAO();
+    private final DiretorioDestinatariosBanco diretorio = new DiretorioDestinatariosBanco();
+
+    @BeforeAll
+    static void configurarBanco() {
+        BancoEmbarcadoTeste.ligar("diretorio_destinatarios_teste");
+    }
+
+    @AfterAll
+    static void restaurarBanco() {
+        BancoEmbarcadoTeste.desligar();
+    }
+
+    @Test
+    @DisplayName("Deve trazer conta e titular numa busca e refletir a alteração de nome")
+    void deveBuscarContaETitularEAtualizarNome() throws Exception {
+        Cliente cliente = BancoEmbarcadoTeste.cadastrarCliente("12312312312");
+        String numero = cliente.getConta().getNumero();
+
+        Destinatario destinatario = diretorio.buscar("0001", numero);
+        assertEquals(cliente.getConta().getId(), destinatario.getConta().getId());
+        assertEquals(cliente.getId(), destinatario.getTitular().getId());
+        assertEquals("Cliente 12312312312", destinatario.getTitular().getNome());
+        assertEquals("12312312312", destinatario.getTitular().getCpf());
+
+        long acertos = CacheCadastro.DESTINATARIOS.getAcertos();
+        destinatario.getTitular().setNome("Alterado só na cópia");
+        assertEquals("Cliente 12312312312", diretorio.buscar("0001", numero).getTitular().getNome());
+        assertEquals(acertos + 1, CacheCadastro.DESTINATARIOS.getAcertos());
+
+        // buscarPorCpf traz só os dados do login; a edição parte do cadastro completo
+        Cliente perfil = usuarioDAO.buscarClientePorId(cliente.getId());
+        perfil.setNome("Nome Novo");
+        usuarioDAO.atualizarCliente(perfil);
+        assertEquals("Nome Novo", diretorio.buscar("0001", numero).getTitular().getNome());
+    }
+
+    @Test
+    @DisplayName("Conta inexistente deve ir para o cache negativo até ser cadastrada")
+    void deveLembrarContaInexistenteAteOCadastro() throws Exception {
+        Cliente anterior = BancoEmbarcadoTeste.cadastrarCliente("45645645645");
+        // O número da próxima conta cadastrada segue o ID do usuário
+        String proximoNumero = String.format("%06d", 100000 + anterior.getId() + 1);
+
+        assertNull(diretorio.buscar("0001", proximoNumero));
+        long acertos = CacheCadastro.CONTAS_INEXISTENTES.getAcertos();
+        assertNull(diretorio.buscar("0001", proximoNumero));
+        assertEquals(acertos + 1, CacheCadastro.CONTAS_INEXISTENTES.getAcertos());
+
+        Cliente novo = BancoEmbarcadoTeste.cadastrarCliente("78978978978");
+        assertEquals(proximoNumero, novo.getConta().getNumero());
+        assertEquals(novo.getId(), diretorio.buscar("0001", proximoNumero).getTitular().getId());
+    }
+}
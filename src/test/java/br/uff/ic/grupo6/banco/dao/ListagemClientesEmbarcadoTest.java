@@ -0,0 +1,81 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Pagina;
+import br.uff.ic.grupo6.banco.service.ClienteService;
+import br.uff.ic.grupo6.banco.service.exception.ValidationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listagem paginada de clientes do gerente contra o banco embarcado.
+ */
+class ListagemClientesEmbarcadoTest {
+
+    private static final ClienteService clienteService = new ClienteService();
+
+    @BeforeAll
+    static void configurarBanco() throws Exception {
+        BancoEmbarcadoTeste.ligar("listagem_clientes_teste");
+
+        ContaDAO contaDAO = new ContaDAO();
+        String[] nomes = {"Carla", "Ana", "Bruno", "Ana", "Davi"};
+        double[] saldos = {300, 100, 500, 100, 0};
+        for (int i = 0; i < nomes.length; i++) {
+            String cpf = "4000000000" + i;
+            Cliente cliente = BancoEmbarcadoTeste.cadastrarCliente(cpf, nomes[i]);
+            if (saldos[i] > 0) {
+                contaDAO.realizarDeposito(cliente.getConta().getId(), saldos[i]);
+            }
+        }
+    }
+
+    @AfterAll
+    static void restaurarBanco() {
+        BancoEmbarcadoTeste.desligar();
+    }
+
+    private static List<String> percorrer(String ordem) throws Exception {
+        List<String> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<Cliente> pagina = clienteService.listarClientesPaginado(ordem, cursor, 2);
+            assertTrue(pagina.getItens().size() <= 2);
+            for (Cliente cliente : pagina.getItens()) {
+                assertNull(cliente.getSenha());
+                vistos.add(cliente.getNome() + "/" + cliente.getCpf() + "/" + (int) cliente.getConta().getSaldo());
+            }
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+        return vistos;
+    }
+
+    @Test
+    @DisplayName("Páginas em cada ordenação devem trazer todos os clientes uma vez, na ordem, com empates")
+    void devePercorrerTodasAsOrdenacoes() throws Exception {
+        assertEquals(List.of("Ana/40000000001/100", "Ana/40000000003/100", "Bruno/40000000002/500",
+                "Carla/40000000000/300", "Davi/40000000004/0"), percorrer(null));
+        assertEquals(List.of("Carla/40000000000/300", "Ana/40000000001/100", "Bruno/40000000002/500",
+                "Ana/40000000003/100", "Davi/40000000004/0"), percorrer("cpf"));
+        assertEquals(List.of("Bruno/40000000002/500", "Carla/40000000000/300", "Ana/40000000003/100",
+                "Ana/40000000001/100", "Davi/40000000004/0"), percorrer("saldo"));
+        assertEquals(5, clienteService.contarClientes());
+    }
+
+    @Test
+    @DisplayName("Cursor de outra ordenação, adulterado ou ordenação desconhecida devem ser recusados")
+    void deveRecusarCursorEOrdemInvalidos() throws Exception {
+        String cursorDoNome = clienteService.listarClientesPaginado("nome", null, 2).getProximoCursor();
+
+        assertThrows(ValidationException.class, () -> clienteService.listarClientesPaginado("saldo", cursorDoNome, 2));
+        assertThrows(ValidationException.class, () -> clienteService.listarClientesPaginado("nome", "%%%", 2));
+        assertThrows(ValidationException.class, () -> clienteService.listarClientesPaginado("senha", null, 2));
+    }
+}
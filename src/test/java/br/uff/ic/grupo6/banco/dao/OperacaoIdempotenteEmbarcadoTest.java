@@ -0,0 +1,115 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import br.uff.ic.grupo6.banco.model.Transacao;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Chaves de idempotência do ContaDAO contra o banco embarcado.
+ */
+class OperacaoIdempotenteEmbarcadoTest {
+
+    private static final UsuarioDAO usuarioDAO = new UsuarioDAO();
+    private static final ContaDAO contaDAO = new ContaDAO();
+
+    @BeforeAll
+    static void configurarBanco() {
+        BancoEmbarcadoTeste.ligar("operacao_idempotente_teste");
+    }
+
+    @AfterAll
+    static void restaurarBanco() {
+        BancoEmbarcadoTeste.desligar();
+    }
+
+    private static double saldo(Cliente cliente) throws Exception {
+        return usuarioDAO.buscarClientePorId(cliente.getId()).getConta().getSaldo();
+    }
+
+    @Test
+    @DisplayName("Depósito e transferência repetidos com a mesma chave devem ser executados uma vez")
+    void deveExecutarUmaVezPorChave() throws Exception {
+        Cliente origem = BancoEmbarcadoTeste.cadastrarCliente("10120230344");
+        Cliente destino = BancoEmbarcadoTeste.cadastrarCliente("40450560677");
+        int idOrigem = origem.getConta().getId();
+        int idDestino = destino.getConta().getId();
+
+        Transacao deposito = contaDAO.realizarDeposito(idOrigem, 100.0, "deposito-1");
+        assertEquals(deposito.getId(), contaDAO.realizarDeposito(idOrigem, 100.0, "deposito-1").getId());
+        // A chave é por conta: a mesma chave em outra conta é outra operação
+        contaDAO.realizarDeposito(idDestino, 5.0, "deposito-1");
+
+        List<Transacao> primeira = contaDAO.realizarTransferencia(idOrigem, idDestino, 30.0, "transf-1");
+        List<Transacao> repetida = contaDAO.realizarTransferencia(idOrigem, idDestino, 30.0, "transf-1");
+        assertEquals(1, repetida.size());
+        assertEquals(primeira.get(0).getId(), repetida.get(0).getId());
+        assertEquals("TRANSF_ENVIADA", repetida.get(0).getTipo());
+
+        assertEquals(70.0, saldo(origem), 0.001);
+        assertEquals(35.0, saldo(destino), 0.001);
+    }
+
+    @Test
+    @DisplayName("Saques simultâneos com a mesma chave devem debitar uma vez e devolver o mesmo comprovante")
+    void deveDebitarUmaVezComReenviosSimultaneos() throws Exception {
+        Cliente cliente = BancoEmbarcadoTeste.cadastrarCliente("70780890911");
+        int idConta = cliente.getConta().getId();
+        contaDAO.realizarDeposito(idConta, 100.0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Callable<Transacao>> envios = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            envios.add(() -> contaDAO.realizarSaque(idConta, 40.0, "saque-duplo-clique"));
+        }
+        List<Integer> ids = new ArrayList<>();
+        try {
+            for (Future<Transacao> resultado : executor.invokeAll(envios)) {
+                ids.add(resultado.get().getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, ids.stream().distinct().count());
+        assertEquals(60.0, saldo(cliente), 0.001);
+    }
+
+    @Test
+    @DisplayName("Limpeza deve apagar só as chaves mais velhas que a retenção")
+    void deveRemoverChavesAntigas() throws Exception {
+        Cliente cliente = BancoEmbarcadoTeste.cadastrarCliente("80890901022");
+        int idConta = cliente.getConta().getId();
+        contaDAO.realizarDeposito(idConta, 10.0, "antiga");
+        Transacao recente = contaDAO.realizarDeposito(idConta, 20.0, "recente");
+        try (Connection conexao = ConexaoDB.getConexao();
+                PreparedStatement ps = conexao.prepareStatement(
+                        "UPDATE OPERACAO_IDEMPOTENTE SET criada_em = ? WHERE id_conta = ? AND chave = 'antiga'")) {
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minusDays(2)));
+            ps.setInt(2, idConta);
+            ps.executeUpdate();
+        }
+
+        assertTrue(new OperacaoIdempotenteDAO().removerAntigas() >= 1);
+
+        // A chave recente continua valendo; a antiga, apagada, vira uma operação nova
+        assertEquals(recente.getId(), contaDAO.realizarDeposito(idConta, 20.0, "recente").getId());
+        contaDAO.realizarDeposito(idConta, 10.0, "antiga");
+        assertEquals(40.0, saldo(cliente), 0.001);
+    }
+}
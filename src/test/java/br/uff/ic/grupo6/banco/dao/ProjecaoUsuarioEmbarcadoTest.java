@@ -0,0 +1,76 @@
+package br.uff.ic.grupo6.banco.dao;
+
+import br.uff.ic.grupo6.banco.model.Cliente;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Projeções do UsuarioDAO contra o banco embarcado: cada consulta traz só as
+ * colunas do seu caso de uso, lidas na posição certa.
+ */
+class ProjecaoUsuarioEmbarcadoTest {
+
+    private static final UsuarioDAO usuarioDAO = new UsuarioDAO();
+
+    @BeforeAll
+    static void configurarBanco() {
+        BancoEmbarcadoTeste.ligar("projecao_usuario_teste");
+    }
+
+    @AfterAll
+    static void restaurarBanco() {
+        BancoEmbarcadoTeste.desligar();
+    }
+
+    @Test
+    @DisplayName("Perfil deve trazer o cadastro completo; login e listas só as colunas que usam")
+    void deveLerCadaProjecao() throws Exception {
+        Cliente novo = new Cliente("32132132132", "senha123", "Joana Lima", "32132132132");
+        novo.setDataNascimento(LocalDate.of(1985, 5, 20));
+        novo.setEmail("joana@email.com");
+        novo.setTelefone("21988887777");
+        novo.setCep("24210000");
+        novo.setEndereco("Rua A, 10");
+        novo.setBairro("Icaraí");
+        novo.setCidade("Niterói");
+        novo.setEstado("RJ");
+        novo.setRenda(4500.0);
+        novo.setOcupacao("Engenheira");
+        usuarioDAO.cadastrarCliente(novo);
+
+        Cliente login = (Cliente) usuarioDAO.buscarPorCpf("32132132132");
+        assertEquals("senha123", login.getSenha());
+        assertEquals("32132132132", login.getLogin());
+        assertEquals("Joana Lima", login.getNome());
+        assertNotNull(login.getConta());
+        assertNull(login.getTelefone());
+
+        Cliente perfil = usuarioDAO.buscarClientePorId(login.getId());
+        assertEquals("senha123", perfil.getSenha());
+        assertEquals(LocalDate.of(1985, 5, 20), perfil.getDataNascimento());
+        assertEquals("joana@email.com", perfil.getEmail());
+        assertEquals("21988887777", perfil.getTelefone());
+        assertEquals("24210000", perfil.getCep());
+        assertEquals("Rua A, 10", perfil.getEndereco());
+        assertEquals("Icaraí", perfil.getBairro());
+        assertEquals("Niterói", perfil.getCidade());
+        assertEquals("RJ", perfil.getEstado());
+        assertEquals(4500.0, perfil.getRenda(), 0.001);
+        assertEquals("Engenheira", perfil.getOcupacao());
+        assertEquals(login.getConta().getId(), perfil.getConta().getId());
+        assertEquals(login.getConta().getNumero(), perfil.getConta().getNumero());
+
+        Cliente resumo = usuarioDAO.buscarTodosClientesOrdenados().get(0);
+        assertEquals(login.getId(), resumo.getId());
+        assertEquals("joana@email.com", resumo.getEmail());
+        assertEquals("0001", resumo.getConta().getAgencia());
+        assertNull(resumo.getSenha());
+        assertNull(resumo.getEndereco());
+    }
+}
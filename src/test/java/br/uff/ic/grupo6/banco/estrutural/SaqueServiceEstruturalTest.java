@@ -51,7 +51,7 @@ class SaqueServiceEstruturalTest {
         
         // Configuração padrão do Mock usando lenient() para evitar erros de stub não utilizado
         lenient().when(conta.getId()).thenReturn(1);
-        lenient().when(conta.getSaldo()).thenReturn(5000.0);
+        lenient().when(conta.getSaldoCentavos()).thenReturn(500000L);
         lenient().when(conta.getNumero()).thenReturn("12345");
     }
 
@@ -99,7 +99,7 @@ class SaqueServiceEstruturalTest {
 
     @Test
     void saldoInsuficiente() {
-        when(conta.getSaldo()).thenReturn(50.0);
+        when(conta.getSaldoCentavos()).thenReturn(5000L);
         
         assertThrows(ValidationException.class, 
             () -> transacaoService.realizarSaque(conta, 100.0));
@@ -53,7 +53,7 @@ class TransacaoServiceEstruturalTest {
 		// JUnit
 
 		lenient().when(contaOrigem.getId()).thenReturn(1);
-		lenient().when(contaOrigem.getSaldo()).thenReturn(3000.0);
+		lenient().when(contaOrigem.getSaldoCentavos()).thenReturn(300000L);
 		lenient().when(contaOrigem.getNumero()).thenReturn("12345");
 
 		lenient().when(clienteOrigem.getConta()).thenReturn(contaOrigem);
@@ -81,7 +81,7 @@ class TransacaoServiceEstruturalTest {
 
 	@Test
 	void saldoInsuficiente() {
-		when(contaOrigem.getSaldo()).thenReturn(100.0);
+		when(contaOrigem.getSaldoCentavos()).thenReturn(10000L);
 
 		assertThrows(ValidationException.class,
 				() -> service.prepararTransferencia(clienteOrigem, "1111", "56789", 200.0));
@@ -1,8 +1,10 @@
 package br.uff.ic.grupo6.banco.funcional;
 
 import br.uff.ic.grupo6.banco.controller.SaqueServlet;
+import br.uff.ic.grupo6.banco.controller.UsuarioAtual;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.model.Transacao;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
@@ -204,6 +206,8 @@ class SaqueServletFuncionalTest {
     // Método auxiliar para configurar o comportamento padrão da sessão
     private void configurarSessaoUsuario() {
         when(request.getSession()).thenReturn(session);
-        when(session.getAttribute("usuarioLogado")).thenReturn(clienteLogado);
+        when(session.getAttribute("usuarioLogado")).thenReturn(SessaoUsuario.de(clienteLogado));
+        // Cliente já carregado nesta requisição (nem todo teste chega a usá-lo)
+        Mockito.lenient().when(request.getAttribute(UsuarioAtual.ATRIBUTO_CLIENTE)).thenReturn(clienteLogado);
     }
 }
\ No newline at end of file
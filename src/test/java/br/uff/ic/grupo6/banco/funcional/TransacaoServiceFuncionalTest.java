@@ -41,7 +41,7 @@ class TransacaoServiceFuncionalTest {
     void setup() {
         contaOrigem = mock(Conta.class);
         when(contaOrigem.getId()).thenReturn(1);
-        when(contaOrigem.getSaldo()).thenReturn(3000.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(300000L);
         when(contaOrigem.getNumero()).thenReturn("1234");
 
         clienteOrigem = mock(Cliente.class);
@@ -86,7 +86,7 @@ class TransacaoServiceFuncionalTest {
     // --- SALDO INSUFICIENTE ---
     @Test
     void deveLancarErroQuandoSaldoForInsuficiente() {
-        when(contaOrigem.getSaldo()).thenReturn(100.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(10000L);
 
         Exception ex = assertThrows(
                 ValidationException.class,
@@ -127,7 +127,7 @@ class TransacaoServiceFuncionalTest {
     @Test
     void deveLancarErroQuandoValorExcederLimite() throws Exception {
         // saldo deve ser MAIOR que o valor para não cair na regra de saldo insuficiente
-        when(contaOrigem.getSaldo()).thenReturn(10000.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(1000000L);
 
         when(contaDAO.buscarContaPorAgenciaENumeroDaConta("1111", "56789"))
                 .thenReturn(contaDestino);
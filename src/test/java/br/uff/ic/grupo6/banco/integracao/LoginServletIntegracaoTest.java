@@ -1,7 +1,7 @@
 package br.uff.ic.grupo6.banco.integracao;
 
 import br.uff.ic.grupo6.banco.controller.LoginServlet;
-import br.uff.ic.grupo6.banco.model.Usuario;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -83,8 +83,8 @@ class LoginServletIntegracaoTest {
 
         // 2. Pós-Condição (Verificação):
         
-        // Deve armazenar o objeto Usuario na sessão
-        verify(sessionMock).setAttribute(eq("usuarioLogado"), Mockito.any(Usuario.class));
+        // Deve armazenar o resumo do usuário (SessaoUsuario) na sessão
+        verify(sessionMock).setAttribute(eq("usuarioLogado"), Mockito.any(SessaoUsuario.class));
         
         // Deve redirecionar para a página correta (assumindo que "admin" é um Gerente)
         verify(responseMock).sendRedirect("gerente/dashboard.jsp");
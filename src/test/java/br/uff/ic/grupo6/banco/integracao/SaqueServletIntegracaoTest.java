@@ -1,11 +1,13 @@
 package br.uff.ic.grupo6.banco.integracao;
 
 import br.uff.ic.grupo6.banco.controller.SaqueServlet;
+import br.uff.ic.grupo6.banco.controller.UsuarioAtual;
 import br.uff.ic.grupo6.banco.dao.ContaDAO;
 import br.uff.ic.grupo6.banco.dao.TransacaoDAO;
 import br.uff.ic.grupo6.banco.dao.UsuarioDAO;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.model.Transacao;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import jakarta.servlet.RequestDispatcher;
@@ -66,7 +68,9 @@ class SaqueServletIntegracaoTest {
         clienteLogado.setConta(contaCliente);
 
         when(request.getSession()).thenReturn(session);
-        when(session.getAttribute("usuarioLogado")).thenReturn(clienteLogado);
+        when(session.getAttribute("usuarioLogado")).thenReturn(SessaoUsuario.de(clienteLogado));
+        // Cliente já carregado nesta requisição (nem todo teste chega a usá-lo)
+        lenient().when(request.getAttribute(UsuarioAtual.ATRIBUTO_CLIENTE)).thenReturn(clienteLogado);
     }
 
     @Test
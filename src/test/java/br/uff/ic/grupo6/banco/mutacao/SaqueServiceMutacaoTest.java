@@ -51,7 +51,7 @@ class SaqueServiceMutacaoTest {
         
         // Uso de lenient() permite configurar stubs que podem não ser usados em todos os testes
         lenient().when(conta.getId()).thenReturn(1);
-        lenient().when(conta.getSaldo()).thenReturn(5000.0);
+        lenient().when(conta.getSaldoCentavos()).thenReturn(500000L);
         lenient().when(conta.getNumero()).thenReturn("12345");
     }
 
@@ -236,7 +236,7 @@ class SaqueServiceMutacaoTest {
     void devePermitirSaqueDeTodoOSaldo() throws Exception {
         // Mata mutante: if (saldo < valor) -> if (saldo <= valor)
         // Permite zerar a conta.
-        when(conta.getSaldo()).thenReturn(100.0);
+        when(conta.getSaldoCentavos()).thenReturn(10000L);
         LocalTime horarioComercial = LocalTime.of(14, 0);
         
         try (MockedStatic<LocalTime> mockedTime = Mockito.mockStatic(LocalTime.class, Mockito.CALLS_REAL_METHODS)) {
@@ -250,7 +250,7 @@ class SaqueServiceMutacaoTest {
     @Test
     void deveFalharQuandoSaldoInsuficiente() {
         // Mata mutante: Remoção do bloco if (saldo < valor)
-        when(conta.getSaldo()).thenReturn(100.0);
+        when(conta.getSaldoCentavos()).thenReturn(10000L);
 
         assertThrows(ValidationException.class, 
             () -> transacaoService.realizarSaque(conta, 200.0));
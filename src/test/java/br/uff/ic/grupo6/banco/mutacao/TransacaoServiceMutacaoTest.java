@@ -4,6 +4,7 @@ import br.uff.ic.grupo6.banco.dao.ContaDAO;
 import br.uff.ic.grupo6.banco.dao.UsuarioDAO;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Dinheiro;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 
@@ -56,7 +57,7 @@ class TransacaoServiceMutacaoTest {
     // Validação 2 — saldo insuficiente
     @Test
     void deveFalharQuandoSaldoInsuficiente() {
-        when(contaOrigem.getSaldo()).thenReturn(500.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(50000L);
 
         assertThrows(ValidationException.class, () ->
                 service.prepararTransferencia(clienteOrigem, "001", "1234", 600)
@@ -66,7 +67,7 @@ class TransacaoServiceMutacaoTest {
     // Validação 3 — conta destino inexistente
     @Test
     void deveFalharQuandoContaDestinoNaoExistir() throws SQLException {
-        when(contaOrigem.getSaldo()).thenReturn(5000.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(500000L);
 
         when(contaDAO.buscarContaPorAgenciaENumeroDaConta("001", "1234"))
                 .thenReturn(null);
@@ -99,7 +100,7 @@ class TransacaoServiceMutacaoTest {
     // Validação 5 — limite máximo 5000
     @Test
     void deveFalharQuandoExcederLimiteMaximoDe5000() throws SQLException {
-        when(contaOrigem.getSaldo()).thenReturn(10000.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(1000000L);
 
         when(contaDAO.buscarContaPorAgenciaENumeroDaConta("001", "1111"))
                 .thenReturn(contaDestino);
@@ -113,7 +114,7 @@ class TransacaoServiceMutacaoTest {
     // Validação 6 — agências proibidas
     @Test
     void deveFalharQuandoAgenciaForBloqueada() throws SQLException {
-        when(contaOrigem.getSaldo()).thenReturn(5000.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(500000L);
 
         when(contaDAO.buscarContaPorAgenciaENumeroDaConta("9999", "0000"))
                 .thenReturn(contaDestino);
@@ -128,7 +129,7 @@ class TransacaoServiceMutacaoTest {
     @Test
     void deveFalharQuandoClienteBaixaRendaUltrapassarLimite() throws SQLException {
 
-        when(contaOrigem.getSaldo()).thenReturn(5000.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(500000L);
 
         lenient().when(clienteOrigem.getRenda()).thenReturn(1500.0);
 
@@ -172,7 +173,7 @@ class TransacaoServiceMutacaoTest {
             Conta destino
     ) throws SQLException {
 
-        when(contaOrigem.getSaldo()).thenReturn(saldoOrigem);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(Dinheiro.centavos(saldoOrigem));
 
         if (renda >= 0)
             when(clienteOrigem.getRenda()).thenReturn(renda);
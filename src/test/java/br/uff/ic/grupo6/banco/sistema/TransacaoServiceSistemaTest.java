@@ -7,6 +7,7 @@ import br.uff.ic.grupo6.banco.model.Conta;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 
+import br.uff.ic.grupo6.banco.dao.CacheCadastro;
 import br.uff.ic.grupo6.banco.dao.ConexaoDB;
 import org.junit.jupiter.api.*;
 
@@ -31,6 +32,8 @@ class TransacaoServiceSistemaTest {
             st.executeUpdate("DELETE FROM CLIENTE");
             st.executeUpdate("DELETE FROM CONTA");
         }
+        // Os dados foram apagados direto no banco, sem passar pelos DAOs
+        CacheCadastro.limpar();
     }
 
     @BeforeEach
@@ -0,0 +1,90 @@
+package br.uff.ic.grupo6.banco.unitarios;
+
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
+import br.uff.ic.grupo6.banco.sessao.ArmazenamentoSessaoArquivo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários do armazenamento de sessões em arquivo, com um relógio
+ * controlado pelo teste.
+ */
+class ArmazenamentoSessaoArquivoUnitarioTest {
+
+    private static final String ID = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQ";
+
+    @TempDir
+    Path diretorio;
+
+    private final AtomicLong agora = new AtomicLong(1_000_000);
+    private ArmazenamentoSessaoArquivo armazenamento;
+
+    @BeforeEach
+    void setup() throws Exception {
+        armazenamento = new ArmazenamentoSessaoArquivo(diretorio, agora::get);
+    }
+
+    @Test
+    @DisplayName("Sessão gravada por um nó deve ser lida por outro que usa o mesmo diretório")
+    void deveLerSessaoGravadaPorOutraInstancia() throws Exception {
+        armazenamento.gravar(ID, new SessaoUsuario(7, SessaoUsuario.Perfil.CLIENTE, "Maria", 42), 60_000);
+
+        SessaoUsuario lida = new ArmazenamentoSessaoArquivo(diretorio, agora::get).ler(ID);
+
+        assertEquals(7, lida.getIdUsuario());
+        assertEquals(SessaoUsuario.Perfil.CLIENTE, lida.getPerfil());
+        assertEquals("Maria", lida.getNome());
+        assertEquals(42, lida.getIdConta());
+        armazenamento.remover(ID);
+        assertNull(armazenamento.ler(ID));
+    }
+
+    @Test
+    @DisplayName("Leitura deve estender a validade; sem acesso a sessão expira")
+    void deveExpirarSomenteSemAcesso() throws Exception {
+        armazenamento.gravar(ID, new SessaoUsuario(1, SessaoUsuario.Perfil.GERENTE, null, 0), 10_000);
+
+        agora.addAndGet(8_000);
+        assertNotNull(armazenamento.ler(ID)); // Passou da metade: renova
+        agora.addAndGet(8_000);
+        SessaoUsuario lida = armazenamento.ler(ID);
+        assertNotNull(lida);
+        assertNull(lida.getNome());
+
+        agora.addAndGet(10_000);
+        assertNull(armazenamento.ler(ID));
+        assertEquals(0, armazenamento.removerExpiradas()); // A leitura já apagou o arquivo
+    }
+
+    @Test
+    @DisplayName("Dados da sessão devem sobreviver à regravação do usuário e sumir com ela")
+    void deveGuardarDadosAoLadoDoUsuario() throws Exception {
+        assertFalse(armazenamento.gravarDado(ID, "pendentes", "x"));
+        armazenamento.gravar(ID, new SessaoUsuario(7, SessaoUsuario.Perfil.CLIENTE, "Maria", 42), 60_000);
+
+        assertTrue(armazenamento.gravarDado(ID, "pendentes", "linha 1\nlinha 2"));
+        armazenamento.gravar(ID, new SessaoUsuario(7, SessaoUsuario.Perfil.CLIENTE, "Maria Souza", 42), 60_000);
+
+        ArmazenamentoSessaoArquivo outroNo = new ArmazenamentoSessaoArquivo(diretorio, agora::get);
+        assertEquals("linha 1\nlinha 2", outroNo.lerDado(ID, "pendentes"));
+        assertEquals("Maria Souza", outroNo.ler(ID).getNome());
+        assertNull(outroNo.lerDado(ID, "outro"));
+
+        armazenamento.remover(ID);
+        assertNull(outroNo.lerDado(ID, "pendentes"));
+    }
+
+    @Test
+    @DisplayName("Id fora do formato não deve virar caminho de arquivo")
+    void deveRecusarIdInvalido() throws Exception {
+        assertNull(armazenamento.ler("../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> armazenamento.remover("../fora-do-diretorio"));
+    }
+}
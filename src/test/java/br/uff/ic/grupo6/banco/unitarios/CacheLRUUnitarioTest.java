@@ -0,0 +1,95 @@
+package br.uff.ic.grupo6.banco.unitarios;
+
+import br.uff.ic.grupo6.banco.dao.CacheLRU;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários do CacheLRU, com um relógio controlado pelo teste.
+ */
+class CacheLRUUnitarioTest {
+
+    private final AtomicLong agora = new AtomicLong(1000);
+
+    @Test
+    @DisplayName("Cache cheio deve descartar o item usado há mais tempo")
+    void deveDescartarItemMenosUsado() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(2, 60000, agora::get);
+        cache.guardar(1, "um", cache.getGeracao());
+        cache.guardar(2, "dois", cache.getGeracao());
+
+        cache.buscar(1); // 1 passa a ser o mais recente
+        cache.guardar(3, "tres", cache.getGeracao());
+
+        assertEquals("um", cache.buscar(1));
+        assertNull(cache.buscar(2));
+        assertEquals("tres", cache.buscar(3));
+        assertEquals(1, cache.getDescartesPorTamanho());
+        assertEquals(3, cache.getAcertos());
+        assertEquals(1, cache.getFalhas());
+    }
+
+    @Test
+    @DisplayName("Item deve expirar depois do tempo de vida")
+    void deveExpirarItemAposTempoDeVida() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 500, agora::get);
+        cache.guardar(1, "um", cache.getGeracao());
+
+        agora.addAndGet(499);
+        assertEquals("um", cache.buscar(1));
+        agora.addAndGet(1);
+        assertNull(cache.buscar(1));
+        assertEquals(0, cache.getTamanho());
+    }
+
+    @Test
+    @DisplayName("Valor lido antes de uma invalidação não deve ser guardado")
+    void naoDeveGuardarValorLidoAntesDaInvalidacao() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 60000, agora::get);
+
+        long geracao = cache.getGeracao();   // começa a "consultar o banco"
+        cache.removerSe(valor -> true);      // outra thread altera o registro
+        cache.guardar(1, "velho", geracao);  // termina a consulta com o dado antigo
+
+        assertNull(cache.buscar(1));
+    }
+
+    @Test
+    @DisplayName("Invalidação de outra chave não deve descartar a leitura em andamento")
+    void deveGuardarLeituraQuandoOutraChaveEInvalidada() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 60000, agora::get);
+
+        long geracao = cache.getGeracao();
+        cache.remover(2);
+        cache.guardar(1, "um", geracao);
+
+        assertEquals("um", cache.buscar(1));
+    }
+
+    @Test
+    @DisplayName("Remover um grupo deve apagar só os itens dele e descartar leituras do grupo em andamento")
+    void deveRemoverSoOGrupo() {
+        // O grupo de cada valor é a sua primeira letra
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 60000, agora::get,
+                valor -> Collections.singletonList(valor.charAt(0)));
+        cache.guardar(1, "ana", cache.getGeracao());
+        cache.guardar(2, "alice", cache.getGeracao());
+        cache.guardar(3, "bruno", cache.getGeracao());
+
+        long geracao = cache.getGeracao();
+        cache.removerGrupo('a');
+        cache.guardar(4, "amanda", geracao);
+        cache.guardar(5, "beatriz", geracao);
+
+        assertNull(cache.buscar(1));
+        assertNull(cache.buscar(2));
+        assertNull(cache.buscar(4));
+        assertEquals("bruno", cache.buscar(3));
+        assertEquals("beatriz", cache.buscar(5));
+    }
+}
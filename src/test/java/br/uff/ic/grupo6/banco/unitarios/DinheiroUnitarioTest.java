@@ -0,0 +1,36 @@
+package br.uff.ic.grupo6.banco.unitarios;
+
+import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Dinheiro;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes Unitários - Dinheiro em centavos")
+public class DinheiroUnitarioTest {
+
+    @Test
+    @DisplayName("Deve converter reais e DECIMAL do banco para centavos sem erro de arredondamento")
+    public void deveConverterParaCentavos() {
+        assertEquals(30, Dinheiro.centavos(0.1 + 0.2));
+        assertEquals(12345, Dinheiro.centavos(new BigDecimal("123.45")));
+        assertEquals(new BigDecimal("123.45"), Dinheiro.decimal(12345));
+        assertEquals(123.45, Dinheiro.reais(12345));
+    }
+
+    @Test
+    @DisplayName("Deve sacar o saldo exato depois de depósitos com centavos")
+    public void deveSacarSaldoExatoDepoisDeDepositosComCentavos() {
+        Conta conta = new Conta("0001", "12345");
+        for (int i = 0; i < 10; i++) {
+            conta.depositar(0.10);
+        }
+
+        assertEquals(100, conta.getSaldoCentavos());
+        assertTrue(conta.sacar(1.00));
+        assertEquals(0, conta.getSaldoCentavos());
+    }
+}
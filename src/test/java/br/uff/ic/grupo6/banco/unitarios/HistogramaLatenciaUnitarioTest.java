@@ -0,0 +1,51 @@
+package br.uff.ic.grupo6.banco.unitarios;
+
+import br.uff.ic.grupo6.banco.metricas.HistogramaLatencia;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários do HistogramaLatencia.
+ */
+class HistogramaLatenciaUnitarioTest {
+
+    @Test
+    @DisplayName("Percentis devem ficar a menos de 3% do valor exato")
+    void deveCalcularPercentisComErroRelativoPequeno() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        // 1 ms, 2 ms, ..., 1000 ms
+        for (int i = 1; i <= 1000; i++) {
+            histograma.registrar(i * 1_000_000L);
+        }
+
+        assertEquals(500_000_000L, histograma.getPercentilNanos(0.50), 500_000_000L * 0.03);
+        assertEquals(990_000_000L, histograma.getPercentilNanos(0.99), 990_000_000L * 0.03);
+        assertEquals(1_000_000_000L, histograma.getPercentilNanos(1.0));
+        assertEquals(1000, histograma.getTotal());
+        assertEquals(1_000_000_000L, histograma.getMaximoNanos());
+    }
+
+    @Test
+    @DisplayName("Contagem até um limite deve incluir só os valores abaixo dele")
+    void deveContarValoresAteOLimite() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        histograma.registrar(3_000_000L);
+        histograma.registrar(8_000_000L);
+        histograma.registrar(40_000_000L);
+
+        assertEquals(0, histograma.contarAte(1_000_000L));
+        assertEquals(2, histograma.contarAte(10_000_000L));
+        assertEquals(3, histograma.contarAte(60_000_000_000L));
+    }
+
+    @Test
+    @DisplayName("Histograma vazio deve ter percentil zero")
+    void deveRetornarZeroSemRegistros() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+
+        assertEquals(0, histograma.getPercentilNanos(0.99));
+        assertEquals(0, histograma.getTotal());
+    }
+}
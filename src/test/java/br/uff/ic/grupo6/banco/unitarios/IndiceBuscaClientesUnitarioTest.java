@@ -0,0 +1,136 @@
+package br.uff.ic.grupo6.banco.unitarios;
+
+import br.uff.ic.grupo6.banco.dao.IndiceBuscaClientes;
+import br.uff.ic.grupo6.banco.model.Cliente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários do índice de busca de clientes, carregado de uma lista em
+ * memória no lugar do banco.
+ */
+class IndiceBuscaClientesUnitarioTest {
+
+    private final List<Cliente> noBanco = new ArrayList<>();
+    private final AtomicInteger cargas = new AtomicInteger();
+    private final AtomicLong agora = new AtomicLong();
+    private IndiceBuscaClientes indice;
+
+    private void cadastrarNoBanco(int id, String nome, String cpf) {
+        Cliente cliente = new Cliente();
+        cliente.setId(id);
+        cliente.setNome(nome);
+        cliente.setCpf(cpf);
+        cliente.setEmail(id + "@banco.com");
+        noBanco.add(cliente);
+    }
+
+    private List<String> nomes(String termo) throws Exception {
+        return indice.buscar(termo, 10).stream().map(Cliente::getNome).collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void setup() {
+        cadastrarNoBanco(1, "Maria Silva", "11122233344");
+        cadastrarNoBanco(2, "João Mariano", "11199988877");
+        cadastrarNoBanco(3, "Ana Maria Souza", "55566677788");
+        cadastrarNoBanco(4, "Pedro Santos", "22233344455");
+        indice = new IndiceBuscaClientes(() -> {
+            cargas.incrementAndGet();
+            return new ArrayList<>(noBanco);
+        }, 60_000, agora::get);
+    }
+
+    @Test
+    @DisplayName("Busca deve ignorar acentos e ordenar: início do nome, início de palavra, meio")
+    void deveOrdenarPorRelevancia() throws Exception {
+        assertEquals(List.of("Maria Silva", "Ana Maria Souza", "João Mariano"), nomes("MARI"));
+        assertEquals(List.of("João Mariano"), nomes("joao"));
+        assertEquals(List.of("Ana Maria Souza"), nomes("a maria s"));
+        assertEquals(List.of("João Mariano", "Maria Silva"), nomes("111"));
+        assertEquals(List.of("Maria Silva"), nomes("111.222.333-44"));
+        assertTrue(nomes("xyz").isEmpty());
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    @DisplayName("Cadastro, edição e exclusão devem atualizar o índice sem recarregar")
+    void deveAtualizarIncrementalmente() throws Exception {
+        indice.adicionar(9, "Ignorado antes da carga", "99999999999", null);
+        indice.carregar();
+        assertTrue(nomes("ignorado").isEmpty());
+
+        indice.adicionar(5, "Mariana Costa", "33344455566", null);
+        indice.atualizar(4, "Pedro Mariz", "novo@banco.com");
+        indice.remover(1);
+
+        assertEquals(List.of("Mariana Costa", "Ana Maria Souza", "João Mariano", "Pedro Mariz"), nomes("mari"));
+        assertEquals(List.of("Pedro Mariz"), nomes("22233"));
+        assertTrue(nomes("santos").isEmpty());
+        assertEquals(1, cargas.get());
+
+        // Depois do tempo de vida o índice volta a refletir o banco
+        agora.addAndGet(60_000);
+        assertEquals(List.of("Pedro Santos"), nomes("santos"));
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @DisplayName("Recarga deve deixar as buscas no índice anterior e manter as alterações feitas durante a carga")
+    void deveRecarregarSemBloquearEManterAlteracoes() throws Exception {
+        CountDownLatch lendoBanco = new CountDownLatch(1);
+        CountDownLatch liberarBanco = new CountDownLatch(1);
+        indice = new IndiceBuscaClientes(() -> {
+            List<Cliente> copia = new ArrayList<>(noBanco);
+            if (cargas.incrementAndGet() == 2) {
+                // A segunda carga leu o banco antes do cadastro abaixo
+                lendoBanco.countDown();
+                try {
+                    liberarBanco.await();
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+            }
+            return copia;
+        }, 60_000, agora::get);
+        indice.carregar();
+
+        agora.addAndGet(60_000);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<String>> recarga = executor.submit(() -> nomes("santos"));
+            assertTrue(lendoBanco.await(5, TimeUnit.SECONDS));
+
+            // Durante a carga: a busca não espera e o cadastro/exclusão valem já
+            cadastrarNoBanco(5, "Mariana Costa", "33344455566");
+            indice.adicionar(5, "Mariana Costa", "33344455566", null);
+            indice.remover(4);
+            assertEquals(List.of("Maria Silva", "Mariana Costa", "Ana Maria Souza", "João Mariano"), nomes("mari"));
+            assertTrue(nomes("santos").isEmpty());
+
+            liberarBanco.countDown();
+            assertTrue(recarga.get(5, TimeUnit.SECONDS).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+        // O índice novo não tinha o cliente 5 nem sabia da exclusão: as duas foram refeitas nele
+        assertEquals(List.of("Mariana Costa"), nomes("costa"));
+        assertTrue(nomes("pedro").isEmpty());
+        assertEquals(2, cargas.get());
+    }
+}
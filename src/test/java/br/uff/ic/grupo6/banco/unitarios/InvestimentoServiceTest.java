@@ -2,6 +2,7 @@ package br.uff.ic.grupo6.banco.unitarios;
 
 import br.uff.ic.grupo6.banco.dao.ContaDAO;
 import br.uff.ic.grupo6.banco.dao.InvestimentoDAO;
+import br.uff.ic.grupo6.banco.dao.SaldoInsuficienteException;
 import br.uff.ic.grupo6.banco.model.Investimento;
 import br.uff.ic.grupo6.banco.service.InvestimentoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
@@ -168,6 +169,18 @@ class InvestimentoServiceTest {
 		});
 	}
 
+	@Test
+	@DisplayName("Deve lançar ValidationException quando o débito condicional no banco for recusado")
+	void realizarInvestimento_SaldoConsumidoPorOutraSessao_LancaException() throws SQLException {
+		// Saldo da sessão (1000) parecia suficiente, mas o banco já não tinha saldo
+		when(contaDAO.realizarInvestimento(1, "SELIC", 500.0)).thenThrow(new SaldoInsuficienteException(1));
+
+		ValidationException exception = assertThrows(ValidationException.class, () -> {
+			service.realizarInvestimento(1, "SELIC", 500.0, 1000.0);
+		});
+		assertEquals("Saldo insuficiente para realizar o investimento.", exception.getMessage());
+	}
+
 	// 4. TESTES DE BUSCA (Extrato de Investimentos)
 
 	@Test
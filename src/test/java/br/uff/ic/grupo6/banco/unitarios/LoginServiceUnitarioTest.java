@@ -17,7 +17,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.sql.SQLException;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 
 /**
@@ -181,24 +180,26 @@ class LoginServiceUnitarioTest {
     @Test
     @DisplayName("TUM-33: Funcionalidade Lembrar-me - Geração de Token")
     void tum33_gerarTokenLembrarMe() throws Exception {
-        // 1. Configurar o Mock: O método salvarTokenLembrarMe não retorna nada,
-        //    apenas garantimos que não lança exceção.
-        Mockito.doNothing().when(usuarioDAO).salvarTokenLembrarMe(anyInt(), anyString());
+        // 1. Cenário: cliente que acabou de se autenticar
+        Cliente cliente = criarMockCliente(CLIENTE_CPF_OK, CLIENTE_SENHA_OK);
+        cliente.setLogin(CLIENTE_CPF_OK);
 
         // 2. Executar o método em teste
-        int idUsuario = 15;
         String tokenGerado = assertDoesNotThrow(
-            () -> loginService.gerarTokenLembrarMe(idUsuario),
+            () -> loginService.gerarTokenLembrarMe(cliente),
             "Não deveria lançar exceção ao gerar o token."
         );
 
-        // 3. Verificar o resultado: O token deve ser uma String não vazia (UUID)
+        // 3. Verificar o resultado: O token deve ser uma String não vazia (assinada)
         assertNotNull(tokenGerado, "O token gerado não deve ser nulo.");
         assertFalse(tokenGerado.isEmpty(), "O token gerado não deve ser vazio.");
+        assertFalse(tokenGerado.contains(CLIENTE_CPF_OK), "O token não deve levar o CPF.");
+        Mockito.verifyNoInteractions(usuarioDAO); // Gerar não grava nada no banco
 
-        // 4. Verificar interação com o mock: Deve chamar o método salvarTokenLembrarMe
-        //    exatamente uma vez com o ID correto e o token gerado (ou seja, não nulo/vazio)
-        Mockito.verify(usuarioDAO).salvarTokenLembrarMe(idUsuario, tokenGerado);
+        // 4. Verificar a leitura: o token só leva o ID; o CPF vem do cadastro
+        Mockito.when(usuarioDAO.buscarPorId(10)).thenReturn(cliente);
+        assertEquals(CLIENTE_CPF_OK, loginService.buscarCpfPorToken(tokenGerado));
+        Mockito.verify(usuarioDAO).buscarPorId(10);
     }
 
     /*
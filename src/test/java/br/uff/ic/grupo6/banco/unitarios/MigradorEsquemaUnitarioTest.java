@@ -0,0 +1,115 @@
+package br.uff.ic.grupo6.banco.unitarios;
+
+import br.uff.ic.grupo6.banco.dao.MigradorEsquema;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários do MigradorEsquema, com a conexão simulada (mock).
+ */
+class MigradorEsquemaUnitarioTest {
+
+    @Test
+    @DisplayName("Script deve ser separado em comandos, sem os comentários")
+    void deveSepararComandosDoScript() {
+        String script = "-- comentário\n"
+                + "CREATE INDEX a ON T (x);\n"
+                + "\n"
+                + "CREATE INDEX b\n"
+                + "    ON T (y, z);\n";
+
+        List<String> comandos = MigradorEsquema.separarComandos(script);
+
+        assertEquals(List.of("CREATE INDEX a ON T (x)", "CREATE INDEX b ON T (y, z)"), comandos);
+    }
+
+    @Test
+    @DisplayName("Migrações do WAR devem estar listadas no índice em ordem de versão")
+    void deveListarMigracoesDoIndice() throws Exception {
+        List<String> migracoes = new MigradorEsquema().listarMigracoes();
+
+        assertFalse(migracoes.isEmpty());
+        assertEquals("001_indices_extrato.sql", migracoes.get(0));
+    }
+
+    private Connection conexao;
+    private Statement statement;
+    private PreparedStatement registro;
+    private PreparedStatement situacao;
+
+    /**
+     * Conexão simulada com SCHEMA_VERSAO contendo as versões informadas.
+     */
+    private void simularVersoes(String situacaoDasVersoes, int... versoes) throws Exception {
+        conexao = mock(Connection.class);
+        statement = mock(Statement.class);
+        PreparedStatement consulta = mock(PreparedStatement.class);
+        registro = mock(PreparedStatement.class);
+        situacao = mock(PreparedStatement.class);
+        ResultSet resultado = mock(ResultSet.class);
+
+        when(conexao.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(mock(ResultSet.class));
+        when(conexao.prepareStatement("SELECT versao, situacao FROM SCHEMA_VERSAO")).thenReturn(consulta);
+        when(conexao.prepareStatement(startsWith("INSERT INTO SCHEMA_VERSAO"))).thenReturn(registro);
+        when(conexao.prepareStatement(startsWith("UPDATE SCHEMA_VERSAO"))).thenReturn(situacao);
+        when(consulta.executeQuery()).thenReturn(resultado);
+        int[] linha = {-1};
+        when(resultado.next()).thenAnswer(invocacao -> ++linha[0] < versoes.length);
+        when(resultado.getInt("versao")).thenAnswer(invocacao -> versoes[linha[0]]);
+        when(resultado.getString("situacao")).thenReturn(situacaoDasVersoes);
+    }
+
+    @Test
+    @DisplayName("Migração já registrada em SCHEMA_VERSAO não deve ser executada de novo")
+    void deveAplicarSomenteMigracoesPendentes() throws Exception {
+        simularVersoes("APLICADA", 1);
+
+        int aplicadas = new MigradorEsquema().migrar(conexao);
+
+        // Só a versão 1 estava aplicada: todas as outras rodam
+        assertEquals(new MigradorEsquema().listarMigracoes().size() - 1, aplicadas);
+        verify(registro).setInt(1, 2);
+        verify(registro, never()).setInt(1, 1);
+        verify(situacao, atLeastOnce()).setString(1, "APLICADA");
+        verify(statement, never()).execute(contains("idx_transacao_conta_data"));
+        verify(statement).execute(contains("CREATE INDEX idx_usuario_token_lembrar_me"));
+    }
+
+    @Test
+    @DisplayName("Migração que falha no meio deve ficar como FALHOU, sem liberar a versão")
+    void deveRegistrarMigracaoPelaMetade() throws Exception {
+        simularVersoes("APLICADA", 1, 2, 3);
+        // 004 tem dois comandos: o primeiro passa e o segundo falha
+        when(statement.execute(contains("idx_conta_saldo"))).thenThrow(new SQLException("sem espaço"));
+
+        SQLException erro = assertThrows(SQLException.class, () -> new MigradorEsquema().migrar(conexao));
+
+        assertTrue(erro.getMessage().contains("004_indices_listagem_clientes.sql (comando 2 de 2)"));
+        verify(situacao).setString(1, "FALHOU");
+        verify(conexao, never()).prepareStatement(startsWith("DELETE"));
+    }
+
+    @Test
+    @DisplayName("Com uma migração pela metade, nenhuma outra deve ser aplicada")
+    void deveRecusarMigrarDepoisDeFalhaParcial() throws Exception {
+        simularVersoes("FALHOU", 1);
+
+        SQLException erro = assertThrows(SQLException.class, () -> new MigradorEsquema().migrar(conexao));
+
+        assertTrue(erro.getMessage().contains("Migração 1 está como FALHOU"));
+        verify(conexao, never()).prepareStatement(startsWith("INSERT INTO SCHEMA_VERSAO"));
+        verify(statement, never()).execute(contains("CREATE INDEX"));
+    }
+}
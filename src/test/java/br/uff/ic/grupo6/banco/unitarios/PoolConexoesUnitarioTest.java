@@ -0,0 +1,116 @@
+package br.uff.ic.grupo6.banco.unitarios;
+
+import br.uff.ic.grupo6.banco.dao.EstatisticasPool;
+import br.uff.ic.grupo6.banco.dao.PoolConexoes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários do PoolConexoes, usando conexões simuladas (mocks) no lugar
+ * do MySQL.
+ */
+class PoolConexoesUnitarioTest {
+
+    private final AtomicInteger conexoesAbertas = new AtomicInteger();
+    private PoolConexoes pool;
+
+    private Connection novaConexaoMock() throws SQLException {
+        conexoesAbertas.incrementAndGet();
+        Connection conexao = mock(Connection.class);
+        when(conexao.getAutoCommit()).thenReturn(true);
+        when(conexao.isValid(anyInt())).thenReturn(true);
+        return conexao;
+    }
+
+    @AfterEach
+    void encerrar() {
+        if (pool != null) {
+            pool.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Conexão fechada deve voltar ao pool e ser reutilizada")
+    void deveReutilizarConexaoDevolvida() throws Exception {
+        pool = new PoolConexoes(this::novaConexaoMock, 0, 2, 60000, 0, 1000);
+
+        Connection primeira = pool.obterConexao();
+        primeira.close();
+        Connection segunda = pool.obterConexao();
+        segunda.close();
+
+        assertEquals(1, conexoesAbertas.get());
+        EstatisticasPool estatisticas = pool.getEstatisticas();
+        assertEquals(2, estatisticas.getAquisicoes());
+        assertEquals(0, estatisticas.getAtivas());
+        assertEquals(1, estatisticas.getOciosas());
+    }
+
+    @Test
+    @DisplayName("Pool esgotado deve lançar SQLTimeoutException após o timeout de aquisição")
+    void deveLancarTimeoutQuandoPoolEsgotado() throws Exception {
+        pool = new PoolConexoes(this::novaConexaoMock, 0, 1, 60000, 0, 50);
+
+        Connection unica = pool.obterConexao();
+
+        assertThrows(SQLTimeoutException.class, () -> pool.obterConexao());
+        assertEquals(1, pool.getEstatisticas().getTimeouts());
+        assertEquals(1, pool.getEstatisticas().getAtivas());
+
+        unica.close();
+        pool.obterConexao().close();
+    }
+
+    @Test
+    @DisplayName("Transação deixada aberta deve ser desfeita ao devolver a conexão")
+    void deveDesfazerTransacaoAbertaAoDevolver() throws Exception {
+        Connection real = novaConexaoMock();
+        when(real.getAutoCommit()).thenReturn(false);
+        pool = new PoolConexoes(() -> real, 0, 1, 60000, 0, 1000);
+
+        pool.obterConexao().close();
+
+        verify(real).rollback();
+        verify(real).setAutoCommit(true);
+        verify(real, never()).close();
+    }
+
+    @Test
+    @DisplayName("Conexão que já estava fechada deve ser descartada na devolução")
+    void deveDescartarConexaoQuebrada() throws Exception {
+        pool = new PoolConexoes(() -> {
+            Connection conexao = novaConexaoMock();
+            when(conexao.isClosed()).thenReturn(true);
+            return conexao;
+        }, 0, 1, 60000, 0, 1000);
+
+        pool.obterConexao().close();
+        pool.obterConexao().close();
+
+        assertEquals(2, conexoesAbertas.get());
+        assertEquals(2, pool.getEstatisticas().getDescartadas());
+    }
+
+    @Test
+    @DisplayName("Usar a conexão depois de devolvida deve lançar SQLException")
+    void naoDevePermitirUsoAposDevolucao() throws Exception {
+        pool = new PoolConexoes(this::novaConexaoMock, 0, 1, 60000, 0, 1000);
+
+        Connection conexao = pool.obterConexao();
+        conexao.close();
+        conexao.close(); // fechar duas vezes não devolve duas vezes
+
+        assertTrue(conexao.isClosed());
+        assertThrows(SQLException.class, () -> conexao.prepareStatement("SELECT 1"));
+        assertEquals(0, pool.getEstatisticas().getAtivas());
+    }
+}
@@ -1,8 +1,10 @@
 package br.uff.ic.grupo6.banco.unitarios;
 
 import br.uff.ic.grupo6.banco.controller.SaqueServlet;
+import br.uff.ic.grupo6.banco.controller.UsuarioAtual;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.SessaoUsuario;
 import br.uff.ic.grupo6.banco.model.Transacao;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
@@ -59,7 +61,9 @@ class SaqueServletUnitarioTest {
 
     private void mockSessaoValida() {
         when(request.getSession()).thenReturn(session);
-        when(session.getAttribute("usuarioLogado")).thenReturn(clienteLogado);
+        when(session.getAttribute("usuarioLogado")).thenReturn(SessaoUsuario.de(clienteLogado));
+        // Cliente já carregado nesta requisição (evita ir ao banco)
+        when(request.getAttribute(UsuarioAtual.ATRIBUTO_CLIENTE)).thenReturn(clienteLogado);
     }
 
     // ============================================================
@@ -82,8 +86,8 @@ class SaqueServletUnitarioTest {
         // Verifica chamada ao serviço
         verify(transacaoService).realizarSaque(contaCliente, 100.00);
 
-        // Verifica atualização do modelo em memória (sessão)
-        assertEquals(900.0, contaCliente.getSaldo(), "Saldo na sessão deve ser atualizado");
+        // Verifica atualização do cliente carregado na requisição (mostrado no comprovante)
+        assertEquals(900.0, contaCliente.getSaldo(), "Saldo do comprovante deve ser atualizado");
 
         // Verifica setAttribute e forward
         verify(request).setAttribute("comprovante", transacaoSucesso);
@@ -0,0 +1,63 @@
+package br.uff.ic.grupo6.banco.unitarios;
+
+import br.uff.ic.grupo6.banco.service.TokenLembrarMe;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários do token "Lembrar-me" assinado, com um relógio controlado
+ * pelo teste.
+ */
+class TokenLembrarMeUnitarioTest {
+
+    private final AtomicLong agora = new AtomicLong(1_700_000_000_000L);
+    private final TokenLembrarMe tokens = new TokenLembrarMe("segredo-de-teste".getBytes(StandardCharsets.UTF_8),
+            agora::get);
+
+    @Test
+    @DisplayName("Token adulterado ou assinado com outra chave deve ser recusado")
+    void deveRecusarTokenAdulterado() {
+        String token = tokens.gerar(10);
+        assertEquals(10, tokens.validar(token));
+        assertFalse(token.contains("12345678900")); // Nenhum dado do cadastro no cookie
+
+        assertNull(tokens.validar(token.replace("v2.10.", "v2.11.")));
+        assertNull(tokens.validar("v2.10.0.99999999999999.assinatura"));
+        assertNull(tokens.validar("v1.10.12345678900.0.99999999999999.assinatura")); // Formato com o CPF
+        assertNull(new TokenLembrarMe("outra-chave".getBytes(StandardCharsets.UTF_8), agora::get).validar(token));
+        assertNull(tokens.validar("3f2504e0-4f89-11d3-9a0c-0305e82c3301")); // Formato antigo (UUID)
+    }
+
+    @Test
+    @DisplayName("Token deve expirar depois de 30 dias")
+    void deveExpirarToken() {
+        String token = tokens.gerar(10);
+
+        agora.addAndGet(TimeUnit.SECONDS.toMillis(TokenLembrarMe.VALIDADE_SEGUNDOS) - 1);
+        assertNotNull(tokens.validar(token));
+        agora.incrementAndGet();
+        assertNull(tokens.validar(token));
+    }
+
+    @Test
+    @DisplayName("Revogação deve recusar só os tokens emitidos antes dela")
+    void deveRevogarTokensAnteriores() {
+        String antigo = tokens.gerar(10);
+        String outroUsuario = tokens.gerar(11);
+
+        agora.incrementAndGet();
+        tokens.revogar(10);
+        agora.incrementAndGet();
+        String novo = tokens.gerar(10);
+
+        assertNull(tokens.validar(antigo));
+        assertEquals(10, tokens.validar(novo));
+        assertEquals(11, tokens.validar(outroUsuario));
+    }
+}
@@ -1,9 +1,13 @@
 package br.uff.ic.grupo6.banco.unitarios;
 
 import br.uff.ic.grupo6.banco.dao.ContaDAO;
+import br.uff.ic.grupo6.banco.dao.SaldoInsuficienteException;
+import br.uff.ic.grupo6.banco.dao.TransacaoDAO;
 import br.uff.ic.grupo6.banco.dao.UsuarioDAO;
 import br.uff.ic.grupo6.banco.model.Cliente;
 import br.uff.ic.grupo6.banco.model.Conta;
+import br.uff.ic.grupo6.banco.model.Pagina;
+import br.uff.ic.grupo6.banco.model.Transacao;
 import br.uff.ic.grupo6.banco.service.TransacaoService;
 import br.uff.ic.grupo6.banco.service.exception.ValidationException;
 
@@ -15,6 +19,9 @@ import org.mockito.Mock;
 
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +31,7 @@ class TransacaoServiceUnitarioTest {
 
     @Mock private ContaDAO contaDAO;
     @Mock private UsuarioDAO usuarioDAO;
+    @Mock private TransacaoDAO transacaoDAO;
 
     @InjectMocks
     private TransacaoService service;
@@ -39,7 +47,7 @@ class TransacaoServiceUnitarioTest {
 
         contaOrigem = mock(Conta.class);
         when(contaOrigem.getId()).thenReturn(1);
-        when(contaOrigem.getSaldo()).thenReturn(3000.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(300000L);
         when(contaOrigem.getNumero()).thenReturn("12345");
 
         clienteOrigem = mock(Cliente.class);
@@ -102,7 +110,7 @@ class TransacaoServiceUnitarioTest {
     @Test
     @DisplayName("Saldo insuficiente deve lançar erro")
     void deveLancarErroQuandoSaldoInsuficiente() {
-        when(contaOrigem.getSaldo()).thenReturn(100.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(10000L);
 
         ValidationException ex = assertThrows(
                 ValidationException.class,
@@ -112,6 +120,26 @@ class TransacaoServiceUnitarioTest {
         assertEquals("Saldo insuficiente", ex.getMessage());
     }
 
+    // ============================================================
+    //                  TESTES DE IDEMPOTÊNCIA
+    // ============================================================
+
+    @Test
+    @DisplayName("Reenvio do saque com a mesma chave deve devolver o comprovante sem ir ao DAO")
+    void deveDevolverComprovanteDoSaqueRepetidoSemChamarDAO() throws Exception {
+        String chave = java.util.UUID.randomUUID().toString();
+        Transacao recibo = new Transacao();
+        when(contaDAO.realizarSaque(1, 100.0, chave)).thenReturn(recibo);
+
+        assertSame(recibo, service.realizarSaque(contaOrigem, 100.0, chave));
+        // O reenvio passaria nas validações mesmo sem saldo: o comprovante vem antes delas
+        when(contaOrigem.getSaldoCentavos()).thenReturn(0L);
+        assertSame(recibo, service.realizarSaque(contaOrigem, 100.0, chave));
+
+        verify(contaDAO, times(1)).realizarSaque(1, 100.0, chave);
+        assertThrows(ValidationException.class, () -> service.realizarDeposito(1, 10.0, "chave inválida"));
+    }
+
     // ============================================================
     //                   TESTES SOBRE O DESTINO
     // ============================================================
@@ -146,8 +174,10 @@ class TransacaoServiceUnitarioTest {
         );
 
         assertEquals("Conta de destino nao pode ser a mesma de origem", ex.getMessage());
+        // A busca do destinatário traz conta e titular juntos
         verify(contaDAO).buscarContaPorAgenciaENumeroDaConta("1111", "56789");
-        verifyNoInteractions(usuarioDAO);
+        verify(usuarioDAO).buscarClientePorIdConta(1);
+        verifyNoMoreInteractions(contaDAO, usuarioDAO);
     }
 
     @Test
@@ -179,7 +209,7 @@ class TransacaoServiceUnitarioTest {
     void deveLancarErroQuandoValorAcimaDoLimite() throws Exception {
 
         // garante saldo suficiente para não cair na regra de saldo insuficiente
-        when(contaOrigem.getSaldo()).thenReturn(10000.0);
+        when(contaOrigem.getSaldoCentavos()).thenReturn(1000000L);
 
         when(contaDAO.buscarContaPorAgenciaENumeroDaConta("1111", "56789"))
                 .thenReturn(contaDestino);
@@ -267,4 +297,76 @@ class TransacaoServiceUnitarioTest {
                 "Nao e permitido transferir para Contas Salario (iniciadas com 9).",
                 ex.getMessage());
     }
+
+    // ============================================================
+    //              TESTES DE DÉBITO CONDICIONAL NO BANCO
+    // ============================================================
+
+    @Test
+    @DisplayName("Saque recusado pelo banco deve virar erro de saldo insuficiente")
+    void deveLancarErroQuandoBancoRecusaDebitoDoSaque() throws Exception {
+        // O saldo da sessão (3000) cobre o saque, mas outra sessão já gastou o saldo
+        when(contaDAO.realizarSaque(1, 100.0)).thenThrow(new SaldoInsuficienteException(1));
+
+        ValidationException ex = assertThrows(
+                ValidationException.class,
+                () -> service.realizarSaque(contaOrigem, 100.0)
+        );
+
+        assertEquals("Saldo insuficiente para realizar o saque.", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Transferência recusada pelo banco deve virar erro de saldo insuficiente")
+    void deveLancarErroQuandoBancoRecusaDebitoDaTransferencia() throws Exception {
+        when(contaDAO.realizarTransferencia(1, 2, 500.0)).thenThrow(new SaldoInsuficienteException(1));
+
+        ValidationException ex = assertThrows(
+                ValidationException.class,
+                () -> service.realizarTransferencia(1, 2, 500.0)
+        );
+
+        assertEquals("Saldo insuficiente", ex.getMessage());
+    }
+
+    // ============================================================
+    //              TESTES DE PAGINAÇÃO DO EXTRATO
+    // ============================================================
+
+    private Transacao transacao(int id, LocalDateTime data) {
+        Transacao t = new Transacao();
+        t.setId(id);
+        t.setDataTransacao(data);
+        return t;
+    }
+
+    @Test
+    @DisplayName("Cursor da página deve apontar para a última transação retornada")
+    void deveGerarCursorQueContinuaDaUltimaTransacao() throws Exception {
+        LocalDateTime data = LocalDateTime.of(2024, 5, 10, 14, 30);
+        List<Transacao> tresLinhas = new ArrayList<>(List.of(
+                transacao(30, data), transacao(20, data), transacao(10, data.minusDays(1))));
+        when(transacaoDAO.buscarPaginaTransacoes(1, null, null, null, 0, 3)).thenReturn(tresLinhas);
+        when(transacaoDAO.buscarPaginaTransacoes(1, null, null, data, 20, 3)).thenReturn(new ArrayList<>());
+
+        Pagina<Transacao> primeira = service.buscarExtrato(1, null, null, null, 2);
+        Pagina<Transacao> segunda = service.buscarExtrato(1, null, null, primeira.getProximoCursor(), 2);
+
+        assertEquals(2, primeira.getItens().size());
+        assertTrue(primeira.isTemProxima());
+        assertFalse(segunda.isTemProxima());
+        verify(transacaoDAO).buscarPaginaTransacoes(1, null, null, data, 20, 3);
+    }
+
+    @Test
+    @DisplayName("Cursor adulterado deve ser recusado sem consultar o banco")
+    void deveRecusarCursorInvalido() throws Exception {
+        ValidationException ex = assertThrows(
+                ValidationException.class,
+                () -> service.buscarExtrato(1, null, null, "nao-e-um-cursor", 50)
+        );
+
+        assertEquals("Pagina do extrato invalida.", ex.getMessage());
+        verifyNoInteractions(transacaoDAO);
+    }
 }